@@ -18,12 +18,15 @@
 
 import io.axoniq.axonserver.grpc.control.NodeInfo;
 import org.axonframework.axonserver.connector.event.util.EventCipher;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.VirtualThreadFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.lang.management.ManagementFactory;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ThreadFactory;
 import java.util.stream.Collectors;
 
 /**
@@ -92,6 +95,11 @@ public class AxonServerConfiguration {
      */
     private int queryThreads = 10;
 
+    /**
+     * Whether commands and queries are executed on virtual threads, if supported by the JVM
+     */
+    private boolean virtualThreads = false;
+
     /**
      * Interval (in ms.) application sends status updates on event processors to AxonServer
      */
@@ -248,6 +256,25 @@ public void setQueryThreads(int queryThreads) {
         this.queryThreads = queryThreads;
     }
 
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Creates the ThreadFactory used to create threads with given {@code name} for executing commands or queries.
+     * Creates virtual threads if {@link #isVirtualThreads()} is {@code true} and the JVM supports them.
+     *
+     * @param name the name of the threads to create
+     * @return a ThreadFactory creating threads with given {@code name}
+     */
+    public ThreadFactory threadFactory(String name) {
+        return virtualThreads ? new VirtualThreadFactory(name) : new AxonThreadFactory(name);
+    }
+
     public int getProcessorsNotificationRate() {
         return processorsNotificationRate;
     }
@@ -385,6 +412,11 @@ public Builder clientId(String clientId) {
             instance.setClientId(clientId);
             return this;
         }
+
+        public Builder virtualThreads() {
+            instance.setVirtualThreads(true);
+            return this;
+        }
     }
 
     public static Builder builder() {
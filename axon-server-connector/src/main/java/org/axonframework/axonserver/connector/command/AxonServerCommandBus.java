@@ -36,7 +36,6 @@
 import org.axonframework.commandhandling.GenericCommandResultMessage;
 import org.axonframework.commandhandling.distributed.CommandDispatchException;
 import org.axonframework.commandhandling.distributed.RoutingStrategy;
-import org.axonframework.common.AxonThreadFactory;
 import org.axonframework.common.Registration;
 import org.axonframework.messaging.MessageDispatchInterceptor;
 import org.axonframework.messaging.MessageHandler;
@@ -198,8 +197,9 @@ public void disconnect() {
     protected class CommandRouterSubscriber {
         private final CopyOnWriteArraySet<String> subscribedCommands = new CopyOnWriteArraySet<>();
         private final PriorityBlockingQueue<Command> commandQueue;
-        private final ExecutorService executor = Executors.newFixedThreadPool(configuration.getCommandThreads(),
-                                                                              new AxonThreadFactory("AxonServerCommandReceiver"));
+        private final ExecutorService executor = Executors.newFixedThreadPool(
+                configuration.getCommandThreads(), configuration.threadFactory("AxonServerCommandReceiver")
+        );
         private volatile boolean subscribing;
         private volatile boolean running = true;
 
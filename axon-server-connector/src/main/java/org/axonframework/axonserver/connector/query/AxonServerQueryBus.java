@@ -268,7 +268,9 @@ public void disconnect() {
     class QueryProvider {
         private final ConcurrentMap<QueryDefinition, Set<MessageHandler<? super QueryMessage<?, ?>>>> subscribedQueries = new ConcurrentHashMap<>();
         private final PriorityBlockingQueue<QueryRequest> queryQueue;
-        private final ExecutorService executor = Executors.newFixedThreadPool(configuration.getQueryThreads());
+        private final ExecutorService executor = Executors.newFixedThreadPool(
+                configuration.getQueryThreads(), configuration.threadFactory("AxonServerQueryReceiver")
+        );
         private StreamObserver<QueryProviderOutbound> outboundStreamObserver;
         private volatile boolean subscribing;
         private volatile boolean running = true;
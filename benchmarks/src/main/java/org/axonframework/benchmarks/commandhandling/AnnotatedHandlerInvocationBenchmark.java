@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.commandhandling;
+
+import org.axonframework.commandhandling.AnnotationCommandHandlerAdapter;
+import org.axonframework.commandhandling.CommandHandler;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.eventhandling.AnnotationEventHandlerAdapter;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.messaging.annotation.MetaDataValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+
+/**
+ * Benchmarks the resolution and invocation of annotated command and event handlers, for handlers that only take the
+ * payload as well as handlers that have additional parameters resolved from the message.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AnnotatedHandlerInvocationBenchmark {
+
+    private AnnotationCommandHandlerAdapter<AnnotatedHandler> commandHandlerAdapter;
+    private AnnotationEventHandlerAdapter eventHandlerAdapter;
+    private CommandMessage<?> command;
+    private CommandMessage<?> commandWithParameters;
+    private EventMessage<?> event;
+    private EventMessage<?> eventWithParameters;
+
+    @Setup
+    public void setUp() {
+        AnnotatedHandler handler = new AnnotatedHandler();
+        commandHandlerAdapter = new AnnotationCommandHandlerAdapter<>(handler);
+        eventHandlerAdapter = new AnnotationEventHandlerAdapter(handler);
+        command = asCommandMessage("command");
+        commandWithParameters = asCommandMessage(42).andMetaData(MetaData.with("userId", "user"));
+        event = asEventMessage("event");
+        eventWithParameters = asEventMessage(42L).andMetaData(MetaData.with("userId", "user"));
+    }
+
+    @Benchmark
+    public Object handleCommand() throws Exception {
+        return commandHandlerAdapter.handle(command);
+    }
+
+    @Benchmark
+    public Object handleCommandWithParameters() throws Exception {
+        return commandHandlerAdapter.handle(commandWithParameters);
+    }
+
+    @Benchmark
+    public Object handleEvent() throws Exception {
+        return eventHandlerAdapter.handle(event);
+    }
+
+    @Benchmark
+    public Object handleEventWithParameters() throws Exception {
+        return eventHandlerAdapter.handle(eventWithParameters);
+    }
+
+    @SuppressWarnings("unused")
+    private static class AnnotatedHandler {
+
+        private long handled;
+
+        @CommandHandler
+        public String handle(String command) {
+            return command;
+        }
+
+        @CommandHandler
+        public Integer handle(Integer command, @MetaDataValue("userId") String userId, MetaData metaData) {
+            return command + userId.length() + metaData.size();
+        }
+
+        @CommandHandler
+        public Long handle(Long command) {
+            return command;
+        }
+
+        @EventHandler
+        public void on(String event) {
+            handled++;
+        }
+
+        @EventHandler
+        public void on(Long event, @Timestamp Instant timestamp, @MetaDataValue("userId") String userId) {
+            handled += event + timestamp.getNano() + userId.length();
+        }
+
+        @EventHandler
+        public void on(Integer event) {
+            handled += event;
+        }
+    }
+}
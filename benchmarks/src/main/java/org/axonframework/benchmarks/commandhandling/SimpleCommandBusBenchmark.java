@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.commandhandling;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+
+/**
+ * Benchmarks the dispatching of commands on the {@link SimpleCommandBus}, with and without handler interceptors.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SimpleCommandBusBenchmark {
+
+    private SimpleCommandBus commandBus;
+    private SimpleCommandBus interceptedCommandBus;
+    private CommandMessage<Object> command;
+
+    @Setup
+    public void setUp() {
+        commandBus = SimpleCommandBus.builder().build();
+        commandBus.subscribe(String.class.getName(), CommandMessage::getPayload);
+
+        interceptedCommandBus = SimpleCommandBus.builder().build();
+        interceptedCommandBus.subscribe(String.class.getName(), CommandMessage::getPayload);
+        interceptedCommandBus.registerHandlerInterceptor((unitOfWork, chain) -> {
+            unitOfWork.resources().put("intercepted", Boolean.TRUE);
+            return chain.proceed();
+        });
+        interceptedCommandBus.registerHandlerInterceptor((unitOfWork, chain) -> {
+            unitOfWork.onCommit(u -> CurrentUnitOfWork.isStarted());
+            return chain.proceed();
+        });
+
+        command = asCommandMessage("command");
+    }
+
+    @Benchmark
+    public void dispatch(Blackhole blackhole) {
+        commandBus.dispatch(command, (commandMessage, result) -> blackhole.consume(result));
+    }
+
+    @Benchmark
+    public void dispatchWithHandlerInterceptors(Blackhole blackhole) {
+        interceptedCommandBus.dispatch(command, (commandMessage, result) -> blackhole.consume(result));
+    }
+}
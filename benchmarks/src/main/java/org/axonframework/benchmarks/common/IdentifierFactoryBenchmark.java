@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.common;
+
+import org.axonframework.common.DefaultIdentifierFactory;
+import org.axonframework.common.IdentifierFactory;
+import org.axonframework.common.TimeOrderedIdentifierFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cost of generating identifiers with the {@link IdentifierFactory} implementations provided by the
+ * framework, from a single thread as well as from multiple threads concurrently.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdentifierFactoryBenchmark {
+
+    @Param({"random", "timeOrdered"})
+    private String identifierFactory;
+
+    private IdentifierFactory factory;
+
+    @Setup
+    public void setUp() {
+        factory = createIdentifierFactory(identifierFactory);
+    }
+
+    /**
+     * Creates the {@link IdentifierFactory} with given {@code type}, being either {@code random} or {@code
+     * timeOrdered}.
+     *
+     * @param type the type of IdentifierFactory to create
+     * @return the IdentifierFactory of the given type
+     */
+    public static IdentifierFactory createIdentifierFactory(String type) {
+        switch (type) {
+            case "random":
+                return new DefaultIdentifierFactory();
+            case "timeOrdered":
+                return new TimeOrderedIdentifierFactory();
+            default:
+                throw new IllegalArgumentException("Unknown identifier factory: " + type);
+        }
+    }
+
+    @Benchmark
+    public String generateIdentifier() {
+        return factory.generateIdentifier();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateIdentifierConcurrently() {
+        return factory.generateIdentifier();
+    }
+}
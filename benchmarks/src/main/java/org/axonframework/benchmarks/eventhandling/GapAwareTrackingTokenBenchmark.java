@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.eventhandling;
+
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.TrackingToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the operations on a {@link GapAwareTrackingToken} that are performed for every event read by a tracking
+ * processor, for tokens with an increasing number of gaps.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GapAwareTrackingTokenBenchmark {
+
+    private static final int MAX_GAP_OFFSET = 10_000;
+
+    @Param({"1", "10", "1000"})
+    private int gapCount;
+
+    private GapAwareTrackingToken token;
+    private GapAwareTrackingToken otherToken;
+    private long index;
+    private long gap;
+
+    @Setup
+    public void setUp() {
+        Set<Long> gaps = new TreeSet<>();
+        for (long i = 0; i < gapCount; i++) {
+            gaps.add(i * 2);
+        }
+        index = gapCount * 2L + 1;
+        gap = (gapCount / 2) * 2L;
+        token = GapAwareTrackingToken.newInstance(index, gaps);
+
+        Set<Long> otherGaps = new TreeSet<>();
+        for (long i = 0; i < gapCount; i++) {
+            otherGaps.add(i * 2 + 1);
+        }
+        otherToken = GapAwareTrackingToken.newInstance(index + 1, otherGaps);
+    }
+
+    @Benchmark
+    public GapAwareTrackingToken advanceToNextIndex() {
+        return token.advanceTo(index + 1, MAX_GAP_OFFSET, true);
+    }
+
+    @Benchmark
+    public GapAwareTrackingToken advanceToNextIndexCreatingGaps() {
+        return token.advanceTo(index + 10, MAX_GAP_OFFSET, true);
+    }
+
+    @Benchmark
+    public GapAwareTrackingToken advanceIntoGap() {
+        return token.advanceTo(gap, MAX_GAP_OFFSET, true);
+    }
+
+    @Benchmark
+    public boolean covers() {
+        return token.covers(otherToken);
+    }
+
+    @Benchmark
+    public GapAwareTrackingToken lowerBound() {
+        return token.lowerBound(otherToken);
+    }
+
+    @Benchmark
+    public TrackingToken upperBound() {
+        return token.upperBound(otherToken);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.eventhandling;
+
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventMessageHandler;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.SimpleEventHandlerInvoker;
+import org.axonframework.eventhandling.TrackingEventProcessor;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.HsqlEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the throughput of a {@link TrackingEventProcessor} reading a pre-filled event store from the start of the
+ * stream, backed by either an {@link InMemoryEventStorageEngine} or a {@link JdbcEventStorageEngine} on an embedded
+ * HSQL database. Every invocation starts a new processor with an empty token store and stops it once all events have
+ * been handled, so the reported score is expressed in events handled per time unit.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrackingEventProcessorBenchmark {
+
+    private static final int AGGREGATE_COUNT = 100;
+    private static final int EVENTS_PER_AGGREGATE = 100;
+    private static final int EVENT_COUNT = AGGREGATE_COUNT * EVENTS_PER_AGGREGATE;
+
+    @Param({"inMemory", "jdbc"})
+    private String storageEngine;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private EmbeddedEventStore eventStore;
+
+    @Setup
+    public void setUp() throws SQLException {
+        EventStorageEngine engine = "jdbc".equals(storageEngine) ? createJdbcStorageEngine()
+                : new InMemoryEventStorageEngine();
+        for (int aggregate = 0; aggregate < AGGREGATE_COUNT; aggregate++) {
+            List<EventMessage<?>> events = new ArrayList<>(EVENTS_PER_AGGREGATE);
+            for (int sequenceNumber = 0; sequenceNumber < EVENTS_PER_AGGREGATE; sequenceNumber++) {
+                events.add(new GenericDomainEventMessage<>("benchmark", "aggregate" + aggregate, sequenceNumber,
+                                                           "event" + sequenceNumber));
+            }
+            engine.appendEvents(events);
+        }
+        eventStore = EmbeddedEventStore.builder().storageEngine(engine).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventStore.shutDown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENT_COUNT)
+    public void processAllEvents() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(EVENT_COUNT);
+        EventMessageHandler eventHandler = event -> {
+            latch.countDown();
+            return null;
+        };
+        TrackingEventProcessor processor =
+                TrackingEventProcessor.builder()
+                                      .name("benchmark")
+                                      .eventHandlerInvoker(SimpleEventHandlerInvoker.builder()
+                                                                                    .eventHandlers(eventHandler)
+                                                                                    .build())
+                                      .messageSource(eventStore)
+                                      .tokenStore(new InMemoryTokenStore())
+                                      .transactionManager(NoTransactionManager.INSTANCE)
+                                      .trackingEventProcessorConfiguration(
+                                              TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                                                 .andBatchSize(batchSize)
+                                      )
+                                      .build();
+        processor.start();
+        try {
+            if (!latch.await(1, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Processor did not handle all events within a minute");
+            }
+        } finally {
+            processor.shutDown();
+        }
+    }
+
+    private EventStorageEngine createJdbcStorageEngine() throws SQLException {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:benchmark");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        JdbcEventStorageEngine engine = JdbcEventStorageEngine.builder()
+                                                              .connectionProvider(dataSource::getConnection)
+                                                              .transactionManager(NoTransactionManager.INSTANCE)
+                                                              .build();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("DROP TABLE IF EXISTS DomainEventEntry").executeUpdate();
+            connection.prepareStatement("DROP TABLE IF EXISTS SnapshotEventEntry").executeUpdate();
+        }
+        engine.createSchema(HsqlEventTableFactory.INSTANCE);
+        return engine;
+    }
+}
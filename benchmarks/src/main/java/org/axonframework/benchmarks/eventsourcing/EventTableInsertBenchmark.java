@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.eventsourcing;
+
+import org.axonframework.common.IdentifierFactory;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.jdbc.HsqlEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.messaging.MetaData;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.axonframework.benchmarks.common.IdentifierFactoryBenchmark.createIdentifierFactory;
+
+/**
+ * Benchmarks the throughput of appending events to the event table of a {@link JdbcEventStorageEngine} on an embedded
+ * HSQL database, using either random or time-ordered event and aggregate identifiers. The event table is either kept
+ * in memory, or is a disk-based table of which only part is cached in memory, which exposes the cost of index
+ * maintenance for random identifiers. Every invocation appends the events of a new aggregate, so the reported score is
+ * expressed in events appended per time unit.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventTableInsertBenchmark {
+
+    private static final int EVENTS_PER_AGGREGATE = 20;
+
+    @Param({"random", "timeOrdered"})
+    private String identifierFactory;
+
+    @Param({"memory", "cached"})
+    private String tableType;
+
+    private IdentifierFactory factory;
+    private JDBCDataSource dataSource;
+    private JdbcEventStorageEngine storageEngine;
+    private Path databaseDirectory;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        factory = createIdentifierFactory(identifierFactory);
+        databaseDirectory = Files.createTempDirectory("axon-benchmark");
+        dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:file:" + databaseDirectory.resolve("events")
+                                  + ";hsqldb.default_table_type=" + tableType);
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        storageEngine = JdbcEventStorageEngine.builder()
+                                              .connectionProvider(dataSource::getConnection)
+                                              .transactionManager(NoTransactionManager.INSTANCE)
+                                              .build();
+        storageEngine.createSchema(HsqlEventTableFactory.INSTANCE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("SHUTDOWN").execute();
+        }
+        try (Stream<Path> files = Files.walk(databaseDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_AGGREGATE)
+    public void appendEvents() {
+        String aggregateIdentifier = factory.generateIdentifier();
+        Instant timestamp = Instant.now();
+        List<EventMessage<?>> events = new ArrayList<>(EVENTS_PER_AGGREGATE);
+        for (int sequenceNumber = 0; sequenceNumber < EVENTS_PER_AGGREGATE; sequenceNumber++) {
+            events.add(new GenericDomainEventMessage<>("benchmark", aggregateIdentifier, sequenceNumber,
+                                                       "event" + sequenceNumber, MetaData.emptyInstance(),
+                                                       factory.generateIdentifier(), timestamp));
+        }
+        storageEngine.appendEvents(events);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.eventsourcing;
+
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.file.FileEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.HsqlEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.messaging.MetaData;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks the throughput of appending events from multiple threads and of reading the events of an aggregate with
+ * the {@link FileEventStorageEngine}, with and without flushing appended events to disk, compared to a {@link
+ * JdbcEventStorageEngine} on an embedded, disk-based HSQL database. Every append invocation appends the events of a
+ * new aggregate, so the reported score is expressed in events per time unit.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FileEventStorageEngineBenchmark {
+
+    private static final int EVENTS_PER_AGGREGATE = 10;
+
+    @Param({"file", "fileWithoutSync", "hsqldb"})
+    private String storageType;
+
+    private Path storageDirectory;
+    private EventStorageEngine storageEngine;
+    private JDBCDataSource dataSource;
+    private String readAggregateIdentifier;
+
+    @Setup
+    public void setUp() throws IOException {
+        storageDirectory = Files.createTempDirectory("axon-benchmark");
+        switch (storageType) {
+            case "file":
+            case "fileWithoutSync":
+                storageEngine = FileEventStorageEngine.builder()
+                                                      .storageDirectory(storageDirectory)
+                                                      .syncOnAppend("file".equals(storageType))
+                                                      .build();
+                break;
+            case "hsqldb":
+                dataSource = new JDBCDataSource();
+                dataSource.setUrl("jdbc:hsqldb:file:" + storageDirectory.resolve("events")
+                                          + ";hsqldb.default_table_type=cached");
+                dataSource.setUser("sa");
+                dataSource.setPassword("");
+                JdbcEventStorageEngine jdbcEventStorageEngine =
+                        JdbcEventStorageEngine.builder()
+                                              .connectionProvider(dataSource::getConnection)
+                                              .transactionManager(NoTransactionManager.INSTANCE)
+                                              .build();
+                jdbcEventStorageEngine.createSchema(HsqlEventTableFactory.INSTANCE);
+                storageEngine = jdbcEventStorageEngine;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown storage type: " + storageType);
+        }
+        readAggregateIdentifier = appendAggregate();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        if (storageEngine instanceof FileEventStorageEngine) {
+            ((FileEventStorageEngine) storageEngine).shutDown();
+        } else {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.prepareStatement("SHUTDOWN").execute();
+            }
+        }
+        try (Stream<Path> files = Files.walk(storageDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_AGGREGATE)
+    public String appendEvents() {
+        return appendAggregate();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_AGGREGATE)
+    public long readAggregate() {
+        return storageEngine.readEvents(readAggregateIdentifier).asStream().count();
+    }
+
+    private String appendAggregate() {
+        String aggregateIdentifier = UUID.randomUUID().toString();
+        Instant timestamp = Instant.now();
+        List<EventMessage<?>> events = new ArrayList<>(EVENTS_PER_AGGREGATE);
+        for (int sequenceNumber = 0; sequenceNumber < EVENTS_PER_AGGREGATE; sequenceNumber++) {
+            events.add(new GenericDomainEventMessage<>("benchmark", aggregateIdentifier, sequenceNumber,
+                                                       "event" + sequenceNumber, MetaData.emptyInstance(),
+                                                       UUID.randomUUID().toString(), timestamp));
+        }
+        storageEngine.appendEvents(events);
+        return aggregateIdentifier;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.messaging;
+
+import org.axonframework.messaging.MetaData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks deriving {@link MetaData} instances of different sizes, as done when correlation data is attached to
+ * messages and when handlers add entries to the MetaData of the messages they send.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MetaDataBenchmark {
+
+    @Param({"2", "8", "64"})
+    private int entryCount;
+
+    private MetaData metaData;
+    private Map<String, Object> additionalEntries;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> entries = new HashMap<>();
+        for (int i = 0; i < entryCount; i++) {
+            entries.put("key" + i, "value" + i);
+        }
+        metaData = MetaData.from(entries);
+        additionalEntries = new HashMap<>();
+        additionalEntries.put("traceId", "trace");
+        additionalEntries.put("correlationId", "correlation");
+    }
+
+    @Benchmark
+    public MetaData addEntry() {
+        return metaData.and("traceId", "trace");
+    }
+
+    @Benchmark
+    public MetaData mergeEntries() {
+        return metaData.mergedWith(additionalEntries);
+    }
+
+    @Benchmark
+    public MetaData removeEntry() {
+        return metaData.withoutKeys(Collections.singleton("key0"));
+    }
+
+    @Benchmark
+    public Object lookupEntry() {
+        return metaData.get("key0");
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.queryhandling;
+
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.queryhandling.GenericSubscriptionQueryMessage;
+import org.axonframework.queryhandling.SimpleQueryUpdateEmitter;
+import org.axonframework.queryhandling.SubscriptionQueryBackpressure;
+import org.axonframework.queryhandling.SubscriptionQueryMessage;
+import org.axonframework.queryhandling.UpdateHandlerRegistration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmarks the fan-out of updates emitted through the {@link SimpleQueryUpdateEmitter} to a configurable number of
+ * active subscription queries, both to all subscriptions and to the single subscription matching a filter.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SubscriptionQueryUpdateEmitterBenchmark {
+
+    private static final int UPDATE_BUFFER_SIZE = 1024;
+
+    @Param({"1", "100", "1000"})
+    private int subscriptionCount;
+
+    private SimpleQueryUpdateEmitter emitter;
+    private List<UpdateHandlerRegistration<Object>> registrations;
+    private List<Disposable> subscriptions;
+    private LongAdder receivedUpdates;
+    private Integer targetedQuery;
+
+    @Setup
+    public void setUp() {
+        emitter = SimpleQueryUpdateEmitter.builder().build();
+        registrations = new ArrayList<>(subscriptionCount);
+        subscriptions = new ArrayList<>(subscriptionCount);
+        receivedUpdates = new LongAdder();
+        for (int i = 0; i < subscriptionCount; i++) {
+            SubscriptionQueryMessage<Integer, String, String> query =
+                    new GenericSubscriptionQueryMessage<>(i, ResponseTypes.instanceOf(String.class),
+                                                          ResponseTypes.instanceOf(String.class));
+            UpdateHandlerRegistration<Object> registration = emitter.registerUpdateHandler(
+                    query, SubscriptionQueryBackpressure.defaultBackpressure(), UPDATE_BUFFER_SIZE
+            );
+            registrations.add(registration);
+            subscriptions.add(registration.getUpdates().subscribe(update -> receivedUpdates.increment()));
+        }
+        targetedQuery = subscriptionCount / 2;
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        registrations.forEach(registration -> registration.getRegistration().cancel());
+    }
+
+    @Benchmark
+    public void emitToAllSubscriptions() {
+        emitter.emit(Integer.class, query -> true, "update");
+    }
+
+    @Benchmark
+    public void emitToSingleSubscription() {
+        emitter.emit(Integer.class, targetedQuery::equals, "update");
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.serialization;
+
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.compression.CompressingSerializer;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization and deserialization of a typical event payload to and from {@code byte[]} with each of
+ * the {@link Serializer} implementations provided by the framework.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializerBenchmark {
+
+    @Param({"xstream", "jackson", "java", "compressedXstream"})
+    private String serializerType;
+
+    private Serializer serializer;
+    private SamplePayload payload;
+    private SerializedObject<byte[]> serializedPayload;
+
+    @Setup
+    @SuppressWarnings("deprecation") // JavaSerializer is deprecated, but still measured for comparison
+    public void setUp() {
+        switch (serializerType) {
+            case "xstream":
+                serializer = XStreamSerializer.builder().build();
+                break;
+            case "jackson":
+                serializer = JacksonSerializer.builder().build();
+                break;
+            case "java":
+                serializer = org.axonframework.serialization.JavaSerializer.builder().build();
+                break;
+            case "compressedXstream":
+                serializer = CompressingSerializer.builder().delegate(XStreamSerializer.builder().build()).build();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown serializer type: " + serializerType);
+        }
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add("item" + i);
+        }
+        payload = new SamplePayload("aggregate-identifier", 42, 1234.5, items);
+        serializedPayload = serializer.serialize(payload, byte[].class);
+    }
+
+    @Benchmark
+    public SerializedObject<byte[]> serialize() {
+        return serializer.serialize(payload, byte[].class);
+    }
+
+    @Benchmark
+    public SamplePayload deserialize() {
+        return serializer.deserialize(serializedPayload);
+    }
+
+    @Benchmark
+    public SamplePayload roundTrip() {
+        return serializer.deserialize(serializer.serialize(payload, byte[].class));
+    }
+
+    /**
+     * Event payload used in the serialization benchmarks. Exposes its properties through getters and setters to
+     * allow serialization by each of the serializers.
+     */
+    public static class SamplePayload implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String identifier;
+        private int quantity;
+        private double amount;
+        private List<String> items;
+
+        @SuppressWarnings("unused")
+        public SamplePayload() {
+        }
+
+        public SamplePayload(String identifier, int quantity, double amount, List<String> items) {
+            this.identifier = identifier;
+            this.quantity = quantity;
+            this.amount = amount;
+            this.items = items;
+        }
+
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        public void setIdentifier(String identifier) {
+            this.identifier = identifier;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+
+        public List<String> getItems() {
+            return items;
+        }
+
+        public void setItems(List<String> items) {
+            this.items = items;
+        }
+    }
+}
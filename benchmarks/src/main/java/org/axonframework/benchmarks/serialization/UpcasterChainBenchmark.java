@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.benchmarks.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.axonframework.eventhandling.EventData;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.serialization.SimpleSerializedType;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.upcasting.event.EventUpcaster;
+import org.axonframework.serialization.upcasting.event.EventUpcasterChain;
+import org.axonframework.serialization.upcasting.event.InitialEventRepresentation;
+import org.axonframework.serialization.upcasting.event.IntermediateEventRepresentation;
+import org.axonframework.serialization.upcasting.event.SingleEventUpcaster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks an {@link EventUpcasterChain} that upcasts the JSON payload of stored events through a configurable number
+ * of revisions, each adding a field to the payload. Every invocation upcasts a batch of events, so the reported score
+ * is expressed in events upcast per time unit.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UpcasterChainBenchmark {
+
+    private static final int EVENT_COUNT = 1000;
+    private static final String PAYLOAD_TYPE = "org.axonframework.benchmarks.SampleEvent";
+
+    @Param({"1", "5", "10"})
+    private int upcasterCount;
+
+    private JacksonSerializer serializer;
+    private EventUpcasterChain upcasterChain;
+    private List<EventData<byte[]>> eventEntries;
+
+    @Setup
+    public void setUp() {
+        serializer = JacksonSerializer.builder().build();
+        List<EventUpcaster> upcasters = new ArrayList<>();
+        for (int revision = 0; revision < upcasterCount; revision++) {
+            upcasters.add(new AddFieldUpcaster(revision));
+        }
+        upcasterChain = new EventUpcasterChain(upcasters);
+
+        eventEntries = new ArrayList<>(EVENT_COUNT);
+        byte[] payload = "{\"identifier\":\"aggregate\",\"quantity\":42}".getBytes(StandardCharsets.UTF_8);
+        byte[] metaData = "{}".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            eventEntries.add(new GenericDomainEventEntry<>("benchmark", "aggregate", i, UUID.randomUUID().toString(),
+                                                           Instant.now(), PAYLOAD_TYPE, "0", payload, metaData));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENT_COUNT)
+    public void upcast(Blackhole blackhole) {
+        upcasterChain.upcast(eventEntries.stream().map(entry -> new InitialEventRepresentation(entry, serializer)))
+                     .forEach(representation -> blackhole.consume(representation.getData(byte[].class).getData()));
+    }
+
+    private static class AddFieldUpcaster extends SingleEventUpcaster {
+
+        private final String revision;
+        private final SimpleSerializedType outputType;
+        private final String fieldName;
+
+        private AddFieldUpcaster(int revision) {
+            this.revision = Integer.toString(revision);
+            this.outputType = new SimpleSerializedType(PAYLOAD_TYPE, Integer.toString(revision + 1));
+            this.fieldName = "field" + revision;
+        }
+
+        @Override
+        protected boolean canUpcast(IntermediateEventRepresentation intermediateRepresentation) {
+            return PAYLOAD_TYPE.equals(intermediateRepresentation.getType().getName())
+                    && revision.equals(intermediateRepresentation.getType().getRevision());
+        }
+
+        @Override
+        protected IntermediateEventRepresentation doUpcast(IntermediateEventRepresentation intermediateRepresentation) {
+            return intermediateRepresentation.upcastPayload(outputType, JsonNode.class,
+                                                            node -> ((ObjectNode) node).put(fieldName, revision));
+        }
+    }
+}
@@ -18,9 +18,14 @@
 
 import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.Registration;
+import org.axonframework.common.caching.Cache;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.common.jpa.EntityManagerProvider;
 import org.axonframework.disruptor.commandhandling.DisruptorCommandBus;
+import org.axonframework.eventsourcing.AggregateCachePreloader;
 import org.axonframework.eventsourcing.AggregateFactory;
+import org.axonframework.eventsourcing.AggregateIdentifierSource;
 import org.axonframework.eventsourcing.EventSourcingRepository;
 import org.axonframework.eventsourcing.GenericAggregateFactory;
 import org.axonframework.eventsourcing.NoSnapshotTriggerDefinition;
@@ -58,6 +63,8 @@
     private final Component<SnapshotTriggerDefinition> snapshotTriggerDefinition;
     private final Component<CommandTargetResolver> commandTargetResolver;
     private final Component<AggregateModel<A>> metaModel;
+    private final Component<Cache> cache;
+    private final Component<AggregateCachePreloader> cachePreloader;
     private final List<Registration> registrations = new ArrayList<>();
     private Configuration parent;
 
@@ -84,6 +91,8 @@ protected AggregateConfigurer(Class<A> aggregate) {
                                                     c -> NoSnapshotTriggerDefinition.INSTANCE);
         aggregateFactory =
                 new Component<>(() -> parent, name("aggregateFactory"), c -> new GenericAggregateFactory<>(aggregate));
+        cache = new Component<>(() -> parent, name("aggregateCache"), c -> null);
+        cachePreloader = new Component<>(() -> parent, name("aggregateCachePreloader"), c -> null);
         repository = new Component<>(
                 () -> parent,
                 "Repository<" + aggregate.getSimpleName() + ">",
@@ -107,6 +116,7 @@ protected AggregateConfigurer(Class<A> aggregate) {
                             .eventStore(c.eventStore())
                             .snapshotTriggerDefinition(snapshotTriggerDefinition.get())
                             .repositoryProvider(c::repository)
+                            .cache(cache.get())
                             .build();
                 });
         commandHandler = new Component<>(() -> parent, "aggregateCommandHandler<" + aggregate.getSimpleName() + ">",
@@ -257,6 +267,50 @@ public AggregateConfigurer<A> configureSnapshotTrigger(
         return this;
     }
 
+    /**
+     * Configures the Cache to use for the repository created for this Aggregate type. Configuring a cache will cause
+     * a {@link org.axonframework.eventsourcing.CachingEventSourcingRepository} to be created.
+     * <p>
+     * Note that this configuration is ignored if a custom repository instance is configured, or when the {@link
+     * DisruptorCommandBus} is used.
+     *
+     * @param cacheBuilder The function creating the Cache to store aggregates in
+     * @return this configurer instance for chaining
+     */
+    public AggregateConfigurer<A> configureCache(Function<Configuration, Cache> cacheBuilder) {
+        cache.update(cacheBuilder);
+        return this;
+    }
+
+    /**
+     * Configures the repository of the Aggregate type under configuration to be warmed up when the configuration
+     * starts. The aggregates provided by the {@link AggregateIdentifierSource} are loaded into the repository's cache
+     * before the Aggregate's command handlers are subscribed to the command bus. At most {@code maximumAggregates}
+     * aggregates are loaded. The {@link TransactionManager} in the configuration, if any, is used to manage the
+     * transaction in which each aggregate is loaded.
+     * <p>
+     * Preloading is only useful when the repository caches the aggregates it loads, for example when a cache has been
+     * configured using {@link #configureCache(Function)}.
+     *
+     * @param identifierSourceBuilder The function creating the source of the identifiers of aggregates to preload
+     * @param maximumAggregates       The maximum number of aggregates to preload
+     * @return this configurer instance for chaining
+     * @see AggregateCachePreloader
+     */
+    public AggregateConfigurer<A> configureCachePreloading(
+            Function<Configuration, AggregateIdentifierSource> identifierSourceBuilder, int maximumAggregates) {
+        cachePreloader.update(c -> AggregateCachePreloader.builder()
+                                                          .repository(repository.get())
+                                                          .identifierSource(identifierSourceBuilder.apply(c))
+                                                          .maximumAggregates(maximumAggregates)
+                                                          .transactionManager(c.getComponent(
+                                                                  TransactionManager.class,
+                                                                  NoTransactionManager::instance
+                                                          ))
+                                                          .build());
+        return this;
+    }
+
     @Override
     public void initialize(Configuration parent) {
         this.parent = parent;
@@ -264,6 +318,10 @@ public void initialize(Configuration parent) {
 
     @Override
     public void start() {
+        AggregateCachePreloader preloader = cachePreloader.get();
+        if (preloader != null) {
+            preloader.preload();
+        }
         registrations.add(commandHandler.get().subscribe(parent.commandBus()));
     }
 
@@ -18,6 +18,8 @@
 
 import org.axonframework.commandhandling.CommandBus;
 import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.ThreadFactoryProvider;
+import org.axonframework.common.caching.Cache;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.eventhandling.EventBus;
 import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
@@ -334,6 +336,18 @@ default Configurer configureQueryUpdateEmitter(
         return registerComponent(QueryUpdateEmitter.class, queryUpdateEmitterBuilder);
     }
 
+    /**
+     * Configures a {@link org.axonframework.queryhandling.CachingQueryBus} caching the responses of queries in the
+     * {@link Cache} provided by given {@code cacheBuilder}. The caching Query Bus decorates the default Query Bus, and
+     * the Query Update Emitter of this configuration is replaced by the emitter of the caching Query Bus, which evicts
+     * cached responses for which an update is emitted before passing the update on to the Query Update Emitter that
+     * was configured before. A custom Query Update Emitter should therefore be configured before invoking this method.
+     *
+     * @param cacheBuilder The builder function for the {@link Cache} in which query responses are stored
+     * @return the current instance of the Configurer, for chaining purposes
+     */
+    Configurer configureQueryCache(Function<Configuration, Cache> cacheBuilder);
+
     /**
      * Configures the given Serializer to use in this configuration. The builder receives the Configuration as input
      * and is expected to return a fully initialized {@link Serializer}
@@ -391,6 +405,29 @@ default Configurer configureResourceInjector(Function<Configuration, ResourceInj
         return registerComponent(ResourceInjector.class, resourceInjectorBuilder);
     }
 
+    /**
+     * Configures the {@link ThreadFactoryProvider} used by the default components of this configuration to create
+     * their threads. This affects the threads of Tracking Event Processors without an explicitly configured {@link
+     * org.axonframework.eventhandling.TrackingEventProcessorConfiguration} and the default Deadline Manager.
+     *
+     * @param threadFactoryProviderBuilder The builder function for the {@link ThreadFactoryProvider}
+     * @return the current instance of the Configurer, for chaining purposes
+     */
+    default Configurer configureThreadFactoryProvider(
+            Function<Configuration, ThreadFactoryProvider> threadFactoryProviderBuilder) {
+        return registerComponent(ThreadFactoryProvider.class, threadFactoryProviderBuilder);
+    }
+
+    /**
+     * Configures the default components of this configuration to use virtual threads when the JVM supports them, and
+     * platform threads otherwise. See {@link #configureThreadFactoryProvider(Function)} for the components affected.
+     *
+     * @return the current instance of the Configurer, for chaining purposes
+     */
+    default Configurer configureVirtualThreads() {
+        return configureThreadFactoryProvider(c -> ThreadFactoryProvider.virtualThreads());
+    }
+
     /**
      * Configures an Aggregate in this configuration based on the given {@code aggregateConfiguration}. This method
      * allows for more fine-grained configuration compared to the {@link #configureAggregate(Class)} method.
@@ -26,6 +26,8 @@
 import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.IdentifierFactory;
 import org.axonframework.common.Registration;
+import org.axonframework.common.ThreadFactoryProvider;
+import org.axonframework.common.caching.Cache;
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
 import org.axonframework.common.jpa.EntityManagerProvider;
 import org.axonframework.common.transaction.NoTransactionManager;
@@ -59,6 +61,7 @@
 import org.axonframework.serialization.xml.XStreamSerializer;
 
 import java.util.*;
+import java.util.concurrent.Executors;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -257,6 +260,18 @@ protected QueryGateway defaultQueryGateway(Configuration config) {
      * @return The default QueryBus to use.
      */
     protected QueryBus defaultQueryBus(Configuration config) {
+        return defaultQueryBus(config, config.getComponent(QueryUpdateEmitter.class));
+    }
+
+    /**
+     * Provides the default QueryBus implementation using the given {@code queryUpdateEmitter}. Subclasses may override
+     * this method to provide their own default.
+     *
+     * @param config             The configuration based on which the component is initialized.
+     * @param queryUpdateEmitter The QueryUpdateEmitter used by the QueryBus for subscription queries.
+     * @return The default QueryBus to use.
+     */
+    protected QueryBus defaultQueryBus(Configuration config, QueryUpdateEmitter queryUpdateEmitter) {
         return SimpleQueryBus.builder()
                              .messageMonitor(config.messageMonitor(SimpleQueryBus.class, "queryBus"))
                              .transactionManager(config.getComponent(TransactionManager.class,
@@ -265,7 +280,7 @@ protected QueryBus defaultQueryBus(Configuration config) {
                                      QueryInvocationErrorHandler.class,
                                      () -> LoggingQueryInvocationErrorHandler.builder().build()
                              ))
-                             .queryUpdateEmitter(config.getComponent(QueryUpdateEmitter.class))
+                             .queryUpdateEmitter(queryUpdateEmitter)
                              .build();
     }
 
@@ -341,7 +356,14 @@ protected ResourceInjector defaultResourceInjector(Configuration config) {
      * @return The default DeadlineManager to use
      */
     protected DeadlineManager defaultDeadlineManager(Configuration config) {
-        return SimpleDeadlineManager.builder().scopeAwareProvider(new ConfigurationScopeAwareProvider(config)).build();
+        ThreadFactoryProvider threadFactoryProvider =
+                config.getComponent(ThreadFactoryProvider.class, ThreadFactoryProvider::platformThreads);
+        return SimpleDeadlineManager.builder()
+                                    .scopeAwareProvider(new ConfigurationScopeAwareProvider(config))
+                                    .scheduledExecutorService(Executors.newSingleThreadScheduledExecutor(
+                                            threadFactoryProvider.createThreadFactory("deadlineManager")
+                                    ))
+                                    .build();
     }
 
     /**
@@ -490,6 +512,23 @@ public Configurer configureEmbeddedEventStore(Function<Configuration, EventStora
         });
     }
 
+    @Override
+    public Configurer configureQueryCache(Function<Configuration, Cache> cacheBuilder) {
+        @SuppressWarnings("unchecked")
+        Component<QueryUpdateEmitter> updateEmitter =
+                (Component<QueryUpdateEmitter>) components.get(QueryUpdateEmitter.class);
+        Component<CachingQueryBus> cachingQueryBus = new Component<>(
+                config, "cachingQueryBus",
+                c -> CachingQueryBus.builder()
+                                    .delegate(defaultQueryBus(c, updateEmitter.get()))
+                                    .queryUpdateEmitter(updateEmitter.get())
+                                    .cache(cacheBuilder.apply(c))
+                                    .build()
+        );
+        configureQueryBus(c -> cachingQueryBus.get());
+        return configureQueryUpdateEmitter(c -> cachingQueryBus.get().queryUpdateEmitter());
+    }
+
     @Override
     public Configurer configureEventSerializer(Function<Configuration, Serializer> eventSerializerBuilder) {
         eventSerializer.update(eventSerializerBuilder);
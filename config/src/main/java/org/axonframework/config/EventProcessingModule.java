@@ -17,6 +17,7 @@
 package org.axonframework.config;
 
 import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.ThreadFactoryProvider;
 import org.axonframework.common.transaction.NoTransactionManager;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.eventhandling.*;
@@ -396,6 +397,12 @@ public EventProcessingConfigurer registerListenerInvocationErrorHandler(String p
         return this;
     }
 
+    @Override
+    public EventProcessingConfigurer registerTrackingEventProcessor(String name,
+                                                                    Function<Configuration, StreamableMessageSource<TrackedEventMessage<?>>> source) {
+        return registerTrackingEventProcessor(name, source, this::defaultTrackingEventProcessorConfiguration);
+    }
+
     @Override
     public EventProcessingConfigurer registerTrackingEventProcessor(String name,
                                                                     Function<Configuration, StreamableMessageSource<TrackedEventMessage<?>>> source,
@@ -570,15 +577,23 @@ private EventProcessor defaultEventProcessor(String name, Configuration conf,
         if (conf.eventBus() instanceof StreamableMessageSource) {
             return trackingEventProcessor(name,
                                           eventHandlerInvoker,
-                                          conf.getComponent(
-                                                  TrackingEventProcessorConfiguration.class,
-                                                  TrackingEventProcessorConfiguration::forSingleThreadedProcessing),
+                                          defaultTrackingEventProcessorConfiguration(conf),
                                           (StreamableMessageSource) conf.eventBus());
         } else {
             return subscribingEventProcessor(name, conf, eventHandlerInvoker, Configuration::eventBus);
         }
     }
 
+    private TrackingEventProcessorConfiguration defaultTrackingEventProcessorConfiguration(Configuration conf) {
+        return conf.getComponent(TrackingEventProcessorConfiguration.class, () -> {
+            ThreadFactoryProvider threadFactoryProvider =
+                    conf.getComponent(ThreadFactoryProvider.class, ThreadFactoryProvider::platformThreads);
+            return TrackingEventProcessorConfiguration.forSingleThreadedProcessing().andThreadFactory(
+                    processorName -> threadFactoryProvider.createThreadFactory("EventProcessor[" + processorName + "]")
+            );
+        });
+    }
+
     private SubscribingEventProcessor subscribingEventProcessor(String name, Configuration conf,
                                                                 EventHandlerInvoker eventHandlerInvoker,
                                                                 Function<Configuration, SubscribableMessageSource<? extends EventMessage<?>>> messageSource) {
@@ -21,21 +21,27 @@
 import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.GenericJpaRepository;
 import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.caching.SegmentedLruCache;
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
 import org.axonframework.common.jpa.SimpleEntityManagerProvider;
 import org.axonframework.common.transaction.Transaction;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.eventhandling.EventMessageHandler;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
 import org.axonframework.eventhandling.TrackingEventProcessor;
 import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
 import org.axonframework.eventhandling.async.FullConcurrencyPolicy;
 import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventsourcing.CachingEventSourcingRepository;
 import org.axonframework.eventsourcing.EventSourcingHandler;
 import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
 import org.axonframework.eventsourcing.eventstore.jpa.JpaEventStorageEngine;
 import org.axonframework.messaging.GenericMessage;
 import org.axonframework.messaging.interceptors.TransactionManagingInterceptor;
 import org.axonframework.modelling.command.VersionedAggregateIdentifier;
+import org.axonframework.queryhandling.CachingQueryBus;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.queryhandling.QueryHandler;
 import org.axonframework.queryhandling.QueryUpdateEmitter;
 import org.axonframework.queryhandling.SimpleQueryUpdateEmitter;
 import org.hamcrest.CoreMatchers;
@@ -50,6 +56,7 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static java.util.Collections.singletonList;
 import static org.axonframework.config.utils.AssertUtils.assertWithin;
 import static org.axonframework.modelling.command.AggregateLifecycle.apply;
 import static org.axonframework.config.AggregateConfigurer.defaultConfiguration;
@@ -94,6 +101,33 @@ public void defaultConfigurationWithEventSourcing() throws Exception {
                               AggregateConfiguration.class);
     }
 
+    @Test
+    public void defaultConfigurationWithCachedAndPreloadedAggregate() throws Exception {
+        InMemoryEventStorageEngine storageEngine = new InMemoryEventStorageEngine();
+        storageEngine.appendEvents(new GenericDomainEventMessage<>("StubAggregate", "id1", 0, "id1"));
+        SegmentedLruCache cache = SegmentedLruCache.builder().build();
+
+        Configuration config = DefaultConfigurer.defaultConfiguration()
+                                                .configureEmbeddedEventStore(c -> storageEngine)
+                                                .configureAggregate(
+                                                        defaultConfiguration(StubAggregate.class)
+                                                                .configureCache(c -> cache)
+                                                                .configureCachePreloading(
+                                                                        c -> max -> singletonList("id1"), 10
+                                                                )
+                                                )
+                                                .start();
+        try {
+            assertTrue(config.repository(StubAggregate.class) instanceof CachingEventSourcingRepository);
+            assertTrue(cache.containsKey("id1"));
+
+            config.commandGateway().sendAndWait("test");
+            assertTrue(cache.containsKey("test"));
+        } finally {
+            config.shutdown();
+        }
+    }
+
     @Test
     public void defaultConfigurationWithTrackingProcessorConfigurationInMainConfig() {
         Configurer configurer = DefaultConfigurer.defaultConfiguration();
@@ -377,6 +411,33 @@ public void testQueryUpdateEmitterConfigurationPropagatedToTheQueryBus() {
         assertEquals(queryUpdateEmitter, configuration.queryUpdateEmitter());
     }
 
+    @Test
+    public void testUpdateEmittedThroughConfiguredEmitterEvictsCachedQueryResponse() throws Exception {
+        AtomicInteger invocationCount = new AtomicInteger();
+        Configuration configuration = DefaultConfigurer.defaultConfiguration()
+                                                       .configureQueryCache(c -> SegmentedLruCache.builder().build())
+                                                       .registerQueryHandler(c -> new Object() {
+                                                           @QueryHandler(queryName = "greeting")
+                                                           public String handle(String name) {
+                                                               invocationCount.incrementAndGet();
+                                                               return "Hello, " + name;
+                                                           }
+                                                       })
+                                                       .start();
+        QueryGateway queryGateway = configuration.queryGateway();
+
+        assertEquals("Hello, World", queryGateway.query("greeting", "World", String.class).get());
+        assertEquals("Hello, World", queryGateway.query("greeting", "World", String.class).get());
+        assertEquals(1, invocationCount.get());
+
+        configuration.queryUpdateEmitter().emit(String.class, "World"::equals, "update");
+
+        assertEquals("Hello, World", queryGateway.query("greeting", "World", String.class).get());
+        assertEquals(2, invocationCount.get());
+        assertTrue(configuration.queryBus() instanceof CachingQueryBus);
+        configuration.shutdown();
+    }
+
     @Entity(name = "StubAggregate")
     private static class StubAggregate {
 
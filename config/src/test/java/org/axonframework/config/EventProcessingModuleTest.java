@@ -17,6 +17,7 @@
 package org.axonframework.config;
 
 import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonThreadFactory;
 import org.axonframework.common.Registration;
 import org.axonframework.eventhandling.*;
 import org.axonframework.eventhandling.async.FullConcurrencyPolicy;
@@ -36,6 +37,7 @@
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -254,6 +256,26 @@ public void testConfigureMonitor() throws Exception {
         }
     }
 
+    @Test
+    public void testTrackingProcessorUsesConfiguredThreadFactoryProvider() throws Exception {
+        List<String> requestedThreadFactories = new CopyOnWriteArrayList<>();
+        CountDownLatch tokenStoreInvocation = new CountDownLatch(1);
+
+        buildComplexEventHandlingConfiguration(tokenStoreInvocation);
+        configurer.configureThreadFactoryProvider(c -> name -> {
+            requestedThreadFactories.add(name);
+            return new AxonThreadFactory(name);
+        });
+        Configuration config = configurer.start();
+
+        try {
+            assertTrue(tokenStoreInvocation.await(10, TimeUnit.SECONDS));
+            assertTrue(requestedThreadFactories.contains("EventProcessor[tracking]"));
+        } finally {
+            config.shutdown();
+        }
+    }
+
     @Test
     public void testConfigureDefaultListenerInvocationErrorHandler() throws Exception {
         GenericEventMessage<Boolean> errorThrowingEventMessage = new GenericEventMessage<>(true);
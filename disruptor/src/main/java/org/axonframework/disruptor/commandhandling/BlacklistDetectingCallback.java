@@ -81,7 +81,10 @@ public void onResult(CommandMessage<? extends C> commandMessage,
                 CommandHandlingEntry event = ringBuffer.get(sequence);
                 event.resetAsRecoverEntry(((AggregateBlacklistedException) cause).getAggregateIdentifier());
                 ringBuffer.publish(sequence);
-                if (delegate != null) {
+                if (rescheduleOnCorruptState && cause.getCause() instanceof AggregateStateCorruptedException) {
+                    // the command itself did not fail, but was executed on state that could not be committed
+                    retryMethod.accept(commandMessage, delegate);
+                } else if (delegate != null) {
                     delegate.onResult(commandMessage, asCommandResultMessage(cause.getCause()));
                 }
             } else if (rescheduleOnCorruptState && cause instanceof AggregateStateCorruptedException) {
@@ -48,12 +48,18 @@
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import static org.axonframework.commandhandling.GenericCommandResultMessage.asCommandResultMessage;
 
 /**
  * Component of the DisruptorCommandBus that invokes the command handler. The execution is done within a Unit Of Work.
  * If an aggregate has been pre-loaded, it is set to the ThreadLocal.
+ * <p>
+ * When created with an assignment of segments to invokers, this invoker handles the entries of the segments it owns.
+ * The assignment may change through rebalance entries, in which case aggregates cached by the previous owner of a
+ * segment are handed off to its new owner.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -66,6 +72,8 @@ public class CommandHandlerInvoker implements EventHandler<CommandHandlingEntry>
     private final Map<Class<?>, DisruptorRepository> repositories = new ConcurrentHashMap<>();
     private final Cache cache;
     private final int segmentId;
+    private volatile int[] segmentOwners;
+    private volatile long lastProcessedSequence = -1;
 
     /**
      * Returns the Repository instance for Aggregate with given {@code typeIdentifier} used by the
@@ -92,15 +100,51 @@ public static <T> DisruptorRepository<T> getRepository(Class<?> type) {
      * @param segmentId The id of the segment this invoker should handle
      */
     public CommandHandlerInvoker(Cache cache, int segmentId) {
+        this(cache, segmentId, null);
+    }
+
+    /**
+     * Create an aggregate invoker instance with given {@code invokerId} and {@code cache}, which handles the entries
+     * of the segments assigned to it by the given {@code segmentOwners}.
+     *
+     * @param cache         The cache temporarily storing aggregate instances
+     * @param invokerId     The id of this invoker
+     * @param segmentOwners The id of the invoker owning each segment, indexed by segment, or {@code null} to handle
+     *                      only the segment with id {@code invokerId}
+     */
+    CommandHandlerInvoker(Cache cache, int invokerId, int[] segmentOwners) {
         this.cache = cache;
-        this.segmentId = segmentId;
+        this.segmentId = invokerId;
+        this.segmentOwners = segmentOwners;
+    }
+
+    /**
+     * Returns the segment of the given {@code aggregateIdentifier} when aggregates are divided over the given number
+     * of segments.
+     *
+     * @param aggregateIdentifier The identifier of the aggregate
+     * @param segmentCount        The number of segments
+     * @return the segment the aggregate belongs to
+     */
+    static int segmentOf(String aggregateIdentifier, int segmentCount) {
+        return (aggregateIdentifier.hashCode() & Integer.MAX_VALUE) % segmentCount;
     }
 
     @Override
     public void onEvent(CommandHandlingEntry entry, long sequence, boolean endOfBatch) {
+        try {
+            handle(entry);
+        } finally {
+            lastProcessedSequence = sequence;
+        }
+    }
+
+    private void handle(CommandHandlingEntry entry) {
         if (entry.isRecoverEntry()) {
             removeEntry(entry.getAggregateIdentifier());
-        } else if (entry.getInvokerId() == segmentId) {
+        } else if (entry.isRebalanceEntry()) {
+            rebalance(entry);
+        } else if (owns(entry.getInvokerId())) {
             entry.start();
             try {
                 Object result = entry.getInvocationInterceptorChain().proceed();
@@ -170,6 +214,67 @@ public <T> Repository<T> createRepository(EventStore eventStore,
                 ));
     }
 
+    private boolean owns(int segment) {
+        int[] owners = segmentOwners;
+        return owners == null ? segment == segmentId : owners[segment] == segmentId;
+    }
+
+    private void rebalance(CommandHandlingEntry entry) {
+        int[] newOwners = entry.getSegmentOwners();
+        Predicate<String> ownedAfterRebalance = id -> newOwners[segmentOf(id, newOwners.length)] == segmentId;
+        for (DisruptorRepository<?> repository : repositories.values()) {
+            repository.handOff(ownedAfterRebalance.negate(), entry.getHandedOffAggregates());
+        }
+        entry.getHandOffBarrier().countDown();
+        boolean handedOffInTime = false;
+        try {
+            handedOffInTime = entry.getHandOffBarrier().await(entry.getHandOffTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (entry.completeRebalance(handedOffInTime)) {
+            for (DisruptorRepository<?> repository : repositories.values()) {
+                repository.takeOver(ownedAfterRebalance, entry.getHandedOffAggregates());
+            }
+            segmentOwners = newOwners;
+        } else {
+            // an invoker was too late to hand off its aggregates. Each invoker takes back what it handed off
+            logger.warn("Not all invokers handed off their aggregates within {} ms. The rebalance is aborted.",
+                        entry.getHandOffTimeout());
+            for (DisruptorRepository<?> repository : repositories.values()) {
+                repository.takeOver(id -> owns(segmentOf(id, newOwners.length)), entry.getHandedOffAggregates());
+            }
+        }
+    }
+
+    /**
+     * Returns the sequence of the last entry on the ring buffer processed by this invoker, or {@code -1} if no entry
+     * has been processed yet.
+     *
+     * @return the sequence of the last entry processed by this invoker
+     */
+    public long getLastProcessedSequence() {
+        return lastProcessedSequence;
+    }
+
+    /**
+     * Returns the number of times an aggregate was found in the first level cache of this invoker.
+     *
+     * @return the number of first level cache hits
+     */
+    public long getCacheHitCount() {
+        return repositories.values().stream().mapToLong(r -> r.cacheHitCount).sum();
+    }
+
+    /**
+     * Returns the number of times an aggregate was not found in the first level cache of this invoker.
+     *
+     * @return the number of first level cache misses
+     */
+    public long getCacheMissCount() {
+        return repositories.values().stream().mapToLong(r -> r.cacheMissCount).sum();
+    }
+
     private void removeEntry(String aggregateIdentifier) {
         for (DisruptorRepository repository : repositories.values()) {
             repository.removeFromCache(aggregateIdentifier);
@@ -201,6 +306,9 @@ public void onShutdown() {
         private final FirstLevelCache<T> firstLevelCache = new FirstLevelCache<>();
         private final Cache cache;
         private final AggregateModel<T> model;
+        // only updated by the invoker thread
+        private volatile long cacheHitCount;
+        private volatile long cacheMissCount;
 
         private DisruptorRepository(AggregateFactory<T> aggregateFactory,
                                     Cache cache,
@@ -248,7 +356,10 @@ public Aggregate<T> load(String aggregateIdentifier, Long expectedVersion) {
         public Aggregate<T> load(String aggregateIdentifier) {
             ((CommandHandlingEntry) CurrentUnitOfWork.get()).registerAggregateIdentifier(aggregateIdentifier);
             EventSourcedAggregate<T> aggregateRoot = firstLevelCache.get(aggregateIdentifier);
-            if (aggregateRoot == null) {
+            if (aggregateRoot != null) {
+                cacheHitCount++;
+            } else {
+                cacheMissCount++;
                 Object cachedItem = cache.get(aggregateIdentifier);
                 if (AggregateCacheEntry.class.isInstance(cachedItem)) {
                     EventSourcedAggregate<T> cachedAggregate = ((AggregateCacheEntry<T>) cachedItem).recreateAggregate(
@@ -297,6 +408,32 @@ public Aggregate<T> newInstance(Callable<T> factoryMethod) throws Exception {
             return aggregate;
         }
 
+        private void handOff(Predicate<String> identifierFilter,
+                             Map<Class<?>, Map<String, EventSourcedAggregate<?>>> handedOffAggregates) {
+            Map<String, EventSourcedAggregate<T>> removed = firstLevelCache.removeAll(identifierFilter);
+            if (!removed.isEmpty()) {
+                handedOffAggregates.computeIfAbsent(aggregateFactory.getAggregateType(),
+                                                    t -> new ConcurrentHashMap<>())
+                                   .putAll(removed);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void takeOver(Predicate<String> identifierFilter,
+                              Map<Class<?>, Map<String, EventSourcedAggregate<?>>> handedOffAggregates) {
+            Map<String, EventSourcedAggregate<?>> candidates =
+                    handedOffAggregates.get(aggregateFactory.getAggregateType());
+            if (candidates != null) {
+                candidates.entrySet().removeIf(entry -> {
+                    if (identifierFilter.test(entry.getKey())) {
+                        firstLevelCache.put(entry.getKey(), (EventSourcedAggregate<T>) entry.getValue());
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        }
+
         private void removeFromCache(String aggregateIdentifier) {
             EventSourcedAggregate<T> removed = firstLevelCache.remove(aggregateIdentifier);
             if (removed != null) {
@@ -23,8 +23,15 @@
 import org.axonframework.messaging.MessageHandler;
 import org.axonframework.messaging.MessageHandlerInterceptor;
 
+import org.axonframework.eventsourcing.EventSourcedAggregate;
+
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * DataHolder for the DisruptorCommandBus. The CommandHandlingEntry maintains all information required for or produced
@@ -43,8 +50,17 @@ public class CommandHandlingEntry extends DisruptorUnitOfWork<CommandMessage<?>>
     private BlacklistDetectingCallback callback;
     // for recovery of corrupt aggregates
     private boolean isRecoverEntry;
+    private boolean isRescheduled;
     private String aggregateIdentifier;
     private int invokerSegmentId;
+    // for rebalancing of segments between invokers
+    private boolean isRebalanceEntry;
+    private int[] segmentOwners;
+    private CountDownLatch handOffBarrier;
+    private long handOffTimeout;
+    private AtomicReference<Boolean> rebalanceCompleted;
+    private Runnable rebalanceAbortHandler;
+    private ConcurrentMap<Class<?>, Map<String, EventSourcedAggregate<?>>> handedOffAggregates;
 
     /**
      * Initializes the CommandHandlingEntry
@@ -112,6 +128,92 @@ public boolean isRecoverEntry() {
         return isRecoverEntry;
     }
 
+    /**
+     * Indicates whether this entry is a retry of a command or task that was rejected because it was executed on
+     * corrupt state, for example because its events were part of a batch that failed to commit. The Unit of Work of a
+     * rescheduled entry is never committed together with those of other entries.
+     *
+     * @return {@code true} if this entry has been rescheduled, otherwise {@code false}
+     */
+    public boolean isRescheduled() {
+        return isRescheduled;
+    }
+
+    /**
+     * Marks this entry as a retry of a command or task that was rejected because it was executed on corrupt state.
+     * The mark is cleared when this entry is reset.
+     */
+    public void markAsRescheduled() {
+        this.isRescheduled = true;
+    }
+
+    /**
+     * Indicates whether this entry is a rebalance entry. When {@code true}, this entry does not contain any command
+     * handling information, but describes a new assignment of segments to invokers.
+     *
+     * @return {@code true} if this entry represents a rebalance request, otherwise {@code false}
+     */
+    public boolean isRebalanceEntry() {
+        return isRebalanceEntry;
+    }
+
+    /**
+     * Returns the identifier of the invoker owning each segment, indexed by segment, after the rebalance described by
+     * this entry. Returns {@code null} when {@link #isRebalanceEntry()} returns {@code false}.
+     *
+     * @return the identifier of the invoker owning each segment after rebalancing
+     */
+    public int[] getSegmentOwners() {
+        return segmentOwners;
+    }
+
+    /**
+     * Returns the latch each invoker counts down once it has handed off the aggregates of the segments it no longer
+     * owns. Returns {@code null} when {@link #isRebalanceEntry()} returns {@code false}.
+     *
+     * @return the latch marking completion of the hand off by all invokers
+     */
+    public CountDownLatch getHandOffBarrier() {
+        return handOffBarrier;
+    }
+
+    /**
+     * Returns the time in milliseconds each invoker waits for the other invokers to hand off their aggregates. Returns
+     * {@code 0} when {@link #isRebalanceEntry()} returns {@code false}.
+     *
+     * @return the time in milliseconds to wait for the hand off by all invokers
+     */
+    public long getHandOffTimeout() {
+        return handOffTimeout;
+    }
+
+    /**
+     * Reports whether the invoker calling this method saw all invokers hand off their aggregates in time, and returns
+     * whether the rebalance described by this entry takes effect. The report of the first invoker decides for all
+     * invokers, so either all or none of them apply the new assignment. When the rebalance is aborted, the handler
+     * given when resetting this entry is invoked once.
+     *
+     * @param handedOffInTime whether all invokers handed off their aggregates before the hand off timeout
+     * @return {@code true} if the invokers should apply the new assignment, {@code false} if they should keep the
+     * current one
+     */
+    public boolean completeRebalance(boolean handedOffInTime) {
+        if (rebalanceCompleted.compareAndSet(null, handedOffInTime) && !handedOffInTime) {
+            rebalanceAbortHandler.run();
+        }
+        return rebalanceCompleted.get();
+    }
+
+    /**
+     * Returns the aggregates handed off by invokers during the rebalance, grouped by aggregate type and keyed by
+     * aggregate identifier. Returns {@code null} when {@link #isRebalanceEntry()} returns {@code false}.
+     *
+     * @return the aggregates handed off by invokers during the rebalance
+     */
+    public ConcurrentMap<Class<?>, Map<String, EventSourcedAggregate<?>>> getHandedOffAggregates() {
+        return handedOffAggregates;
+    }
+
     /**
      * Returns the identifier of the aggregate to recover. Returns {@code null} when {@link #isRecoverEntry()}
      * returns {@code false}.
@@ -123,7 +225,8 @@ public String getAggregateIdentifier() {
     }
 
     /**
-     * Returns the Identifier of the invoker that is chosen to handle this entry.
+     * Returns the Identifier of the invoker that is chosen to handle this entry. When invokers are assigned segments
+     * by the DisruptorCommandBus, this is the identifier of the segment the entry belongs to.
      *
      * @return the Identifier of the invoker that is chosen to handle this entry
      */
@@ -162,6 +265,8 @@ public void reset(CommandMessage<?> newCommand,
         this.publisherSegmentId = newPublisherSegmentId;
         this.callback = newCallback;
         this.isRecoverEntry = false;
+        this.isRescheduled = false;
+        clearRebalanceState();
         this.result = null;
         this.aggregateIdentifier = null;
         this.invocationInterceptorChain = new DefaultInterceptorChain<>(
@@ -182,6 +287,8 @@ public void reset(CommandMessage<?> newCommand,
      */
     public void resetAsRecoverEntry(String newAggregateIdentifier) {
         this.isRecoverEntry = true;
+        this.isRescheduled = false;
+        clearRebalanceState();
         this.callback = null;
         result = null;
         invocationInterceptorChain = null;
@@ -191,6 +298,39 @@ public void resetAsRecoverEntry(String newAggregateIdentifier) {
         reset(null);
     }
 
+    /**
+     * Resets this entry, preparing it for use as a rebalance entry. Each of the {@code invokerCount} invokers hands
+     * off the aggregates of segments it no longer owns, waits up to {@code handOffTimeout} milliseconds for the others
+     * to do the same and takes over the aggregates of segments it starts owning. If any invoker doesn't hand off its
+     * aggregates in time, the rebalance is aborted, the invokers keep their current segments and the given {@code
+     * abortHandler} is invoked.
+     *
+     * @param newSegmentOwners The identifier of the invoker owning each segment, indexed by segment
+     * @param invokerCount     The number of invokers that process this entry
+     * @param handOffTimeout   The time in milliseconds to wait for all invokers to hand off their aggregates
+     * @param abortHandler     The handler to invoke when the rebalance is aborted
+     */
+    public void resetAsRebalanceEntry(int[] newSegmentOwners, int invokerCount, long handOffTimeout,
+                                      Runnable abortHandler) {
+        this.isRecoverEntry = false;
+        this.isRescheduled = false;
+        this.isRebalanceEntry = true;
+        this.segmentOwners = newSegmentOwners;
+        this.handOffBarrier = new CountDownLatch(invokerCount);
+        this.handOffTimeout = handOffTimeout;
+        this.rebalanceCompleted = new AtomicReference<>();
+        this.rebalanceAbortHandler = abortHandler;
+        this.handedOffAggregates = new ConcurrentHashMap<>();
+        this.callback = null;
+        result = null;
+        invocationInterceptorChain = null;
+        publisherInterceptorChain = null;
+        invokerSegmentId = -1;
+        publisherSegmentId = -1;
+        aggregateIdentifier = null;
+        reset(null);
+    }
+
     /**
      * Resets this entry, preparing it to run given {@code callable} from within the {@code invocationInterceptorChain}.
      *
@@ -205,6 +345,8 @@ public void resetAsCallable(Callable<Object> callable,
                                 int newPublisherSegmentId,
                                 BlacklistDetectingCallback<Object, Object> newCallback) {
         this.isRecoverEntry = false;
+        this.isRescheduled = false;
+        clearRebalanceState();
         this.invokerSegmentId = newInvokerSegmentId;
         this.publisherSegmentId = newPublisherSegmentId;
         this.callback = newCallback;
@@ -229,6 +371,16 @@ public void registerAggregateIdentifier(String aggregateIdentifier) {
         this.aggregateIdentifier = aggregateIdentifier;
     }
 
+    private void clearRebalanceState() {
+        this.isRebalanceEntry = false;
+        this.segmentOwners = null;
+        this.handOffBarrier = null;
+        this.handOffTimeout = 0;
+        this.rebalanceCompleted = null;
+        this.rebalanceAbortHandler = null;
+        this.handedOffAggregates = null;
+    }
+
     private class RepeatingCommandHandler implements MessageHandler<CommandMessage<?>> {
 
         @Override
@@ -64,6 +64,7 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
@@ -75,6 +76,8 @@
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.lang.String.format;
 import static org.axonframework.commandhandling.GenericCommandResultMessage.asCommandResultMessage;
@@ -110,6 +113,28 @@
  * default. Use {@link Builder#rescheduleCommandsOnCorruptState(boolean)} to disable this feature. Note
  * that the order in which commands are executed is not fully guaranteed when this feature is enabled (default).
  *
+ * <em>Invoker segments</em>
+ * <p>
+ * When more than one invoker thread is configured, aggregates are divided over a number of segments based on the hash
+ * of their identifier, and each segment is owned by a single invoker. Calling {@link #rebalance()} reassigns segments
+ * to invokers based on the number of commands dispatched per segment since the previous rebalance, and {@link
+ * #resizeInvokers(int)} changes the number of invokers segments are assigned to, up to the {@link
+ * Builder#maxInvokerThreadCount(int) maximum number of invoker threads}. Both briefly pause all invokers, while the
+ * aggregates held in the first level cache of the previous owner of a segment are handed off to the new owner. If an
+ * invoker doesn't reach the hand off within the {@link Builder#handOffTimeout(long) hand off timeout}, for example
+ * because it is handling a long running command, the reassignment is aborted and the invokers keep their segments.
+ * <p>
+ * Note that all commands for a single aggregate are always handled by a single invoker. Rebalancing can therefore not
+ * spread the load of a single hot aggregate over several threads.
+ *
+ * <em>Group commit</em>
+ * <p>
+ * By default, the events of each command are stored in a separate Unit of Work and transaction. When {@link
+ * Builder#groupCommit(boolean) group commit} is enabled, the publisher thread commits all commands it finds in a
+ * single batch of the ring buffer together, storing their events in a single append and transaction. The result of
+ * each command is still reported individually. When the batch fails to commit, the commands in the batch are treated
+ * as if they were executed against corrupt state, and are rescheduled individually.
+ *
  * <em>Limitations of this implementation</em>
  * <p>
  * Although this implementation allows applications to achieve extreme performance (over 1M commands on commodity
@@ -139,6 +164,7 @@
 public class DisruptorCommandBus implements CommandBus {
 
     private static final Logger logger = LoggerFactory.getLogger(DisruptorCommandBus.class);
+    private static final int SEGMENTS_PER_INVOKER = 16;
 
     private final ConcurrentMap<String, MessageHandler<? super CommandMessage<?>>> commandHandlers =
             new ConcurrentHashMap<>();
@@ -149,11 +175,18 @@ public class DisruptorCommandBus implements CommandBus {
     private final ExecutorService executorService;
     private final boolean rescheduleOnCorruptState;
     private final long coolingDownPeriod;
+    private final long handOffTimeout;
     private final CommandTargetResolver commandTargetResolver;
     private final int publisherCount;
     private final MessageMonitor<? super CommandMessage<?>> messageMonitor;
     private final Disruptor<CommandHandlingEntry> disruptor;
     private final CommandHandlerInvoker[] commandHandlerInvokers;
+    private final int segmentCount;
+    private final AtomicLongArray segmentLoad;
+
+    // replaced by invoker threads when a rebalance is aborted, so not guarded by this bus' monitor
+    private final AtomicReference<int[]> segmentOwners = new AtomicReference<>();
+    private volatile int activeInvokerCount;
 
     private volatile boolean started = true;
     private volatile boolean disruptorShutDown = false;
@@ -165,9 +198,9 @@ public class DisruptorCommandBus implements CommandBus {
      * <p>
      * Will assert that the {@link CommandTargetResolver}, {@link MessageMonitor}, {@link RollbackConfiguration},
      * {@link ProducerType}, {@link WaitStrategy} and {@link Cache} are not {@code null}. Additional verification is
-     * done on the the {@code coolingDownPeriod}, {@code publisherThreadCount}, {@code bufferSize} and
-     * {@code invokerThreadCount} to check whether they are positive numbers. If any of these checks fails, an
-     * {@link AxonConfigurationException} will be thrown.
+     * done on the the {@code coolingDownPeriod}, {@code handOffTimeout}, {@code publisherThreadCount}, {@code
+     * bufferSize} and {@code invokerThreadCount} to check whether they are positive numbers. If any of these checks
+     * fails, an {@link AxonConfigurationException} will be thrown.
      *
      * @param builder the {@link Builder} used to instantiate a {@link DisruptorCommandBus} instance
      */
@@ -188,13 +221,15 @@ protected DisruptorCommandBus(Builder builder) {
         }
         rescheduleOnCorruptState = builder.rescheduleCommandsOnCorruptState;
         coolingDownPeriod = builder.coolingDownPeriod;
+        handOffTimeout = builder.handOffTimeout;
         commandTargetResolver = builder.commandTargetResolver;
 
         // Configure publisher Threads
         EventPublisher[] publishers = initializePublisherThreads(builder.publisherThreadCount,
                                                                  executor,
                                                                  builder.transactionManager,
-                                                                 builder.rollbackConfiguration);
+                                                                 builder.rollbackConfiguration,
+                                                                 builder.groupCommit);
         publisherCount = publishers.length;
         messageMonitor = builder.messageMonitor;
 
@@ -204,7 +239,16 @@ protected DisruptorCommandBus(Builder builder) {
                                     builder.producerType,
                                     builder.waitStrategy);
         // Configure invoker Threads
-        commandHandlerInvokers = initializeInvokerThreads(builder.invokerThreadCount, builder.cache);
+        int invokerCount = Math.max(builder.invokerThreadCount, builder.maxInvokerThreadCount);
+        activeInvokerCount = builder.invokerThreadCount;
+        segmentCount = invokerCount > 1 ? invokerCount * SEGMENTS_PER_INVOKER : 1;
+        segmentLoad = new AtomicLongArray(segmentCount);
+        int[] initialOwners = new int[segmentCount];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            initialOwners[segment] = segment % activeInvokerCount;
+        }
+        segmentOwners.set(initialOwners);
+        commandHandlerInvokers = initializeInvokerThreads(invokerCount, builder.cache, initialOwners);
 
         disruptor.setDefaultExceptionHandler(new ExceptionHandler());
         disruptor.handleEventsWith(commandHandlerInvokers).then(publishers);
@@ -214,19 +258,21 @@ protected DisruptorCommandBus(Builder builder) {
     private EventPublisher[] initializePublisherThreads(int publisherThreadCount,
                                                         Executor executor,
                                                         TransactionManager transactionManager,
-                                                        RollbackConfiguration rollbackConfiguration) {
+                                                        RollbackConfiguration rollbackConfiguration,
+                                                        boolean groupCommit) {
         EventPublisher[] publishers = new EventPublisher[publisherThreadCount];
         for (int t = 0; t < publishers.length; t++) {
-            publishers[t] = new EventPublisher(executor, transactionManager, rollbackConfiguration, t);
+            publishers[t] = new EventPublisher(executor, transactionManager, rollbackConfiguration, t, groupCommit);
         }
         return publishers;
     }
 
-    private CommandHandlerInvoker[] initializeInvokerThreads(int invokerThreadCount, Cache cache) {
+    private CommandHandlerInvoker[] initializeInvokerThreads(int invokerThreadCount, Cache cache,
+                                                            int[] segmentOwners) {
         CommandHandlerInvoker[] invokers;
         invokers = new CommandHandlerInvoker[invokerThreadCount];
         for (int t = 0; t < invokers.length; t++) {
-            invokers[t] = new CommandHandlerInvoker(cache, t);
+            invokers[t] = new CommandHandlerInvoker(cache, t, segmentOwners);
         }
         return invokers;
     }
@@ -246,6 +292,9 @@ private CommandHandlerInvoker[] initializeInvokerThreads(int invokerThreadCount,
      * <li>The {@link ProducerType} defaults to {@link ProducerType#MULTI}.</li>
      * <li>The {@link WaitStrategy} defaults to a {@link BlockingWaitStrategy}.</li>
      * <li>The {@code invokerThreadCount} defaults to {@code 1}.</li>
+     * <li>The {@code maxInvokerThreadCount} defaults to the {@code invokerThreadCount}.</li>
+     * <li>The {@code groupCommit} defaults to {@code false}.</li>
+     * <li>The {@code handOffTimeout} defaults to {@code 5000}.</li>
      * <li>The {@link Cache} defaults to {@link NoCache#INSTANCE}.</li>
      * </ul>
      * The (2) Threads required for command execution are created immediately. Additional threads are used to invoke
@@ -255,8 +304,8 @@ private CommandHandlerInvoker[] initializeInvokerThreads(int invokerThreadCount,
      * The {@link CommandTargetResolver}, {@link MessageMonitor}, {@link RollbackConfiguration}, {@link ProducerType},
      * {@link WaitStrategy} and {@link Cache} are a <b>hard requirements</b>. Thus setting them to {@code null} will
      * result in an {@link AxonConfigurationException}.
-     * Additionally, the {@code coolingDownPeriod}, {@code publisherThreadCount}, {@code bufferSize} and
-     * {@code invokerThreadCount} have a positive number constraint, thus will also result in an
+     * Additionally, the {@code coolingDownPeriod}, {@code handOffTimeout}, {@code publisherThreadCount}, {@code
+     * bufferSize} and {@code invokerThreadCount} have a positive number constraint, thus will also result in an
      * AxonConfigurationException if set otherwise.
      *
      * @return a Builder to be able to create a {@link DisruptorCommandBus}
@@ -281,7 +330,7 @@ public <C, R> void dispatch(CommandMessage<C> command, CommandCallback<? super C
         MessageMonitor.MonitorCallback monitorCallback = messageMonitor.onMessageIngested(commandToDispatch);
 
         try {
-            doDispatch(commandToDispatch, new MonitorAwareCallback(callback, monitorCallback));
+            doDispatch(commandToDispatch, new MonitorAwareCallback(callback, monitorCallback), false);
         } catch (Exception e) {
             monitorCallback.reportFailure(e);
             callback.onResult(commandToDispatch, asCommandResultMessage(e));
@@ -292,12 +341,14 @@ public <C, R> void dispatch(CommandMessage<C> command, CommandCallback<? super C
      * Forces a dispatch of a command. This method should be used with caution. It allows commands to be retried during
      * the cooling down period of the disruptor.
      *
-     * @param command  The command to dispatch
-     * @param callback The callback to notify when command handling is completed
-     * @param <R>      The expected return type of the command
+     * @param command     The command to dispatch
+     * @param callback    The callback to notify when command handling is completed
+     * @param rescheduled Whether the command is retried after it was executed on corrupt state
+     * @param <R>         The expected return type of the command
      */
     @SuppressWarnings("Duplicates")
-    private <C, R> void doDispatch(CommandMessage<? extends C> command, CommandCallback<? super C, R> callback) {
+    private <C, R> void doDispatch(CommandMessage<? extends C> command, CommandCallback<? super C, R> callback,
+                                   boolean rescheduled) {
         Assert.state(!disruptorShutDown, () -> "Disruptor has been shut down. Cannot dispatch or re-dispatch commands");
         final MessageHandler<? super CommandMessage<?>> commandHandler = commandHandlers.get(command.getCommandName());
         if (commandHandler == null) {
@@ -315,7 +366,8 @@ private <C, R> void doDispatch(CommandMessage<? extends C> command, CommandCallb
             if (aggregateIdentifier != null) {
                 int idHash = aggregateIdentifier.hashCode() & Integer.MAX_VALUE;
                 if (commandHandlerInvokers.length > 1) {
-                    invokerSegment = idHash % commandHandlerInvokers.length;
+                    invokerSegment = idHash % segmentCount;
+                    segmentLoad.incrementAndGet(invokerSegment);
                 }
                 if (publisherCount > 1) {
                     publisherSegment = idHash % publisherCount;
@@ -326,10 +378,16 @@ private <C, R> void doDispatch(CommandMessage<? extends C> command, CommandCallb
         try {
             CommandHandlingEntry event = ringBuffer.get(sequence);
             event.reset(command, commandHandler, invokerSegment, publisherSegment,
-                        new BlacklistDetectingCallback<C, R>(callback, disruptor.getRingBuffer(), this::doDispatch,
-                                                             rescheduleOnCorruptState),
+                        new BlacklistDetectingCallback<C, R>(
+                                callback, disruptor.getRingBuffer(),
+                                (retryCommand, retryCallback) -> doDispatch(retryCommand, retryCallback, true),
+                                rescheduleOnCorruptState
+                        ),
                         invokerInterceptors,
                         publisherInterceptors);
+            if (rescheduled) {
+                event.markAsRescheduled();
+            }
         } finally {
             ringBuffer.publish(sequence);
         }
@@ -518,6 +576,150 @@ public <T> Repository<T> createRepository(EventStore eventStore, AggregateFactor
         return new DisruptorRepository<>(aggregateFactory.getAggregateType());
     }
 
+    /**
+     * Reassigns the segments of aggregates to the active invokers, based on the number of commands dispatched per
+     * segment since the previous rebalance. Segments are assigned, busiest first, to the invoker with the lowest load
+     * so far. When the assignment changes, all invokers briefly pause to hand off the aggregates of the segments that
+     * changed owner.
+     *
+     * @return {@code true} if segments have been reassigned, otherwise {@code false}
+     */
+    public synchronized boolean rebalance() {
+        return publishAssignment(computeAssignment(activeInvokerCount));
+    }
+
+    /**
+     * Changes the number of invokers that aggregate segments are assigned to. The segments are reassigned based on the
+     * number of commands dispatched per segment since the previous rebalance. All invokers briefly pause to hand off
+     * the aggregates of the segments that changed owner. Invoker threads that have no segments assigned to them stay
+     * idle until the number of active invokers is increased again.
+     *
+     * @param activeInvokerCount the number of invokers to assign segments to, between {@code 1} and the maximum number
+     *                           of invoker threads
+     */
+    public synchronized void resizeInvokers(int activeInvokerCount) {
+        Assert.isTrue(activeInvokerCount > 0 && activeInvokerCount <= commandHandlerInvokers.length,
+                      () -> "The number of active invokers must be between 1 and " + commandHandlerInvokers.length);
+        publishAssignment(computeAssignment(activeInvokerCount));
+        this.activeInvokerCount = activeInvokerCount;
+    }
+
+    private int[] computeAssignment(int invokerCount) {
+        long[] load = new long[segmentCount];
+        Integer[] segmentsByLoad = new Integer[segmentCount];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            load[segment] = segmentLoad.getAndSet(segment, 0);
+            segmentsByLoad[segment] = segment;
+        }
+        Arrays.sort(segmentsByLoad, (s1, s2) -> Long.compare(load[s2], load[s1]));
+
+        int[] currentOwners = segmentOwners.get();
+        long[] invokerLoad = new long[invokerCount];
+        int[] invokerSegments = new int[invokerCount];
+        int[] newOwners = new int[segmentCount];
+        for (int segment : segmentsByLoad) {
+            int currentOwner = currentOwners[segment];
+            int target = currentOwner < invokerCount ? currentOwner : 0;
+            for (int invoker = 0; invoker < invokerCount; invoker++) {
+                if (invokerLoad[invoker] < invokerLoad[target]
+                        || (invokerLoad[invoker] == invokerLoad[target]
+                        && invokerSegments[invoker] < invokerSegments[target])) {
+                    target = invoker;
+                }
+            }
+            newOwners[segment] = target;
+            invokerLoad[target] += load[segment];
+            invokerSegments[target]++;
+        }
+        return newOwners;
+    }
+
+    private boolean publishAssignment(int[] newOwners) {
+        int[] currentOwners = segmentOwners.get();
+        if (Arrays.equals(newOwners, currentOwners)) {
+            return false;
+        }
+        Assert.state(!disruptorShutDown, () -> "Disruptor has been shut down. Cannot rebalance invokers");
+        int currentActiveInvokerCount = activeInvokerCount;
+        Runnable abortHandler = () -> {
+            if (segmentOwners.compareAndSet(newOwners, currentOwners)) {
+                activeInvokerCount = currentActiveInvokerCount;
+            }
+        };
+        segmentOwners.set(newOwners);
+        RingBuffer<CommandHandlingEntry> ringBuffer = disruptor.getRingBuffer();
+        long sequence = ringBuffer.next();
+        try {
+            ringBuffer.get(sequence).resetAsRebalanceEntry(newOwners, commandHandlerInvokers.length,
+                                                           handOffTimeout, abortHandler);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of invoker threads of this CommandBus, which is the maximum number of invokers segments may
+     * be assigned to.
+     *
+     * @return the number of invoker threads
+     */
+    public int getInvokerCount() {
+        return commandHandlerInvokers.length;
+    }
+
+    /**
+     * Returns the number of invokers segments are currently assigned to.
+     *
+     * @return the number of active invokers
+     */
+    public int getActiveInvokerCount() {
+        return activeInvokerCount;
+    }
+
+    /**
+     * Returns the number of segments assigned to the invoker with given {@code invokerIndex}.
+     *
+     * @param invokerIndex the index of the invoker, between {@code 0} and {@link #getInvokerCount()}
+     * @return the number of segments assigned to the invoker
+     */
+    public synchronized int getInvokerSegmentCount(int invokerIndex) {
+        return (int) Arrays.stream(segmentOwners.get()).filter(owner -> owner == invokerIndex).count();
+    }
+
+    /**
+     * Returns the number of entries on the ring buffer the invoker with given {@code invokerIndex} has yet to process.
+     *
+     * @param invokerIndex the index of the invoker, between {@code 0} and {@link #getInvokerCount()}
+     * @return the number of entries the invoker has yet to process
+     */
+    public long getInvokerQueueDepth(int invokerIndex) {
+        long cursor = disruptor.getRingBuffer().getCursor();
+        return Math.max(0, cursor - commandHandlerInvokers[invokerIndex].getLastProcessedSequence());
+    }
+
+    /**
+     * Returns the number of times the invoker with given {@code invokerIndex} found an aggregate in its first level
+     * cache.
+     *
+     * @param invokerIndex the index of the invoker, between {@code 0} and {@link #getInvokerCount()}
+     * @return the number of first level cache hits of the invoker
+     */
+    public long getInvokerCacheHitCount(int invokerIndex) {
+        return commandHandlerInvokers[invokerIndex].getCacheHitCount();
+    }
+
+    /**
+     * Returns the number of times the invoker with given {@code invokerIndex} did not find an aggregate in its first
+     * level cache.
+     *
+     * @param invokerIndex the index of the invoker, between {@code 0} and {@link #getInvokerCount()}
+     * @return the number of first level cache misses of the invoker
+     */
+    public long getInvokerCacheMissCount(int invokerIndex) {
+        return commandHandlerInvokers[invokerIndex].getCacheMissCount();
+    }
+
     @Override
     public Registration subscribe(String commandName, MessageHandler<? super CommandMessage<?>> handler) {
         commandHandlers.put(commandName, handler);
@@ -608,7 +810,7 @@ public Aggregate<T> newInstance(Callable<T> factoryMethod) throws Exception {
         @Override
         public void send(Message<?> message, ScopeDescriptor scopeDescription) throws Exception {
             CompletableFuture future = new CompletableFuture();
-            send(message, scopeDescription, future);
+            send(message, scopeDescription, future, false);
             try {
                 future.get();
             } catch (ExecutionException e) {
@@ -620,7 +822,8 @@ public void send(Message<?> message, ScopeDescriptor scopeDescription) throws Ex
         }
 
         @SuppressWarnings("Duplicates")
-        private void send(Message<?> message, ScopeDescriptor scopeDescription, CompletableFuture<?> future) {
+        private void send(Message<?> message, ScopeDescriptor scopeDescription, CompletableFuture<?> future,
+                          boolean rescheduled) {
             if (!canResolve(scopeDescription)) {
                 future.complete(null);
                 return;
@@ -635,7 +838,8 @@ private void send(Message<?> message, ScopeDescriptor scopeDescription, Completa
                 if (aggregateIdentifier != null) {
                     int idHash = aggregateIdentifier.hashCode() & Integer.MAX_VALUE;
                     if (commandHandlerInvokers.length > 1) {
-                        invokerSegment = idHash % commandHandlerInvokers.length;
+                        invokerSegment = idHash % segmentCount;
+                        segmentLoad.incrementAndGet(invokerSegment);
                     }
                     if (publisherCount > 1) {
                         publisherSegment = idHash % publisherCount;
@@ -674,10 +878,13 @@ public void onResult(CommandMessage<?> commandMessage,
                                     }
                                 },
                                 disruptor.getRingBuffer(),
-                                (commandMessage, callback) -> send(message, scopeDescription, future),
+                                (commandMessage, callback) -> send(message, scopeDescription, future, true),
                                 rescheduleOnCorruptState
                         )
                 );
+                if (rescheduled) {
+                    event.markAsRescheduled();
+                }
             } finally {
                 ringBuffer.publish(sequence);
             }
@@ -725,6 +932,9 @@ public void handleOnShutdownException(Throwable ex) {
      * <li>The {@link ProducerType} defaults to {@link ProducerType#MULTI}.</li>
      * <li>The {@link WaitStrategy} defaults to a {@link BlockingWaitStrategy}.</li>
      * <li>The {@code invokerThreadCount} defaults to {@code 1}.</li>
+     * <li>The {@code maxInvokerThreadCount} defaults to the {@code invokerThreadCount}.</li>
+     * <li>The {@code groupCommit} defaults to {@code false}.</li>
+     * <li>The {@code handOffTimeout} defaults to {@code 5000}.</li>
      * <li>The {@link Cache} defaults to {@link NoCache#INSTANCE}.</li>
      * </ul>
      * The (2) Threads required for command execution are created immediately. Additional threads are used to invoke
@@ -734,8 +944,8 @@ public void handleOnShutdownException(Throwable ex) {
      * The {@link CommandTargetResolver}, {@link MessageMonitor}, {@link RollbackConfiguration}, {@link ProducerType},
      * {@link WaitStrategy} and {@link Cache} are a <b>hard requirements</b>. Thus setting them to {@code null} will
      * result in an {@link AxonConfigurationException}.
-     * Additionally, the {@code coolingDownPeriod}, {@code publisherThreadCount}, {@code bufferSize} and
-     * {@code invokerThreadCount} have a positive number constraint, thus will also result in an
+     * Additionally, the {@code coolingDownPeriod}, {@code handOffTimeout}, {@code publisherThreadCount}, {@code
+     * bufferSize} and {@code invokerThreadCount} have a positive number constraint, thus will also result in an
      * AxonConfigurationException if set otherwise.
      */
     public static class Builder {
@@ -760,6 +970,9 @@ public static class Builder {
         private ProducerType producerType = ProducerType.MULTI;
         private WaitStrategy waitStrategy = new BlockingWaitStrategy();
         private int invokerThreadCount = 1;
+        private int maxInvokerThreadCount = 0;
+        private boolean groupCommit = false;
+        private long handOffTimeout = 5000;
         private Cache cache = NoCache.INSTANCE;
 
         /**
@@ -1008,6 +1221,56 @@ public Builder invokerThreadCount(int invokerThreadCount) {
             return this;
         }
 
+        /**
+         * Sets the maximum number of Threads that may be used to invoke the Command Handlers. This many invoker
+         * Threads are started, of which {@link #invokerThreadCount(int)} are initially assigned segments of
+         * aggregates. The number of active invokers can be changed using {@link
+         * DisruptorCommandBus#resizeInvokers(int)}. Defaults to the {@code invokerThreadCount}.
+         *
+         * @param maxInvokerThreadCount an {@code int} specifying the maximum number of Threads to use for Command
+         *                              Handler invocation
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxInvokerThreadCount(int maxInvokerThreadCount) {
+            assertInvokerThreadCount(maxInvokerThreadCount);
+            this.maxInvokerThreadCount = maxInvokerThreadCount;
+            return this;
+        }
+
+        /**
+         * Sets whether the publisher threads should commit all commands in a single batch of the ring buffer together,
+         * storing the events of these commands in a single append and transaction. When a batch fails to commit, its
+         * commands are rescheduled as if they were executed against corrupt state, after which they are committed
+         * individually.
+         * <p/>
+         * Defaults to {@code false}.
+         *
+         * @param groupCommit a {@code boolean} specifying whether commands in a batch should be committed together
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder groupCommit(boolean groupCommit) {
+            this.groupCommit = groupCommit;
+            return this;
+        }
+
+        /**
+         * Sets the time in milliseconds invokers wait for each other to hand off their aggregates when segments are
+         * reassigned by {@link DisruptorCommandBus#rebalance()} or {@link DisruptorCommandBus#resizeInvokers(int)}.
+         * When an invoker is still busy handling a command after this time, the reassignment is aborted and the
+         * invokers keep their current segments.
+         * <p/>
+         * Defaults to 5000 ms (5 seconds).
+         *
+         * @param handOffTimeout a {@code long} specifying the time to wait for invokers to hand off their aggregates,
+         *                       in milliseconds
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder handOffTimeout(long handOffTimeout) {
+            assertHandOffTimeout(handOffTimeout);
+            this.handOffTimeout = handOffTimeout;
+            return this;
+        }
+
         /**
          * Sets the {@link Cache} in which loaded aggregates will be stored. Aggregates that are not active in the
          * CommandBus' buffer will be loaded from this cache. If they are not in the cache, a new instance will be
@@ -1041,6 +1304,7 @@ public DisruptorCommandBus build() {
          */
         protected void validate() {
             assertCoolingDownPeriod(coolingDownPeriod);
+            assertHandOffTimeout(handOffTimeout);
             assertPublisherThreadCount(publisherThreadCount);
             assertBufferSize(bufferSize);
             assertInvokerThreadCount(invokerThreadCount);
@@ -1050,6 +1314,10 @@ private void assertCoolingDownPeriod(long coolingDownPeriod) {
             assertThat(coolingDownPeriod, count -> count > 0, "The cooling down period must be a positive number");
         }
 
+        private void assertHandOffTimeout(long handOffTimeout) {
+            assertThat(handOffTimeout, timeout -> timeout > 0, "The hand off timeout must be a positive number");
+        }
+
         private void assertBufferSize(int bufferSize) {
             assertThat(bufferSize, size -> size > 0 && size % 2 == 0,
                        "The buffer size must be positive and a power of 2");
@@ -16,6 +16,7 @@
 
 package org.axonframework.disruptor.commandhandling;
 
+import org.axonframework.common.Assert;
 import org.axonframework.messaging.Message;
 import org.axonframework.messaging.ResultMessage;
 import org.axonframework.messaging.unitofwork.*;
@@ -37,6 +38,7 @@
 public abstract class DisruptorUnitOfWork<T extends Message<?>> extends AbstractUnitOfWork<T> {
 
     private MessageProcessingContext<T> processingContext;
+    private UnitOfWork<?> batchUnitOfWork;
 
     /**
      * Resets the state of this Unit of Work, by setting its phase to {@code NOT_STARTED}, replacing the message
@@ -50,6 +52,7 @@ public void reset(T message) {
         } else {
             processingContext.reset(message);
         }
+        batchUnitOfWork = null;
         setPhase(Phase.NOT_STARTED);
         resources().clear();
         correlationDataProviders().clear();
@@ -71,9 +74,41 @@ public void resume() {
         CurrentUnitOfWork.set(this);
     }
 
+    /**
+     * Commits this Unit of Work as part of the given {@code batchUnitOfWork}, which becomes the parent of this Unit of
+     * Work. The prepare commit and commit phases of this Unit of Work are executed immediately, while the after commit
+     * phase is delayed until the batch has been committed. Events published in this Unit of Work are therefore stored
+     * together with those of the other Units of Work in the batch, when the batch is committed. If the batch is
+     * rolled back, so is this Unit of Work.
+     *
+     * @param batchUnitOfWork the started Unit of Work that is committed once all Units of Work in the batch have been
+     *                        committed
+     */
+    public void commitAsPartOf(UnitOfWork<?> batchUnitOfWork) {
+        Assert.state(phase() == Phase.STARTED,
+                     () -> String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
+        Assert.state(isCurrent(), () -> "The UnitOfWork is not the current Unit of Work");
+        this.batchUnitOfWork = batchUnitOfWork;
+        batchUnitOfWork.onCleanup(u -> changePhase(Phase.CLEANUP, Phase.CLOSED));
+        try {
+            changePhase(Phase.PREPARE_COMMIT, Phase.COMMIT);
+        } catch (Exception e) {
+            setRollbackCause(e);
+            changePhase(Phase.ROLLBACK);
+            throw e;
+        } finally {
+            CurrentUnitOfWork.clear(this);
+        }
+        batchUnitOfWork.afterCommit(u -> changePhase(Phase.AFTER_COMMIT));
+        batchUnitOfWork.onRollback(u -> {
+            setRollbackCause(u.getExecutionResult().getExceptionResult());
+            changePhase(Phase.ROLLBACK);
+        });
+    }
+
     @Override
     public Optional<UnitOfWork<?>> parent() {
-        return Optional.empty();
+        return Optional.ofNullable(batchUnitOfWork);
     }
 
     @Override
@@ -21,11 +21,16 @@
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.CommandResultMessage;
 import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.messaging.unitofwork.RollbackConfiguration;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
@@ -34,6 +39,13 @@
 
 /**
  * Component of the DisruptorCommandBus that stores and publishes events generated by the command's execution.
+ * <p>
+ * When group commit is enabled, the Units of Work of all entries handled in a single batch of the ring buffer are
+ * committed as part of a single Unit of Work, storing their events in a single append and transaction. The result of
+ * each command is reported once the batch has been committed. When the batch fails to commit, the aggregates of all
+ * entries in the batch are blacklisted and their commands are rescheduled if the DisruptorCommandBus is configured to
+ * do so. Rescheduled entries (see {@link CommandHandlingEntry#isRescheduled()}) are committed individually, to make
+ * sure a single failing command does not prevent others from being stored.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -47,6 +59,9 @@ public class EventPublisher implements EventHandler<CommandHandlingEntry> {
     private final int segmentId;
     private final Set<Object> blackListedAggregates = new HashSet<>();
     private final TransactionManager transactionManager;
+    private final boolean groupCommit;
+    private final List<CommandHandlingEntry> batchEntries = new ArrayList<>();
+    private UnitOfWork<?> batchUnitOfWork;
 
     /**
      * Initializes the EventPublisher to publish Events to the given {@code eventStore} and {@code eventBus}
@@ -60,25 +75,56 @@ public class EventPublisher implements EventHandler<CommandHandlingEntry> {
      */
     public EventPublisher(Executor executor, TransactionManager transactionManager,
                           RollbackConfiguration rollbackConfiguration, int segmentId) {
+        this(executor, transactionManager, rollbackConfiguration, segmentId, false);
+    }
+
+    /**
+     * Initializes the EventPublisher to publish Events to the given {@code eventStore} and {@code eventBus}
+     * for aggregate of given {@code aggregateType}, optionally committing the entries of a batch of the ring buffer
+     * together.
+     *
+     * @param executor              The executor which schedules response reporting
+     * @param transactionManager    The transaction manager that manages the transaction around event storage and
+     *                              publication
+     * @param rollbackConfiguration The configuration that indicates which exceptions should result in a UnitOfWork
+     * @param segmentId             The ID of the segment this publisher should handle
+     * @param groupCommit           Whether the entries of a batch of the ring buffer should be committed in a single
+     *                              Unit of Work
+     */
+    public EventPublisher(Executor executor, TransactionManager transactionManager,
+                          RollbackConfiguration rollbackConfiguration, int segmentId, boolean groupCommit) {
         this.executor = executor;
         this.transactionManager = transactionManager;
         this.rollbackConfiguration = rollbackConfiguration;
         this.segmentId = segmentId;
+        this.groupCommit = groupCommit;
     }
 
     @Override
     public void onEvent(CommandHandlingEntry entry, long sequence, boolean endOfBatch) {
         if (entry.isRecoverEntry()) {
+            commitBatch();
             recoverAggregate(entry);
         } else if (entry.getPublisherId() == segmentId) {
-            entry.resume();
             String aggregateIdentifier = entry.getAggregateIdentifier();
             if (aggregateIdentifier != null && blackListedAggregates.contains(aggregateIdentifier)) {
+                entry.resume();
                 rejectExecution(entry, aggregateIdentifier);
+            } else if (groupCommit && !entry.isRescheduled()) {
+                if (batchUnitOfWork == null) {
+                    startBatch();
+                }
+                entry.resume();
+                processBatchedPublication(entry, aggregateIdentifier);
             } else {
+                commitBatch();
+                entry.resume();
                 processPublication(entry, entry, aggregateIdentifier);
             }
         }
+        if (endOfBatch) {
+            commitBatch();
+        }
     }
 
     private void recoverAggregate(CommandHandlingEntry entry) {
@@ -97,12 +143,14 @@ private void rejectExecution(CommandHandlingEntry entry, String aggregateIdentif
                                aggregateIdentifier)
                 ))));
 
-        entry.getResult()
-             .optionalExceptionResult()
-             .ifPresent(entry::rollback);
+        Optional<Throwable> exceptionResult = entry.getResult().optionalExceptionResult();
+        if (exceptionResult.isPresent()) {
+            entry.rollback(exceptionResult.get());
+        } else {
+            entry.pause();
+        }
     }
 
-    @SuppressWarnings("unchecked")
     private void processPublication(CommandHandlingEntry entry,
                                     DisruptorUnitOfWork unitOfWork,
                                     String aggregateIdentifier) {
@@ -118,9 +166,82 @@ private void processPublication(CommandHandlingEntry entry,
         } else {
             phaseExceptionResult = performCommit(unitOfWork, exceptionResult, aggregateIdentifier);
         }
-        if (phaseExceptionResult != null || entry.getCallback().hasDelegate()) {
+        reportResult(entry, phaseExceptionResult);
+    }
+
+    private void startBatch() {
+        batchUnitOfWork = DefaultUnitOfWork.startAndGet(null);
+        if (transactionManager != null) {
+            batchUnitOfWork.attachTransaction(transactionManager);
+        }
+    }
+
+    private void processBatchedPublication(CommandHandlingEntry entry, String aggregateIdentifier) {
+        invokeInterceptorChain(entry);
+
+        Throwable exceptionResult = entry.getResult()
+                                         .optionalExceptionResult()
+                                         .orElse(null);
+        if (exceptionResult != null && rollbackConfiguration.rollBackOn(exceptionResult)) {
+            reportResult(entry, performRollback(entry, aggregateIdentifier, exceptionResult));
+            return;
+        }
+        batchEntries.add(entry);
+        try {
+            entry.commitAsPartOf(batchUnitOfWork);
+        } catch (Exception e) {
+            // one of the Units of Work failed to commit. None of the entries in the batch may be stored
+            batchUnitOfWork.rollback(e);
+            rejectBatch(e);
+        }
+    }
+
+    private void commitBatch() {
+        if (batchUnitOfWork == null) {
+            return;
+        }
+        try {
+            batchUnitOfWork.commit();
+        } catch (Exception e) {
+            rejectBatch(e);
+            return;
+        }
+        for (CommandHandlingEntry entry : batchEntries) {
+            reportResult(entry, entry.getResult().optionalExceptionResult().orElse(null));
+        }
+        clearBatch();
+    }
+
+    private void rejectBatch(Throwable cause) {
+        for (CommandHandlingEntry entry : batchEntries) {
+            String aggregateIdentifier = entry.getAggregateIdentifier();
+            Throwable batchFailure = new AggregateStateCorruptedException(
+                    aggregateIdentifier,
+                    "The events of this command were part of a batch that failed to commit.",
+                    cause);
+            if (aggregateIdentifier != null && blackListedAggregates.add(aggregateIdentifier)) {
+                reportResult(entry, new AggregateBlacklistedException(
+                        aggregateIdentifier,
+                        format("Aggregate %s state corrupted. "
+                                       + "Blacklisting the aggregate until a reset message has been received",
+                               aggregateIdentifier), batchFailure));
+            } else {
+                reportResult(entry, batchFailure);
+            }
+        }
+        clearBatch();
+    }
+
+    private void clearBatch() {
+        batchEntries.clear();
+        batchUnitOfWork = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reportResult(CommandHandlingEntry entry, Throwable exceptionResult) {
+        if (exceptionResult != null || entry.getCallback().hasDelegate()) {
             executor.execute(new ReportResultTask(
-                    entry.getMessage(), entry.getCallback(), asCommandResultMessage(phaseExceptionResult)
+                    entry.getMessage(), entry.getCallback(), asCommandResultMessage(exceptionResult)
             ));
         }
     }
@@ -24,6 +24,7 @@
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * Works as an in-memory cache to keep a weak reference to the cached object,
@@ -100,6 +101,24 @@ public EventSourcedAggregate<T> remove(Object key) {
         return getReferenceValue(delegate.remove(key));
     }
 
+    /**
+     * Removes all entries of which the key matches the given {@code keyFilter}.
+     *
+     * @param keyFilter The predicate deciding which keys to remove
+     * @return the entries removed, excluding those that have been garbage collected
+     */
+    public Map<String, EventSourcedAggregate<T>> removeAll(Predicate<String> keyFilter) {
+        processQueue();
+        Map<String, EventSourcedAggregate<T>> removed = new HashMap<>();
+        delegate.keySet().stream().filter(keyFilter).forEach(key -> {
+            EventSourcedAggregate<T> value = remove(key);
+            if (value != null) {
+                removed.put(key, value);
+            }
+        });
+        return removed;
+    }
+
     private EventSourcedAggregate<T> getReferenceValue(WeakValue valueRef) {
         return valueRef == null ? null : valueRef.get();
     }
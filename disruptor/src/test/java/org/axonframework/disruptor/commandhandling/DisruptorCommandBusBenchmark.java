@@ -35,9 +35,9 @@
 import org.axonframework.messaging.MessageDispatchInterceptor;
 import org.axonframework.messaging.MessageHandler;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -51,39 +51,75 @@
 public class DisruptorCommandBusBenchmark {
 
     private static final int COMMAND_COUNT = 50 * 1000 * 1000;
+    private static final int AGGREGATE_COUNT = 100;
+    private static final int HOT_AGGREGATE_COUNT = 5;
+    private static final int REBALANCE_INTERVAL = 1000 * 1000;
 
     public static void main(String[] args) throws InterruptedException {
         InMemoryEventStore eventStore = new InMemoryEventStore();
         StubHandler stubHandler = new StubHandler();
-        DisruptorCommandBus commandBus = DisruptorCommandBus.builder().build();
+        DisruptorCommandBus commandBus = DisruptorCommandBus.builder()
+                                                            .invokerThreadCount(2)
+                                                            .maxInvokerThreadCount(4)
+                                                            .build();
         commandBus.subscribe(StubCommand.class.getName(), stubHandler);
         stubHandler.setRepository(commandBus.createRepository(eventStore,
                                                               new GenericAggregateFactory<>(StubAggregate.class)));
-        final String aggregateIdentifier = "MyID";
-        eventStore.publish(new GenericDomainEventMessage<>("type", aggregateIdentifier, 0, new StubDomainEvent()));
+        String[] aggregateIdentifiers = new String[AGGREGATE_COUNT];
+        for (int i = 0; i < AGGREGATE_COUNT; i++) {
+            aggregateIdentifiers[i] = "MyID" + i;
+            eventStore.publish(new GenericDomainEventMessage<>("type", aggregateIdentifiers[i], 0,
+                                                               new StubDomainEvent()));
+        }
 
         long start = System.currentTimeMillis();
         for (int i = 0; i < COMMAND_COUNT; i++) {
+            // half of the commands target a small set of hot aggregates, skewing the load over the invokers
+            String aggregateIdentifier = i % 2 == 0
+                    ? aggregateIdentifiers[(i / 2) % HOT_AGGREGATE_COUNT]
+                    : aggregateIdentifiers[(i / 2) % AGGREGATE_COUNT];
             CommandMessage<StubCommand> command = asCommandMessage(new StubCommand(aggregateIdentifier));
             commandBus.dispatch(command);
+            if (i > 0 && i % REBALANCE_INTERVAL == 0) {
+                printInvokerStatistics(commandBus);
+                if (i == COMMAND_COUNT / 2) {
+                    commandBus.resizeInvokers(commandBus.getInvokerCount());
+                } else {
+                    commandBus.rebalance();
+                }
+            }
         }
         System.out.println("Finished dispatching!");
 
         eventStore.countDownLatch.await(5, TimeUnit.SECONDS);
         long end = System.currentTimeMillis();
         try {
-            assertEquals("Seems that some events are not stored", COMMAND_COUNT,
-                         eventStore.readEvents(aggregateIdentifier).asStream().count());
+            assertEquals("Seems that some events are not stored", 0, eventStore.countDownLatch.getCount());
+            printInvokerStatistics(commandBus);
             System.out.println("Did " + ((COMMAND_COUNT * 1000L) / (end - start)) + " commands per second");
         } finally {
             commandBus.stop();
         }
     }
 
+    private static void printInvokerStatistics(DisruptorCommandBus commandBus) {
+        StringBuilder statistics = new StringBuilder();
+        for (int invoker = 0; invoker < commandBus.getInvokerCount(); invoker++) {
+            long hits = commandBus.getInvokerCacheHitCount(invoker);
+            long total = hits + commandBus.getInvokerCacheMissCount(invoker);
+            statistics.append(String.format("invoker %d: segments=%d, queueDepth=%d, cacheHitRatio=%.4f%n",
+                                            invoker,
+                                            commandBus.getInvokerSegmentCount(invoker),
+                                            commandBus.getInvokerQueueDepth(invoker),
+                                            total == 0 ? 0d : (double) hits / total));
+        }
+        System.out.print(statistics);
+    }
+
     private static class InMemoryEventStore implements EventStore {
 
-        private final Map<String, DomainEventMessage> storedEvents = new HashMap<>();
-        private final CountDownLatch countDownLatch = new CountDownLatch((int) (COMMAND_COUNT + 1L));
+        private final Map<String, DomainEventMessage> storedEvents = new ConcurrentHashMap<>();
+        private final CountDownLatch countDownLatch = new CountDownLatch(COMMAND_COUNT + AGGREGATE_COUNT);
 
         @Override
         public void publish(List<? extends EventMessage<?>> events) {
@@ -30,4 +30,9 @@ public void testSetIllegalPublisherThreadCount() {
     public void testSetIllegalInvokerThreadCount() {
         DisruptorCommandBus.builder().invokerThreadCount(0).build();
     }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testSetIllegalHandOffTimeout() {
+        DisruptorCommandBus.builder().handOffTimeout(0).build();
+    }
 }
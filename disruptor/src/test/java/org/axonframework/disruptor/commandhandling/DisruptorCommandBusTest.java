@@ -22,6 +22,7 @@
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.CommandResultMessage;
 import org.axonframework.commandhandling.NoHandlerForCommandException;
+import org.axonframework.commandhandling.callbacks.FutureCallback;
 import org.axonframework.disruptor.commandhandling.utils.MockException;
 import org.axonframework.disruptor.commandhandling.utils.SomethingDoneEvent;
 import org.axonframework.modelling.command.TargetAggregateIdentifier;
@@ -44,7 +45,10 @@
 import org.axonframework.eventsourcing.SnapshotTrigger;
 import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
 import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
 import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
 import org.axonframework.eventhandling.TrackingEventStream;
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.messaging.InterceptorChain;
@@ -64,6 +68,7 @@
 import org.mockito.stubbing.*;
 
 import java.lang.reflect.Executable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -72,7 +77,9 @@
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
@@ -441,6 +448,245 @@ public void testCommandRejectedAfterShutdown() {
         testSubject.dispatch(asCommandMessage(new Object()));
     }
 
+    @Test(timeout = 10000)
+    public void testAggregatesAreHandedOffWhenInvokersAreRebalanced() throws Exception {
+        testSubject = DisruptorCommandBus.builder()
+                                         .invokerThreadCount(2)
+                                         .maxInvokerThreadCount(4)
+                                         .build();
+        testSubject.subscribe(StubCommand.class.getName(), stubHandler);
+        testSubject.subscribe(CreateCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(eventStore,
+                                                               new GenericAggregateFactory<>(StubAggregate.class)));
+        List<String> aggregateIdentifiers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            aggregateIdentifiers.add(UUID.randomUUID().toString());
+        }
+
+        List<FutureCallback<Object, Object>> callbacks = new ArrayList<>();
+        aggregateIdentifiers.forEach(id -> callbacks.add(dispatchWithCallback(new CreateCommand(id))));
+        for (int round = 0; round < 10; round++) {
+            if (round == 3) {
+                testSubject.resizeInvokers(4);
+            } else if (round == 6) {
+                testSubject.rebalance();
+            } else if (round == 8) {
+                testSubject.resizeInvokers(1);
+            }
+            aggregateIdentifiers.forEach(id -> callbacks.add(dispatchWithCallback(new StubCommand(id))));
+        }
+        for (FutureCallback<Object, Object> callback : callbacks) {
+            assertFalse(callback.getResult(5, TimeUnit.SECONDS).isExceptional());
+        }
+
+        long cacheHits = 0;
+        for (int invoker = 0; invoker < testSubject.getInvokerCount(); invoker++) {
+            assertEquals(0, testSubject.getInvokerCacheMissCount(invoker));
+            cacheHits += testSubject.getInvokerCacheHitCount(invoker);
+        }
+        assertEquals(200, cacheHits);
+        for (String aggregateIdentifier : aggregateIdentifiers) {
+            assertEquals(11, eventStore.storedEvents.get(aggregateIdentifier).getSequenceNumber());
+        }
+        assertEquals(4, testSubject.getInvokerCount());
+        assertEquals(1, testSubject.getActiveInvokerCount());
+        assertEquals(64, testSubject.getInvokerSegmentCount(0));
+        assertEquals(0, testSubject.getInvokerSegmentCount(1));
+    }
+
+    @Test(timeout = 10000)
+    public void testRebalanceIsAbortedWhenInvokerDoesNotHandOffInTime() throws Exception {
+        AtomicBoolean blockNextCommand = new AtomicBoolean();
+        CountDownLatch handlerBlocked = new CountDownLatch(1);
+        CountDownLatch handlerReleased = new CountDownLatch(1);
+        testSubject = DisruptorCommandBus.builder()
+                                         .invokerThreadCount(2)
+                                         .handOffTimeout(100)
+                                         .invokerInterceptors(singletonList((unitOfWork, chain) -> {
+                                             if (blockNextCommand.getAndSet(false)) {
+                                                 handlerBlocked.countDown();
+                                                 handlerReleased.await();
+                                             }
+                                             return chain.proceed();
+                                         }))
+                                         .build();
+        testSubject.subscribe(StubCommand.class.getName(), stubHandler);
+        testSubject.subscribe(CreateCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(eventStore,
+                                                               new GenericAggregateFactory<>(StubAggregate.class)));
+        List<String> aggregateIdentifiers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            aggregateIdentifiers.add(UUID.randomUUID().toString());
+        }
+        for (String aggregateIdentifier : aggregateIdentifiers) {
+            assertFalse(dispatchWithCallback(new CreateCommand(aggregateIdentifier))
+                                .getResult(5, TimeUnit.SECONDS).isExceptional());
+        }
+
+        blockNextCommand.set(true);
+        FutureCallback<Object, Object> blockedCallback =
+                dispatchWithCallback(new StubCommand(aggregateIdentifiers.get(0)));
+        handlerBlocked.await();
+        testSubject.resizeInvokers(1);
+        while (testSubject.getActiveInvokerCount() != 2) {
+            Thread.sleep(10);
+        }
+        handlerReleased.countDown();
+
+        assertFalse(blockedCallback.getResult(5, TimeUnit.SECONDS).isExceptional());
+        for (String aggregateIdentifier : aggregateIdentifiers) {
+            assertFalse(dispatchWithCallback(new StubCommand(aggregateIdentifier))
+                                .getResult(5, TimeUnit.SECONDS).isExceptional());
+        }
+        assertEquals(16, testSubject.getInvokerSegmentCount(0));
+        assertEquals(16, testSubject.getInvokerSegmentCount(1));
+        // the aggregates handed off before the rebalance was aborted have been taken back by their owner
+        assertEquals(0, testSubject.getInvokerCacheMissCount(0));
+        assertEquals(0, testSubject.getInvokerCacheMissCount(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResizeInvokersBeyondMaximumInvokerThreadCountIsRejected() {
+        testSubject = DisruptorCommandBus.builder()
+                                         .invokerThreadCount(2)
+                                         .maxInvokerThreadCount(4)
+                                         .build();
+
+        testSubject.resizeInvokers(5);
+    }
+
+    @Test(timeout = 10000)
+    public void testGroupCommitStoresEventsOfBatchInSingleAppendAndTransaction() throws Exception {
+        InMemoryEventStorageEngine storageEngine = spy(new InMemoryEventStorageEngine());
+        Transaction mockTransaction = mock(Transaction.class);
+        mockTransactionManager = mock(TransactionManager.class);
+        when(mockTransactionManager.startTransaction()).thenReturn(mockTransaction);
+        CountDownLatch publisherReleased = new CountDownLatch(1);
+        testSubject = DisruptorCommandBus.builder()
+                                         .groupCommit(true)
+                                         .transactionManager(mockTransactionManager)
+                                         .publisherInterceptors(singletonList((unitOfWork, chain) -> {
+                                             publisherReleased.await();
+                                             return chain.proceed();
+                                         }))
+                                         .build();
+
+        List<FutureCallback<Object, Object>> callbacks = dispatchCreateCommands(storageEngine, 10);
+        awaitInvokers();
+        publisherReleased.countDown();
+        for (FutureCallback<Object, Object> callback : callbacks) {
+            assertFalse(callback.getResult(5, TimeUnit.SECONDS).isExceptional());
+        }
+
+        // the first entry is blocked in its own batch, the remaining entries are committed together
+        verify(storageEngine, atMost(2)).appendEvents(anyList());
+        verify(mockTransactionManager, atMost(2)).startTransaction();
+        assertEquals(20, storageEngine.readEvents(null, false).count());
+    }
+
+    @Test(timeout = 10000)
+    public void testFailedGroupCommitReschedulesCommandsOfBatch() throws Exception {
+        InMemoryEventStorageEngine storageEngine = spy(new InMemoryEventStorageEngine());
+        doThrow(new MockException()).doCallRealMethod().when(storageEngine).appendEvents(anyList());
+        CountDownLatch publisherReleased = new CountDownLatch(1);
+        testSubject = DisruptorCommandBus.builder()
+                                         .groupCommit(true)
+                                         .publisherInterceptors(singletonList((unitOfWork, chain) -> {
+                                             publisherReleased.await();
+                                             return chain.proceed();
+                                         }))
+                                         .build();
+
+        List<FutureCallback<Object, Object>> callbacks = dispatchCreateCommands(storageEngine, 10);
+        awaitInvokers();
+        publisherReleased.countDown();
+        for (FutureCallback<Object, Object> callback : callbacks) {
+            assertFalse(callback.getResult(5, TimeUnit.SECONDS).isExceptional());
+        }
+
+        assertEquals(20, storageEngine.readEvents(null, false).count());
+    }
+
+    @Test(timeout = 10000)
+    public void testCommandsOfFailedGroupCommitWithoutRescheduleAreGroupCommittedWhenDispatchedAgain()
+            throws Exception {
+        InMemoryEventStorageEngine storageEngine = spy(new InMemoryEventStorageEngine());
+        doThrow(new MockException()).when(storageEngine).appendEvents(anyList());
+        AtomicReference<CountDownLatch> publisherReleased = new AtomicReference<>(new CountDownLatch(1));
+        testSubject = DisruptorCommandBus.builder()
+                                         .groupCommit(true)
+                                         .rescheduleCommandsOnCorruptState(false)
+                                         .publisherInterceptors(singletonList((unitOfWork, chain) -> {
+                                             publisherReleased.get().await();
+                                             return chain.proceed();
+                                         }))
+                                         .build();
+        EventStore embeddedEventStore = EmbeddedEventStore.builder().storageEngine(storageEngine).build();
+        testSubject.subscribe(CreateCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(embeddedEventStore,
+                                                               new GenericAggregateFactory<>(StubAggregate.class)));
+        List<CommandMessage<Object>> commands = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            commands.add(asCommandMessage(new CreateCommand(UUID.randomUUID().toString())));
+        }
+
+        List<FutureCallback<Object, Object>> callbacks = dispatchWithCallbacks(commands);
+        awaitInvokers();
+        publisherReleased.get().countDown();
+        for (FutureCallback<Object, Object> callback : callbacks) {
+            assertTrue(callback.getResult(5, TimeUnit.SECONDS).isExceptional());
+        }
+        assertEquals(0, storageEngine.readEvents(null, false).count());
+
+        reset(storageEngine);
+        publisherReleased.set(new CountDownLatch(1));
+        callbacks = dispatchWithCallbacks(commands);
+        awaitInvokers();
+        publisherReleased.get().countDown();
+        for (FutureCallback<Object, Object> callback : callbacks) {
+            assertFalse(callback.getResult(5, TimeUnit.SECONDS).isExceptional());
+        }
+
+        // the first entry is blocked in its own batch, the remaining entries are committed together
+        verify(storageEngine, atMost(2)).appendEvents(anyList());
+        assertEquals(20, storageEngine.readEvents(null, false).count());
+    }
+
+    private List<FutureCallback<Object, Object>> dispatchWithCallbacks(List<CommandMessage<Object>> commands) {
+        List<FutureCallback<Object, Object>> callbacks = new ArrayList<>();
+        for (CommandMessage<Object> command : commands) {
+            FutureCallback<Object, Object> callback = new FutureCallback<>();
+            testSubject.dispatch(command, callback);
+            callbacks.add(callback);
+        }
+        return callbacks;
+    }
+
+    private List<FutureCallback<Object, Object>> dispatchCreateCommands(EventStorageEngine storageEngine,
+                                                                        int commandCount) {
+        EventStore embeddedEventStore = EmbeddedEventStore.builder().storageEngine(storageEngine).build();
+        testSubject.subscribe(CreateCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(embeddedEventStore,
+                                                               new GenericAggregateFactory<>(StubAggregate.class)));
+        List<FutureCallback<Object, Object>> callbacks = new ArrayList<>();
+        for (int i = 0; i < commandCount; i++) {
+            callbacks.add(dispatchWithCallback(new CreateCommand(UUID.randomUUID().toString())));
+        }
+        return callbacks;
+    }
+
+    private void awaitInvokers() throws InterruptedException {
+        while (testSubject.getInvokerQueueDepth(0) > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    private FutureCallback<Object, Object> dispatchWithCallback(Object payload) {
+        FutureCallback<Object, Object> callback = new FutureCallback<>();
+        testSubject.dispatch(asCommandMessage(payload), callback);
+        return callback;
+    }
+
     @Test(timeout = 10000)
     public void testCommandProcessedAndEventsStored() throws InterruptedException {
         testSubject = DisruptorCommandBus.builder().build();
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.eventsourcing;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+
+import java.io.Serializable;
+
+/**
+ * Abstract implementation of a {@link SnapshotTrigger} that decides whether to snapshot an aggregate based on the
+ * cost of loading it. Implementations are notified of each historic event read while initializing the aggregate, and
+ * are asked whether the threshold has been exceeded when initialization has finished. Events applied after
+ * initialization are ignored, as they do not influence the cost of the current load.
+ * <p>
+ * Snapshot events read from the event store are not passed to implementations. When only a snapshot was read during
+ * initialization, no snapshot is triggered, as a new snapshot would not make loading the aggregate any cheaper.
+ * <p>
+ * When a Unit of Work is active, the snapshot is scheduled when it is cleaned up, so it is taken regardless of the
+ * outcome of the command that caused the aggregate to be loaded.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public abstract class AbstractAggregateLoadSnapshotTrigger implements SnapshotTrigger, Serializable {
+
+    private final Class<?> aggregateType;
+    private transient Snapshotter snapshotter;
+    private String aggregateIdentifier;
+    private boolean initialized;
+    private boolean eventsRead;
+
+    /**
+     * Initializes the trigger to schedule snapshots with the given {@code snapshotter} for aggregates of the given
+     * {@code aggregateType}.
+     *
+     * @param snapshotter   the snapshotter to notify when a snapshot needs to be taken
+     * @param aggregateType the type of aggregate the trigger is created for
+     */
+    protected AbstractAggregateLoadSnapshotTrigger(Snapshotter snapshotter, Class<?> aggregateType) {
+        this.snapshotter = snapshotter;
+        this.aggregateType = aggregateType;
+    }
+
+    @Override
+    public void eventHandled(EventMessage<?> msg) {
+        if (initialized || !(msg instanceof DomainEventMessage)) {
+            return;
+        }
+        DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) msg;
+        aggregateIdentifier = domainEvent.getAggregateIdentifier();
+        if (!aggregateType.isAssignableFrom(domainEvent.getPayloadType())) {
+            eventsRead = true;
+            historicEventHandled(domainEvent);
+        }
+    }
+
+    @Override
+    public void initializationFinished() {
+        initialized = true;
+        if (eventsRead && exceedsThreshold()) {
+            String identifier = aggregateIdentifier;
+            if (CurrentUnitOfWork.isStarted()) {
+                CurrentUnitOfWork.get().onCleanup(u -> snapshotter.scheduleSnapshot(aggregateType, identifier));
+            } else {
+                snapshotter.scheduleSnapshot(aggregateType, identifier);
+            }
+        }
+    }
+
+    /**
+     * Sets the snapshotter to notify when a snapshot needs to be taken. Used to reattach the snapshotter after
+     * deserialization.
+     *
+     * @param snapshotter the snapshotter to notify when a snapshot needs to be taken
+     */
+    public void setSnapshotter(Snapshotter snapshotter) {
+        this.snapshotter = snapshotter;
+    }
+
+    /**
+     * Invoked for each historic event read while initializing the aggregate. Snapshot events are not passed to this
+     * method.
+     *
+     * @param event the event read from the event store
+     */
+    protected abstract void historicEventHandled(DomainEventMessage<?> event);
+
+    /**
+     * Indicates whether the cost of loading the aggregate exceeded the threshold. Invoked once, when the
+     * initialization of the aggregate has finished.
+     *
+     * @return {@code true} if a snapshot should be taken, otherwise {@code false}
+     */
+    protected abstract boolean exceedsThreshold();
+}
@@ -27,13 +27,32 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
 
 /**
  * Abstract implementation of the {@link org.axonframework.eventsourcing.Snapshotter} that uses a task executor to
  * creates snapshots. Actual snapshot creation logic should be provided by a subclass.
+ * <p>
+ * Scheduled snapshots are placed in a queue, keyed by aggregate type and identifier. Scheduling a snapshot for an
+ * aggregate that is already waiting in the queue has no effect, which means a burst of triggers for a single aggregate
+ * results in a single snapshot. The number of tasks processing the queue concurrently may be limited using {@link
+ * Builder#maxConcurrentSnapshots(int)}. Each task takes up to {@link Builder#batchSize(int)} aggregates from the queue
+ * and stores the resulting snapshots using a single call to {@link EventStore#storeSnapshots(List)}. When the executor
+ * rejects a task, the aggregates remain queued and a new task is attempted when the next snapshot is scheduled.
  *
  * @author Allard Buijze
  * @since 0.6
@@ -45,6 +64,14 @@ public abstract class AbstractSnapshotter implements Snapshotter {
     private final EventStore eventStore;
     private final Executor executor;
     private final TransactionManager transactionManager;
+    private final int batchSize;
+    private final int maxConcurrentSnapshots;
+
+    private final Queue<AggregateKey> queue = new ConcurrentLinkedQueue<>();
+    private final Set<AggregateKey> scheduledSnapshots = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final LongAdder snapshotCount = new LongAdder();
+    private final LongAdder snapshotTimeNanos = new LongAdder();
 
     /**
      * Instantiate a {@link AbstractSnapshotter} based on the fields contained in the {@link Builder}.
@@ -59,12 +86,142 @@ protected AbstractSnapshotter(Builder builder) {
         this.eventStore = builder.eventStore;
         this.executor = builder.executor;
         this.transactionManager = builder.transactionManager;
+        this.batchSize = builder.batchSize;
+        this.maxConcurrentSnapshots = builder.maxConcurrentSnapshots;
     }
 
     @Override
     public void scheduleSnapshot(Class<?> aggregateType, String aggregateIdentifier) {
-        executor.execute(new SilentTask(() -> transactionManager
-                .executeInTransaction(createSnapshotterTask(aggregateType, aggregateIdentifier))));
+        AggregateKey key = new AggregateKey(aggregateType, aggregateIdentifier);
+        if (scheduledSnapshots.add(key)) {
+            queue.add(key);
+            startTaskIfRequired();
+        } else if (activeTasks.get() == 0) {
+            // the aggregate is queued, but the executor may have rejected the task that should process it
+            startTaskIfRequired();
+        }
+    }
+
+    private void startTaskIfRequired() {
+        int active = activeTasks.get();
+        while (active < maxConcurrentSnapshots && !queue.isEmpty()) {
+            if (activeTasks.compareAndSet(active, active + 1)) {
+                try {
+                    executor.execute(this::processQueue);
+                } catch (RejectedExecutionException e) {
+                    activeTasks.decrementAndGet();
+                    logger.warn("The executor rejected the snapshotter task. The {} aggregates waiting for a "
+                                        + "snapshot remain queued until the next snapshot is scheduled.",
+                                scheduledSnapshots.size(), e);
+                }
+                return;
+            }
+            active = activeTasks.get();
+        }
+    }
+
+    private void processQueue() {
+        try {
+            List<AggregateKey> batch = nextBatch();
+            while (!batch.isEmpty()) {
+                processBatch(batch);
+                batch = nextBatch();
+            }
+        } finally {
+            activeTasks.decrementAndGet();
+        }
+        // an aggregate may have been queued after this task found the queue empty, but before it was deactivated
+        startTaskIfRequired();
+    }
+
+    private void processBatch(List<AggregateKey> batch) {
+        long start = System.nanoTime();
+        if (batch.size() == 1) {
+            AggregateKey key = batch.get(0);
+            new SilentTask(() -> transactionManager.executeInTransaction(
+                    createSnapshotterTask(key.aggregateType, key.identifier)
+            )).run();
+        } else {
+            new SilentTask(() -> transactionManager.executeInTransaction(() -> storeSnapshots(batch))).run();
+        }
+        snapshotTimeNanos.add(System.nanoTime() - start);
+        snapshotCount.add(batch.size());
+    }
+
+    private List<AggregateKey> nextBatch() {
+        List<AggregateKey> batch = new ArrayList<>();
+        AggregateKey key;
+        while (batch.size() < batchSize && (key = queue.poll()) != null) {
+            // triggers arriving from now on require a new snapshot, as they may concern events not included in this one
+            scheduledSnapshots.remove(key);
+            batch.add(key);
+        }
+        return batch;
+    }
+
+    private void storeSnapshots(List<AggregateKey> batch) {
+        List<DomainEventMessage<?>> snapshots = new ArrayList<>(batch.size());
+        for (AggregateKey key : batch) {
+            new SilentTask(() -> {
+                DomainEventMessage<?> snapshot = createSnapshotEvent(key.aggregateType, key.identifier);
+                if (snapshot != null) {
+                    snapshots.add(snapshot);
+                }
+            }).run();
+        }
+        if (!snapshots.isEmpty()) {
+            eventStore.storeSnapshots(snapshots);
+        }
+    }
+
+    private DomainEventMessage<?> createSnapshotEvent(Class<?> aggregateType, String identifier) {
+        DomainEventStream eventStream = eventStore.readEvents(identifier);
+        // a snapshot should only be stored if the snapshot replaces at least more than one event
+        long firstEventSequenceNumber = eventStream.peek().getSequenceNumber();
+        DomainEventMessage<?> snapshotEvent = createSnapshot(aggregateType, identifier, eventStream);
+        if (snapshotEvent != null && snapshotEvent.getSequenceNumber() > firstEventSequenceNumber) {
+            return snapshotEvent;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of aggregates for which a snapshot has been scheduled, but for which snapshot creation has
+     * not started yet.
+     *
+     * @return the number of aggregates waiting for a snapshot to be created
+     */
+    public int getQueueDepth() {
+        return scheduledSnapshots.size();
+    }
+
+    /**
+     * Returns the number of tasks currently creating snapshots.
+     *
+     * @return the number of tasks currently creating snapshots
+     */
+    public int getActiveTaskCount() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Returns the number of aggregates for which snapshot creation has been attempted, successfully or not.
+     *
+     * @return the number of aggregates for which snapshot creation has been attempted
+     */
+    public long getSnapshotCount() {
+        return snapshotCount.sum();
+    }
+
+    /**
+     * Returns the total time spent creating and storing snapshots, in the given {@code unit}. Dividing this value by
+     * {@link #getSnapshotCount()} provides the average time spent per snapshot.
+     *
+     * @param unit the unit of time to return the value in
+     * @return the total time spent creating and storing snapshots
+     */
+    public long getTotalSnapshotTime(TimeUnit unit) {
+        return unit.convert(snapshotTimeNanos.sum(), TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -111,15 +268,18 @@ protected Executor getExecutor() {
     /**
      * Abstract Builder class to instantiate {@link AbstractSnapshotter} implementations.
      * <p>
-     * The {@link Executor} is defaulted to an {@link DirectExecutor#INSTANCE} and the {@link TransactionManager}
-     * defaults to a {@link NoTransactionManager}. The {@link EventStore} is a <b>hard requirement</b> and as such
-     * should be provided.
+     * The {@link Executor} is defaulted to an {@link DirectExecutor#INSTANCE}, the {@link TransactionManager}
+     * defaults to a {@link NoTransactionManager}, the batch size to {@code 1} and the maximum number of concurrent
+     * snapshot tasks is unbounded. The {@link EventStore} is a <b>hard requirement</b> and as such should be
+     * provided.
      */
     public abstract static class Builder {
 
         private EventStore eventStore;
         private Executor executor = DirectExecutor.INSTANCE;
         private TransactionManager transactionManager = NoTransactionManager.INSTANCE;
+        private int batchSize = 1;
+        private int maxConcurrentSnapshots = Integer.MAX_VALUE;
 
         /**
          * Sets the {@link EventStore} instance which this {@link AbstractSnapshotter} implementation will store
@@ -162,6 +322,36 @@ public Builder transactionManager(TransactionManager transactionManager) {
             return this;
         }
 
+        /**
+         * Sets the maximum number of aggregates for which snapshots are created and stored in a single transaction.
+         * Snapshots created together are stored using a single call to {@link EventStore#storeSnapshots(List)}.
+         * Defaults to {@code 1}, storing each snapshot in its own transaction.
+         *
+         * @param batchSize the maximum number of snapshots created and stored in a single transaction
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder batchSize(int batchSize) {
+            assertThat(batchSize, b -> b > 0, "The batch size should be a positive number");
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of tasks submitted to the {@link Executor} that create snapshots concurrently. This
+         * bounds the number of aggregates being loaded, and the number of connections to the event storage being used,
+         * for snapshotting at any time. Snapshots scheduled while this number of tasks is active are queued. Defaults
+         * to an unbounded number of tasks.
+         *
+         * @param maxConcurrentSnapshots the maximum number of tasks creating snapshots concurrently
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxConcurrentSnapshots(int maxConcurrentSnapshots) {
+            assertThat(maxConcurrentSnapshots, m -> m > 0,
+                       "The maximum number of concurrent snapshots should be a positive number");
+            this.maxConcurrentSnapshots = maxConcurrentSnapshots;
+            return this;
+        }
+
         /**
          * Validates whether the fields contained in this Builder are set accordingly.
          *
@@ -210,13 +400,38 @@ private CreateSnapshotTask(Class<?> aggregateType, String identifier) {
 
         @Override
         public void run() {
-            DomainEventStream eventStream = eventStore.readEvents(identifier);
-            // a snapshot should only be stored if the snapshot replaces at least more than one event
-            long firstEventSequenceNumber = eventStream.peek().getSequenceNumber();
-            DomainEventMessage snapshotEvent = createSnapshot(aggregateType, identifier, eventStream);
-            if (snapshotEvent != null && snapshotEvent.getSequenceNumber() > firstEventSequenceNumber) {
+            DomainEventMessage<?> snapshotEvent = createSnapshotEvent(aggregateType, identifier);
+            if (snapshotEvent != null) {
                 eventStore.storeSnapshot(snapshotEvent);
             }
         }
     }
+
+    private static final class AggregateKey {
+
+        private final Class<?> aggregateType;
+        private final String identifier;
+
+        private AggregateKey(Class<?> aggregateType, String identifier) {
+            this.aggregateType = aggregateType;
+            this.identifier = identifier;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            AggregateKey that = (AggregateKey) o;
+            return Objects.equals(aggregateType, that.aggregateType) && Objects.equals(identifier, that.identifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(aggregateType, identifier);
+        }
+    }
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.modelling.command.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * Component that warms up the cache of a {@link CachingEventSourcingRepository} by loading the aggregates provided by
+ * an {@link AggregateIdentifierSource}. Each aggregate is loaded in its own {@link UnitOfWork}, which causes the
+ * repository to store it in its cache when the Unit of Work commits. Loading uses the regular repository logic, so
+ * snapshots are used when available.
+ * <p>
+ * Aggregates are loaded in parallel, using a configurable number of threads. Failure to load an individual aggregate
+ * (for example because it has been deleted) is logged and does not prevent other aggregates from being loaded.
+ * Progress is logged as loading proceeds.
+ * <p>
+ * Preloading is typically done before the command handlers of an aggregate are subscribed to the command bus, for
+ * example using {@code AggregateConfigurer#configureCachePreloading}.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class AggregateCachePreloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(AggregateCachePreloader.class);
+
+    private final Repository<?> repository;
+    private final AggregateIdentifierSource identifierSource;
+    private final int maximumAggregates;
+    private final int threadCount;
+    private final TransactionManager transactionManager;
+
+    /**
+     * Instantiate a {@link AggregateCachePreloader} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the {@link Repository} and {@link AggregateIdentifierSource} are not {@code null}, and will
+     * throw an {@link AxonConfigurationException} if either of them is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link AggregateCachePreloader} instance
+     */
+    protected AggregateCachePreloader(Builder builder) {
+        builder.validate();
+        this.repository = builder.repository;
+        this.identifierSource = builder.identifierSource;
+        this.maximumAggregates = builder.maximumAggregates;
+        this.threadCount = builder.threadCount;
+        this.transactionManager = builder.transactionManager;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link AggregateCachePreloader}.
+     * <p>
+     * The maximum number of aggregates defaults to {@code 1000}, the number of threads to {@code 4} and the {@link
+     * TransactionManager} to a {@link NoTransactionManager}. The {@link Repository} and {@link
+     * AggregateIdentifierSource} are <b>hard requirements</b> and as such should be provided.
+     *
+     * @return a Builder to be able to create a {@link AggregateCachePreloader}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Loads the aggregates provided by the {@link AggregateIdentifierSource} into the cache of the repository. This
+     * method blocks until all aggregates have been loaded, or have failed to load.
+     *
+     * @return the number of aggregates that have been loaded successfully
+     */
+    public int preload() {
+        List<String> identifiers = identifierSource.aggregateIdentifiers(maximumAggregates);
+        if (identifiers.isEmpty()) {
+            logger.info("No aggregates found to preload into the cache");
+            return 0;
+        }
+        int total = Math.min(identifiers.size(), maximumAggregates);
+        int reportInterval = Math.max(1, total / 10);
+        logger.info("Preloading {} aggregates into the cache", total);
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger loaded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, total),
+                                                                new AxonThreadFactory("AggregateCachePreloader"));
+        try {
+            CompletableFuture<?>[] tasks =
+                    identifiers.stream()
+                               .limit(total)
+                               .map(identifier -> CompletableFuture.runAsync(() -> {
+                                   if (load(identifier)) {
+                                       loaded.incrementAndGet();
+                                   }
+                                   int count = processed.incrementAndGet();
+                                   if (count % reportInterval == 0 || count == total) {
+                                       logger.info("Preloaded {} of {} aggregates", count, total);
+                                   }
+                               }, executor))
+                               .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(tasks).join();
+        } finally {
+            executor.shutdown();
+        }
+        logger.info("Finished preloading. {} of {} aggregates were loaded into the cache", loaded.get(), total);
+        return loaded.get();
+    }
+
+    private boolean load(String aggregateIdentifier) {
+        UnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        try {
+            unitOfWork.execute(() -> {
+                unitOfWork.attachTransaction(transactionManager);
+                repository.load(aggregateIdentifier);
+            });
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to preload aggregate [{}]. Exception summary: {}", aggregateIdentifier, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link AggregateCachePreloader}.
+     * <p>
+     * The maximum number of aggregates defaults to {@code 1000}, the number of threads to {@code 4} and the {@link
+     * TransactionManager} to a {@link NoTransactionManager}. The {@link Repository} and {@link
+     * AggregateIdentifierSource} are <b>hard requirements</b> and as such should be provided.
+     */
+    public static class Builder {
+
+        private Repository<?> repository;
+        private AggregateIdentifierSource identifierSource;
+        private int maximumAggregates = 1000;
+        private int threadCount = 4;
+        private TransactionManager transactionManager = NoTransactionManager.INSTANCE;
+
+        /**
+         * Sets the {@link Repository} to load the aggregates from. For preloading to have effect, this repository
+         * should cache the aggregates it loads, like the {@link CachingEventSourcingRepository} does.
+         *
+         * @param repository the {@link Repository} to load the aggregates from
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder repository(Repository<?> repository) {
+            assertNonNull(repository, "Repository may not be null");
+            this.repository = repository;
+            return this;
+        }
+
+        /**
+         * Sets the {@link AggregateIdentifierSource} providing the identifiers of the aggregates to preload.
+         *
+         * @param identifierSource the {@link AggregateIdentifierSource} providing the identifiers of the aggregates
+         *                         to preload
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder identifierSource(AggregateIdentifierSource identifierSource) {
+            assertNonNull(identifierSource, "AggregateIdentifierSource may not be null");
+            this.identifierSource = identifierSource;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of aggregates to preload. Defaults to {@code 1000}.
+         *
+         * @param maximumAggregates the maximum number of aggregates to preload
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maximumAggregates(int maximumAggregates) {
+            assertThat(maximumAggregates, m -> m > 0, "The maximum number of aggregates should be a positive number");
+            this.maximumAggregates = maximumAggregates;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads used to load aggregates in parallel. Defaults to {@code 4}.
+         *
+         * @param threadCount the number of threads used to load aggregates in parallel
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder threadCount(int threadCount) {
+            assertThat(threadCount, t -> t > 0, "The thread count should be a positive number");
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        /**
+         * Sets the {@link TransactionManager} used to manage the transaction around loading each aggregate. Defaults
+         * to a {@link NoTransactionManager}.
+         *
+         * @param transactionManager the {@link TransactionManager} used to manage the transaction around loading
+         *                           each aggregate
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder transactionManager(TransactionManager transactionManager) {
+            assertNonNull(transactionManager, "TransactionManager may not be null");
+            this.transactionManager = transactionManager;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link AggregateCachePreloader} as specified through this Builder.
+         *
+         * @return a {@link AggregateCachePreloader} as specified through this Builder
+         */
+        public AggregateCachePreloader build() {
+            return new AggregateCachePreloader(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(repository, "The Repository is a hard requirement and should be provided");
+            assertNonNull(identifierSource,
+                          "The AggregateIdentifierSource is a hard requirement and should be provided");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing;
+
+import java.util.List;
+
+/**
+ * Provides the identifiers of the aggregates that should be loaded into a cache by the {@link
+ * AggregateCachePreloader}. Implementations may derive the identifiers from the event store (see {@link
+ * RecentlyActiveAggregatesSource}) or from a persisted list of hot aggregates.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@FunctionalInterface
+public interface AggregateIdentifierSource {
+
+    /**
+     * Returns the identifiers of the aggregates to preload, ordered by priority. The first identifier is the one
+     * most likely to be used. No more than the given {@code maximum} number of identifiers should be returned.
+     *
+     * @param maximum the maximum number of identifiers to return
+     * @return a List with the identifiers of the aggregates to preload
+     */
+    List<String> aggregateIdentifiers(int maximum);
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.eventsourcing;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+
+/**
+ * Snapshotter trigger mechanism that measures the time it takes to load an aggregate. A snapshot is triggered when
+ * the time between the start of loading the aggregate and the moment its initialization has finished exceeds the
+ * given threshold. This allows snapshots to target aggregates with expensive event sourcing handlers or large events,
+ * rather than just aggregates with many events.
+ * <p>
+ * Time is measured using the {@link GenericEventMessage#clock}.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class AggregateLoadTimeSnapshotTriggerDefinition implements SnapshotTriggerDefinition {
+
+    private final Snapshotter snapshotter;
+    private final long loadTimeMillisThreshold;
+
+    /**
+     * Initialize the SnapshotTriggerDefinition to trigger snapshots using the given {@code snapshotter} when loading
+     * an aggregate instance takes longer than {@code loadTimeMillisThreshold} milliseconds.
+     *
+     * @param snapshotter             the snapshotter to notify when a snapshot needs to be taken
+     * @param loadTimeMillisThreshold the maximum number of milliseconds loading an aggregate may take without
+     *                                triggering a snapshot
+     */
+    public AggregateLoadTimeSnapshotTriggerDefinition(Snapshotter snapshotter, long loadTimeMillisThreshold) {
+        this.snapshotter = snapshotter;
+        this.loadTimeMillisThreshold = loadTimeMillisThreshold;
+    }
+
+    @Override
+    public SnapshotTrigger prepareTrigger(Class<?> aggregateType) {
+        return new AggregateLoadTimeSnapshotTrigger(snapshotter, aggregateType, loadTimeMillisThreshold);
+    }
+
+    @Override
+    public SnapshotTrigger reconfigure(Class<?> aggregateType, SnapshotTrigger trigger) {
+        if (trigger instanceof AggregateLoadTimeSnapshotTrigger) {
+            ((AggregateLoadTimeSnapshotTrigger) trigger).setSnapshotter(snapshotter);
+            return trigger;
+        }
+        return new AggregateLoadTimeSnapshotTrigger(snapshotter, aggregateType, loadTimeMillisThreshold);
+    }
+
+    private static class AggregateLoadTimeSnapshotTrigger extends AbstractAggregateLoadSnapshotTrigger {
+
+        private final long loadTimeMillisThreshold;
+        private final long startTime;
+
+        private AggregateLoadTimeSnapshotTrigger(Snapshotter snapshotter, Class<?> aggregateType,
+                                                 long loadTimeMillisThreshold) {
+            super(snapshotter, aggregateType);
+            this.loadTimeMillisThreshold = loadTimeMillisThreshold;
+            this.startTime = GenericEventMessage.clock.millis();
+        }
+
+        @Override
+        protected void historicEventHandled(DomainEventMessage<?> event) {
+        }
+
+        @Override
+        protected boolean exceedsThreshold() {
+            return GenericEventMessage.clock.millis() - startTime > loadTimeMillisThreshold;
+        }
+    }
+}
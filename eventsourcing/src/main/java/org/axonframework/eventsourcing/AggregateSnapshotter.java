@@ -189,6 +189,18 @@ public Builder transactionManager(TransactionManager transactionManager) {
             return this;
         }
 
+        @Override
+        public Builder batchSize(int batchSize) {
+            super.batchSize(batchSize);
+            return this;
+        }
+
+        @Override
+        public Builder maxConcurrentSnapshots(int maxConcurrentSnapshots) {
+            super.maxConcurrentSnapshots(maxConcurrentSnapshots);
+            return this;
+        }
+
         /**
          * Sets the {@code aggregateFactories} supported by this snapshotter. The {@link AggregateFactory} instances are
          * used to create the relevant Aggregate Root instance, which represent the snapshots.
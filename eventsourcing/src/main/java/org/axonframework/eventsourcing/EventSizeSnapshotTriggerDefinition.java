@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.eventsourcing;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.serialization.Serializer;
+
+/**
+ * Snapshotter trigger mechanism that measures the size of the serialized events read to load an aggregate. A snapshot
+ * is triggered when the total size of the payload and meta data of the events read while initializing an aggregate
+ * exceeds the given threshold.
+ * <p>
+ * The size is determined using the given {@link Serializer}, which should be the serializer used to store events.
+ * Events read from the event store are then converted to bytes without serializing them again. Events applied after
+ * the aggregate has been initialized are not taken into account.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class EventSizeSnapshotTriggerDefinition implements SnapshotTriggerDefinition {
+
+    private final Snapshotter snapshotter;
+    private final Serializer serializer;
+    private final long byteThreshold;
+
+    /**
+     * Initialize the SnapshotTriggerDefinition to trigger snapshots using the given {@code snapshotter} when the
+     * serialized events read to load an aggregate instance exceed {@code byteThreshold} bytes.
+     *
+     * @param snapshotter   the snapshotter to notify when a snapshot needs to be taken
+     * @param serializer    the serializer used to store events, used to determine their serialized size
+     * @param byteThreshold the maximum number of bytes of events that may be read to load an aggregate without
+     *                      triggering a snapshot
+     */
+    public EventSizeSnapshotTriggerDefinition(Snapshotter snapshotter, Serializer serializer, long byteThreshold) {
+        this.snapshotter = snapshotter;
+        this.serializer = serializer;
+        this.byteThreshold = byteThreshold;
+    }
+
+    @Override
+    public SnapshotTrigger prepareTrigger(Class<?> aggregateType) {
+        return new EventSizeSnapshotTrigger(snapshotter, serializer, aggregateType, byteThreshold);
+    }
+
+    @Override
+    public SnapshotTrigger reconfigure(Class<?> aggregateType, SnapshotTrigger trigger) {
+        if (trigger instanceof EventSizeSnapshotTrigger) {
+            ((EventSizeSnapshotTrigger) trigger).setSnapshotter(snapshotter);
+            ((EventSizeSnapshotTrigger) trigger).setSerializer(serializer);
+            return trigger;
+        }
+        return new EventSizeSnapshotTrigger(snapshotter, serializer, aggregateType, byteThreshold);
+    }
+
+    private static class EventSizeSnapshotTrigger extends AbstractAggregateLoadSnapshotTrigger {
+
+        private final long byteThreshold;
+        private transient Serializer serializer;
+        private long bytesRead;
+
+        private EventSizeSnapshotTrigger(Snapshotter snapshotter, Serializer serializer, Class<?> aggregateType,
+                                         long byteThreshold) {
+            super(snapshotter, aggregateType);
+            this.serializer = serializer;
+            this.byteThreshold = byteThreshold;
+        }
+
+        @Override
+        protected void historicEventHandled(DomainEventMessage<?> event) {
+            bytesRead += event.serializePayload(serializer, byte[].class).getData().length;
+            bytesRead += event.serializeMetaData(serializer, byte[].class).getData().length;
+        }
+
+        @Override
+        protected boolean exceedsThreshold() {
+            return bytesRead > byteThreshold;
+        }
+
+        private void setSerializer(Serializer serializer) {
+            this.serializer = serializer;
+        }
+    }
+}
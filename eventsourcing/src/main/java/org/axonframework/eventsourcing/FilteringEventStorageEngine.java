@@ -74,6 +74,11 @@ public void storeSnapshot(DomainEventMessage<?> snapshot) {
         delegate.storeSnapshot(snapshot);
     }
 
+    @Override
+    public void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots) {
+        delegate.storeSnapshots(snapshots);
+    }
+
     @Override
     public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock) {
         return delegate.readEvents(trackingToken, mayBlock);
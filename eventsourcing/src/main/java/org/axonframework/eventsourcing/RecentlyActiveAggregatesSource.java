@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * {@link AggregateIdentifierSource} implementation that finds the most recently active aggregates of a given type by
+ * reading the events that were published in a recent period of time from the {@link EventStore}. Aggregates that
+ * have published an event most recently are returned first.
+ * <p>
+ * Note that this source reads all events within the configured period, including the events of other aggregate
+ * types. The period should therefore be chosen with the event volume of the application in mind.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class RecentlyActiveAggregatesSource implements AggregateIdentifierSource {
+
+    private final EventStore eventStore;
+    private final String aggregateType;
+    private final Duration period;
+
+    /**
+     * Instantiate a {@link RecentlyActiveAggregatesSource} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the {@link EventStore} and aggregate type are not {@code null}, and will throw an {@link
+     * AxonConfigurationException} if either of them is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link RecentlyActiveAggregatesSource} instance
+     */
+    protected RecentlyActiveAggregatesSource(Builder builder) {
+        builder.validate();
+        this.eventStore = builder.eventStore;
+        this.aggregateType = builder.aggregateType;
+        this.period = builder.period;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link RecentlyActiveAggregatesSource}.
+     * <p>
+     * The period defaults to one hour. The {@link EventStore} and aggregate type are <b>hard requirements</b> and as
+     * such should be provided.
+     *
+     * @return a Builder to be able to create a {@link RecentlyActiveAggregatesSource}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public List<String> aggregateIdentifiers(int maximum) {
+        // insertion order is maintained, re-inserting an identifier marks it as most recently active
+        LinkedHashSet<String> identifiers = new LinkedHashSet<>();
+        try (BlockingStream<TrackedEventMessage<?>> stream =
+                     eventStore.openStream(eventStore.createTokenSince(period))) {
+            while (stream.hasNextAvailable(0, TimeUnit.MILLISECONDS)) {
+                TrackedEventMessage<?> event = stream.nextAvailable();
+                if (event instanceof DomainEventMessage
+                        && aggregateType.equals(((DomainEventMessage<?>) event).getType())) {
+                    String identifier = ((DomainEventMessage<?>) event).getAggregateIdentifier();
+                    identifiers.remove(identifier);
+                    identifiers.add(identifier);
+                    if (identifiers.size() > maximum) {
+                        identifiers.remove(identifiers.iterator().next());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<String> result = new ArrayList<>(identifiers);
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Builder class to instantiate a {@link RecentlyActiveAggregatesSource}.
+     * <p>
+     * The period defaults to one hour. The {@link EventStore} and aggregate type are <b>hard requirements</b> and as
+     * such should be provided.
+     */
+    public static class Builder {
+
+        private EventStore eventStore;
+        private String aggregateType;
+        private Duration period = Duration.ofHours(1);
+
+        /**
+         * Sets the {@link EventStore} to read the recently published events from.
+         *
+         * @param eventStore the {@link EventStore} to read the recently published events from
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder eventStore(EventStore eventStore) {
+            assertNonNull(eventStore, "EventStore may not be null");
+            this.eventStore = eventStore;
+            return this;
+        }
+
+        /**
+         * Sets the type of aggregate to find the recently active instances of, as reported by {@link
+         * DomainEventMessage#getType()}. This usually is the simple class name of the aggregate.
+         *
+         * @param aggregateType the type of aggregate to find the recently active instances of
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder aggregateType(String aggregateType) {
+            assertNonNull(aggregateType, "Aggregate type may not be null");
+            this.aggregateType = aggregateType;
+            return this;
+        }
+
+        /**
+         * Sets the period, counting back from now, in which published events are considered recent activity.
+         * Defaults to one hour.
+         *
+         * @param period the period in which published events are considered recent activity
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder period(Duration period) {
+            assertThat(period, p -> p != null && !p.isNegative(), "The period should be a positive duration");
+            this.period = period;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link RecentlyActiveAggregatesSource} as specified through this Builder.
+         *
+         * @return a {@link RecentlyActiveAggregatesSource} as specified through this Builder
+         */
+        public RecentlyActiveAggregatesSource build() {
+            return new RecentlyActiveAggregatesSource(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(eventStore, "The EventStore is a hard requirement and should be provided");
+            assertNonNull(aggregateType, "The aggregate type is a hard requirement and should be provided");
+        }
+    }
+}
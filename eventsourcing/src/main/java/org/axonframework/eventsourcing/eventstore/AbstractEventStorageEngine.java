@@ -103,6 +103,11 @@ public void storeSnapshot(DomainEventMessage<?> snapshot) {
         storeSnapshot(snapshot, snapshotSerializer);
     }
 
+    @Override
+    public void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots) {
+        storeSnapshots(snapshots, snapshotSerializer);
+    }
+
     /**
      * Invoke when an Exception is raised while persisting an Event or Snapshot.
      *
@@ -144,6 +149,18 @@ protected void handlePersistenceException(Exception exception, EventMessage<?> f
      */
     protected abstract void storeSnapshot(DomainEventMessage<?> snapshot, Serializer serializer);
 
+    /**
+     * Store the given {@code snapshots} of Aggregates. By default, each snapshot is stored individually using {@link
+     * #storeSnapshot(DomainEventMessage, Serializer)}. Implementations may override this method to store the snapshots
+     * in a single operation.
+     *
+     * @param snapshots  Snapshot Events of the aggregates
+     * @param serializer Serializer used to convert the snapshot events to a suitable format for storage
+     */
+    protected void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots, Serializer serializer) {
+        snapshots.forEach(snapshot -> storeSnapshot(snapshot, serializer));
+    }
+
     /**
      * Returns a {@link Stream} of serialized event data entries for an aggregate with given {@code identifier}. The
      * events should be ordered by aggregate sequence number and have a sequence number starting from the given {@code
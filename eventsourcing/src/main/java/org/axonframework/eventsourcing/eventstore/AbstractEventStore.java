@@ -143,6 +143,11 @@ public void storeSnapshot(DomainEventMessage<?> snapshot) {
         storageEngine.storeSnapshot(snapshot);
     }
 
+    @Override
+    public void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots) {
+        storageEngine.storeSnapshots(snapshots);
+    }
+
     /**
      * Returns the {@link EventStorageEngine} used by the event store.
      *
@@ -68,6 +68,19 @@ default void appendEvents(EventMessage<?>... events) {
      */
     void storeSnapshot(DomainEventMessage<?> snapshot);
 
+    /**
+     * Store the given events that contain snapshots of aggregates, as if each of them was passed to {@link
+     * #storeSnapshot(DomainEventMessage)}. Implementations may store the snapshots using a single operation against
+     * the underlying storage.
+     * <p>
+     * By default, each snapshot is stored individually.
+     *
+     * @param snapshots The snapshot events of the aggregates that are to be stored
+     */
+    default void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots) {
+        snapshots.forEach(this::storeSnapshot);
+    }
+
     /**
      * Open an event stream containing all events stored since given tracking token. The returned stream is comprised of
      * events from aggregates as well as other application events. Pass a {@code trackingToken} of {@code null} to open
@@ -23,6 +23,7 @@
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.messaging.StreamableMessageSource;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -85,6 +86,19 @@ default DomainEventStream readEvents(String aggregateIdentifier, long firstSeque
      */
     void storeSnapshot(DomainEventMessage<?> snapshot);
 
+    /**
+     * Stores the given (temporary) {@code snapshots} events, as if each of them was passed to {@link
+     * #storeSnapshot(DomainEventMessage)}. Implementations may store the snapshots in a single operation, which
+     * reduces the number of round trips to the underlying storage when many snapshots are created at once.
+     * <p>
+     * By default, each snapshot is stored individually.
+     *
+     * @param snapshots The snapshots to replace part of their aggregate's DomainEventStream
+     */
+    default void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots) {
+        snapshots.forEach(this::storeSnapshot);
+    }
+
     @Override
     default Optional<Long> lastSequenceNumberFor(String aggregateIdentifier) {
         return readEvents(aggregateIdentifier).asStream().map(DomainEventMessage::getSequenceNumber)
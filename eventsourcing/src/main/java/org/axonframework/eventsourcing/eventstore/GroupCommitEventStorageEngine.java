@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.Transaction;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * {@link EventStorageEngine} implementation that combines the appends of concurrent Units of Work into a single write
+ * against a delegate storage engine, a technique known as "group commit". Appends are collected by a dedicated writer
+ * thread for up to a configurable delay, or until a configurable number of events has been collected, and are then
+ * appended in a single transaction. Each caller blocks until its own events have been written and receives its own
+ * outcome.
+ * <p>
+ * If the delegate fails to append the combined events and the transaction has been rolled back, the appends of that
+ * group are retried one by one, each in its own transaction. This ensures that a failure caused by one append, such as
+ * a {@link org.axonframework.modelling.command.ConcurrencyException} for a single aggregate, is only reported to the
+ * Unit of Work that caused it. This requires the delegate to append all given events atomically, within the
+ * transaction. If it is unknown whether the events have been stored, for example because committing the transaction
+ * or rolling it back failed, the failure is reported to all appends of the group instead, as retrying them could
+ * append their events twice.
+ * <p>
+ * Note that the events are written by the writer thread, outside of the transaction of the Unit of Work appending
+ * them. Events are therefore stored independently of any other work done in that transaction, and will not be
+ * removed if that transaction is rolled back after the events have been appended. The {@link TransactionManager}
+ * given to this engine is used to manage the transaction on the writer thread, which is required for delegates that
+ * rely on an active transaction, such as the {@link org.axonframework.eventsourcing.eventstore.jpa.JpaEventStorageEngine}.
+ * <p>
+ * All other operations are delegated to the delegate storage engine directly. Invoke {@link #shutDown()} to write any
+ * pending appends and stop the writer thread. Appends made after shutting down are delegated directly.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class GroupCommitEventStorageEngine implements EventStorageEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitEventStorageEngine.class);
+
+    private final EventStorageEngine delegate;
+    private final TransactionManager transactionManager;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ThreadFactory threadFactory;
+    private final BlockingQueue<PendingAppend> pendingAppends = new LinkedBlockingQueue<>();
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+    private Thread writerThread;
+    private volatile boolean shutDown;
+
+    /**
+     * Instantiate a {@link GroupCommitEventStorageEngine} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the delegate {@link EventStorageEngine} is not {@code null}, and will throw an {@link
+     * AxonConfigurationException} if it is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link GroupCommitEventStorageEngine} instance
+     */
+    protected GroupCommitEventStorageEngine(Builder builder) {
+        builder.validate();
+        this.delegate = builder.delegate;
+        this.transactionManager = builder.transactionManager;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxDelayNanos = builder.maxDelayNanos;
+        this.threadFactory = builder.threadFactory;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link GroupCommitEventStorageEngine}.
+     * <p>
+     * The maximum batch size defaults to {@code 256} events, the maximum delay to {@code 200} microseconds, the {@link
+     * TransactionManager} to a {@link NoTransactionManager} and the {@link ThreadFactory} to an {@link
+     * AxonThreadFactory}. The delegate {@link EventStorageEngine} is a <b>hard requirement</b> and as such should be
+     * provided.
+     *
+     * @return a Builder to be able to create a {@link GroupCommitEventStorageEngine}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void appendEvents(List<? extends EventMessage<?>> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        PendingAppend pendingAppend = new PendingAppend(events);
+        lifecycleLock.readLock().lock();
+        try {
+            if (shutDown) {
+                delegate.appendEvents(events);
+                return;
+            }
+            ensureWriterStarted();
+            pendingAppends.add(pendingAppend);
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+        awaitResult(pendingAppend);
+    }
+
+    private void awaitResult(PendingAppend pendingAppend) {
+        try {
+            pendingAppend.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventStoreException("Thread was interrupted while waiting for events to be appended", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new EventStoreException("Failed to append events", e.getCause());
+        }
+    }
+
+    private synchronized void ensureWriterStarted() {
+        if (writerThread == null) {
+            writerThread = threadFactory.newThread(this::writeGroups);
+            writerThread.start();
+        }
+    }
+
+    private void writeGroups() {
+        try {
+            while (!shutDown || !pendingAppends.isEmpty()) {
+                List<PendingAppend> group = new ArrayList<>();
+                try {
+                    PendingAppend first = pendingAppends.poll(100, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        group.add(first);
+                        collectGroup(group, first.events.size());
+                        write(group);
+                    }
+                } catch (InterruptedException e) {
+                    logger.warn("Writer thread was interrupted. Writing remaining appends before stopping.");
+                    group.forEach(this::writeIndividually);
+                    drainAndWrite();
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Throwable e) {
+                    logger.error("Writer thread failed unexpectedly while writing {} appends", group.size(), e);
+                    fail(group, e);
+                    throw e;
+                }
+            }
+        } finally {
+            writerStopped();
+        }
+    }
+
+    private synchronized void writerStopped() {
+        writerThread = null;
+        // appends may have been queued after the writer decided to stop, or while it was failing
+        if (!pendingAppends.isEmpty()) {
+            ensureWriterStarted();
+        }
+    }
+
+    private void collectGroup(List<PendingAppend> group, int eventCount) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (eventCount < maxBatchSize) {
+            PendingAppend next = pendingAppends.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                next = remaining > 0 ? pendingAppends.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (next == null) {
+                    break;
+                }
+            }
+            group.add(next);
+            eventCount += next.events.size();
+        }
+    }
+
+    private void drainAndWrite() {
+        List<PendingAppend> remaining = new ArrayList<>();
+        pendingAppends.drainTo(remaining);
+        remaining.forEach(this::writeIndividually);
+    }
+
+    private void write(List<PendingAppend> group) {
+        if (group.size() == 1) {
+            writeIndividually(group.get(0));
+            return;
+        }
+        List<EventMessage<?>> events = new ArrayList<>();
+        group.forEach(pendingAppend -> events.addAll(pendingAppend.events));
+        Transaction transaction = transactionManager.startTransaction();
+        try {
+            delegate.appendEvents(events);
+        } catch (Throwable e) {
+            if (rolledBack(transaction, e) && e instanceof Exception) {
+                logger.debug("Group commit of {} appends failed. Retrying appends individually.", group.size(), e);
+                group.forEach(this::writeIndividually);
+            } else {
+                fail(group, e);
+            }
+            return;
+        }
+        try {
+            transaction.commit();
+        } catch (Exception e) {
+            // the events may or may not have been stored, so retrying them could append them twice
+            fail(group, e);
+            return;
+        }
+        group.forEach(pendingAppend -> pendingAppend.result.complete(null));
+    }
+
+    private boolean rolledBack(Transaction transaction, Throwable cause) {
+        try {
+            transaction.rollback();
+            return true;
+        } catch (Exception e) {
+            cause.addSuppressed(e);
+            return false;
+        }
+    }
+
+    private void fail(List<PendingAppend> group, Throwable cause) {
+        group.forEach(pendingAppend -> pendingAppend.result.completeExceptionally(cause));
+    }
+
+    private void writeIndividually(PendingAppend pendingAppend) {
+        try {
+            transactionManager.executeInTransaction(() -> delegate.appendEvents(pendingAppend.events));
+            pendingAppend.result.complete(null);
+        } catch (Throwable e) {
+            pendingAppend.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Writes any pending appends and stops the writer thread. This method blocks until the writer thread has stopped.
+     * Events appended after this method has been invoked are appended to the delegate directly.
+     */
+    public void shutDown() {
+        Thread writer;
+        lifecycleLock.writeLock().lock();
+        try {
+            shutDown = true;
+            synchronized (this) {
+                writer = writerThread;
+            }
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+        while (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            synchronized (this) {
+                // a writer that stopped with appends still pending has started a successor
+                writer = writerThread;
+            }
+        }
+    }
+
+    @Override
+    public void storeSnapshot(DomainEventMessage<?> snapshot) {
+        delegate.storeSnapshot(snapshot);
+    }
+
+    @Override
+    public void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots) {
+        delegate.storeSnapshots(snapshots);
+    }
+
+    @Override
+    public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock) {
+        return delegate.readEvents(trackingToken, mayBlock);
+    }
+
+    @Override
+    public DomainEventStream readEvents(String aggregateIdentifier) {
+        return delegate.readEvents(aggregateIdentifier);
+    }
+
+    @Override
+    public DomainEventStream readEvents(String aggregateIdentifier, long firstSequenceNumber) {
+        return delegate.readEvents(aggregateIdentifier, firstSequenceNumber);
+    }
+
+    @Override
+    public Optional<DomainEventMessage<?>> readSnapshot(String aggregateIdentifier) {
+        return delegate.readSnapshot(aggregateIdentifier);
+    }
+
+    @Override
+    public Optional<Long> lastSequenceNumberFor(String aggregateIdentifier) {
+        return delegate.lastSequenceNumberFor(aggregateIdentifier);
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        return delegate.createTailToken();
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        return delegate.createHeadToken();
+    }
+
+    @Override
+    public TrackingToken createTokenAt(Instant dateTime) {
+        return delegate.createTokenAt(dateTime);
+    }
+
+    private static class PendingAppend {
+
+        private final List<? extends EventMessage<?>> events;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private PendingAppend(List<? extends EventMessage<?>> events) {
+            this.events = events;
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link GroupCommitEventStorageEngine}.
+     * <p>
+     * The maximum batch size defaults to {@code 256} events, the maximum delay to {@code 200} microseconds, the {@link
+     * TransactionManager} to a {@link NoTransactionManager} and the {@link ThreadFactory} to an {@link
+     * AxonThreadFactory}. The delegate {@link EventStorageEngine} is a <b>hard requirement</b> and as such should be
+     * provided.
+     */
+    public static class Builder {
+
+        private EventStorageEngine delegate;
+        private TransactionManager transactionManager = NoTransactionManager.INSTANCE;
+        private int maxBatchSize = 256;
+        private long maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(200);
+        private ThreadFactory threadFactory = new AxonThreadFactory("GroupCommitEventStorageEngine");
+
+        /**
+         * Sets the {@link EventStorageEngine} to which the grouped appends and all other operations are delegated.
+         *
+         * @param delegate the {@link EventStorageEngine} to delegate to
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder delegate(EventStorageEngine delegate) {
+            assertNonNull(delegate, "Delegate EventStorageEngine may not be null");
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Sets the {@link TransactionManager} used to manage the transaction in which a group of appends is written.
+         * Defaults to a {@link NoTransactionManager}.
+         *
+         * @param transactionManager the {@link TransactionManager} used to manage the transaction in which a group of
+         *                           appends is written
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder transactionManager(TransactionManager transactionManager) {
+            assertNonNull(transactionManager, "TransactionManager may not be null");
+            this.transactionManager = transactionManager;
+            return this;
+        }
+
+        /**
+         * Sets the number of events after which a group is written, without waiting for the maximum delay to pass.
+         * Defaults to {@code 256}. Appends are never split, so a group may contain more events than this number.
+         *
+         * @param maxBatchSize the number of events after which a group is written
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            assertThat(maxBatchSize, size -> size > 0, "The maximum batch size should be a positive number");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time to wait for additional appends after the first append of a group has been received.
+         * Defaults to {@code 200} microseconds.
+         *
+         * @param maxDelay the maximum time to wait for additional appends
+         * @param timeUnit the unit of the given {@code maxDelay}
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxDelay(long maxDelay, TimeUnit timeUnit) {
+            assertThat(maxDelay, delay -> delay >= 0, "The maximum delay may not be negative");
+            assertNonNull(timeUnit, "TimeUnit may not be null");
+            this.maxDelayNanos = timeUnit.toNanos(maxDelay);
+            return this;
+        }
+
+        /**
+         * Sets the {@link ThreadFactory} used to create the writer thread. Defaults to an {@link AxonThreadFactory}.
+         *
+         * @param threadFactory the {@link ThreadFactory} used to create the writer thread
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder threadFactory(ThreadFactory threadFactory) {
+            assertNonNull(threadFactory, "ThreadFactory may not be null");
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link GroupCommitEventStorageEngine} as specified through this Builder.
+         *
+         * @return a {@link GroupCommitEventStorageEngine} as specified through this Builder
+         */
+        public GroupCommitEventStorageEngine build() {
+            return new GroupCommitEventStorageEngine(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(delegate, "The delegate EventStorageEngine is a hard requirement and should be provided");
+        }
+    }
+}
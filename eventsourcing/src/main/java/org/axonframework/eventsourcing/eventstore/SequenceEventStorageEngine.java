@@ -76,6 +76,11 @@ public void storeSnapshot(DomainEventMessage<?> snapshot) {
         activeStorage.storeSnapshot(snapshot);
     }
 
+    @Override
+    public void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots) {
+        activeStorage.storeSnapshots(snapshots);
+    }
+
     @Override
     public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock) {
         Spliterator<? extends TrackedEventMessage<?>> historicSpliterator = historicStorage.readEvents(trackingToken, mayBlock).spliterator();
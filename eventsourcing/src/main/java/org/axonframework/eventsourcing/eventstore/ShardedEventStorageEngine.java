@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.ShardedTrackingToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.lang.String.format;
+import static org.axonframework.common.Assert.isTrue;
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+import static org.axonframework.eventhandling.EventUtils.asDomainEventMessage;
+import static org.axonframework.eventhandling.EventUtils.asTrackedEventMessage;
+
+/**
+ * {@link EventStorageEngine} implementation that partitions events over a number of shards, each of which is an
+ * independent storage engine, typically a {@link org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine}
+ * connected to its own database. This allows the write throughput to scale with the number of shards.
+ * <p>
+ * All events and snapshots of an aggregate are stored in the same shard, which is selected using the hash code of the
+ * aggregate identifier. Events that are not {@link DomainEventMessage DomainEventMessages} are distributed using their
+ * identifier. As the location of existing events depends on the number of shards, the shards should not be changed
+ * once events have been stored.
+ * <p>
+ * Events appended in a single invocation are only appended atomically if they belong to the same shard. As the events
+ * of an aggregate always belong to the same shard, this doesn't affect the consistency of individual aggregates.
+ * <p>
+ * Each shard keeps its own global index. The event stream of this engine merges the streams of the shards, ordering
+ * events of different shards by their timestamp, and tracks its position using a {@link ShardedTrackingToken} which
+ * contains the token of each shard. Shards are read without blocking, so that an idle shard doesn't hold up events of
+ * the other shards. A shard that has no more events is polled again once the configured poll interval has passed, or
+ * sooner when none of the shards has an event. If the stream is allowed to block, it polls the shards once per poll
+ * interval until an event is available.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class ShardedEventStorageEngine implements EventStorageEngine {
+
+    private final List<EventStorageEngine> shards;
+    private final long pollIntervalNanos;
+
+    /**
+     * Instantiate a {@link ShardedEventStorageEngine} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that at least one shard is provided and will throw an {@link AxonConfigurationException} if this is
+     * not the case.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link ShardedEventStorageEngine} instance
+     */
+    protected ShardedEventStorageEngine(Builder builder) {
+        builder.validate();
+        this.shards = new ArrayList<>(builder.shards);
+        this.pollIntervalNanos = builder.pollIntervalNanos;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link ShardedEventStorageEngine}.
+     * <p>
+     * The poll interval is defaulted to 100 milliseconds. The shards are a <b>hard requirement</b> and as such should
+     * be provided.
+     *
+     * @return a Builder to be able to create a {@link ShardedEventStorageEngine}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the index of the shard containing the events of the aggregate with given {@code aggregateIdentifier}.
+     *
+     * @param aggregateIdentifier the identifier of the aggregate
+     * @return the index of the shard containing the events of the aggregate
+     */
+    protected int shardOf(String aggregateIdentifier) {
+        return Math.floorMod(aggregateIdentifier.hashCode(), shards.size());
+    }
+
+    private EventStorageEngine shardFor(String aggregateIdentifier) {
+        return shards.get(shardOf(aggregateIdentifier));
+    }
+
+    @Override
+    public void appendEvents(List<? extends EventMessage<?>> events) {
+        partition(events, event -> asDomainEventMessage(event).getAggregateIdentifier())
+                .forEach((shard, shardEvents) -> shards.get(shard).appendEvents(shardEvents));
+    }
+
+    @Override
+    public void storeSnapshot(DomainEventMessage<?> snapshot) {
+        shardFor(snapshot.getAggregateIdentifier()).storeSnapshot(snapshot);
+    }
+
+    @Override
+    public void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots) {
+        partition(snapshots, DomainEventMessage::getAggregateIdentifier)
+                .forEach((shard, shardSnapshots) -> shards.get(shard).storeSnapshots(shardSnapshots));
+    }
+
+    private <T> Map<Integer, List<T>> partition(List<? extends T> messages,
+                                                Function<T, String> aggregateIdentifierResolver) {
+        Map<Integer, List<T>> partitions = new LinkedHashMap<>();
+        for (T message : messages) {
+            partitions.computeIfAbsent(shardOf(aggregateIdentifierResolver.apply(message)), shard -> new ArrayList<>())
+                      .add(message);
+        }
+        return partitions;
+    }
+
+    @Override
+    public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock) {
+        isTrue(trackingToken == null || (trackingToken instanceof ShardedTrackingToken
+                       && ((ShardedTrackingToken) trackingToken).shardCount() == shards.size()),
+               () -> format("Token [%s] is of the wrong type. Expected a [%s] with [%d] shards", trackingToken,
+                            ShardedTrackingToken.class.getSimpleName(), shards.size()));
+        ShardedTrackingToken token = trackingToken == null
+                ? new ShardedTrackingToken(new TrackingToken[shards.size()])
+                : (ShardedTrackingToken) trackingToken;
+        MergingSpliterator spliterator = new MergingSpliterator(token, mayBlock);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    @Override
+    public DomainEventStream readEvents(String aggregateIdentifier, long firstSequenceNumber) {
+        return shardFor(aggregateIdentifier).readEvents(aggregateIdentifier, firstSequenceNumber);
+    }
+
+    @Override
+    public Optional<DomainEventMessage<?>> readSnapshot(String aggregateIdentifier) {
+        return shardFor(aggregateIdentifier).readSnapshot(aggregateIdentifier);
+    }
+
+    @Override
+    public Optional<Long> lastSequenceNumberFor(String aggregateIdentifier) {
+        return shardFor(aggregateIdentifier).lastSequenceNumberFor(aggregateIdentifier);
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        return combine(EventStorageEngine::createTailToken);
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        return combine(EventStorageEngine::createHeadToken);
+    }
+
+    @Override
+    public TrackingToken createTokenAt(Instant dateTime) {
+        return combine(shard -> {
+            // a shard without events at or after the given time should be tracked from its head
+            TrackingToken headToken = shard.createHeadToken();
+            TrackingToken tokenAt = shard.createTokenAt(dateTime);
+            return tokenAt == null ? headToken : tokenAt;
+        });
+    }
+
+    private TrackingToken combine(Function<EventStorageEngine, TrackingToken> tokenFactory) {
+        TrackingToken[] shardTokens = shards.stream().map(tokenFactory).toArray(TrackingToken[]::new);
+        return Arrays.stream(shardTokens).allMatch(token -> token == null)
+                ? null : new ShardedTrackingToken(shardTokens);
+    }
+
+    /**
+     * Spliterator that merges the event streams of the shards. Of the next events of each shard, the event with the
+     * earliest timestamp is returned first. The token of the returned events reflects the position in every shard.
+     * <p>
+     * The stream of a shard that has no more events is closed and reopened from the last position in that shard once
+     * the poll interval has passed, or sooner when none of the other shards has an event. When no shard has an event
+     * and the stream may block, all shards are polled once per poll interval until an event is available, the stream
+     * is closed or the reading thread is interrupted.
+     */
+    private class MergingSpliterator extends Spliterators.AbstractSpliterator<TrackedEventMessage<?>> {
+
+        private final boolean mayBlock;
+        private final Stream<? extends TrackedEventMessage<?>>[] streams;
+        private final Spliterator<? extends TrackedEventMessage<?>>[] spliterators;
+        private final long[] exhaustedAt;
+        private final TrackedEventMessage<?>[] nextEvents;
+        private ShardedTrackingToken lastToken;
+        private volatile boolean closed;
+
+        @SuppressWarnings("unchecked")
+        private MergingSpliterator(ShardedTrackingToken trackingToken, boolean mayBlock) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.mayBlock = mayBlock;
+            this.lastToken = trackingToken;
+            this.streams = new Stream[shards.size()];
+            this.spliterators = new Spliterator[shards.size()];
+            this.exhaustedAt = new long[shards.size()];
+            this.nextEvents = new TrackedEventMessage<?>[shards.size()];
+            for (int i = 0; i < shards.size(); i++) {
+                open(i);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TrackedEventMessage<?>> action) {
+            long start = System.nanoTime();
+            int selected = selectNextEvent(start - pollIntervalNanos);
+            if (selected < 0) {
+                // none of the shards has an event, so poll the shards that were exhausted before this call as well
+                selected = selectNextEvent(start - 1);
+            }
+            while (selected < 0 && mayBlock && !closed && awaitPollInterval()) {
+                selected = selectNextEvent(System.nanoTime() - pollIntervalNanos);
+            }
+            if (selected < 0) {
+                return false;
+            }
+            TrackedEventMessage<?> event = nextEvents[selected];
+            nextEvents[selected] = null;
+            lastToken = lastToken.advancedTo(selected, event.trackingToken());
+            action.accept(asTrackedEventMessage(event, lastToken));
+            return true;
+        }
+
+        /**
+         * Fetches the next event of each shard that doesn't have one yet, reopening the streams of shards that were
+         * exhausted at or before given {@code exhaustedBefore}, and returns the index of the shard whose next event has
+         * the earliest timestamp, or {@code -1} if none of the shards has an event.
+         */
+        private int selectNextEvent(long exhaustedBefore) {
+            int selected = -1;
+            for (int i = 0; i < nextEvents.length; i++) {
+                if (nextEvents[i] == null) {
+                    if (spliterators[i] == null && exhaustedAt[i] - exhaustedBefore <= 0) {
+                        open(i);
+                    }
+                    int shard = i;
+                    if (spliterators[i] != null && !spliterators[i].tryAdvance(event -> nextEvents[shard] = event)) {
+                        closeShard(i);
+                        exhaustedAt[i] = System.nanoTime();
+                    }
+                }
+                if (nextEvents[i] != null && (selected < 0
+                        || nextEvents[i].getTimestamp().isBefore(nextEvents[selected].getTimestamp()))) {
+                    selected = i;
+                }
+            }
+            return selected;
+        }
+
+        private boolean awaitPollInterval() {
+            try {
+                TimeUnit.NANOSECONDS.sleep(pollIntervalNanos);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private synchronized void open(int shard) {
+            if (!closed) {
+                streams[shard] = shards.get(shard).readEvents(lastToken.shardToken(shard), false);
+                spliterators[shard] = streams[shard].spliterator();
+            }
+        }
+
+        private synchronized void closeShard(int shard) {
+            if (streams[shard] != null) {
+                streams[shard].close();
+                streams[shard] = null;
+                spliterators[shard] = null;
+            }
+        }
+
+        private synchronized void close() {
+            closed = true;
+            for (int i = 0; i < streams.length; i++) {
+                closeShard(i);
+            }
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link ShardedEventStorageEngine}.
+     * <p>
+     * The poll interval is defaulted to 100 milliseconds. The shards are a <b>hard requirement</b> and as such should be provided.
+     */
+    public static class Builder {
+
+        private List<EventStorageEngine> shards;
+        private long pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+        /**
+         * Sets the {@link EventStorageEngine EventStorageEngines} over which events are partitioned. The order of the
+         * shards determines which events are stored in each shard, and should therefore not be changed once events
+         * have been stored.
+         *
+         * @param shards the {@link EventStorageEngine EventStorageEngines} over which events are partitioned
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder shards(EventStorageEngine... shards) {
+            return shards(Arrays.asList(shards));
+        }
+
+        /**
+         * Sets the {@link EventStorageEngine EventStorageEngines} over which events are partitioned. The order of the
+         * shards determines which events are stored in each shard, and should therefore not be changed once events
+         * have been stored.
+         *
+         * @param shards the {@link EventStorageEngine EventStorageEngines} over which events are partitioned
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder shards(List<? extends EventStorageEngine> shards) {
+            assertNonNull(shards, "Shards may not be null");
+            assertThat(shards, list -> !list.isEmpty() && !list.contains(null),
+                       "At least one shard should be provided and none of them may be null");
+            this.shards = new ArrayList<>(shards);
+            return this;
+        }
+
+        /**
+         * Sets the interval at which a shard that has no more events is polled for new events while reading the
+         * merged event stream, and at which all shards are polled while a blocking read waits for an event. Defaults
+         * to 100 milliseconds.
+         *
+         * @param pollInterval the delay between two polls of a shard that has no more events
+         * @param timeUnit     the unit of the given {@code pollInterval}
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder pollInterval(long pollInterval, TimeUnit timeUnit) {
+            assertThat(pollInterval, interval -> interval > 0, "The poll interval should be positive");
+            assertNonNull(timeUnit, "TimeUnit may not be null");
+            this.pollIntervalNanos = timeUnit.toNanos(pollInterval);
+            return this;
+        }
+
+        /**
+         * Initializes a {@link ShardedEventStorageEngine} as specified through this Builder.
+         *
+         * @return a {@link ShardedEventStorageEngine} as specified through this Builder
+         */
+        public ShardedEventStorageEngine build() {
+            return new ShardedEventStorageEngine(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(shards, "The shards are a hard requirement and should be provided");
+        }
+    }
+}
@@ -0,0 +1,725 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.file.FileEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.lang.String.format;
+import static org.axonframework.common.Assert.isTrue;
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+import static org.axonframework.eventhandling.EventUtils.asTrackedEventMessage;
+
+/**
+ * {@link SequenceEventStorageEngine} that moves events from its active storage to its historic storage. Events are
+ * migrated in bulk once they are older than a configurable age, or on demand up to a given global index. The active
+ * storage is typically a relational database, which stays small enough for its indexes to fit in memory, while the
+ * historic storage is a {@link FileEventStorageEngine}, which stores events compactly and reads them sequentially.
+ * <p>
+ * Migrated events keep the global index assigned to them by the active storage, which allows tracking tokens to remain
+ * valid. Event streams opened by tracking processors read events up to the migration boundary from the historic
+ * storage and all later events from the active storage, switching back to the historic storage when events they have
+ * not read yet are migrated concurrently. Tokens are of the type used by the active storage, which should either be
+ * {@link GapAwareTrackingToken} (the default, used by the JDBC and JPA engines) or {@link
+ * GlobalSequenceTrackingToken}.
+ * <p>
+ * The events of an aggregate are read from the active storage first. The historic storage is only consulted when the
+ * active storage doesn't contain the first requested event, so aggregates that were loaded from a recent snapshot will
+ * typically not touch the historic storage at all. Snapshots are not migrated.
+ * <p>
+ * Events are first imported into the historic storage, after which they are removed from the active storage using the
+ * configured purger. The last migrated event is kept in the active storage until the next migration, so the active
+ * storage never becomes empty and won't assign the global index of a migrated event to a new one. Gaps in the global index at or below the migrated events are considered final, so events should
+ * only be migrated once any transaction that could still fill such a gap has completed. The default migration age of
+ * seven days is chosen with this in mind.
+ * <p>
+ * Invoke {@link #start()} to migrate events periodically and {@link #shutDown()} to stop doing so.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class TieredEventStorageEngine extends SequenceEventStorageEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredEventStorageEngine.class);
+
+    private final FileEventStorageEngine historicStorage;
+    private final EventStorageEngine activeStorage;
+    private final LongConsumer activeStoragePurger;
+    private final Duration migrationAge;
+    private final int migrationBatchSize;
+    private final long migrationIntervalMillis;
+    private final boolean gapAwareTokens;
+    private final ThreadFactory threadFactory;
+    private final Object migrationLock = new Object();
+    private volatile long boundary;
+    private ScheduledExecutorService migrationService;
+
+    /**
+     * Instantiate a {@link TieredEventStorageEngine} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the historic {@link FileEventStorageEngine}, the active {@link EventStorageEngine} and the
+     * purger of the active storage are not {@code null}, and will throw an {@link AxonConfigurationException} if any
+     * of them is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link TieredEventStorageEngine} instance
+     */
+    protected TieredEventStorageEngine(Builder builder) {
+        super(validated(builder).historicStorage, builder.activeStorage);
+        this.historicStorage = builder.historicStorage;
+        this.activeStorage = builder.activeStorage;
+        this.activeStoragePurger = builder.activeStoragePurger;
+        this.migrationAge = builder.migrationAge;
+        this.migrationBatchSize = builder.migrationBatchSize;
+        this.migrationIntervalMillis = builder.migrationIntervalMillis;
+        this.gapAwareTokens = builder.tokenType == GapAwareTrackingToken.class;
+        this.threadFactory = builder.threadFactory;
+        this.boundary = headOf(historicStorage.createHeadToken());
+    }
+
+    private static Builder validated(Builder builder) {
+        builder.validate();
+        return builder;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link TieredEventStorageEngine}.
+     * <p>
+     * The migration age defaults to seven days, the migration batch size to {@code 1000} events, the migration
+     * interval to one minute, the token type to {@link GapAwareTrackingToken} and the {@link ThreadFactory} to an
+     * {@link AxonThreadFactory}. The purger defaults to {@link JdbcEventStorageEngine#deleteEventsUpTo(long)} if the
+     * active storage is a {@link JdbcEventStorageEngine}. The historic {@link FileEventStorageEngine}, the active
+     * {@link EventStorageEngine} and, for other active storage engines, the purger are <b>hard requirements</b> and as
+     * such should be provided.
+     *
+     * @return a Builder to be able to create a {@link TieredEventStorageEngine}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts migrating events that are older than the configured migration age periodically, using a thread created
+     * by the configured {@link ThreadFactory}. Does nothing if migration has already been started.
+     */
+    public synchronized void start() {
+        if (migrationService == null) {
+            migrationService = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            migrationService.scheduleWithFixedDelay(this::migrateEventsQuietly, 0, migrationIntervalMillis,
+                                                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops migrating events periodically. A migration that is in progress is allowed to complete.
+     */
+    public synchronized void shutDown() {
+        if (migrationService != null) {
+            migrationService.shutdown();
+            migrationService = null;
+        }
+    }
+
+    /**
+     * Migrates all events with a timestamp older than the configured migration age from the active storage to the
+     * historic storage.
+     *
+     * @return the number of migrated events
+     */
+    public int migrateEvents() {
+        Instant threshold = GenericEventMessage.clock.instant().minus(migrationAge);
+        return migrate((event, globalIndex) -> event.getTimestamp().isBefore(threshold));
+    }
+
+    /**
+     * Migrates all events with a global index up to and including given {@code globalIndex} from the active storage
+     * to the historic storage.
+     *
+     * @param globalIndex the global index of the last event to migrate
+     * @return the number of migrated events
+     */
+    public int migrateEventsUpTo(long globalIndex) {
+        return migrate((event, index) -> index <= globalIndex);
+    }
+
+    private void migrateEventsQuietly() {
+        try {
+            int migrated = migrateEvents();
+            if (migrated > 0) {
+                logger.debug("Migrated {} events to the historic event storage", migrated);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to migrate events to the historic event storage. Will retry later.", e);
+        }
+    }
+
+    private int migrate(MigrationFilter filter) {
+        synchronized (migrationLock) {
+            int migrated = 0;
+            List<TrackedEventMessage<?>> batch = new ArrayList<>();
+            List<Long> indices = new ArrayList<>();
+            try (Stream<? extends TrackedEventMessage<?>> stream = activeStorage.readEvents(normalize(null, boundary),
+                                                                                           false)) {
+                TrackingToken previous = null;
+                Iterator<? extends TrackedEventMessage<?>> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    TrackedEventMessage<?> event = iterator.next();
+                    TrackingToken token = event.trackingToken();
+                    if (isGapFill(previous, token)) {
+                        // events at indices below this one are no longer final, so only migrate the events before
+                        // the filled gap now, and the rest during the next migration
+                        long filledGap = lowestRemovedGap((GapAwareTrackingToken) previous,
+                                                          (GapAwareTrackingToken) token);
+                        while (!indices.isEmpty() && indices.get(indices.size() - 1) >= filledGap) {
+                            batch.remove(batch.size() - 1);
+                            indices.remove(indices.size() - 1);
+                        }
+                        break;
+                    }
+                    long globalIndex = indexOf(token);
+                    if (!filter.test(event, globalIndex)) {
+                        break;
+                    }
+                    batch.add(event);
+                    indices.add(globalIndex);
+                    previous = token;
+                    if (batch.size() >= migrationBatchSize) {
+                        migrated += flush(batch, indices);
+                    }
+                }
+            }
+            return migrated + flush(batch, indices);
+        }
+    }
+
+    private int flush(List<TrackedEventMessage<?>> batch, List<Long> indices) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        long lastIndex = indices.get(size - 1);
+        historicStorage.importEvents(batch, indices.stream().mapToLong(Long::longValue).toArray());
+        boundary = lastIndex;
+        // the last migrated event is kept, so that databases reissuing the highest identity value after it has been
+        // deleted (e.g. MySQL's InnoDB after a restart) won't assign its global index to a new event
+        activeStoragePurger.accept(lastIndex - 1);
+        batch.clear();
+        indices.clear();
+        return size;
+    }
+
+    @Override
+    public void appendEvents(List<? extends EventMessage<?>> events) {
+        for (EventMessage<?> event : events) {
+            if (event instanceof DomainEventMessage) {
+                DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+                Optional<Long> lastMigrated = historicStorage.lastSequenceNumberFor(
+                        domainEvent.getAggregateIdentifier());
+                if (lastMigrated.isPresent() && lastMigrated.get() >= domainEvent.getSequenceNumber()) {
+                    throw new ConcurrencyException(format(
+                            "An event for aggregate [%s] at sequence [%d] was already inserted",
+                            domainEvent.getAggregateIdentifier(), domainEvent.getSequenceNumber()
+                    ));
+                }
+            }
+        }
+        super.appendEvents(events);
+    }
+
+    @Override
+    public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock) {
+        isTrue(trackingToken == null || trackingToken instanceof GapAwareTrackingToken
+                       || trackingToken instanceof GlobalSequenceTrackingToken,
+               () -> format("Token [%s] is of the wrong type. Expected [%s] or [%s]", trackingToken,
+                            GapAwareTrackingToken.class.getSimpleName(),
+                            GlobalSequenceTrackingToken.class.getSimpleName()));
+        TieredSpliterator spliterator = new TieredSpliterator(trackingToken, mayBlock);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    @Override
+    public DomainEventStream readEvents(String aggregateIdentifier, long firstSequenceNumber) {
+        return new TieredDomainEventStream(aggregateIdentifier, firstSequenceNumber);
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        long migrated = boundary;
+        TrackingToken activeHead = activeStorage.createHeadToken();
+        return headOf(activeHead) < migrated ? normalize(activeHead, migrated) : activeHead;
+    }
+
+    @Override
+    public TrackingToken createTokenAt(Instant dateTime) {
+        TrackingToken historicHead = historicStorage.createHeadToken();
+        if (historicHead != null) {
+            TrackingToken historicToken = historicStorage.createTokenAt(dateTime);
+            if (historicToken == null) {
+                return null;
+            }
+            if (!historicToken.equals(historicHead)) {
+                return normalize(null, headOf(historicToken));
+            }
+        }
+        TrackingToken activeToken = activeStorage.createTokenAt(dateTime);
+        return activeToken == null ? createHeadToken() : activeToken;
+    }
+
+    /**
+     * Returns the index of the event tracked by given {@code token}, which has been created by the active storage.
+     */
+    private static long indexOf(TrackingToken token) {
+        return token instanceof GapAwareTrackingToken
+                ? ((GapAwareTrackingToken) token).getIndex()
+                : ((GlobalSequenceTrackingToken) token).getGlobalIndex();
+    }
+
+    private static boolean isGapFill(TrackingToken previous, TrackingToken token) {
+        return previous instanceof GapAwareTrackingToken
+                && ((GapAwareTrackingToken) token).getIndex() <= ((GapAwareTrackingToken) previous).getIndex();
+    }
+
+    private static long lowestRemovedGap(GapAwareTrackingToken previous, GapAwareTrackingToken token) {
+        return previous.getGaps().stream()
+                       .filter(gap -> !token.getGaps().contains(gap))
+                       .findFirst()
+                       .orElse(previous.getIndex() + 1);
+    }
+
+    /**
+     * Returns the highest global index up to which all events have been seen according to given {@code token}, or
+     * {@code -1} if the token is {@code null}.
+     */
+    private static long headOf(TrackingToken token) {
+        if (token instanceof GapAwareTrackingToken) {
+            GapAwareTrackingToken gapAwareToken = (GapAwareTrackingToken) token;
+            return gapAwareToken.hasGaps() ? gapAwareToken.getGaps().first() - 1 : gapAwareToken.getIndex();
+        } else if (token instanceof GlobalSequenceTrackingToken) {
+            return ((GlobalSequenceTrackingToken) token).getGlobalIndex();
+        }
+        return -1;
+    }
+
+    private static boolean covers(TrackingToken token, long globalIndex) {
+        if (token instanceof GapAwareTrackingToken) {
+            GapAwareTrackingToken gapAwareToken = (GapAwareTrackingToken) token;
+            return globalIndex <= gapAwareToken.getIndex() && !gapAwareToken.getGaps().contains(globalIndex);
+        }
+        return globalIndex <= headOf(token);
+    }
+
+    /**
+     * Returns a token that covers all events up to and including given {@code globalIndex}, in addition to the events
+     * covered by given {@code token}. Returns the given {@code token} if the index is negative.
+     */
+    private TrackingToken normalize(TrackingToken token, long globalIndex) {
+        if (globalIndex < 0) {
+            return token;
+        }
+        if (token instanceof GapAwareTrackingToken) {
+            GapAwareTrackingToken gapAwareToken = (GapAwareTrackingToken) token;
+            SortedSet<Long> gaps = gapAwareToken.getGaps().tailSet(globalIndex + 1);
+            return GapAwareTrackingToken.newInstance(Math.max(gapAwareToken.getIndex(), globalIndex), gaps);
+        } else if (token instanceof GlobalSequenceTrackingToken) {
+            return new GlobalSequenceTrackingToken(Math.max(headOf(token), globalIndex));
+        } else if (gapAwareTokens) {
+            return GapAwareTrackingToken.newInstance(globalIndex, Collections.emptySet());
+        }
+        return new GlobalSequenceTrackingToken(globalIndex);
+    }
+
+    @FunctionalInterface
+    private interface MigrationFilter {
+
+        boolean test(TrackedEventMessage<?> event, long globalIndex);
+    }
+
+    /**
+     * Spliterator that reads the events up to the migration boundary from the historic storage and the events beyond
+     * it from the active storage. When the boundary moves while reading from the active storage, including while an
+     * event is being fetched from it, the stream is reopened after the last event passed on. Events that may have been
+     * removed from the active storage before they were read are then read from the historic storage instead.
+     */
+    private class TieredSpliterator extends Spliterators.AbstractSpliterator<TrackedEventMessage<?>> {
+
+        private final boolean mayBlock;
+        private TrackingToken lastToken;
+        private Stream<? extends TrackedEventMessage<?>> stream;
+        private Spliterator<? extends TrackedEventMessage<?>> spliterator;
+        private boolean readingHistoric;
+        private long streamBoundary;
+        private TrackedEventMessage<?> next;
+
+        private TieredSpliterator(TrackingToken trackingToken, boolean mayBlock) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.lastToken = trackingToken;
+            this.mayBlock = mayBlock;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TrackedEventMessage<?>> action) {
+            while (true) {
+                if (stream == null) {
+                    open();
+                }
+                if (readingHistoric) {
+                    if (!spliterator.tryAdvance(event -> next = event)) {
+                        closeHistoric();
+                        continue;
+                    }
+                    long globalIndex = headOf(next.trackingToken());
+                    if (globalIndex > streamBoundary) {
+                        closeHistoric();
+                    } else if (!covers(lastToken, globalIndex)) {
+                        lastToken = normalize(lastToken, globalIndex);
+                        action.accept(asTrackedEventMessage(next, lastToken));
+                        return true;
+                    }
+                } else if (boundary != streamBoundary) {
+                    close();
+                } else if (spliterator.tryAdvance(event -> next = event)) {
+                    if (boundary != streamBoundary) {
+                        // events before the fetched one may have been removed from the active storage while fetching
+                        close();
+                        continue;
+                    }
+                    lastToken = next.trackingToken();
+                    action.accept(next);
+                    return true;
+                } else if (boundary != streamBoundary) {
+                    close();
+                } else {
+                    return false;
+                }
+            }
+        }
+
+        private void open() {
+            streamBoundary = boundary;
+            long head = headOf(lastToken);
+            readingHistoric = head < streamBoundary;
+            if (readingHistoric) {
+                stream = historicStorage.readEvents(head < 0 ? null : new GlobalSequenceTrackingToken(head), false);
+            } else {
+                stream = activeStorage.readEvents(lastToken, mayBlock);
+            }
+            spliterator = stream.spliterator();
+        }
+
+        private void closeHistoric() {
+            close();
+            lastToken = normalize(lastToken, streamBoundary);
+        }
+
+        private void close() {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+                spliterator = null;
+            }
+        }
+    }
+
+    /**
+     * Stream of the events of an aggregate that reads from the active storage, and only falls back to the historic
+     * storage when the active storage doesn't contain the next expected event, or when events may have been migrated
+     * while reading.
+     */
+    private class TieredDomainEventStream implements DomainEventStream {
+
+        private final String aggregateIdentifier;
+        private long nextSequenceNumber;
+        private Long lastSequenceNumber;
+        private DomainEventStream current;
+        private boolean readingActive;
+        private boolean readFromActive;
+        private long activeBoundary;
+        private long historicCheckedAt = -1;
+        private DomainEventMessage<?> next;
+
+        private TieredDomainEventStream(String aggregateIdentifier, long firstSequenceNumber) {
+            this.aggregateIdentifier = aggregateIdentifier;
+            this.nextSequenceNumber = firstSequenceNumber;
+            openActive();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = fetch();
+            }
+            return next != null;
+        }
+
+        @Override
+        public DomainEventMessage<?> next() {
+            DomainEventMessage<?> result = peek();
+            next = null;
+            return result;
+        }
+
+        @Override
+        public DomainEventMessage<?> peek() {
+            return hasNext() ? next : null;
+        }
+
+        @Override
+        public Long getLastSequenceNumber() {
+            return lastSequenceNumber;
+        }
+
+        private DomainEventMessage<?> fetch() {
+            while (true) {
+                if (current.hasNext()) {
+                    DomainEventMessage<?> event = current.next();
+                    long sequenceNumber = event.getSequenceNumber();
+                    if (sequenceNumber < nextSequenceNumber) {
+                        continue;
+                    }
+                    if (readingActive && sequenceNumber > nextSequenceNumber && historicCheckedAt != nextSequenceNumber) {
+                        openHistoric();
+                        continue;
+                    }
+                    readFromActive |= readingActive;
+                    nextSequenceNumber = sequenceNumber + 1;
+                    updateLastSequenceNumber(sequenceNumber);
+                    return event;
+                }
+                updateLastSequenceNumber(current.getLastSequenceNumber());
+                if (!readingActive) {
+                    openActive();
+                } else if ((!readFromActive || boundary != activeBoundary)
+                        && historicCheckedAt != nextSequenceNumber) {
+                    openHistoric();
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        private void updateLastSequenceNumber(Long sequenceNumber) {
+            if (sequenceNumber != null && (lastSequenceNumber == null || sequenceNumber > lastSequenceNumber)) {
+                lastSequenceNumber = sequenceNumber;
+                nextSequenceNumber = Math.max(nextSequenceNumber, sequenceNumber + 1);
+            }
+        }
+
+        private void openActive() {
+            activeBoundary = boundary;
+            readingActive = true;
+            readFromActive = false;
+            current = activeStorage.readEvents(aggregateIdentifier, nextSequenceNumber);
+        }
+
+        private void openHistoric() {
+            historicCheckedAt = nextSequenceNumber;
+            readingActive = false;
+            current = historicStorage.readEvents(aggregateIdentifier, nextSequenceNumber);
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link TieredEventStorageEngine}.
+     * <p>
+     * The migration age defaults to seven days, the migration batch size to {@code 1000} events, the migration
+     * interval to one minute, the token type to {@link GapAwareTrackingToken} and the {@link ThreadFactory} to an
+     * {@link AxonThreadFactory}. The purger defaults to {@link JdbcEventStorageEngine#deleteEventsUpTo(long)} if the
+     * active storage is a {@link JdbcEventStorageEngine}. The historic {@link FileEventStorageEngine}, the active
+     * {@link EventStorageEngine} and, for other active storage engines, the purger are <b>hard requirements</b> and as
+     * such should be provided.
+     */
+    public static class Builder {
+
+        private FileEventStorageEngine historicStorage;
+        private EventStorageEngine activeStorage;
+        private LongConsumer activeStoragePurger;
+        private Duration migrationAge = Duration.ofDays(7);
+        private int migrationBatchSize = 1000;
+        private long migrationIntervalMillis = TimeUnit.MINUTES.toMillis(1);
+        private Class<? extends TrackingToken> tokenType = GapAwareTrackingToken.class;
+        private ThreadFactory threadFactory = new AxonThreadFactory("TieredEventStorageEngine");
+
+        /**
+         * Sets the {@link FileEventStorageEngine} to which events are migrated. It should not be used to append events
+         * directly.
+         *
+         * @param historicStorage the {@link FileEventStorageEngine} to which events are migrated
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder historicStorage(FileEventStorageEngine historicStorage) {
+            assertNonNull(historicStorage, "Historic FileEventStorageEngine may not be null");
+            this.historicStorage = historicStorage;
+            return this;
+        }
+
+        /**
+         * Sets the {@link EventStorageEngine} to which new events and snapshots are appended, and from which events
+         * are migrated.
+         *
+         * @param activeStorage the {@link EventStorageEngine} to which new events and snapshots are appended
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder activeStorage(EventStorageEngine activeStorage) {
+            assertNonNull(activeStorage, "Active EventStorageEngine may not be null");
+            this.activeStorage = activeStorage;
+            return this;
+        }
+
+        /**
+         * Sets the function that removes all events up to and including the given global index from the active
+         * storage, once they have been migrated. The given index is always below that of the last migrated event,
+         * which remains in the active storage until the next migration. Defaults to {@link
+         * JdbcEventStorageEngine#deleteEventsUpTo(long)} if the active storage is a {@link JdbcEventStorageEngine}.
+         *
+         * @param activeStoragePurger the function removing migrated events from the active storage
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder activeStoragePurger(LongConsumer activeStoragePurger) {
+            assertNonNull(activeStoragePurger, "Active storage purger may not be null");
+            this.activeStoragePurger = activeStoragePurger;
+            return this;
+        }
+
+        /**
+         * Sets the age after which events are migrated by {@link TieredEventStorageEngine#migrateEvents()}. Defaults
+         * to seven days.
+         *
+         * @param migrationAge the age after which events are migrated
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder migrationAge(Duration migrationAge) {
+            assertNonNull(migrationAge, "Migration age may not be null");
+            assertThat(migrationAge, age -> !age.isNegative(), "The migration age may not be negative");
+            this.migrationAge = migrationAge;
+            return this;
+        }
+
+        /**
+         * Sets the number of events imported into the historic storage and removed from the active storage at once.
+         * Defaults to {@code 1000}.
+         *
+         * @param migrationBatchSize the number of events migrated at once
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder migrationBatchSize(int migrationBatchSize) {
+            assertThat(migrationBatchSize, size -> size > 0, "The migration batch size should be a positive number");
+            this.migrationBatchSize = migrationBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the delay between two migrations after {@link TieredEventStorageEngine#start()} has been invoked.
+         * Defaults to one minute.
+         *
+         * @param migrationInterval the delay between two migrations
+         * @param timeUnit          the unit of the given {@code migrationInterval}
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder migrationInterval(long migrationInterval, TimeUnit timeUnit) {
+            assertThat(migrationInterval, interval -> interval > 0, "The migration interval should be positive");
+            assertNonNull(timeUnit, "TimeUnit may not be null");
+            this.migrationIntervalMillis = timeUnit.toMillis(migrationInterval);
+            return this;
+        }
+
+        /**
+         * Sets the type of {@link TrackingToken} used by the active storage, which is used for events read from the
+         * historic storage. Should be either {@link GapAwareTrackingToken} or {@link GlobalSequenceTrackingToken}.
+         * Defaults to {@link GapAwareTrackingToken}.
+         *
+         * @param tokenType the type of {@link TrackingToken} used by the active storage
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder tokenType(Class<? extends TrackingToken> tokenType) {
+            assertThat(tokenType,
+                       type -> type == GapAwareTrackingToken.class || type == GlobalSequenceTrackingToken.class,
+                       "The token type should be GapAwareTrackingToken or GlobalSequenceTrackingToken");
+            this.tokenType = tokenType;
+            return this;
+        }
+
+        /**
+         * Sets the {@link ThreadFactory} used to create the thread migrating events periodically. Defaults to an
+         * {@link AxonThreadFactory}.
+         *
+         * @param threadFactory the {@link ThreadFactory} used to create the migration thread
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder threadFactory(ThreadFactory threadFactory) {
+            assertNonNull(threadFactory, "ThreadFactory may not be null");
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link TieredEventStorageEngine} as specified through this Builder.
+         *
+         * @return a {@link TieredEventStorageEngine} as specified through this Builder
+         */
+        public TieredEventStorageEngine build() {
+            return new TieredEventStorageEngine(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(historicStorage,
+                          "The historic FileEventStorageEngine is a hard requirement and should be provided");
+            assertNonNull(activeStorage, "The active EventStorageEngine is a hard requirement and should be provided");
+            if (activeStoragePurger == null && activeStorage instanceof JdbcEventStorageEngine) {
+                activeStoragePurger = ((JdbcEventStorageEngine) activeStorage)::deleteEventsUpTo;
+            }
+            assertNonNull(activeStoragePurger,
+                          "The active storage purger is a hard requirement and should be provided");
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.axonframework.eventhandling.EventUtils.asDomainEventMessage;
+
+/**
+ * Utility class that converts event messages to and from the binary records stored by the {@link
+ * FileEventStorageEngine}.
+ * <p>
+ * A record starts with a fixed size part containing a flags byte, the global index, the timestamp and the sequence
+ * number of the event, followed by the aggregate identifier. This allows the engine to index records without decoding them entirely. The
+ * remaining fields are written as length prefixed values, where a length of {@code -1} denotes {@code null}.
+ *
+ * @author agent
+ * @since 4.1
+ */
+abstract class EventRecords {
+
+    private static final byte DOMAIN_EVENT = 1;
+
+    private static final int FLAGS_OFFSET = 0;
+    private static final int GLOBAL_INDEX_OFFSET = 1;
+    private static final int EPOCH_SECOND_OFFSET = 9;
+    private static final int NANO_OFFSET = 17;
+    private static final int SEQUENCE_NUMBER_OFFSET = 21;
+    private static final int AGGREGATE_IDENTIFIER_OFFSET = 29;
+
+    private EventRecords() {
+        // Utility class
+    }
+
+    /**
+     * Serializes the given {@code event} into a record, using given {@code serializer} for its payload and meta data.
+     * Events that are not {@link DomainEventMessage DomainEventMessages} are stored like JDBC and JPA based engines
+     * do, using their identifier as aggregate identifier. They are not marked as domain event though.
+     * <p>
+     * The global index of the record is left undefined, and should be set using {@link #globalIndex(byte[], long)}
+     * before the record is stored.
+     *
+     * @param event      the event to convert into a record
+     * @param serializer the serializer used to serialize the payload and meta data of the event
+     * @return the bytes of the record
+     */
+    static byte[] encode(EventMessage<?> event, Serializer serializer) {
+        DomainEventMessage<?> domainEvent = asDomainEventMessage(event);
+        SerializedObject<byte[]> payload = domainEvent.serializePayload(serializer, byte[].class);
+        SerializedObject<byte[]> metaData = domainEvent.serializeMetaData(serializer, byte[].class);
+        byte[][] values = {
+                bytesOf(domainEvent.getAggregateIdentifier()),
+                bytesOf(domainEvent.getIdentifier()),
+                bytesOf(domainEvent.getType()),
+                bytesOf(payload.getType().getName()),
+                bytesOf(payload.getType().getRevision()),
+                payload.getData(),
+                metaData.getData()
+        };
+        int size = AGGREGATE_IDENTIFIER_OFFSET;
+        for (byte[] value : values) {
+            size += 4 + (value == null ? 0 : value.length);
+        }
+        Instant timestamp = domainEvent.getTimestamp();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(event instanceof DomainEventMessage ? DOMAIN_EVENT : 0)
+              .putLong(-1L)
+              .putLong(timestamp.getEpochSecond())
+              .putInt(timestamp.getNano())
+              .putLong(domainEvent.getSequenceNumber());
+        for (byte[] value : values) {
+            if (value == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(value.length).put(value);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the given {@code record} into an entry containing the serialized event.
+     *
+     * @param record the buffer containing the record, positioned at its start
+     * @return an entry containing the data of the serialized event
+     */
+    static GenericDomainEventEntry<byte[]> decode(ByteBuffer record) {
+        ByteBuffer buffer = record.duplicate();
+        buffer.position(buffer.position() + AGGREGATE_IDENTIFIER_OFFSET);
+        String aggregateIdentifier = readString(buffer);
+        String eventIdentifier = readString(buffer);
+        String type = readString(buffer);
+        String payloadType = readString(buffer);
+        String payloadRevision = readString(buffer);
+        byte[] payload = readBytes(buffer);
+        byte[] metaData = readBytes(buffer);
+        return new GenericDomainEventEntry<>(type, aggregateIdentifier, sequenceNumber(record), eventIdentifier,
+                                             timestamp(record), payloadType, payloadRevision, payload, metaData);
+    }
+
+    /**
+     * Indicates whether the given {@code record} was created for a {@link DomainEventMessage}.
+     *
+     * @param record the buffer containing the record, positioned at its start
+     * @return {@code true} if the record contains a domain event, otherwise {@code false}
+     */
+    static boolean isDomainEvent(ByteBuffer record) {
+        return (record.get(record.position() + FLAGS_OFFSET) & DOMAIN_EVENT) != 0;
+    }
+
+    /**
+     * Sets the global index of the event contained in given {@code record}.
+     *
+     * @param record      the bytes of the record, as returned by {@link #encode(EventMessage, Serializer)}
+     * @param globalIndex the global index of the event
+     */
+    static void globalIndex(byte[] record, long globalIndex) {
+        ByteBuffer.wrap(record).putLong(GLOBAL_INDEX_OFFSET, globalIndex);
+    }
+
+    /**
+     * Returns the global index of the event contained in given {@code record}.
+     *
+     * @param record the buffer containing the record, positioned at its start
+     * @return the global index of the event
+     */
+    static long globalIndex(ByteBuffer record) {
+        return record.getLong(record.position() + GLOBAL_INDEX_OFFSET);
+    }
+
+    /**
+     * Returns the timestamp of the event contained in given {@code record}.
+     *
+     * @param record the buffer containing the record, positioned at its start
+     * @return the timestamp of the event
+     */
+    static Instant timestamp(ByteBuffer record) {
+        return Instant.ofEpochSecond(record.getLong(record.position() + EPOCH_SECOND_OFFSET),
+                                     record.getInt(record.position() + NANO_OFFSET));
+    }
+
+    /**
+     * Returns the sequence number of the event contained in given {@code record}.
+     *
+     * @param record the buffer containing the record, positioned at its start
+     * @return the sequence number of the event
+     */
+    static long sequenceNumber(ByteBuffer record) {
+        return record.getLong(record.position() + SEQUENCE_NUMBER_OFFSET);
+    }
+
+    /**
+     * Returns the aggregate identifier of the event contained in given {@code record}.
+     *
+     * @param record the buffer containing the record, positioned at its start
+     * @return the aggregate identifier of the event
+     */
+    static String aggregateIdentifier(ByteBuffer record) {
+        ByteBuffer buffer = record.duplicate();
+        buffer.position(buffer.position() + AGGREGATE_IDENTIFIER_OFFSET);
+        return readString(buffer);
+    }
+
+    private static byte[] bytesOf(String value) {
+        return value == null ? null : value.getBytes(UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = readBytes(buffer);
+        return bytes == null ? null : new String(bytes, UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
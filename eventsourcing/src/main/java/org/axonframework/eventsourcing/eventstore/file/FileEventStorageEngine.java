@@ -0,0 +1,752 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.jdbc.PersistenceExceptionResolver;
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedDomainEventData;
+import org.axonframework.eventhandling.TrackedEventData;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.AbstractEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.upcasting.event.EventUpcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.axonframework.common.Assert.isTrue;
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * EventStorageEngine implementation that stores events in append-only segment files in a local directory. It is meant
+ * for single node deployments and tests, or as the storage of historic events in a {@link
+ * org.axonframework.eventsourcing.eventstore.TieredEventStorageEngine}.
+ * <p>
+ * Events are written as records to segment files, which are preallocated and read through a memory mapping. Each
+ * event is assigned a global index, which is mapped to the position of its record through a memory mapped index file.
+ * Events copied from another storage engine using {@link #importEvents(List, long[])} retain their global index.
+ * Events are read in order of their global index using a {@link GlobalSequenceTrackingToken}. A {@link
+ * GapAwareTrackingToken}, as created by the JPA and JDBC storage engines, is accepted as well, ignoring its gaps, so
+ * that tracking processors can continue from events migrated from such an engine. Domain events are also
+ * indexed per aggregate, which allows reading the events of an aggregate without scanning the segment files and is
+ * used to detect attempts to append an event with a sequence number that is already taken. Snapshots are stored in a
+ * separate set of segment files, and the snapshot with the highest sequence number of an aggregate is read first.
+ * <p>
+ * By default, appended events are flushed to the storage device before they become visible to readers and before the
+ * call to {@link #appendEvents(List)} returns. Threads appending concurrently share a single flush, so the cost of
+ * flushing is amortized over all events written in the meantime. When a flush fails, the events it covers never
+ * become visible and the engine rejects all further appends, as the durability of those events is unknown. The
+ * storage should then be reopened, which only recovers the events that reached the storage device. When opened, the
+ * engine discards the records of batches that were not written completely, and rebuilds its indices from the segment
+ * files. The aggregate index is kept in memory.
+ * <p>
+ * The storage directory may only be used by a single engine at a time. Call {@link #shutDown()} to release the files.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class FileEventStorageEngine extends AbstractEventStorageEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileEventStorageEngine.class);
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final String EVENTS_PREFIX = "events";
+    private static final String SNAPSHOTS_PREFIX = "snapshots";
+    private static final String INDEX_FILE = "events.idx";
+    private static final String GENERATION_FILE = "generation";
+    private static final String LOCK_FILE = "lock";
+    private static final long NO_EVENT = -1L;
+
+    private final Path storageDirectory;
+    private final boolean syncOnAppend;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final ConcurrentMap<String, AggregateEvents> aggregates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, long[]> snapshots = new ConcurrentHashMap<>();
+    private final GlobalIndex globalIndex;
+    private final SegmentedLog eventLog;
+    private final SegmentedLog snapshotLog;
+
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private final Object snapshotLock = new Object();
+    private int generation;
+    private long lastWrittenIndex = -1;
+    private volatile long lastCommittedIndex = -1;
+    private volatile EventStoreException flushFailure;
+
+    /**
+     * Instantiate a {@link FileEventStorageEngine} based on the fields contained in the {@link Builder}, opening the
+     * files in the storage directory.
+     * <p>
+     * Will assert that the storage directory is not {@code null}, and will throw an {@link AxonConfigurationException}
+     * if it is. Will throw an {@link EventStoreException} if the files in the storage directory could not be opened,
+     * or if the storage directory is in use by another engine.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link FileEventStorageEngine} instance
+     */
+    protected FileEventStorageEngine(Builder builder) {
+        this(builder, file -> FileChannel.open(file, READ, WRITE));
+    }
+
+    /**
+     * Instantiate a {@link FileEventStorageEngine} as described by {@link #FileEventStorageEngine(Builder)}, using
+     * given {@code channelFactory} to open the channels of the segment files.
+     *
+     * @param builder        the {@link Builder} used to instantiate a {@link FileEventStorageEngine} instance
+     * @param channelFactory the factory opening the channels of the segment files
+     */
+    FileEventStorageEngine(Builder builder, SegmentedLog.ChannelFactory channelFactory) {
+        super(builder);
+        this.storageDirectory = builder.storageDirectory;
+        this.syncOnAppend = builder.syncOnAppend;
+        FileChannel lockChannel = null;
+        FileLock lock = null;
+        GlobalIndex globalIndex = null;
+        SegmentedLog eventLog = null;
+        SegmentedLog snapshotLog = null;
+        try {
+            Files.createDirectories(storageDirectory);
+            lockChannel = FileChannel.open(storageDirectory.resolve(LOCK_FILE), CREATE, WRITE);
+            lock = lockChannel.tryLock();
+            if (lock == null) {
+                throw new EventStoreException(format("The event storage in [%s] is in use by another process",
+                                                     storageDirectory));
+            }
+            this.generation = readGeneration() + 1;
+            writeGeneration(generation);
+            globalIndex = new GlobalIndex(storageDirectory.resolve(INDEX_FILE));
+            eventLog = new SegmentedLog(storageDirectory, EVENTS_PREFIX, builder.segmentSize,
+                                        indexEvent(globalIndex), channelFactory);
+            snapshotLog = new SegmentedLog(storageDirectory, SNAPSHOTS_PREFIX, builder.segmentSize,
+                                           this::indexSnapshot, channelFactory);
+        } catch (IOException | OverlappingFileLockException e) {
+            closeQuietly(snapshotLog, eventLog, globalIndex, lockChannel);
+            throw new EventStoreException(format("Could not open the event storage in [%s]", storageDirectory), e);
+        } catch (RuntimeException e) {
+            closeQuietly(snapshotLog, eventLog, globalIndex, lockChannel);
+            throw e;
+        }
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.globalIndex = globalIndex;
+        this.eventLog = eventLog;
+        this.snapshotLog = snapshotLog;
+        this.lastCommittedIndex = lastWrittenIndex;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link FileEventStorageEngine}.
+     * <p>
+     * The following configurable fields have defaults:
+     * <ul>
+     * <li>The snapshot {@link Serializer} defaults to {@link org.axonframework.serialization.xml.XStreamSerializer}.</li>
+     * <li>The {@link EventUpcaster} defaults to an {@link org.axonframework.serialization.upcasting.event.NoOpEventUpcaster}.</li>
+     * <li>The event Serializer defaults to a {@link org.axonframework.serialization.xml.XStreamSerializer}.</li>
+     * <li>The {@code snapshotFilter} defaults to a {@link Predicate} which returns {@code true} regardless.</li>
+     * <li>The {@code segmentSize} defaults to {@code 64} megabytes.</li>
+     * <li>The {@code syncOnAppend} flag defaults to {@code true}.</li>
+     * </ul>
+     * <p>
+     * The storage directory is a <b>hard requirement</b> and as such should be provided.
+     *
+     * @return a Builder to be able to create a {@link FileEventStorageEngine}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Closes the files used by this engine and releases the storage directory. The engine can no longer be used
+     * after this method has been invoked.
+     */
+    public void shutDown() {
+        synchronized (writeLock) {
+            try {
+                lock.release();
+            } catch (IOException e) {
+                logger.warn("Failed to release the lock on event storage directory [{}]", storageDirectory, e);
+            }
+            closeQuietly(snapshotLog, eventLog, globalIndex, lockChannel);
+        }
+    }
+
+    @Override
+    protected void appendEvents(List<? extends EventMessage<?>> events, Serializer serializer) {
+        append(events, null, serializer);
+    }
+
+    /**
+     * Appends given {@code events} at the given {@code globalIndices}, rather than at the global indices following the
+     * last event in storage. This allows events to be copied from another storage engine while retaining their global
+     * index, and thus the validity of tracking tokens referring to them. Global indices that are skipped will never be
+     * assigned to an event.
+     * <p>
+     * The global indices should be ascending, and higher than the global index of any event in storage.
+     *
+     * @param events        the events to append
+     * @param globalIndices the global index of each of the events
+     * @see org.axonframework.eventsourcing.eventstore.TieredEventStorageEngine
+     */
+    public void importEvents(List<? extends EventMessage<?>> events, long[] globalIndices) {
+        isTrue(events.size() == globalIndices.length,
+               () -> "The number of global indices should be equal to the number of events");
+        for (int i = 1; i < globalIndices.length; i++) {
+            isTrue(globalIndices[i] > globalIndices[i - 1], () -> "The global indices should be ascending");
+        }
+        append(events, globalIndices, getEventSerializer());
+    }
+
+    private void append(List<? extends EventMessage<?>> events, long[] globalIndices, Serializer serializer) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<byte[]> records = new ArrayList<>(events.size());
+        for (EventMessage<?> event : events) {
+            records.add(EventRecords.encode(event, serializer));
+        }
+        long lastIndex;
+        synchronized (writeLock) {
+            assertNoFlushFailure();
+            validateSequenceNumbers(events);
+            long[] indices = globalIndices;
+            if (indices == null) {
+                indices = LongStream.range(lastWrittenIndex + 1, lastWrittenIndex + 1 + events.size()).toArray();
+            } else if (indices[0] <= lastWrittenIndex) {
+                throw new EventStoreException(format(
+                        "Cannot append an event at global index [%d], as events up to [%d] have already been appended",
+                        indices[0], lastWrittenIndex
+                ));
+            }
+            for (int i = 0; i < records.size(); i++) {
+                EventRecords.globalIndex(records.get(i), indices[i]);
+            }
+            long[] positions;
+            try {
+                globalIndex.reserve(indices[indices.length - 1]);
+                positions = eventLog.append(records, generation);
+            } catch (IOException e) {
+                throw writeFailure("Failed to append events to the event storage", e);
+            }
+            for (int i = 0; i < positions.length; i++) {
+                indexEvent(globalIndex, indices[i], positions[i]);
+                EventMessage<?> event = events.get(i);
+                if (event instanceof DomainEventMessage) {
+                    DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+                    aggregates.computeIfAbsent(domainEvent.getAggregateIdentifier(), id -> new AggregateEvents())
+                              .add(indices[i], domainEvent.getSequenceNumber());
+                }
+            }
+            lastIndex = lastWrittenIndex;
+            if (!syncOnAppend) {
+                lastCommittedIndex = lastIndex;
+            }
+        }
+        if (syncOnAppend) {
+            commit(lastIndex);
+        }
+    }
+
+    private void validateSequenceNumbers(List<? extends EventMessage<?>> events) {
+        Map<String, Long> lastSequenceNumbers = new HashMap<>();
+        for (EventMessage<?> event : events) {
+            if (event instanceof DomainEventMessage) {
+                DomainEventMessage<?> domainEvent = (DomainEventMessage<?>) event;
+                String aggregateIdentifier = domainEvent.getAggregateIdentifier();
+                Long lastSequenceNumber = lastSequenceNumbers.computeIfAbsent(aggregateIdentifier, id -> {
+                    AggregateEvents aggregateEvents = aggregates.get(id);
+                    return aggregateEvents == null ? null : aggregateEvents.lastSequenceNumber(Long.MAX_VALUE);
+                });
+                if (lastSequenceNumber != null && domainEvent.getSequenceNumber() <= lastSequenceNumber) {
+                    throw new ConcurrencyException(format(
+                            "An event for aggregate [%s] at sequence [%d] was already inserted",
+                            aggregateIdentifier, domainEvent.getSequenceNumber()
+                    ));
+                }
+                lastSequenceNumbers.put(aggregateIdentifier, domainEvent.getSequenceNumber());
+            }
+        }
+    }
+
+    private void commit(long index) {
+        if (lastCommittedIndex >= index) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (lastCommittedIndex >= index) {
+                return;
+            }
+            assertNoFlushFailure();
+            long target;
+            synchronized (writeLock) {
+                target = lastWrittenIndex;
+            }
+            try {
+                eventLog.force();
+            } catch (IOException e) {
+                // the appended events are in the log and the global index, but never become visible. As their
+                // durability is unknown, later events may not be committed on top of them
+                flushFailure = new EventStoreException("Failed to flush appended events to the storage device", e);
+                throw flushFailure;
+            }
+            lastCommittedIndex = target;
+        }
+    }
+
+    private void assertNoFlushFailure() {
+        EventStoreException failure = flushFailure;
+        if (failure != null) {
+            throw new EventStoreException(format(
+                    "The event storage in [%s] failed to flush appended events and no longer accepts events. "
+                            + "Reopen the event storage to continue", storageDirectory
+            ), failure);
+        }
+    }
+
+    @Override
+    protected void storeSnapshot(DomainEventMessage<?> snapshot, Serializer serializer) {
+        byte[] record = EventRecords.encode(snapshot, serializer);
+        synchronized (snapshotLock) {
+            try {
+                long position = snapshotLog.append(Collections.singletonList(record), currentGeneration())[0];
+                if (syncOnAppend) {
+                    snapshotLog.force();
+                }
+                addSnapshot(snapshot.getAggregateIdentifier(), snapshot.getSequenceNumber(), position);
+            } catch (IOException e) {
+                throw writeFailure("Failed to store snapshot in the event storage", e);
+            }
+        }
+    }
+
+    @Override
+    protected Stream<? extends DomainEventData<?>> readEventData(String identifier, long firstSequenceNumber) {
+        AggregateEvents aggregateEvents = aggregates.get(identifier);
+        if (aggregateEvents == null) {
+            return Stream.empty();
+        }
+        long[] globalIndices = aggregateEvents.globalIndices(firstSequenceNumber, lastCommittedIndex);
+        return Arrays.stream(globalIndices).mapToObj(this::readEvent);
+    }
+
+    @Override
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken, boolean mayBlock) {
+        return StreamSupport.stream(new TrackedEventSpliterator(firstIndexAfter(trackingToken)), false);
+    }
+
+    private static long firstIndexAfter(TrackingToken trackingToken) {
+        if (trackingToken == null) {
+            return 0;
+        }
+        if (trackingToken instanceof GapAwareTrackingToken) {
+            // events are appended in order of their global index, so gaps can't be filled later on
+            return ((GapAwareTrackingToken) trackingToken).getIndex() + 1;
+        }
+        isTrue(trackingToken instanceof GlobalSequenceTrackingToken,
+               () -> format("Token [%s] is of the wrong type. Expected [%s] or [%s]",
+                            trackingToken, GlobalSequenceTrackingToken.class.getSimpleName(),
+                            GapAwareTrackingToken.class.getSimpleName()));
+        return ((GlobalSequenceTrackingToken) trackingToken).getGlobalIndex() + 1;
+    }
+
+    @Override
+    protected Stream<? extends DomainEventData<?>> readSnapshotData(String aggregateIdentifier) {
+        long[] entries = snapshots.get(aggregateIdentifier);
+        if (entries == null) {
+            return Stream.empty();
+        }
+        return IntStream.range(0, entries.length / 2)
+                        .mapToObj(i -> EventRecords.decode(snapshotLog.read(entries[i * 2 + 1])));
+    }
+
+    @Override
+    public Optional<Long> lastSequenceNumberFor(String aggregateIdentifier) {
+        AggregateEvents aggregateEvents = aggregates.get(aggregateIdentifier);
+        return Optional.ofNullable(aggregateEvents)
+                       .map(events -> events.lastSequenceNumber(lastCommittedIndex));
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        return null;
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        long headIndex = lastCommittedIndex;
+        return headIndex < 0 ? null : new GlobalSequenceTrackingToken(headIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The event is found using a binary search over the global index, which assumes the timestamps of events to
+     * increase with their global index. Should an event carry a timestamp older than that of its predecessors, the
+     * returned token may skip earlier events at or after the given {@code dateTime}.
+     */
+    @Override
+    public TrackingToken createTokenAt(Instant dateTime) {
+        long low = 0;
+        long high = lastCommittedIndex + 1;
+        long firstIndex = -1;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            long index = middle;
+            while (index < high && globalIndex.get(index) == NO_EVENT) {
+                index++;
+            }
+            if (index < high && EventRecords.timestamp(eventLog.read(globalIndex.get(index))).isBefore(dateTime)) {
+                low = index + 1;
+            } else {
+                if (index < high) {
+                    firstIndex = index;
+                }
+                high = middle;
+            }
+        }
+        if (firstIndex < 0) {
+            return createHeadToken();
+        }
+        return firstIndex == 0 ? null : new GlobalSequenceTrackingToken(firstIndex - 1);
+    }
+
+    private DomainEventData<byte[]> readEvent(long index) {
+        return EventRecords.decode(eventLog.read(globalIndex.get(index)));
+    }
+
+    private void indexEvent(GlobalIndex globalIndex, long index, long position) {
+        while (lastWrittenIndex < index - 1) {
+            globalIndex.set(++lastWrittenIndex, NO_EVENT);
+        }
+        globalIndex.set(index, position);
+        lastWrittenIndex = index;
+    }
+
+    private ObjLongConsumer<ByteBuffer> indexEvent(GlobalIndex globalIndex) {
+        return (record, position) -> {
+            long index = EventRecords.globalIndex(record);
+            try {
+                globalIndex.reserve(index);
+            } catch (IOException e) {
+                throw new EventStoreException("Failed to rebuild the global index of the event storage", e);
+            }
+            indexEvent(globalIndex, index, position);
+            if (EventRecords.isDomainEvent(record)) {
+                aggregates.computeIfAbsent(EventRecords.aggregateIdentifier(record), id -> new AggregateEvents())
+                          .add(index, EventRecords.sequenceNumber(record));
+            }
+        };
+    }
+
+    private void indexSnapshot(ByteBuffer record, long position) {
+        addSnapshot(EventRecords.aggregateIdentifier(record), EventRecords.sequenceNumber(record), position);
+    }
+
+    private void addSnapshot(String aggregateIdentifier, long sequenceNumber, long position) {
+        // entries are kept as pairs of sequence number and position, with the highest sequence number first
+        snapshots.merge(aggregateIdentifier, new long[]{sequenceNumber, position}, (previous, latest) -> {
+            int insertAt = 0;
+            while (insertAt < previous.length && previous[insertAt] > sequenceNumber) {
+                insertAt += 2;
+            }
+            long[] entries = new long[previous.length + 2];
+            System.arraycopy(previous, 0, entries, 0, insertAt);
+            System.arraycopy(latest, 0, entries, insertAt, 2);
+            System.arraycopy(previous, insertAt, entries, insertAt + 2, previous.length - insertAt);
+            return entries;
+        });
+    }
+
+    private int currentGeneration() {
+        synchronized (writeLock) {
+            return generation;
+        }
+    }
+
+    private EventStoreException writeFailure(String message, IOException cause) {
+        EventStoreException exception = new EventStoreException(message, cause);
+        synchronized (writeLock) {
+            try {
+                // records beyond the write position must not be accepted when reopening the storage
+                writeGeneration(++generation);
+            } catch (IOException e) {
+                exception.addSuppressed(e);
+            }
+        }
+        return exception;
+    }
+
+    private int readGeneration() throws IOException {
+        Path file = storageDirectory.resolve(GENERATION_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < 4) {
+            throw new IOException(format("Generation file [%s] is corrupt", file));
+        }
+        return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    private void writeGeneration(int generation) throws IOException {
+        try (FileChannel channel = FileChannel.open(storageDirectory.resolve(GENERATION_FILE), CREATE, READ, WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4).putInt(0, generation);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+            channel.force(false);
+        }
+    }
+
+    private void closeQuietly(AutoCloseable... closeables) {
+        for (AutoCloseable closeable : closeables) {
+            if (closeable != null) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close a file in event storage directory [{}]", storageDirectory, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Spliterator over the events starting at a given global index. Events appended while iterating are included,
+     * as long as they have been committed before the spliterator reaches them.
+     */
+    private class TrackedEventSpliterator extends Spliterators.AbstractSpliterator<TrackedEventData<?>> {
+
+        private long nextIndex;
+
+        private TrackedEventSpliterator(long firstIndex) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.nextIndex = firstIndex;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TrackedEventData<?>> action) {
+            while (nextIndex <= lastCommittedIndex) {
+                long index = nextIndex++;
+                long position = globalIndex.get(index);
+                if (position != NO_EVENT) {
+                    action.accept(new TrackedDomainEventData<>(new GlobalSequenceTrackingToken(index),
+                                                               EventRecords.decode(eventLog.read(position))));
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The global indices and sequence numbers of the events of a single aggregate, in the order in which they were
+     * appended. Entries are only added while holding the write lock, while readers may read concurrently.
+     */
+    private static final class AggregateEvents {
+
+        private volatile long[] entries = new long[8];
+        private volatile int size;
+
+        private void add(long globalIndex, long sequenceNumber) {
+            long[] current = entries;
+            int offset = size * 2;
+            if (offset == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[offset] = globalIndex;
+            current[offset + 1] = sequenceNumber;
+            entries = current;
+            size++;
+        }
+
+        private Long lastSequenceNumber(long maxGlobalIndex) {
+            int count = size;
+            long[] current = entries;
+            for (int i = count - 1; i >= 0; i--) {
+                if (current[i * 2] <= maxGlobalIndex) {
+                    return current[i * 2 + 1];
+                }
+            }
+            return null;
+        }
+
+        private long[] globalIndices(long firstSequenceNumber, long maxGlobalIndex) {
+            int count = size;
+            long[] current = entries;
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (current[middle * 2 + 1] < firstSequenceNumber) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return IntStream.range(low, count)
+                            .mapToLong(i -> current[i * 2])
+                            .filter(globalIndex -> globalIndex <= maxGlobalIndex)
+                            .toArray();
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link FileEventStorageEngine}.
+     * <p>
+     * The following configurable fields have defaults:
+     * <ul>
+     * <li>The snapshot {@link Serializer} defaults to {@link org.axonframework.serialization.xml.XStreamSerializer}.</li>
+     * <li>The {@link EventUpcaster} defaults to an {@link org.axonframework.serialization.upcasting.event.NoOpEventUpcaster}.</li>
+     * <li>The event Serializer defaults to a {@link org.axonframework.serialization.xml.XStreamSerializer}.</li>
+     * <li>The {@code snapshotFilter} defaults to a {@link Predicate} which returns {@code true} regardless.</li>
+     * <li>The {@code segmentSize} defaults to {@code 64} megabytes.</li>
+     * <li>The {@code syncOnAppend} flag defaults to {@code true}.</li>
+     * </ul>
+     * <p>
+     * The storage directory is a <b>hard requirement</b> and as such should be provided.
+     */
+    public static class Builder extends AbstractEventStorageEngine.Builder {
+
+        private Path storageDirectory;
+        private int segmentSize = DEFAULT_SEGMENT_SIZE;
+        private boolean syncOnAppend = true;
+
+        @Override
+        public Builder snapshotSerializer(Serializer snapshotSerializer) {
+            super.snapshotSerializer(snapshotSerializer);
+            return this;
+        }
+
+        @Override
+        public Builder upcasterChain(EventUpcaster upcasterChain) {
+            super.upcasterChain(upcasterChain);
+            return this;
+        }
+
+        /**
+         * {@inheritDoc} This engine detects duplicate sequence numbers itself, so the resolver is not used.
+         */
+        @Override
+        public Builder persistenceExceptionResolver(PersistenceExceptionResolver persistenceExceptionResolver) {
+            super.persistenceExceptionResolver(persistenceExceptionResolver);
+            return this;
+        }
+
+        @Override
+        public Builder eventSerializer(Serializer eventSerializer) {
+            super.eventSerializer(eventSerializer);
+            return this;
+        }
+
+        @Override
+        public Builder snapshotFilter(Predicate<? super DomainEventData<?>> snapshotFilter) {
+            super.snapshotFilter(snapshotFilter);
+            return this;
+        }
+
+        /**
+         * Sets the directory in which the event storage files are kept. The directory is created if it doesn't exist.
+         *
+         * @param storageDirectory the directory in which the event storage files are kept
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder storageDirectory(Path storageDirectory) {
+            assertNonNull(storageDirectory, "The storage directory may not be null");
+            this.storageDirectory = storageDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the size in bytes of newly created segment files. Batches of events that don't fit in a segment of
+         * this size are written to a segment of their own. Defaults to {@code 64} megabytes.
+         *
+         * @param segmentSize the size in bytes of newly created segment files
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder segmentSize(int segmentSize) {
+            assertThat(segmentSize, size -> size > 0, "The segment size should be a positive number");
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Sets whether appended events and stored snapshots are flushed to the storage device before they become
+         * visible. When {@code false}, data is flushed whenever the operating system sees fit, meaning recently
+         * appended events may be lost when the machine fails. Defaults to {@code true}.
+         *
+         * @param syncOnAppend whether to flush appended events to the storage device before they become visible
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder syncOnAppend(boolean syncOnAppend) {
+            this.syncOnAppend = syncOnAppend;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link FileEventStorageEngine} as specified through this Builder.
+         *
+         * @return a {@link FileEventStorageEngine} as specified through this Builder
+         */
+        public FileEventStorageEngine build() {
+            return new FileEventStorageEngine(this);
+        }
+
+        @Override
+        protected void validate() throws AxonConfigurationException {
+            super.validate();
+            assertNonNull(storageDirectory, "The storage directory is a hard requirement and should be provided");
+        }
+    }
+}
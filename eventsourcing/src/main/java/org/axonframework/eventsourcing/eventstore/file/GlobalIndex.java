@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Memory mapped file that maps the global index of each event to the position of its record in the {@link
+ * SegmentedLog}. The file is mapped in chunks of a fixed number of entries, which are added as the index grows.
+ * <p>
+ * The index is derived from the log and rebuilt when the {@link FileEventStorageEngine} is opened. It is therefore
+ * never flushed explicitly. Entries are written by a single thread at a time. Readers should only read entries that
+ * have been published to them through other means.
+ *
+ * @author agent
+ * @since 4.1
+ */
+class GlobalIndex implements Closeable {
+
+    private static final int CHUNK_SHIFT = 17;
+    private static final int CHUNK_ENTRIES = 1 << CHUNK_SHIFT;
+    private static final long CHUNK_BYTES = CHUNK_ENTRIES * 8L;
+
+    private final FileChannel channel;
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+    /**
+     * Opens the index stored in given {@code file}, creating the file if it doesn't exist.
+     *
+     * @param file the file containing the index
+     * @throws IOException when an error occurs opening the file
+     */
+    GlobalIndex(Path file) throws IOException {
+        this.channel = FileChannel.open(file, CREATE, READ, WRITE);
+    }
+
+    /**
+     * Makes sure the index is large enough to contain the entry with given {@code index}, extending the index file
+     * when necessary.
+     *
+     * @param index the global index of the event
+     * @throws IOException when an error occurs extending the index file
+     */
+    void reserve(long index) throws IOException {
+        int chunkIndex = (int) (index >>> CHUNK_SHIFT);
+        MappedByteBuffer[] current = chunks;
+        if (chunkIndex < current.length) {
+            return;
+        }
+        MappedByteBuffer[] extended = Arrays.copyOf(current, chunkIndex + 1);
+        for (int i = current.length; i < extended.length; i++) {
+            extended[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * CHUNK_BYTES, CHUNK_BYTES);
+        }
+        chunks = extended;
+    }
+
+    /**
+     * Stores the given {@code position} for the event with given {@code index}, unless that position is already
+     * stored. The index should have been {@link #reserve(long) reserved} before.
+     *
+     * @param index    the global index of the event
+     * @param position the position of the record of the event
+     */
+    void set(long index, long position) {
+        MappedByteBuffer chunk = chunks[(int) (index >>> CHUNK_SHIFT)];
+        int offset = offset(index);
+        if (chunk.getLong(offset) != position) {
+            chunk.putLong(offset, position);
+        }
+    }
+
+    /**
+     * Returns the position of the record of the event with given {@code index}.
+     *
+     * @param index the global index of the event
+     * @return the position of the record of the event
+     */
+    long get(long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].getLong(offset(index));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int offset(long index) {
+        return (int) (index & (CHUNK_ENTRIES - 1)) * 8;
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only log of records, stored in a sequence of preallocated segment files. Records are written through the
+ * {@link FileChannel} of a segment and read through a read-only memory mapping of that segment.
+ * <p>
+ * Each record is stored in a frame containing its length, a CRC32 checksum, the generation of the writer and a flag
+ * marking the last record of a batch. Records are addressed by a position, which combines the ordinal of their segment
+ * (high 32 bits) and the offset of their frame in that segment (low 32 bits). A batch of records is always written to
+ * a single segment.
+ * <p>
+ * When opened, the log scans its segments and only accepts records of complete batches. Scanning stops at the first
+ * frame that is empty, doesn't match its checksum, or has been written by an older generation than the frame before
+ * it. The latter prevents records left behind by a failed write from reappearing after they have been partially
+ * overwritten by a newer writer, provided the generation is increased after each failure and each time the log is
+ * opened.
+ *
+ * @author agent
+ * @since 4.1
+ */
+class SegmentedLog implements Closeable {
+
+    private static final int FRAME_HEADER_SIZE = 13;
+    private static final byte BATCH_END = 1;
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final ChannelFactory channelFactory;
+    private final Set<Segment> dirtySegments = ConcurrentHashMap.newKeySet();
+    private volatile Segment[] segments;
+    private int writePosition;
+
+    /**
+     * Opens the log with files starting with given {@code prefix} in given {@code directory}, passing the position and
+     * contents of each record that has been written in a complete batch to given {@code recordConsumer}, in the order
+     * in which the records were written.
+     *
+     * @param directory      the directory containing the segment files
+     * @param prefix         the prefix of the names of the segment files
+     * @param segmentSize    the size of newly created segment files
+     * @param recordConsumer the consumer of the records found in existing segment files
+     * @throws IOException when an error occurs reading the segment files
+     */
+    SegmentedLog(Path directory, String prefix, int segmentSize, ObjLongConsumer<ByteBuffer> recordConsumer)
+            throws IOException {
+        this(directory, prefix, segmentSize, recordConsumer, file -> FileChannel.open(file, READ, WRITE));
+    }
+
+    /**
+     * Opens the log as described by {@link #SegmentedLog(Path, String, int, ObjLongConsumer)}, using given {@code
+     * channelFactory} to open the channels of the segment files.
+     *
+     * @param directory      the directory containing the segment files
+     * @param prefix         the prefix of the names of the segment files
+     * @param segmentSize    the size of newly created segment files
+     * @param recordConsumer the consumer of the records found in existing segment files
+     * @param channelFactory the factory opening a readable and writable channel to a segment file
+     * @throws IOException when an error occurs reading the segment files
+     */
+    SegmentedLog(Path directory, String prefix, int segmentSize, ObjLongConsumer<ByteBuffer> recordConsumer,
+                 ChannelFactory channelFactory) throws IOException {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.channelFactory = channelFactory;
+        List<Segment> existingSegments = new ArrayList<>();
+        Path file;
+        while (Files.exists(file = segmentFile(existingSegments.size()))) {
+            existingSegments.add(new Segment(existingSegments.size(), channelFactory, file, Files.size(file)));
+        }
+        this.segments = existingSegments.toArray(new Segment[0]);
+        recover(recordConsumer);
+    }
+
+    private void recover(ObjLongConsumer<ByteBuffer> recordConsumer) {
+        CRC32 checksum = new CRC32();
+        int lastGeneration = Integer.MIN_VALUE;
+        List<Integer> batch = new ArrayList<>();
+        for (Segment segment : segments) {
+            ByteBuffer buffer = segment.buffer;
+            int offset = 0;
+            int batchEnd = 0;
+            batch.clear();
+            while (offset <= buffer.capacity() - FRAME_HEADER_SIZE) {
+                int length = buffer.getInt(offset);
+                int generation = buffer.getInt(offset + 8);
+                if (length <= 0 || length > buffer.capacity() - offset - FRAME_HEADER_SIZE
+                        || generation < lastGeneration
+                        || buffer.getInt(offset + 4) != checksum(checksum, buffer, offset, length)) {
+                    break;
+                }
+                lastGeneration = generation;
+                batch.add(offset);
+                boolean endOfBatch = (buffer.get(offset + 12) & BATCH_END) != 0;
+                offset += FRAME_HEADER_SIZE + length;
+                if (endOfBatch) {
+                    for (int frame : batch) {
+                        recordConsumer.accept(read(segment, frame), position(segment.ordinal, frame));
+                    }
+                    batch.clear();
+                    batchEnd = offset;
+                }
+            }
+            writePosition = batchEnd;
+        }
+    }
+
+    /**
+     * Appends given {@code records} as a single batch, marking them with given {@code generation}. The records will
+     * be visible to {@link #read(long)}, but are not guaranteed to be durable until {@link #force()} is invoked.
+     * <p>
+     * When this method fails, the records are not considered written. The log is rewound to the start of the batch,
+     * which is cleared, and the records will be overwritten by the next batch. The caller should increase the
+     * generation used for subsequent batches, in case clearing the failed batch failed as well.
+     *
+     * @param records    the records to append
+     * @param generation the generation of the writer
+     * @return the positions of the appended records
+     * @throws IOException when an error occurs writing the records
+     */
+    synchronized long[] append(List<byte[]> records, int generation) throws IOException {
+        int batchSize = 0;
+        for (byte[] record : records) {
+            batchSize += FRAME_HEADER_SIZE + record.length;
+        }
+        Segment segment = segments.length == 0 ? null : segments[segments.length - 1];
+        if (segment == null || batchSize > segment.buffer.capacity() - writePosition) {
+            segment = startSegment(segment, batchSize);
+        }
+
+        ByteBuffer batch = ByteBuffer.allocate(batchSize);
+        CRC32 checksum = new CRC32();
+        long[] positions = new long[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            byte[] record = records.get(i);
+            int frame = batch.position();
+            positions[i] = position(segment.ordinal, writePosition + frame);
+            batch.putInt(record.length)
+                 .putInt(0)
+                 .putInt(generation)
+                 .put(i == records.size() - 1 ? BATCH_END : 0)
+                 .put(record);
+            batch.putInt(frame + 4, checksum(checksum, batch, frame, record.length));
+        }
+        batch.flip();
+        long offset = writePosition;
+        try {
+            while (batch.hasRemaining()) {
+                offset += segment.channel.write(batch, offset);
+            }
+        } catch (IOException e) {
+            rewind(segment, e);
+            throw e;
+        }
+        dirtySegments.add(segment);
+        writePosition += batchSize;
+        return positions;
+    }
+
+    /**
+     * Rewinds the log to the start of the batch that failed to be written to given {@code segment}, clearing the
+     * header of its first frame so that none of its frames are accepted when the log is opened again. The write
+     * position is not advanced by a failed batch, so the next batch is written where the failed batch started.
+     */
+    private void rewind(Segment segment, IOException failure) {
+        int headerSize = Math.min(FRAME_HEADER_SIZE, segment.buffer.capacity() - writePosition);
+        try {
+            ByteBuffer emptyHeader = ByteBuffer.allocate(headerSize);
+            long offset = writePosition;
+            while (emptyHeader.hasRemaining()) {
+                offset += segment.channel.write(emptyHeader, offset);
+            }
+            dirtySegments.add(segment);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Returns a buffer containing the record at given {@code position}. The returned buffer is positioned at the
+     * start of the record and its limit is set to the end of the record.
+     *
+     * @param position the position of the record, as returned by {@link #append(List, int)}
+     * @return a buffer containing the record
+     */
+    ByteBuffer read(long position) {
+        return read(segments[(int) (position >>> 32)], (int) position);
+    }
+
+    /**
+     * Flushes all records appended since the last invocation of this method to the storage device.
+     *
+     * @throws IOException when an error occurs flushing the segment files
+     */
+    void force() throws IOException {
+        for (Segment segment : dirtySegments.toArray(new Segment[0])) {
+            dirtySegments.remove(segment);
+            segment.channel.force(false);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (Segment segment : segments) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Segment startSegment(Segment current, int minimumSize) throws IOException {
+        if (current != null && writePosition <= current.buffer.capacity() - 4) {
+            // seal the current segment, as it may contain frames of a failed batch beyond the write position
+            current.channel.write(ByteBuffer.allocate(4), writePosition);
+            dirtySegments.add(current);
+        }
+        int ordinal = segments.length;
+        Path file = segmentFile(ordinal);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+            randomAccessFile.setLength(Math.max(segmentSize, minimumSize));
+        }
+        Segment segment = new Segment(ordinal, channelFactory, file, Files.size(file));
+        Segment[] newSegments = Arrays.copyOf(segments, ordinal + 1);
+        newSegments[ordinal] = segment;
+        segments = newSegments;
+        writePosition = 0;
+        return segment;
+    }
+
+    private Path segmentFile(int ordinal) {
+        return directory.resolve(format("%s-%010d.seg", prefix, ordinal));
+    }
+
+    private static ByteBuffer read(Segment segment, int frame) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int start = frame + FRAME_HEADER_SIZE;
+        buffer.limit(start + buffer.getInt(frame));
+        buffer.position(start);
+        return buffer.slice();
+    }
+
+    private static long position(int ordinal, int offset) {
+        return (long) ordinal << 32 | offset;
+    }
+
+    private static int checksum(CRC32 checksum, ByteBuffer buffer, int frame, int length) {
+        ByteBuffer covered = buffer.duplicate();
+        covered.limit(frame + FRAME_HEADER_SIZE + length);
+        covered.position(frame + 8);
+        checksum.reset();
+        checksum.update(covered);
+        return (int) checksum.getValue();
+    }
+
+    private static final class Segment {
+
+        private final int ordinal;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(int ordinal, ChannelFactory channelFactory, Path file, long size) throws IOException {
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(format("Segment file [%s] exceeds the maximum segment size", file));
+            }
+            this.ordinal = ordinal;
+            this.channel = channelFactory.open(file);
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Factory opening the channels through which segment files are written and mapped.
+     */
+    @FunctionalInterface
+    interface ChannelFactory {
+
+        /**
+         * Opens a readable and writable channel to the given segment {@code file}.
+         *
+         * @param file the segment file to open
+         * @return a readable and writable channel to the file
+         * @throws IOException when the file could not be opened
+         */
+        FileChannel open(Path file) throws IOException;
+    }
+}
@@ -156,6 +156,25 @@ public void createSchema(EventTableFactory schemaFactory) {
                        connection -> schemaFactory.createSnapshotEventTable(connection, schema));
     }
 
+    /**
+     * Deletes all events with a global index up to and including given {@code globalIndex}. Snapshots are not
+     * deleted. Use this method to remove events from this storage engine after they have been copied to another
+     * storage engine, for example by a {@link org.axonframework.eventsourcing.eventstore.TieredEventStorageEngine}.
+     *
+     * @param globalIndex the global index of the last event to delete
+     * @throws EventStoreException when an error occurs executing SQL statements.
+     */
+    public void deleteEventsUpTo(long globalIndex) {
+        transactionManager.executeInTransaction(() -> executeUpdates(
+                getConnection(), e -> {
+                    throw new EventStoreException(
+                            format("Failed to delete events up to global index [%d]", globalIndex), e
+                    );
+                },
+                connection -> deleteEvents(connection, globalIndex)
+        ));
+    }
+
     @Override
     protected void appendEvents(List<? extends EventMessage<?>> events, Serializer serializer) {
         if (events.isEmpty()) {
@@ -209,6 +228,19 @@ protected void storeSnapshot(DomainEventMessage<?> snapshot, Serializer serializ
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All snapshots are stored within a single transaction, avoiding a transaction (and possibly a connection) per
+     * snapshot.
+     */
+    @Override
+    protected void storeSnapshots(List<? extends DomainEventMessage<?>> snapshots, Serializer serializer) {
+        transactionManager.executeInTransaction(
+                () -> snapshots.forEach(snapshot -> storeSnapshot(snapshot, serializer))
+        );
+    }
+
     @Override
     public Optional<Long> lastSequenceNumberFor(String aggregateIdentifier) {
         String sql = "SELECT max(" + schema.sequenceNumberColumn() + ") FROM " + schema.domainEventTable() +
@@ -324,6 +356,23 @@ protected PreparedStatement deleteSnapshots(Connection connection, String aggreg
         return preparedStatement;
     }
 
+    /**
+     * Creates a statement to delete all events with a global index up to and including given {@code globalIndex}.
+     *
+     * @param connection  The connection to the database.
+     * @param globalIndex The global index of the last event to delete.
+     * @return A {@link PreparedStatement} that deletes the events when executed.
+     *
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement deleteEvents(Connection connection, long globalIndex) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement(
+                "DELETE FROM " + schema.domainEventTable() + " WHERE " + schema.globalIndexColumn() + " <= ?"
+        );
+        preparedStatement.setLong(1, globalIndex);
+        return preparedStatement;
+    }
+
     @Override
     protected List<? extends DomainEventData<?>> fetchDomainEvents(String aggregateIdentifier, long firstSequenceNumber,
                                                                    int batchSize) {
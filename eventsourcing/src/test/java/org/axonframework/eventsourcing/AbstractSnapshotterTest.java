@@ -31,10 +31,15 @@
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.createEvent;
 import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.createEvents;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -125,6 +130,110 @@ public void testScheduleSnapshot_WithTransaction() {
         inOrder.verify(mockTransaction).commit();
     }
 
+    @Test
+    public void testScheduleSnapshot_RepeatedTriggersAreCoalesced() {
+        String aggregateIdentifier = "aggregateIdentifier";
+        when(mockEventStore.readEvents(aggregateIdentifier))
+                .thenAnswer(invocationOnMock -> DomainEventStream.of(createEvents(2)));
+        List<Runnable> tasks = new ArrayList<>();
+        testSubject = TestSnapshotter.builder().eventStore(mockEventStore).executor(tasks::add).build();
+
+        testSubject.scheduleSnapshot(Object.class, aggregateIdentifier);
+        testSubject.scheduleSnapshot(Object.class, aggregateIdentifier);
+        testSubject.scheduleSnapshot(Object.class, aggregateIdentifier);
+
+        assertEquals(1, tasks.size());
+        assertEquals(1, testSubject.getQueueDepth());
+        tasks.forEach(Runnable::run);
+
+        verify(mockEventStore).readEvents(aggregateIdentifier);
+        verify(mockEventStore).storeSnapshot(argThat(event(aggregateIdentifier, 1)));
+        assertEquals(0, testSubject.getQueueDepth());
+        assertEquals(1, testSubject.getSnapshotCount());
+    }
+
+    @Test
+    public void testScheduleSnapshot_ConcurrentTasksAreLimited() {
+        when(mockEventStore.readEvents(anyString()))
+                .thenAnswer(invocationOnMock -> DomainEventStream.of(createEvents(2)));
+        List<Runnable> tasks = new ArrayList<>();
+        testSubject = TestSnapshotter.builder()
+                                     .eventStore(mockEventStore)
+                                     .executor(tasks::add)
+                                     .maxConcurrentSnapshots(1)
+                                     .build();
+
+        testSubject.scheduleSnapshot(Object.class, "aggregate1");
+        testSubject.scheduleSnapshot(Object.class, "aggregate2");
+        testSubject.scheduleSnapshot(Object.class, "aggregate3");
+
+        assertEquals(1, tasks.size());
+        assertEquals(1, testSubject.getActiveTaskCount());
+        assertEquals(3, testSubject.getQueueDepth());
+        tasks.get(0).run();
+
+        verify(mockEventStore, times(3)).storeSnapshot(any(DomainEventMessage.class));
+        assertEquals(0, testSubject.getActiveTaskCount());
+        assertEquals(0, testSubject.getQueueDepth());
+        assertEquals(3, testSubject.getSnapshotCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testScheduleSnapshot_SnapshotsAreStoredInBatches() {
+        when(mockEventStore.readEvents(anyString()))
+                .thenAnswer(invocationOnMock -> DomainEventStream.of(createEvents(2)));
+        List<Runnable> tasks = new ArrayList<>();
+        testSubject = TestSnapshotter.builder()
+                                     .eventStore(mockEventStore)
+                                     .executor(tasks::add)
+                                     .maxConcurrentSnapshots(1)
+                                     .batchSize(2)
+                                     .build();
+
+        testSubject.scheduleSnapshot(Object.class, "aggregate1");
+        testSubject.scheduleSnapshot(Object.class, "aggregate2");
+        testSubject.scheduleSnapshot(Object.class, "aggregate3");
+        tasks.forEach(Runnable::run);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockEventStore).storeSnapshots(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verify(mockEventStore).storeSnapshot(argThat(event("aggregate3", 1)));
+        assertEquals(3, testSubject.getSnapshotCount());
+    }
+
+    @Test
+    public void testScheduleSnapshot_RejectedTaskKeepsAggregateQueued() {
+        String aggregateIdentifier = "aggregateIdentifier";
+        when(mockEventStore.readEvents(aggregateIdentifier))
+                .thenAnswer(invocationOnMock -> DomainEventStream.of(createEvents(2)));
+        AtomicBoolean reject = new AtomicBoolean(true);
+        List<Runnable> tasks = new ArrayList<>();
+        testSubject = TestSnapshotter.builder().eventStore(mockEventStore).executor(task -> {
+            if (reject.get()) {
+                throw new RejectedExecutionException("Mock");
+            }
+            tasks.add(task);
+        }).build();
+
+        testSubject.scheduleSnapshot(Object.class, aggregateIdentifier);
+
+        assertTrue(tasks.isEmpty());
+        assertEquals(0, testSubject.getActiveTaskCount());
+        assertEquals(1, testSubject.getQueueDepth());
+        verify(logger).warn(anyString(), eq(1), isA(RejectedExecutionException.class));
+
+        reject.set(false);
+        testSubject.scheduleSnapshot(Object.class, aggregateIdentifier);
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+
+        verify(mockEventStore).storeSnapshot(argThat(event(aggregateIdentifier, 1)));
+        assertEquals(0, testSubject.getQueueDepth());
+        assertEquals(0, testSubject.getActiveTaskCount());
+    }
+
     private ArgumentMatcher<DomainEventMessage> event(final Object aggregateIdentifier, final long i) {
         return x -> aggregateIdentifier.equals(x.getAggregateIdentifier())
                 && x.getSequenceNumber() == i;
@@ -191,6 +300,18 @@ public Builder transactionManager(TransactionManager transactionManager) {
                 return this;
             }
 
+            @Override
+            public Builder batchSize(int batchSize) {
+                super.batchSize(batchSize);
+                return this;
+            }
+
+            @Override
+            public Builder maxConcurrentSnapshots(int maxConcurrentSnapshots) {
+                super.maxConcurrentSnapshots(maxConcurrentSnapshots);
+                return this;
+            }
+
             private TestSnapshotter build() {
                 return new TestSnapshotter(this);
             }
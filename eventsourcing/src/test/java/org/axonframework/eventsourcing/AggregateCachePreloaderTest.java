@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.caching.SegmentedLruCache;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.eventsourcing.utils.StubAggregate;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class AggregateCachePreloaderTest {
+
+    private EventStore eventStore;
+    private SegmentedLruCache cache;
+    private CachingEventSourcingRepository<StubAggregate> repository;
+
+    @Before
+    public void setUp() {
+        eventStore = EmbeddedEventStore.builder().storageEngine(new InMemoryEventStorageEngine()).build();
+        cache = SegmentedLruCache.builder().build();
+        repository = CachingEventSourcingRepository.builder(StubAggregate.class)
+                                                   .eventStore(eventStore)
+                                                   .cache(cache)
+                                                   .build();
+        eventStore.publish(new GenericDomainEventMessage<>("StubAggregate", "aggregate1", 0, "payload"),
+                           new GenericDomainEventMessage<>("StubAggregate", "aggregate2", 0, "payload"),
+                           new GenericDomainEventMessage<>("StubAggregate", "aggregate3", 0, "payload"));
+    }
+
+    @After
+    public void tearDown() {
+        while (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().rollback();
+        }
+    }
+
+    @Test
+    public void testAggregatesLoadedIntoCache() {
+        AggregateCachePreloader testSubject = AggregateCachePreloader.builder()
+                                                                     .repository(repository)
+                                                                     .identifierSource(max -> Arrays.asList(
+                                                                             "aggregate1", "aggregate3"
+                                                                     ))
+                                                                     .threadCount(2)
+                                                                     .build();
+
+        assertEquals(2, testSubject.preload());
+
+        assertTrue(cache.containsKey("aggregate1"));
+        assertFalse(cache.containsKey("aggregate2"));
+        assertTrue(cache.containsKey("aggregate3"));
+        assertFalse(CurrentUnitOfWork.isStarted());
+    }
+
+    @Test
+    public void testUnknownAggregatesAreSkipped() {
+        AggregateCachePreloader testSubject = AggregateCachePreloader.builder()
+                                                                     .repository(repository)
+                                                                     .identifierSource(max -> Arrays.asList(
+                                                                             "unknown", "aggregate2"
+                                                                     ))
+                                                                     .build();
+
+        assertEquals(1, testSubject.preload());
+
+        assertTrue(cache.containsKey("aggregate2"));
+        assertFalse(cache.containsKey("unknown"));
+    }
+
+    @Test
+    public void testNumberOfPreloadedAggregatesIsLimited() {
+        AggregateCachePreloader testSubject = AggregateCachePreloader.builder()
+                                                                     .repository(repository)
+                                                                     .identifierSource(max -> Arrays.asList(
+                                                                             "aggregate1", "aggregate2", "aggregate3"
+                                                                     ))
+                                                                     .maximumAggregates(2)
+                                                                     .build();
+
+        assertEquals(2, testSubject.preload());
+
+        assertFalse(cache.containsKey("aggregate3"));
+    }
+
+    @Test
+    public void testRecentlyActiveAggregatesPreloaded() {
+        eventStore.publish(new GenericDomainEventMessage<>("OtherAggregate", "other1", 0, "payload"),
+                           new GenericDomainEventMessage<>("StubAggregate", "aggregate1", 1, "payload"));
+        RecentlyActiveAggregatesSource identifierSource = RecentlyActiveAggregatesSource.builder()
+                                                                                        .eventStore(eventStore)
+                                                                                        .aggregateType("StubAggregate")
+                                                                                        .build();
+
+        assertEquals(Arrays.asList("aggregate1", "aggregate3", "aggregate2"),
+                     identifierSource.aggregateIdentifiers(10));
+        assertEquals(Arrays.asList("aggregate1", "aggregate3"), identifierSource.aggregateIdentifiers(2));
+
+        AggregateCachePreloader testSubject = AggregateCachePreloader.builder()
+                                                                     .repository(repository)
+                                                                     .identifierSource(identifierSource)
+                                                                     .maximumAggregates(2)
+                                                                     .build();
+        assertEquals(2, testSubject.preload());
+        assertTrue(cache.containsKey("aggregate1"));
+        assertFalse(cache.containsKey("aggregate2"));
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutIdentifierSourceThrowsAxonConfigurationException() {
+        AggregateCachePreloader.builder().repository(repository).build();
+    }
+}
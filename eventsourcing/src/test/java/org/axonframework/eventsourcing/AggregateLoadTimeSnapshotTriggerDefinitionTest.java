@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.eventsourcing;
+
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventsourcing.utils.StubAggregate;
+import org.axonframework.messaging.GenericMessage;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.junit.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.mockito.Mockito.*;
+
+public class AggregateLoadTimeSnapshotTriggerDefinitionTest {
+
+    private static final Instant START = Instant.now();
+
+    private AggregateLoadTimeSnapshotTriggerDefinition testSubject;
+    private Snapshotter mockSnapshotter;
+    private GenericDomainEventMessage<String> msg;
+
+    @Before
+    public void setUp() {
+        mockSnapshotter = mock(Snapshotter.class);
+        testSubject = new AggregateLoadTimeSnapshotTriggerDefinition(mockSnapshotter, 1000);
+        msg = new GenericDomainEventMessage<>("type", "aggregateIdentifier", 0, "Mock contents");
+        GenericEventMessage.clock = Clock.fixed(START, ZoneOffset.UTC);
+        DefaultUnitOfWork.startAndGet(new GenericMessage<>("test"));
+    }
+
+    @After
+    public void tearDown() {
+        GenericEventMessage.clock = Clock.systemUTC();
+        while (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().rollback();
+        }
+    }
+
+    @Test
+    public void testSnapshotterTriggeredWhenLoadingTakesTooLong() {
+        SnapshotTrigger trigger = testSubject.prepareTrigger(StubAggregate.class);
+        trigger.eventHandled(msg);
+        GenericEventMessage.clock = Clock.fixed(START.plusMillis(1001), ZoneOffset.UTC);
+        trigger.initializationFinished();
+
+        verify(mockSnapshotter, never()).scheduleSnapshot(StubAggregate.class, "aggregateIdentifier");
+        CurrentUnitOfWork.commit();
+        verify(mockSnapshotter).scheduleSnapshot(StubAggregate.class, "aggregateIdentifier");
+    }
+
+    @Test
+    public void testSnapshotterTriggeredWhenLoadingTakesTooLongEvenIfUnitOfWorkRollsBack() {
+        SnapshotTrigger trigger = testSubject.prepareTrigger(StubAggregate.class);
+        trigger.eventHandled(msg);
+        GenericEventMessage.clock = Clock.fixed(START.plusMillis(1001), ZoneOffset.UTC);
+        trigger.initializationFinished();
+
+        CurrentUnitOfWork.get().rollback();
+        verify(mockSnapshotter).scheduleSnapshot(StubAggregate.class, "aggregateIdentifier");
+    }
+
+    @Test
+    public void testSnapshotterNotTriggeredWhenLoadingIsFast() {
+        SnapshotTrigger trigger = testSubject.prepareTrigger(StubAggregate.class);
+        trigger.eventHandled(msg);
+        GenericEventMessage.clock = Clock.fixed(START.plusMillis(1000), ZoneOffset.UTC);
+        trigger.initializationFinished();
+
+        CurrentUnitOfWork.commit();
+        verify(mockSnapshotter, never()).scheduleSnapshot(any(), any());
+    }
+
+    @Test
+    public void testSnapshotterNotTriggeredWhenOnlySnapshotWasRead() {
+        SnapshotTrigger trigger = testSubject.prepareTrigger(StubAggregate.class);
+        trigger.eventHandled(new GenericDomainEventMessage<>("type", "aggregateIdentifier", 5,
+                                                             new StubAggregate("aggregateIdentifier")));
+        GenericEventMessage.clock = Clock.fixed(START.plusMillis(5000), ZoneOffset.UTC);
+        trigger.initializationFinished();
+
+        CurrentUnitOfWork.commit();
+        verify(mockSnapshotter, never()).scheduleSnapshot(any(), any());
+    }
+
+    @Test
+    public void testEventsAppliedAfterInitializationAreIgnored() throws Exception {
+        SnapshotTrigger trigger = testSubject.prepareTrigger(StubAggregate.class);
+        trigger.initializationFinished();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new ObjectOutputStream(baos).writeObject(trigger);
+        trigger = (SnapshotTrigger) new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject();
+        trigger = testSubject.reconfigure(StubAggregate.class, trigger);
+
+        GenericEventMessage.clock = Clock.fixed(START.plusMillis(5000), ZoneOffset.UTC);
+        trigger.eventHandled(msg);
+
+        CurrentUnitOfWork.commit();
+        verify(mockSnapshotter, never()).scheduleSnapshot(any(), any());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.axonframework.eventsourcing;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.utils.StubAggregate;
+import org.axonframework.messaging.GenericMessage;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SerializedMessage;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.*;
+
+import java.time.Instant;
+
+import static org.mockito.Mockito.*;
+
+public class EventSizeSnapshotTriggerDefinitionTest {
+
+    private Serializer serializer;
+    private Snapshotter mockSnapshotter;
+
+    @Before
+    public void setUp() {
+        serializer = XStreamSerializer.builder().build();
+        mockSnapshotter = mock(Snapshotter.class);
+        DefaultUnitOfWork.startAndGet(new GenericMessage<>("test"));
+    }
+
+    @After
+    public void tearDown() {
+        while (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().rollback();
+        }
+    }
+
+    @Test
+    public void testSnapshotterTriggeredWhenSerializedEventsExceedThreshold() {
+        DomainEventMessage<?> event = storedEvent(0);
+        int eventSize = eventSize(event);
+        SnapshotTrigger trigger = new EventSizeSnapshotTriggerDefinition(mockSnapshotter, serializer, eventSize * 2)
+                .prepareTrigger(StubAggregate.class);
+
+        trigger.eventHandled(event);
+        trigger.eventHandled(storedEvent(1));
+        trigger.eventHandled(storedEvent(2));
+        trigger.initializationFinished();
+
+        CurrentUnitOfWork.commit();
+        verify(mockSnapshotter).scheduleSnapshot(StubAggregate.class, "aggregateIdentifier");
+    }
+
+    @Test
+    public void testSnapshotterNotTriggeredWhenSerializedEventsWithinThreshold() {
+        DomainEventMessage<?> event = storedEvent(0);
+        int eventSize = eventSize(event);
+        SnapshotTrigger trigger = new EventSizeSnapshotTriggerDefinition(mockSnapshotter, serializer, eventSize * 2)
+                .prepareTrigger(StubAggregate.class);
+
+        trigger.eventHandled(event);
+        trigger.eventHandled(storedEvent(1));
+        trigger.initializationFinished();
+        // events applied after initialization are not counted
+        trigger.eventHandled(storedEvent(2));
+
+        CurrentUnitOfWork.commit();
+        verify(mockSnapshotter, never()).scheduleSnapshot(any(), any());
+    }
+
+    private int eventSize(DomainEventMessage<?> event) {
+        return event.serializePayload(serializer, byte[].class).getData().length
+                + event.serializeMetaData(serializer, byte[].class).getData().length;
+    }
+
+    private DomainEventMessage<?> storedEvent(long sequenceNumber) {
+        SerializedObject<byte[]> payload = serializer.serialize("Mock contents", byte[].class);
+        SerializedObject<byte[]> metaData = serializer.serialize(MetaData.emptyInstance(), byte[].class);
+        return new GenericDomainEventMessage<>("type", "aggregateIdentifier", sequenceNumber,
+                                               new SerializedMessage<>("eventId" + sequenceNumber, payload, metaData,
+                                                                       serializer), Instant.now());
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.transaction.Transaction;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.AGGREGATE;
+import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.createEvent;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GroupCommitEventStorageEngineTest {
+
+    private InMemoryEventStorageEngine delegate;
+    private GroupCommitEventStorageEngine testSubject;
+
+    @Before
+    public void setUp() {
+        delegate = spy(new InMemoryEventStorageEngine());
+        testSubject = GroupCommitEventStorageEngine.builder()
+                                                   .delegate(delegate)
+                                                   .maxBatchSize(2)
+                                                   .maxDelay(5, TimeUnit.SECONDS)
+                                                   .build();
+    }
+
+    @After
+    public void tearDown() {
+        testSubject.shutDown();
+    }
+
+    @Test
+    public void testConcurrentAppendsAreWrittenInSingleGroup() throws Exception {
+        CompletableFuture<Void> first = appendAsync(createEvent("aggregate1", 0));
+        CompletableFuture<Void> second = appendAsync(createEvent("aggregate2", 0));
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        verify(delegate).appendEvents(argThat((List<? extends EventMessage<?>> events) -> events.size() == 2));
+        verify(delegate, never()).appendEvents(argThat((List<? extends EventMessage<?>> events) -> events.size() == 1));
+        assertEquals(1, delegate.readEvents("aggregate1").asStream().count());
+        assertEquals(1, delegate.readEvents("aggregate2").asStream().count());
+    }
+
+    @Test
+    public void testFailureIsOnlyReportedToAppendThatCausedIt() throws Exception {
+        EventStorageEngine failingDelegate = mock(EventStorageEngine.class);
+        doAnswer(invocation -> {
+            List<? extends EventMessage<?>> events = invocation.getArgument(0);
+            if (events.stream()
+                      .map(e -> ((DomainEventMessage<?>) e).getAggregateIdentifier())
+                      .anyMatch("conflicting"::equals)) {
+                throw new ConcurrencyException("Duplicate sequence number");
+            }
+            return null;
+        }).when(failingDelegate).appendEvents(anyList());
+        testSubject.shutDown();
+        testSubject = GroupCommitEventStorageEngine.builder()
+                                                   .delegate(failingDelegate)
+                                                   .maxBatchSize(2)
+                                                   .maxDelay(5, TimeUnit.SECONDS)
+                                                   .build();
+
+        DomainEventMessage<String> validEvent = createEvent("valid", 0);
+        CompletableFuture<Void> valid = appendAsync(validEvent);
+        CompletableFuture<Void> conflicting = appendAsync(createEvent("conflicting", 0));
+
+        valid.get(5, TimeUnit.SECONDS);
+        try {
+            conflicting.get(5, TimeUnit.SECONDS);
+            fail("Expected append to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConcurrencyException);
+        }
+        verify(failingDelegate).appendEvents(singletonList(validEvent));
+    }
+
+    @Test
+    public void testErrorIsReportedToAllAppendsOfGroupAndWriterIsRestarted() throws Exception {
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        when(transactionManager.startTransaction()).thenThrow(new StackOverflowError())
+                                                   .thenReturn(mock(Transaction.class));
+        doCallRealMethod().when(transactionManager).executeInTransaction(any());
+        testSubject.shutDown();
+        testSubject = GroupCommitEventStorageEngine.builder()
+                                                   .delegate(delegate)
+                                                   .transactionManager(transactionManager)
+                                                   .maxBatchSize(2)
+                                                   .maxDelay(5, TimeUnit.SECONDS)
+                                                   .build();
+
+        CompletableFuture<Void> first = appendAsync(createEvent("aggregate1", 0));
+        CompletableFuture<Void> second = appendAsync(createEvent("aggregate2", 0));
+
+        for (CompletableFuture<Void> result : asList(first, second)) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("Expected append to fail");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof StackOverflowError);
+            }
+        }
+        testSubject.appendEvents(createEvent("aggregate3", 0));
+        assertEquals(1, delegate.readEvents("aggregate3").asStream().count());
+    }
+
+    @Test
+    public void testGroupIsNotRetriedIndividuallyWhenCommitFails() throws Exception {
+        Transaction transaction = mock(Transaction.class);
+        doThrow(new IllegalStateException("Connection lost during commit")).when(transaction).commit();
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        when(transactionManager.startTransaction()).thenReturn(transaction);
+        testSubject.shutDown();
+        testSubject = GroupCommitEventStorageEngine.builder()
+                                                   .delegate(delegate)
+                                                   .transactionManager(transactionManager)
+                                                   .maxBatchSize(2)
+                                                   .maxDelay(5, TimeUnit.SECONDS)
+                                                   .build();
+
+        CompletableFuture<Void> first = appendAsync(createEvent("aggregate1", 0));
+        CompletableFuture<Void> second = appendAsync(createEvent("aggregate2", 0));
+
+        for (CompletableFuture<Void> result : asList(first, second)) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("Expected append to fail");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        verify(delegate, times(1)).appendEvents(anyList());
+        verify(transaction, never()).rollback();
+    }
+
+    @Test
+    public void testAppendsAfterShutDownAreDelegatedDirectly() {
+        testSubject.shutDown();
+
+        testSubject.appendEvents(createEvent());
+
+        List<String> aggregates = delegate.readEvents(AGGREGATE)
+                                          .asStream()
+                                          .map(DomainEventMessage::getAggregateIdentifier)
+                                          .collect(Collectors.toList());
+        assertEquals(singletonList(AGGREGATE), aggregates);
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutDelegateThrowsAxonConfigurationException() {
+        GroupCommitEventStorageEngine.builder().build();
+    }
+
+    private CompletableFuture<Void> appendAsync(EventMessage<?> event) {
+        return CompletableFuture.runAsync(() -> testSubject.appendEvents(event));
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.ShardedTrackingToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.jdbc.HsqlEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ */
+public class ShardedEventStorageEngineTest extends EventStorageEngineTest {
+
+    private JdbcEventStorageEngine shard0;
+    private JdbcEventStorageEngine shard1;
+    private ShardedEventStorageEngine testSubject;
+
+    @Before
+    public void setUp() throws SQLException {
+        shard0 = createShard("jdbc:hsqldb:mem:shard0");
+        shard1 = createShard("jdbc:hsqldb:mem:shard1");
+        setTestSubject(testSubject = ShardedEventStorageEngine.builder().shards(shard0, shard1).build());
+    }
+
+    @Test
+    public void testEventsOfAggregateAreStoredInSingleShard() {
+        String aggregate0 = aggregateInShard(0);
+        String aggregate1 = aggregateInShard(1);
+        testSubject.appendEvents(createEvent(aggregate0, 0), createEvent(aggregate1, 0), createEvent(aggregate0, 1));
+
+        assertEquals(2, shard0.readEvents(aggregate0).asStream().count());
+        assertEquals(0, shard1.readEvents(aggregate0).asStream().count());
+        assertEquals(1, shard1.readEvents(aggregate1).asStream().count());
+        assertEquals(2, testSubject.readEvents(aggregate0).asStream().count());
+        assertEquals(1L, (long) testSubject.lastSequenceNumberFor(aggregate0).orElse(-1L));
+
+        testSubject.storeSnapshot(createEvent(aggregate1, 0));
+        assertTrue(shard1.readSnapshot(aggregate1).isPresent());
+        assertTrue(testSubject.readSnapshot(aggregate1).isPresent());
+        assertFalse(shard0.readSnapshot(aggregate1).isPresent());
+    }
+
+    @Test
+    public void testEventStreamsOfShardsAreMergedByTimestamp() {
+        List<DomainEventMessage<?>> events = asList(
+                createEvent(aggregateInShard(0), 0, Instant.parse("2018-01-01T00:00:01Z")),
+                createEvent(aggregateInShard(1), 0, Instant.parse("2018-01-01T00:00:02Z")),
+                createEvent(aggregateInShard(0), 1, Instant.parse("2018-01-01T00:00:03Z")),
+                createEvent(aggregateInShard(1), 1, Instant.parse("2018-01-01T00:00:04Z"))
+        );
+        testSubject.appendEvents(events);
+
+        List<? extends TrackedEventMessage<?>> readEvents = testSubject.readEvents(null, false).collect(toList());
+
+        assertEventStreamsById(new ArrayList<>(events), new ArrayList<>(readEvents));
+        assertEquals(new ShardedTrackingToken(GapAwareTrackingToken.newInstance(0, emptySet()), null),
+                     readEvents.get(0).trackingToken());
+        assertEquals(new ShardedTrackingToken(GapAwareTrackingToken.newInstance(1, emptySet()),
+                                              GapAwareTrackingToken.newInstance(1, emptySet())),
+                     readEvents.get(3).trackingToken());
+    }
+
+    @Test
+    public void testTrackingResumesInEachShard() {
+        testSubject.appendEvents(createEvent(aggregateInShard(0), 0), createEvent(aggregateInShard(1), 0));
+        TrackingToken token;
+        try (Stream<? extends TrackedEventMessage<?>> stream = testSubject.readEvents(null, false)) {
+            token = stream.reduce((first, second) -> second).map(TrackedEventMessage::trackingToken).orElse(null);
+        }
+        DomainEventMessage<String> newEvent0 = createEvent(aggregateInShard(0), 1);
+        DomainEventMessage<String> newEvent1 = createEvent(aggregateInShard(1), 1);
+        testSubject.appendEvents(newEvent1, newEvent0);
+
+        assertEquals(new HashSet<>(asList(newEvent0.getIdentifier(), newEvent1.getIdentifier())),
+                     testSubject.readEvents(token, false).map(EventMessage::getIdentifier).collect(toSet()));
+        assertEquals(0, testSubject.readEvents(testSubject.createHeadToken(), false).count());
+    }
+
+    @Test
+    public void testEventsAppendedToExhaustedShardAreRead() {
+        DomainEventMessage<String> event0 = createEvent(aggregateInShard(0), 0);
+        DomainEventMessage<String> event1 = createEvent(aggregateInShard(1), 0);
+        testSubject.appendEvents(event0);
+
+        List<String> readIdentifiers = new ArrayList<>();
+        try (Stream<? extends TrackedEventMessage<?>> stream = testSubject.readEvents(null, false)) {
+            stream.forEach(event -> {
+                readIdentifiers.add(event.getIdentifier());
+                if (readIdentifiers.size() == 1) {
+                    testSubject.appendEvents(event1);
+                }
+            });
+        }
+
+        assertEquals(asList(event0.getIdentifier(), event1.getIdentifier()), readIdentifiers);
+    }
+
+    @Test(timeout = 10000)
+    public void testBlockingReadWaitsForNewEvent() throws Exception {
+        testSubject = ShardedEventStorageEngine.builder()
+                                               .shards(shard0, shard1)
+                                               .pollInterval(10, TimeUnit.MILLISECONDS)
+                                               .build();
+        DomainEventMessage<String> event = createEvent(aggregateInShard(1), 0);
+        Thread appender = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            testSubject.appendEvents(event);
+        });
+        appender.start();
+
+        try (Stream<? extends TrackedEventMessage<?>> stream = testSubject.readEvents(null, true)) {
+            assertEquals(Optional.of(event.getIdentifier()), stream.findFirst().map(EventMessage::getIdentifier));
+        }
+        appender.join();
+    }
+
+    @Test
+    public void testBlockingReadEndsWhenInterrupted() throws Exception {
+        AtomicBoolean eventFound = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            try (Stream<? extends TrackedEventMessage<?>> stream = testSubject.readEvents(null, true)) {
+                eventFound.set(stream.findFirst().isPresent());
+            }
+        });
+        reader.start();
+        Thread.sleep(100);
+        reader.interrupt();
+        reader.join(5000);
+
+        assertFalse(reader.isAlive());
+        assertFalse(eventFound.get());
+    }
+
+    @Test
+    public void testBlockingReadEndsWhenStreamIsClosed() throws Exception {
+        AtomicBoolean eventFound = new AtomicBoolean(true);
+        Stream<? extends TrackedEventMessage<?>> stream = testSubject.readEvents(null, true);
+        Thread reader = new Thread(() -> eventFound.set(stream.findFirst().isPresent()));
+        reader.start();
+        Thread.sleep(100);
+        stream.close();
+        reader.join(5000);
+
+        assertFalse(reader.isAlive());
+        assertFalse(eventFound.get());
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithNonPositivePollIntervalThrowsAxonConfigurationException() {
+        ShardedEventStorageEngine.builder().pollInterval(0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testTokensAreNullWhenAllShardsAreEmpty() {
+        assertNull(testSubject.createTailToken());
+        assertNull(testSubject.createHeadToken());
+        assertNull(testSubject.createTokenAt(Instant.now()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadingWithTokenOfOtherTypeIsRejected() {
+        testSubject.readEvents(new GlobalSequenceTrackingToken(1), false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadingWithTokenOfOtherShardCountIsRejected() {
+        testSubject.readEvents(new ShardedTrackingToken(new TrackingToken[3]), false);
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutShardsThrowsAxonConfigurationException() {
+        ShardedEventStorageEngine.builder().build();
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithNullShardThrowsAxonConfigurationException() {
+        ShardedEventStorageEngine.builder().shards(mock(EventStorageEngine.class), null);
+    }
+
+    private String aggregateInShard(int shard) {
+        int i = 0;
+        while (testSubject.shardOf("aggregate" + i) != shard) {
+            i++;
+        }
+        return "aggregate" + i;
+    }
+
+    private static JdbcEventStorageEngine createShard(String url) throws SQLException {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl(url);
+        JdbcEventStorageEngine shard = JdbcEventStorageEngine.builder()
+                                                             .connectionProvider(dataSource::getConnection)
+                                                             .transactionManager(NoTransactionManager.INSTANCE)
+                                                             .build();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("DROP TABLE IF EXISTS DomainEventEntry").executeUpdate();
+            connection.prepareStatement("DROP TABLE IF EXISTS SnapshotEventEntry").executeUpdate();
+        }
+        shard.createSchema(HsqlEventTableFactory.INSTANCE);
+        return shard;
+    }
+}
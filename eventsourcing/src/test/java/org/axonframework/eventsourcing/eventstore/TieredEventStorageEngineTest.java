@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.file.FileEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.HsqlEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ */
+public class TieredEventStorageEngineTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private JdbcEventStorageEngine activeStorage;
+    private FileEventStorageEngine historicStorage;
+    private TieredEventStorageEngine testSubject;
+
+    @Before
+    public void setUp() throws IOException, SQLException {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:tiered");
+        activeStorage = JdbcEventStorageEngine.builder()
+                                              .connectionProvider(dataSource::getConnection)
+                                              .transactionManager(NoTransactionManager.INSTANCE)
+                                              .batchSize(2)
+                                              .build();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("DROP TABLE IF EXISTS DomainEventEntry").executeUpdate();
+            connection.prepareStatement("DROP TABLE IF EXISTS SnapshotEventEntry").executeUpdate();
+        }
+        activeStorage.createSchema(HsqlEventTableFactory.INSTANCE);
+        historicStorage = spy(FileEventStorageEngine.builder()
+                                                    .storageDirectory(temporaryFolder.newFolder().toPath())
+                                                    .build());
+        testSubject = TieredEventStorageEngine.builder()
+                                              .historicStorage(historicStorage)
+                                              .activeStorage(activeStorage)
+                                              .migrationBatchSize(2)
+                                              .migrationAge(Duration.ofHours(1))
+                                              .build();
+    }
+
+    @After
+    public void tearDown() {
+        testSubject.shutDown();
+        historicStorage.shutDown();
+    }
+
+    @Test
+    public void testMigratedEventsAreMovedToHistoricStorage() {
+        testSubject.appendEvents(createEvents(5));
+
+        assertEquals(3, testSubject.migrateEventsUpTo(2));
+
+        assertEquals(3, historicStorage.readEvents(null, false).count());
+        // the last migrated event is kept in the active storage
+        assertEquals(asList(2L, 3L, 4L), globalIndicesOf(activeStorage.readEvents(
+                GapAwareTrackingToken.newInstance(1, Collections.emptySet()), false)));
+        assertEquals(asList(2L, 3L, 4L), sequenceNumbersOf(activeStorage.readEvents(AGGREGATE, 2)));
+        assertFalse(activeStorage.readEvents(AGGREGATE, 0).hasNext());
+        assertEquals(asList(0L, 1L, 2L, 3L, 4L), globalIndicesOf(testSubject.readEvents(null, false)));
+        assertEquals(0, testSubject.migrateEventsUpTo(2));
+    }
+
+    @Test
+    public void testEventsAppendedAfterMigratingAllEventsGetNewGlobalIndex() {
+        testSubject.appendEvents(createEvents(3));
+
+        assertEquals(3, testSubject.migrateEventsUpTo(2));
+        assertEquals(singletonList(2L), globalIndicesOf(activeStorage.readEvents(
+                GapAwareTrackingToken.newInstance(1, Collections.emptySet()), false)));
+
+        testSubject.appendEvents(createEvent(3));
+        assertEquals(singletonList(3L), globalIndicesOf(activeStorage.readEvents(
+                GapAwareTrackingToken.newInstance(2, Collections.emptySet()), false)));
+        assertEquals(asList(0L, 1L, 2L, 3L), globalIndicesOf(testSubject.readEvents(null, false)));
+        assertEquals(asList(0L, 1L, 2L, 3L), sequenceNumbersOf(testSubject.readEvents(AGGREGATE)));
+
+        assertEquals(1, testSubject.migrateEventsUpTo(3));
+        assertEquals(singletonList(3L), globalIndicesOf(activeStorage.readEvents(
+                GapAwareTrackingToken.newInstance(1, Collections.emptySet()), false)));
+        assertEquals(asList(0L, 1L, 2L, 3L), globalIndicesOf(testSubject.readEvents(null, false)));
+    }
+
+    @Test
+    public void testEventsOlderThanMigrationAgeAreMigrated() {
+        Instant now = GenericEventMessage.clock.instant();
+        testSubject.appendEvents(createEvent(0, now.minus(3, ChronoUnit.HOURS)),
+                                 createEvent(1, now.minus(2, ChronoUnit.HOURS)),
+                                 createEvent(2, now.minus(30, ChronoUnit.MINUTES)));
+
+        assertEquals(2, testSubject.migrateEvents());
+
+        assertEquals(asList(0L, 1L), globalIndicesOf(historicStorage.readEvents(null, false)));
+        assertEquals(asList(0L, 1L, 2L), globalIndicesOf(testSubject.readEvents(null, false)));
+    }
+
+    @Test
+    public void testTrackingTokensRemainValidAfterMigration() {
+        testSubject.appendEvents(createEvents(5));
+        TrackingToken token;
+        try (Stream<? extends TrackedEventMessage<?>> stream = testSubject.readEvents(null, false)) {
+            token = stream.limit(2).reduce((first, second) -> second).map(TrackedEventMessage::trackingToken)
+                          .orElse(null);
+        }
+
+        testSubject.migrateEventsUpTo(3);
+
+        assertEquals(asList(2L, 3L, 4L), globalIndicesOf(testSubject.readEvents(token, false)));
+    }
+
+    @Test
+    public void testEventsMigratedWhileReadingAreNotSkipped() {
+        testSubject.appendEvents(createEvents(6));
+        List<Long> readIndices = new ArrayList<>();
+        try (Stream<? extends TrackedEventMessage<?>> stream = testSubject.readEvents(null, false)) {
+            Iterator<? extends TrackedEventMessage<?>> iterator = stream.iterator();
+            readIndices.add(((GapAwareTrackingToken) iterator.next().trackingToken()).getIndex());
+            testSubject.migrateEventsUpTo(4);
+            iterator.forEachRemaining(event -> readIndices.add(((GapAwareTrackingToken) event.trackingToken())
+                                                                      .getIndex()));
+        }
+
+        assertEquals(asList(0L, 1L, 2L, 3L, 4L, 5L), readIndices);
+    }
+
+    @Test
+    public void testEventsMigratedWhileFetchingFromActiveStorageAreNotSkipped() {
+        testSubject.shutDown();
+        AtomicBoolean migrateOnNextFetch = new AtomicBoolean();
+        JdbcEventStorageEngine migratingActiveStorage = spy(activeStorage);
+        doAnswer(invocation -> {
+            Stream<? extends TrackedEventMessage<?>> stream = (Stream) invocation.callRealMethod();
+            return StreamSupport.stream(new Spliterators.AbstractSpliterator<TrackedEventMessage<?>>(
+                    Long.MAX_VALUE, Spliterator.ORDERED) {
+                private Spliterator<? extends TrackedEventMessage<?>> spliterator = stream.spliterator();
+
+                @Override
+                public boolean tryAdvance(Consumer<? super TrackedEventMessage<?>> action) {
+                    if (migrateOnNextFetch.compareAndSet(true, false)) {
+                        testSubject.migrateEventsUpTo(4);
+                        // like an active storage without read windows, continue with the first event left after purging
+                        TrackingToken purged = GapAwareTrackingToken.newInstance(4, Collections.emptySet());
+                        spliterator = activeStorage.readEvents(purged, false).spliterator();
+                    }
+                    return spliterator.tryAdvance(action);
+                }
+            }, false).onClose(stream::close);
+        }).when(migratingActiveStorage).readEvents(any(), anyBoolean());
+        testSubject = TieredEventStorageEngine.builder()
+                                              .historicStorage(historicStorage)
+                                              .activeStorage(migratingActiveStorage)
+                                              .migrationBatchSize(2)
+                                              .migrationAge(Duration.ofHours(1))
+                                              .build();
+        testSubject.appendEvents(createEvents(6));
+
+        List<Long> readIndices = new ArrayList<>();
+        try (Stream<? extends TrackedEventMessage<?>> stream = testSubject.readEvents(null, false)) {
+            Iterator<? extends TrackedEventMessage<?>> iterator = stream.iterator();
+            readIndices.add(((GapAwareTrackingToken) iterator.next().trackingToken()).getIndex());
+            readIndices.add(((GapAwareTrackingToken) iterator.next().trackingToken()).getIndex());
+            // the active storage has fetched its first batch, so the next fetch from it runs after the migration
+            migrateOnNextFetch.set(true);
+            iterator.forEachRemaining(event -> readIndices.add(((GapAwareTrackingToken) event.trackingToken())
+                                                                      .getIndex()));
+        }
+
+        assertFalse(migrateOnNextFetch.get());
+        assertEquals(asList(0L, 1L, 2L, 3L, 4L, 5L), readIndices);
+    }
+
+    @Test
+    public void testAggregateEventsAreMergedAcrossTiers() {
+        testSubject.appendEvents(createEvents(5));
+        testSubject.migrateEventsUpTo(2);
+
+        assertEquals(asList(0L, 1L, 2L, 3L, 4L), sequenceNumbersOf(testSubject.readEvents(AGGREGATE)));
+        assertEquals(asList(2L, 3L, 4L), sequenceNumbersOf(testSubject.readEvents(AGGREGATE, 2)));
+        DomainEventStream stream = testSubject.readEvents(AGGREGATE);
+        while (stream.hasNext()) {
+            stream.next();
+        }
+        assertEquals(4L, (long) stream.getLastSequenceNumber());
+    }
+
+    @Test
+    public void testHistoricStorageIsNotReadWhenActiveStorageContainsRequestedEvents() {
+        testSubject.appendEvents(createEvents(5));
+        testSubject.migrateEventsUpTo(2);
+
+        assertEquals(asList(3L, 4L), sequenceNumbersOf(testSubject.readEvents(AGGREGATE, 3)));
+
+        verify(historicStorage, never()).readEvents(anyString(), anyLong());
+    }
+
+    @Test
+    public void testAppendingMigratedSequenceNumberIsRejected() {
+        testSubject.appendEvents(createEvents(3));
+        testSubject.migrateEventsUpTo(2);
+
+        try {
+            testSubject.appendEvents(createEvent(2));
+            fail("Expected ConcurrencyException");
+        } catch (ConcurrencyException e) {
+            assertTrue(e.getMessage().contains("[2]"));
+        }
+        testSubject.appendEvents(createEvent(3));
+        assertEquals(asList(0L, 1L, 2L, 3L), sequenceNumbersOf(testSubject.readEvents(AGGREGATE)));
+    }
+
+    @Test
+    public void testTokensAreCreatedAcrossTiers() {
+        testSubject.appendEvents(createEvent(0, Instant.parse("2018-01-01T00:00:00Z")),
+                                 createEvent(1, Instant.parse("2018-01-02T00:00:00Z")),
+                                 createEvent(2, Instant.parse("2018-01-03T00:00:00Z")));
+        testSubject.migrateEventsUpTo(1);
+
+        assertEquals(GapAwareTrackingToken.newInstance(0, Collections.emptySet()),
+                     testSubject.createTokenAt(Instant.parse("2018-01-01T12:00:00Z")));
+        assertEquals(GapAwareTrackingToken.newInstance(1, Collections.emptySet()),
+                     testSubject.createTokenAt(Instant.parse("2018-01-02T12:00:00Z")));
+        assertEquals(GapAwareTrackingToken.newInstance(2, Collections.emptySet()), testSubject.createHeadToken());
+
+        testSubject.migrateEventsUpTo(2);
+        assertEquals(GapAwareTrackingToken.newInstance(2, Collections.emptySet()), testSubject.createHeadToken());
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutPurgerForNonJdbcActiveStorageThrowsAxonConfigurationException() {
+        TieredEventStorageEngine.builder()
+                                .historicStorage(historicStorage)
+                                .activeStorage(mock(EventStorageEngine.class))
+                                .build();
+    }
+
+    private static List<Long> globalIndicesOf(Stream<? extends TrackedEventMessage<?>> stream) {
+        try (Stream<? extends TrackedEventMessage<?>> events = stream) {
+            return events.map(TrackedEventMessage::trackingToken)
+                         .map(token -> token instanceof GapAwareTrackingToken
+                                 ? ((GapAwareTrackingToken) token).getIndex()
+                                 : ((GlobalSequenceTrackingToken) token).getGlobalIndex())
+                         .collect(toList());
+        }
+    }
+
+    private static List<Long> sequenceNumbersOf(DomainEventStream stream) {
+        return stream.asStream().map(DomainEventMessage::getSequenceNumber).collect(toList());
+    }
+}
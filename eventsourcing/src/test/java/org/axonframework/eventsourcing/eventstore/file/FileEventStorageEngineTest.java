@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore.file;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GapAwareTrackingToken;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngineTest;
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.axonframework.eventsourcing.utils.EventStoreTestUtils.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class FileEventStorageEngineTest extends EventStorageEngineTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path storageDirectory;
+    private FileEventStorageEngine testSubject;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDirectory = temporaryFolder.newFolder().toPath();
+        testSubject = createEngine(64 * 1024);
+    }
+
+    @After
+    public void shutDown() {
+        testSubject.shutDown();
+    }
+
+    @Test
+    public void testEventsAreRecoveredAfterRestart() {
+        testSubject.appendEvents(createEvents(4));
+        testSubject.appendEvents(GenericEventMessage.asEventMessage("application event"));
+        testSubject.storeSnapshot(createEvent(3));
+        restart();
+
+        assertEquals(4, testSubject.readEvents(AGGREGATE).asStream().count());
+        assertEquals(5, testSubject.readEvents(null, false).count());
+        assertEquals(Optional.of(3L), testSubject.lastSequenceNumberFor(AGGREGATE));
+        assertEquals(3L, testSubject.readSnapshot(AGGREGATE).map(DomainEventMessage::getSequenceNumber).orElse(-1L)
+                                    .longValue());
+
+        testSubject.appendEvents(createEvent(4));
+        assertEquals(6, testSubject.readEvents(null, false).count());
+    }
+
+    @Test
+    public void testAppendingTakenSequenceNumberIsRejected() {
+        testSubject.appendEvents(createEvents(2));
+        try {
+            testSubject.appendEvents(createEvent(2), createEvent(1));
+            fail("Expected ConcurrencyException");
+        } catch (ConcurrencyException e) {
+            assertTrue(e.getMessage().contains("[1]"));
+        }
+        try {
+            testSubject.appendEvents(createEvent(2), createEvent(2));
+            fail("Expected ConcurrencyException");
+        } catch (ConcurrencyException e) {
+            assertTrue(e.getMessage().contains("[2]"));
+        }
+        assertEquals(2, testSubject.readEvents(null, false).count());
+        testSubject.appendEvents(createEvent(2));
+        assertEquals(Optional.of(2L), testSubject.lastSequenceNumberFor(AGGREGATE));
+    }
+
+    @Test
+    public void testReadEventsOfAggregateFromSequenceNumber() {
+        testSubject.appendEvents(createEvent(AGGREGATE, 0), createEvent("other", 0));
+        testSubject.appendEvents(createEvent(AGGREGATE, 1), createEvent(AGGREGATE, 2), createEvent("other", 1));
+
+        assertEquals(asList(1L, 2L), testSubject.readEvents(AGGREGATE, 1).asStream()
+                                                .map(DomainEventMessage::getSequenceNumber)
+                                                .collect(toList()));
+        assertFalse(testSubject.readEvents(AGGREGATE, 3).hasNext());
+        assertFalse(testSubject.lastSequenceNumberFor("unknown").isPresent());
+    }
+
+    @Test
+    public void testMostRecentSnapshotIsReturned() {
+        testSubject.storeSnapshot(createEvent(1));
+        testSubject.storeSnapshot(createEvent(5));
+        testSubject.storeSnapshot(createEvent("other", 2));
+
+        assertEquals(5L, testSubject.readSnapshot(AGGREGATE).map(DomainEventMessage::getSequenceNumber).orElse(-1L)
+                                    .longValue());
+        restart();
+        assertEquals(5L, testSubject.readSnapshot(AGGREGATE).map(DomainEventMessage::getSequenceNumber).orElse(-1L)
+                                    .longValue());
+    }
+
+    @Test
+    public void testIncompleteBatchIsDiscardedOnRestart() throws IOException {
+        testSubject.appendEvents(createEvents(2));
+        testSubject.appendEvents(createEvent(2), createEvent(3));
+        testSubject.shutDown();
+        corruptLastWrittenByte(storageDirectory.resolve("events-0000000000.seg"));
+        testSubject = createEngine(64 * 1024);
+
+        assertEquals(2, testSubject.readEvents(null, false).count());
+        assertEquals(Optional.of(1L), testSubject.lastSequenceNumberFor(AGGREGATE));
+
+        testSubject.appendEvents(createEvent(2));
+        restart();
+        assertEquals(asList(0L, 1L, 2L), testSubject.readEvents(AGGREGATE).asStream()
+                                                    .map(DomainEventMessage::getSequenceNumber)
+                                                    .collect(toList()));
+    }
+
+    @Test
+    public void testEventsAreSpreadOverSegments() throws IOException {
+        testSubject.shutDown();
+        testSubject = createEngine(1024);
+        List<DomainEventMessage<?>> events = createEvents(20);
+        for (DomainEventMessage<?> event : events) {
+            testSubject.appendEvents(event);
+        }
+        assertTrue(Files.exists(storageDirectory.resolve("events-0000000001.seg")));
+
+        restart();
+        List<String> readIdentifiers = testSubject.readEvents(null, false)
+                                                  .map(EventMessage::getIdentifier)
+                                                  .collect(toList());
+        assertEquals(events.stream().map(EventMessage::getIdentifier).collect(toList()), readIdentifiers);
+        assertEquals(20, testSubject.readEvents(AGGREGATE).asStream().count());
+    }
+
+    @Test
+    public void testEventsAppendedWhileReadingAreIncluded() {
+        testSubject.appendEvents(createEvents(2));
+        List<TrackedEventMessage<?>> readEvents = new ArrayList<>();
+        try (Stream<? extends TrackedEventMessage<?>> stream = testSubject.readEvents(null, false)) {
+            stream.forEach(event -> {
+                readEvents.add(event);
+                if (readEvents.size() == 1) {
+                    testSubject.appendEvents(createEvent(2));
+                }
+            });
+        }
+        assertEquals(3, readEvents.size());
+    }
+
+    @Test
+    public void testImportedEventsKeepTheirGlobalIndex() {
+        testSubject.importEvents(asList(createEvent(0), createEvent(1)), new long[]{3, 7});
+        testSubject.appendEvents(createEvent(2));
+        restart();
+
+        assertEquals(asList(3L, 7L, 8L), testSubject.readEvents(null, false)
+                                                    .map(event -> ((GlobalSequenceTrackingToken) event.trackingToken())
+                                                            .getGlobalIndex())
+                                                    .collect(toList()));
+        assertEquals(2, testSubject.readEvents(new GlobalSequenceTrackingToken(3), false).count());
+        assertEquals(new GlobalSequenceTrackingToken(8), testSubject.createHeadToken());
+        try {
+            testSubject.importEvents(singletonList(createEvent(3)), new long[]{8});
+            fail("Expected EventStoreException");
+        } catch (EventStoreException e) {
+            assertTrue(e.getMessage().contains("[8]"));
+        }
+    }
+
+    @Test
+    public void testGapAwareTrackingTokenIsAcceptedIgnoringItsGaps() {
+        testSubject.appendEvents(createEvents(4));
+
+        GapAwareTrackingToken token = GapAwareTrackingToken.newInstance(2, Collections.singleton(1L));
+        assertEquals(singletonList(new GlobalSequenceTrackingToken(3)),
+                     testSubject.readEvents(token, false).map(TrackedEventMessage::trackingToken).collect(toList()));
+    }
+
+    @Test
+    public void testEngineRejectsAppendsAfterFailedFlush() {
+        AtomicBoolean failFlush = new AtomicBoolean();
+        testSubject.shutDown();
+        testSubject = new FileEventStorageEngine(
+                FileEventStorageEngine.builder().storageDirectory(storageDirectory).segmentSize(64 * 1024),
+                file -> new FailingFlushChannel(FileChannel.open(file, READ, WRITE), failFlush)
+        );
+        setTestSubject(testSubject);
+        testSubject.appendEvents(createEvents(2));
+
+        failFlush.set(true);
+        try {
+            testSubject.appendEvents(createEvent(2));
+            fail("Expected EventStoreException");
+        } catch (EventStoreException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        failFlush.set(false);
+        try {
+            testSubject.appendEvents(createEvent(3));
+            fail("Expected EventStoreException");
+        } catch (EventStoreException e) {
+            assertTrue(e.getMessage().contains("Reopen"));
+        }
+
+        assertEquals(2, testSubject.readEvents(null, false).count());
+        assertEquals(new GlobalSequenceTrackingToken(1), testSubject.createHeadToken());
+    }
+
+    @Test
+    public void testCreateTokenAtSkipsGapsInGlobalIndex() {
+        Instant start = Instant.parse("2007-12-03T10:15:00.00Z");
+        testSubject.importEvents(asList(createEvent(0, start),
+                                        createEvent(1, start.plusSeconds(10)),
+                                        createEvent(2, start.plusSeconds(20)),
+                                        createEvent(3, start.plusSeconds(30))),
+                                 new long[]{2, 3, 9, 10});
+
+        assertEquals(new GlobalSequenceTrackingToken(1), testSubject.createTokenAt(start));
+        assertEquals(new GlobalSequenceTrackingToken(2), testSubject.createTokenAt(start.plusSeconds(5)));
+        assertEquals(new GlobalSequenceTrackingToken(8), testSubject.createTokenAt(start.plusSeconds(15)));
+        assertEquals(new GlobalSequenceTrackingToken(8), testSubject.createTokenAt(start.plusSeconds(20)));
+        assertEquals(new GlobalSequenceTrackingToken(10), testSubject.createTokenAt(start.plusSeconds(40)));
+    }
+
+    @Test(expected = EventStoreException.class)
+    public void testStorageDirectoryCannotBeUsedByTwoEngines() {
+        createEngine(1024);
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutStorageDirectoryThrowsAxonConfigurationException() {
+        FileEventStorageEngine.builder().build();
+    }
+
+    private FileEventStorageEngine createEngine(int segmentSize) {
+        FileEventStorageEngine engine = FileEventStorageEngine.builder()
+                                                              .storageDirectory(storageDirectory)
+                                                              .segmentSize(segmentSize)
+                                                              .build();
+        setTestSubject(engine);
+        return engine;
+    }
+
+    private void restart() {
+        testSubject.shutDown();
+        testSubject = createEngine(64 * 1024);
+    }
+
+    private static class FailingFlushChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private final AtomicBoolean failFlush;
+
+        private FailingFlushChannel(FileChannel delegate, AtomicBoolean failFlush) {
+            this.delegate = delegate;
+            this.failFlush = failFlush;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failFlush.get()) {
+                throw new IOException("Simulating a failing storage device");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static void corruptLastWrittenByte(Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(last);
+            file.write(bytes[last] ^ 0xFF);
+        }
+    }
+}
@@ -69,6 +69,11 @@ public static DomainEventMessage<String> createEvent(long sequenceNumber, Instan
                                                IdentifierFactory.getInstance().generateIdentifier(), timestamp);
     }
 
+    public static DomainEventMessage<String> createEvent(String aggregateId, long sequenceNumber, Instant timestamp) {
+        return new GenericDomainEventMessage<>(TYPE, aggregateId, sequenceNumber, PAYLOAD, METADATA,
+                                               IdentifierFactory.getInstance().generateIdentifier(), timestamp);
+    }
+
     public static DomainEventMessage<String> createEvent(String aggregateId, long sequenceNumber) {
         return createEvent(aggregateId, sequenceNumber, PAYLOAD);
     }
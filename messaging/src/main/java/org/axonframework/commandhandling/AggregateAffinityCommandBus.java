@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling;
+
+import org.axonframework.commandhandling.distributed.AnnotationRoutingStrategy;
+import org.axonframework.commandhandling.distributed.RoutingStrategy;
+import org.axonframework.commandhandling.distributed.UnresolvedRoutingKeyPolicy;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.messaging.MessageHandler;
+import org.axonframework.messaging.unitofwork.RollbackConfiguration;
+import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
+import org.axonframework.monitoring.MessageMonitor;
+import org.axonframework.monitoring.NoOpMessageMonitor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandResultMessage.asCommandResultMessage;
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * Specialization of the SimpleCommandBus that processes Commands asynchronously from the calling thread, using a fixed
+ * number of single-threaded workers. Each Command is assigned to a worker based on the routing key provided by a
+ * {@link RoutingStrategy}, which by default is the identifier of the targeted aggregate. Commands with the same
+ * routing key are therefore always handled by the same worker, in the order in which they were dispatched, while
+ * commands with different routing keys are handled in parallel.
+ * <p/>
+ * Because commands for the same aggregate never execute concurrently, aggregates no longer contend for the locks
+ * of their repository. When this Command Bus is the only way in which aggregates are accessed, repositories may be
+ * configured with a {@link org.axonframework.common.lock.NullLockFactory}. Contrary to the DisruptorCommandBus, this
+ * Command Bus does not place any constraints on the repositories used by command handlers.
+ * <p/>
+ * Commands dispatched from within a worker that are assigned to that same worker are handled directly on the
+ * dispatching thread, preventing a handler that waits for the result of such a command from blocking its own worker.
+ * <p/>
+ * Note that you should call {@link #shutdown()} to stop the worker threads.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class AggregateAffinityCommandBus extends SimpleCommandBus {
+
+    private final RoutingStrategy routingStrategy;
+    private final ExecutorService[] workers;
+    private final ThreadLocal<Integer> currentWorker = new ThreadLocal<>();
+
+    /**
+     * Instantiate a {@link AggregateAffinityCommandBus} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the {@link TransactionManager}, {@link MessageMonitor}, {@link RollbackConfiguration}, {@link
+     * RoutingStrategy} and {@link ThreadFactory} are not {@code null}, and will throw an {@link
+     * AxonConfigurationException} if any of them is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link AggregateAffinityCommandBus} instance
+     */
+    protected AggregateAffinityCommandBus(Builder builder) {
+        super(builder);
+        this.routingStrategy = builder.routingStrategy;
+        this.workers = new ExecutorService[builder.workerCount];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = createWorker(i, builder.threadFactory);
+        }
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link AggregateAffinityCommandBus}.
+     * <p>
+     * The {@link TransactionManager} is defaulted to a {@link NoTransactionManager}, the {@link MessageMonitor} is
+     * defaulted to a {@link NoOpMessageMonitor}, {@link RollbackConfiguration} defaults to a
+     * {@link RollbackConfigurationType#UNCHECKED_EXCEPTIONS}, the {@link RoutingStrategy} to an {@link
+     * AnnotationRoutingStrategy} using {@link UnresolvedRoutingKeyPolicy#RANDOM_KEY}, the number of workers to the
+     * number of available processors and the {@link ThreadFactory} to an {@link AxonThreadFactory}. The
+     * TransactionManager, MessageMonitor, RollbackConfiguration, RoutingStrategy and ThreadFactory are <b>hard
+     * requirements</b>. Thus setting them to {@code null} will result in an {@link AxonConfigurationException}.
+     *
+     * @return a Builder to be able to create a {@link AggregateAffinityCommandBus}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private ExecutorService createWorker(int workerIndex, ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                                      r -> threadFactory.newThread(() -> {
+                                          currentWorker.set(workerIndex);
+                                          r.run();
+                                      }));
+    }
+
+    @Override
+    protected <C, R> void handle(CommandMessage<C> command,
+                                 MessageHandler<? super CommandMessage<?>> handler,
+                                 CommandCallback<? super C, ? super R> callback) {
+        int workerIndex;
+        try {
+            workerIndex = Math.floorMod(routingStrategy.getRoutingKey(command).hashCode(), workers.length);
+        } catch (RuntimeException e) {
+            callback.onResult(command, asCommandResultMessage(e));
+            return;
+        }
+        if (Integer.valueOf(workerIndex).equals(currentWorker.get())) {
+            super.handle(command, handler, callback);
+        } else {
+            workers[workerIndex].execute(() -> super.handle(command, handler, callback));
+        }
+    }
+
+    /**
+     * Shuts down the workers used to asynchronously handle incoming commands. Commands that have already been
+     * dispatched will still be handled.
+     */
+    public void shutdown() {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ExecutorService worker : workers) {
+                worker.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            // we've been interrupted. Reset the interruption flag and continue
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link AggregateAffinityCommandBus}.
+     * <p>
+     * The {@link TransactionManager}, {@link MessageMonitor}, {@link RollbackConfiguration}, {@link RoutingStrategy}
+     * and {@link ThreadFactory} are respectively defaulted to a {@link NoTransactionManager}, a {@link
+     * NoOpMessageMonitor}, a {@link RollbackConfigurationType#UNCHECKED_EXCEPTIONS}, an {@link
+     * AnnotationRoutingStrategy} using {@link UnresolvedRoutingKeyPolicy#RANDOM_KEY} and an {@link AxonThreadFactory}.
+     * The number of workers defaults to the number of available processors. The TransactionManager, MessageMonitor,
+     * RollbackConfiguration, RoutingStrategy and ThreadFactory are <b>hard requirements</b>. Thus setting them to
+     * {@code null} will result in an {@link AxonConfigurationException}.
+     */
+    public static class Builder extends SimpleCommandBus.Builder {
+
+        private RoutingStrategy routingStrategy = new AnnotationRoutingStrategy(UnresolvedRoutingKeyPolicy.RANDOM_KEY);
+        private int workerCount = Runtime.getRuntime().availableProcessors();
+        private ThreadFactory threadFactory =
+                new AxonThreadFactory(AggregateAffinityCommandBus.class.getSimpleName());
+
+        @Override
+        public Builder transactionManager(TransactionManager transactionManager) {
+            super.transactionManager(transactionManager);
+            return this;
+        }
+
+        @Override
+        public Builder messageMonitor(MessageMonitor<? super CommandMessage<?>> messageMonitor) {
+            super.messageMonitor(messageMonitor);
+            return this;
+        }
+
+        @Override
+        public Builder rollbackConfiguration(RollbackConfiguration rollbackConfiguration) {
+            super.rollbackConfiguration(rollbackConfiguration);
+            return this;
+        }
+
+        /**
+         * Sets the {@link RoutingStrategy} providing the key used to assign commands to a worker. Defaults to an
+         * {@link AnnotationRoutingStrategy} using {@link UnresolvedRoutingKeyPolicy#RANDOM_KEY}.
+         *
+         * @param routingStrategy the {@link RoutingStrategy} providing the key used to assign commands to a worker
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder routingStrategy(RoutingStrategy routingStrategy) {
+            assertNonNull(routingStrategy, "RoutingStrategy may not be null");
+            this.routingStrategy = routingStrategy;
+            return this;
+        }
+
+        /**
+         * Sets the number of single-threaded workers handling commands. Defaults to the number of available
+         * processors.
+         *
+         * @param workerCount the number of single-threaded workers handling commands
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder workerCount(int workerCount) {
+            assertThat(workerCount, count -> count > 0, "The worker count should be a positive number");
+            this.workerCount = workerCount;
+            return this;
+        }
+
+        /**
+         * Sets the {@link ThreadFactory} used to create the worker threads. Defaults to an {@link AxonThreadFactory}.
+         *
+         * @param threadFactory the {@link ThreadFactory} used to create the worker threads
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder threadFactory(ThreadFactory threadFactory) {
+            assertNonNull(threadFactory, "ThreadFactory may not be null");
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link AggregateAffinityCommandBus} as specified through this Builder.
+         *
+         * @return a {@link AggregateAffinityCommandBus} as specified through this Builder
+         */
+        public AggregateAffinityCommandBus build() {
+            return new AggregateAffinityCommandBus(this);
+        }
+    }
+}
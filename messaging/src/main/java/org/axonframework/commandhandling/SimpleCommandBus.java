@@ -110,6 +110,21 @@ public <C, R> void dispatch(CommandMessage<C> command, final CommandCallback<? s
         doDispatch(intercept(command), callback);
     }
 
+    /**
+     * Dispatches the given {@code command} without invoking the dispatch interceptors of this CommandBus. This is
+     * meant for components that have already applied their own dispatch interceptors to the command, such as a {@link
+     * org.axonframework.commandhandling.distributed.DistributedCommandBus} dispatching a command on its local segment.
+     *
+     * @param command  The command to dispatch
+     * @param callback The callback to invoke when command processing is complete
+     * @param <C>      The payload type of the command to dispatch
+     * @param <R>      The type of the expected result
+     */
+    public <C, R> void dispatchIntercepted(CommandMessage<C> command,
+                                           CommandCallback<? super C, ? super R> callback) {
+        doDispatch(command, callback);
+    }
+
     /**
      * Invokes all the dispatch interceptors.
      *
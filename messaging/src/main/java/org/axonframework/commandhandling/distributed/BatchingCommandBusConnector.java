@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.distributed;
+
+import org.axonframework.commandhandling.CommandCallback;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.Registration;
+import org.axonframework.messaging.MessageHandler;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandResultMessage.asCommandResultMessage;
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * Decorator of a {@link CommandBusConnector} that coalesces commands sent to the same destination into batches, which
+ * are sent using {@link CommandBusConnector#sendBatch(Member, List)}. A batch is sent when it reaches the maximum
+ * batch size, or when the batch window has passed since the first command was added to it. This way, commands sent
+ * concurrently to the same member share a single round trip, at the cost of a small delay when the load is low.
+ * <p/>
+ * Batching only pays off if the delegate transports a batch in a single message, which it indicates through {@link
+ * CommandBusConnector#supportsBatching()}. Commands are sent directly if the delegate doesn't support batching, as
+ * batching would only add latency.
+ * <p/>
+ * All batches are sent by the scheduler, including those that are full before their window has passed, and batches for
+ * the same destination are sent one at a time. Commands therefore reach the delegate in the order they were sent.
+ * <p/>
+ * Only commands sent with a callback are batched. Commands for which the sender does not expect a reply are sent
+ * directly. Failures to send a batch are reported to the callback of each command in that batch, and cause the
+ * destination to be {@link Member#suspect() suspected}.
+ * <p/>
+ * Note that you should call {@link #shutDown()} to send pending batches and stop the scheduler.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class BatchingCommandBusConnector implements CommandBusConnector {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingCommandBusConnector.class);
+
+    private final CommandBusConnector delegate;
+    private final int maxBatchSize;
+    private final long batchWindowNanos;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final boolean batchingEnabled;
+    private final ConcurrentMap<String, Batch> batches = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiate a {@link BatchingCommandBusConnector} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the delegate {@link CommandBusConnector} is not {@code null}, and will throw an {@link
+     * AxonConfigurationException} if it is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link BatchingCommandBusConnector} instance
+     */
+    protected BatchingCommandBusConnector(Builder builder) {
+        builder.validate();
+        this.delegate = builder.delegate;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.batchWindowNanos = builder.batchWindowNanos;
+        this.ownsScheduler = builder.scheduler == null;
+        this.scheduler = ownsScheduler
+                ? Executors.newSingleThreadScheduledExecutor(new AxonThreadFactory("CommandBatcher"))
+                : builder.scheduler;
+        this.batchingEnabled = delegate.supportsBatching();
+        if (!batchingEnabled) {
+            logger.info("Connector [{}] sends batches one command at a time. Commands will not be batched.",
+                        delegate.getClass().getName());
+        }
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link BatchingCommandBusConnector}.
+     * <p>
+     * The {@code maxBatchSize} defaults to {@code 64} and the batch window to 1 millisecond. If no {@link
+     * ScheduledExecutorService} is provided, a single threaded one is created, which is stopped on {@link
+     * #shutDown()}. The delegate {@link CommandBusConnector} is a <b>hard requirement</b> and as such should be
+     * provided.
+     *
+     * @return a Builder to be able to create a {@link BatchingCommandBusConnector}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public <C> void send(Member destination, CommandMessage<? extends C> command) throws Exception {
+        delegate.send(destination, command);
+    }
+
+    @Override
+    public <C, R> void send(Member destination, CommandMessage<C> command, CommandCallback<? super C, R> callback)
+            throws Exception {
+        if (!batchingEnabled) {
+            delegate.send(destination, command, callback);
+            return;
+        }
+        CommandCallbackWrapper<Member, C, R> entry = new CommandCallbackWrapper<>(destination, command, callback);
+        batches.computeIfAbsent(destination.name(), name -> new Batch()).add(entry);
+    }
+
+    @Override
+    public void sendBatch(Member destination, List<CommandCallbackWrapper<Member, ?, ?>> commands) {
+        try {
+            delegate.sendBatch(destination, commands);
+        } catch (Exception e) {
+            logger.warn("Failed to send a batch of {} command(s) to [{}]", commands.size(), destination.name(), e);
+            destination.suspect();
+            commands.forEach(command -> reportFailure(command, e));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reportFailure(CommandCallbackWrapper<Member, ?, ?> command, Exception cause) {
+        command.onResult((CommandMessage) command.getMessage(), asCommandResultMessage(
+                new CommandDispatchException("An error occurred while sending a batch of commands: "
+                                                     + cause.getMessage(), cause)
+        ));
+    }
+
+    @Override
+    public boolean supportsBatching() {
+        return batchingEnabled;
+    }
+
+    @Override
+    public Registration subscribe(String commandName, MessageHandler<? super CommandMessage<?>> handler) {
+        return delegate.subscribe(commandName, handler);
+    }
+
+    @Override
+    public Registration registerHandlerInterceptor(
+            MessageHandlerInterceptor<? super CommandMessage<?>> handlerInterceptor) {
+        return delegate.registerHandlerInterceptor(handlerInterceptor);
+    }
+
+    /**
+     * Sends all pending batches and, if it was created by this connector, stops the scheduler used to send batches
+     * when their window has passed.
+     */
+    public void shutDown() {
+        batches.values().forEach(Batch::flush);
+        if (ownsScheduler) {
+            scheduler.shutdown();
+        }
+    }
+
+    private class Batch {
+
+        private final Object sendLock = new Object();
+        private final List<CommandCallbackWrapper<Member, ?, ?>> entries = new ArrayList<>();
+        private ScheduledFuture<?> scheduledFlush;
+        private boolean flushSubmitted;
+
+        private void add(CommandCallbackWrapper<Member, ?, ?> entry) {
+            boolean scheduled;
+            synchronized (this) {
+                entries.add(entry);
+                scheduled = scheduleFlush();
+            }
+            if (!scheduled) {
+                flush();
+            }
+        }
+
+        /**
+         * Makes sure the scheduler sends the pending entries, immediately if they fill a batch or otherwise once the
+         * window has passed. Returns {@code false} if the scheduler rejected the flush.
+         */
+        private boolean scheduleFlush() {
+            if (flushSubmitted) {
+                return true;
+            }
+            try {
+                if (entries.size() >= maxBatchSize) {
+                    cancelScheduledFlush();
+                    scheduler.execute(this::flush);
+                    flushSubmitted = true;
+                } else if (scheduledFlush == null) {
+                    scheduledFlush = scheduler.schedule(this::flush, batchWindowNanos, TimeUnit.NANOSECONDS);
+                }
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        private void cancelScheduledFlush() {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+
+        private synchronized List<CommandCallbackWrapper<Member, ?, ?>> take() {
+            int size = Math.min(entries.size(), maxBatchSize);
+            List<CommandCallbackWrapper<Member, ?, ?>> batch = new ArrayList<>(entries.subList(0, size));
+            entries.subList(0, size).clear();
+            if (entries.isEmpty()) {
+                cancelScheduledFlush();
+                flushSubmitted = false;
+            }
+            return batch;
+        }
+
+        private void flush() {
+            // batches are taken and sent under a single lock, so they can't overtake each other
+            synchronized (sendLock) {
+                List<CommandCallbackWrapper<Member, ?, ?>> batch;
+                while (!(batch = take()).isEmpty()) {
+                    sendBatch(batch.get(batch.size() - 1).getChannelIdentifier(), batch);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link BatchingCommandBusConnector}.
+     * <p>
+     * The {@code maxBatchSize} defaults to {@code 64} and the batch window to 1 millisecond. If no {@link
+     * ScheduledExecutorService} is provided, a single threaded one is created, which is stopped on {@link
+     * #shutDown()}. The delegate {@link CommandBusConnector} is a <b>hard requirement</b> and as such should be
+     * provided.
+     */
+    public static class Builder {
+
+        private CommandBusConnector delegate;
+        private int maxBatchSize = 64;
+        private long batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(1);
+        private ScheduledExecutorService scheduler;
+
+        /**
+         * Sets the {@link CommandBusConnector} used to send batches of commands.
+         *
+         * @param delegate the {@link CommandBusConnector} used to send batches of commands
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder delegate(CommandBusConnector delegate) {
+            assertNonNull(delegate, "Delegate CommandBusConnector may not be null");
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of commands in a single batch. Defaults to {@code 64}.
+         *
+         * @param maxBatchSize the maximum number of commands in a single batch
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            assertThat(maxBatchSize, size -> size > 0, "The maxBatchSize should be a positive number");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a command waits for other commands to the same destination before its batch is sent.
+         * Defaults to 1 millisecond.
+         *
+         * @param batchWindow the maximum time a command waits for other commands to the same destination
+         * @param timeUnit    the unit of the given {@code batchWindow}
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder batchWindow(long batchWindow, TimeUnit timeUnit) {
+            assertThat(batchWindow, window -> window >= 0, "The batchWindow may not be negative");
+            assertNonNull(timeUnit, "TimeUnit may not be null");
+            this.batchWindowNanos = timeUnit.toNanos(batchWindow);
+            return this;
+        }
+
+        /**
+         * Sets the {@link ScheduledExecutorService} used to send batches, when they are full or when their window has
+         * passed. When not provided, a single threaded scheduler is created.
+         *
+         * @param scheduler the {@link ScheduledExecutorService} used to send batches
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            assertNonNull(scheduler, "ScheduledExecutorService may not be null");
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link BatchingCommandBusConnector} as specified through this Builder.
+         *
+         * @return a {@link BatchingCommandBusConnector} as specified through this Builder
+         */
+        public BatchingCommandBusConnector build() {
+            return new BatchingCommandBusConnector(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(delegate, "The delegate CommandBusConnector is a hard requirement and should be provided");
+        }
+    }
+}
@@ -24,6 +24,10 @@
 import org.axonframework.messaging.MessageHandlerInterceptorSupport;
 import org.axonframework.messaging.RemoteHandlingException;
 
+import java.util.List;
+
+import static org.axonframework.commandhandling.GenericCommandResultMessage.asCommandResultMessage;
+
 /**
  * Interface describing the component that remotely connects multiple CommandBus instances.
  *
@@ -74,6 +78,49 @@ public interface CommandBusConnector extends MessageHandlerInterceptorSupport<Co
      */
     <C, R> void send(Member destination, CommandMessage<C> command, CommandCallback<? super C, R> callback) throws Exception;
 
+    /**
+     * Sends the given {@code commands} to the given {@code destination} as a single batch. Each entry holds a command
+     * and the callback to notify of its result. Connectors that are able to transport several commands in a single
+     * message should override this method, as this saves a round trip per command.
+     * <p/>
+     * If this method throws an exception, the sender is guaranteed that the destination did not receive any of the
+     * commands. Otherwise, implementations <em>should</em> invoke the callback of each entry with an outcome.
+     * <p/>
+     * The default implementation sends each command individually, reporting a {@link CommandDispatchException} to the
+     * callback of each command that could not be sent. It therefore offers no benefit over sending the commands
+     * separately. Connectors overriding this method should also override {@link #supportsBatching()}.
+     *
+     * @param destination The member of the network to send the messages to
+     * @param commands    The commands to send to the (remote) member, with the callbacks to notify of their results
+     * @throws Exception when an error occurs before or during the sending of the messages
+     */
+    @SuppressWarnings("unchecked")
+    default void sendBatch(Member destination, List<CommandCallbackWrapper<Member, ?, ?>> commands) throws Exception {
+        for (CommandCallbackWrapper<Member, ?, ?> command : commands) {
+            try {
+                send(destination, (CommandMessage) command.getMessage(), (CommandCallback) command);
+            } catch (Exception e) {
+                command.onResult((CommandMessage) command.getMessage(), asCommandResultMessage(
+                        new CommandDispatchException("An error occurred while sending a command: " + e.getMessage(),
+                                                     e)
+                ));
+            }
+        }
+    }
+
+    /**
+     * Indicates whether this connector transports the commands given to {@link #sendBatch(Member, List)} in a single
+     * message. A {@link BatchingCommandBusConnector} only batches commands for connectors that do, as batching would
+     * otherwise only add latency.
+     * <p/>
+     * Defaults to {@code false}.
+     *
+     * @return {@code true} if this connector sends a batch of commands in a single message, otherwise {@code false}
+     */
+    default boolean supportsBatching() {
+        return false;
+    }
+
     /**
      * Subscribes a command message handler for commands with given {@code commandName}.
      *
@@ -17,11 +17,19 @@
 package org.axonframework.commandhandling.distributed;
 
 import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.distributed.commandfilter.AcceptAll;
+import org.axonframework.commandhandling.distributed.commandfilter.CommandNameFilter;
+import org.axonframework.commandhandling.distributed.commandfilter.DenyAll;
+import org.axonframework.commandhandling.distributed.commandfilter.DenyCommandNameFilter;
 import org.axonframework.common.Assert;
 import org.axonframework.common.digest.Digester;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * Component used by command routers to find members capable of handling a given command. Members are selected based on
@@ -30,12 +38,30 @@
  * <p>
  * A ConsistentHash is used to route commands targeting the same aggregate to the same member. In that case the
  * aggregate identifier is the routing key.
+ * <p>
+ * Positions on the ring are represented as {@code long} values, kept in a sorted array that is searched using a binary
+ * search. Positions are derived from the MD5 hash of the routing key, ordered the same way as their hex encoding, so
+ * routing decisions are the same as those of nodes running earlier versions. A faster, non-cryptographic hash function
+ * is only used when explicitly selected using {@link #usingHashFunction(ToLongFunction)}, for example {@link
+ * #fastHash(String)}. Note that all nodes in a cluster must use the same hash function.
+ * <p>
+ * For members whose filter only depends on the command name, the eligibility of each member is calculated once per
+ * command name and cached for as long as this (immutable) version of the ConsistentHash is in use.
  */
 public class ConsistentHash {
 
-    private final SortedMap<String, ConsistentHashMember> hashToMember;
+    private static final int MAX_CACHED_COMMAND_NAMES = 1024;
+    private static final byte NOT_ELIGIBLE = 0;
+    private static final byte ELIGIBLE = 1;
+    private static final byte EVALUATE = 2;
+
+    private final long[] positions;
+    private final int[] ringMembers;
+    private final ConsistentHashMember[] memberArray;
+    private final boolean[] nameBasedFilters;
+    private final ConcurrentMap<String, byte[]> eligibilityCache = new ConcurrentHashMap<>();
     private final int modCount;
-    private final Function<String, String> hashFunction;
+    private final ToLongFunction<String> hashFunction;
     private final Map<String, ConsistentHashMember> members;
 
     /**
@@ -48,33 +74,108 @@ protected static String hash(String routingKey) {
         return Digester.md5Hex(routingKey);
     }
 
+    /**
+     * Returns the position on the ring of the given {@code routingKey}, based on its MD5 hash. The position is derived
+     * from the first 8 bytes of the hash, in such a way that positions are ordered the same way as the hex
+     * representation returned by {@link #hash(String)}.
+     *
+     * @param routingKey the routing key to hash
+     * @return the position of the given key on the ring
+     */
+    public static long md5Hash(String routingKey) {
+        byte[] digest = Digester.newMD5Instance().update(routingKey.getBytes(StandardCharsets.UTF_8)).digest();
+        long position = 0;
+        for (int i = 0; i < 8; i++) {
+            position = (position << 8) | (digest[i] & 0xFF);
+        }
+        return position ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns the position on the ring of the given {@code routingKey}, based on a fast, non-cryptographic 64-bit
+     * hash (FNV-1a, followed by a bit mixing step to spread similar keys over the ring).
+     *
+     * @param routingKey the routing key to hash
+     * @return the position of the given key on the ring
+     */
+    public static long fastHash(String routingKey) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < routingKey.length(); i++) {
+            hash ^= routingKey.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Initializes a new {@link ConsistentHash} using the given {@code hashFunction} to calculate positions on the
+     * ring, both for members and routing keys. To register members use {@link #with(Member, int,
+     * CommandMessageFilter)}.
+     *
+     * @param hashFunction the function calculating the position on the ring for a given key
+     * @return a new, empty {@link ConsistentHash} using the given hash function
+     */
+    public static ConsistentHash usingHashFunction(ToLongFunction<String> hashFunction) {
+        Assert.notNull(hashFunction, () -> "Hash function may not be null");
+        return new ConsistentHash(Collections.emptyMap(), hashFunction, 0);
+    }
+
     /**
      * Initializes a new {@link ConsistentHash}. To register members use {@link #with(Member, int, CommandMessageFilter)}.
      */
     public ConsistentHash() {
-        this(ConsistentHash::hash);
+        this(Collections.emptyMap(), ConsistentHash::md5Hash, 0);
     }
 
     /**
-     * Initializes a new {@link ConsistentHash} using the given {@code hashFunction} to calculate positions for each
-     * member on the ring. To register members use {@link #with(Member, int, CommandMessageFilter)}.
+     * Initializes a new {@link ConsistentHash}. To register members use {@link #with(Member, int, CommandMessageFilter)}.
+     * <p>
+     * To keep routing decisions the same as those of earlier versions, which didn't use the given {@code
+     * hashFunction}, positions on the ring are derived from the MD5 hash of keys. Use {@link
+     * #usingHashFunction(ToLongFunction)} to select a different hash function.
      *
-     * @param hashFunction The hash function to use to calculate each member's positions on the ring
+     * @param hashFunction The hash function to use to calculate each member's positions on the ring. Not used.
      */
     public ConsistentHash(Function<String, String> hashFunction) {
-        hashToMember = Collections.emptySortedMap();
-        members = Collections.emptyMap();
-        modCount = 0;
-        this.hashFunction = hashFunction;
+        this();
     }
 
     private ConsistentHash(Map<String, ConsistentHashMember> members,
-                           Function<String, String> hashFunction, int modCount) {
+                           ToLongFunction<String> hashFunction, int modCount) {
         this.hashFunction = hashFunction;
         this.modCount = modCount;
-        this.hashToMember = new TreeMap<>();
         this.members = members;
-        members.values().forEach(m -> m.hashes().forEach(h -> hashToMember.put(h, m)));
+        this.memberArray = members.values().toArray(new ConsistentHashMember[0]);
+        this.nameBasedFilters = new boolean[memberArray.length];
+        List<long[]> entries = new ArrayList<>();
+        for (int m = 0; m < memberArray.length; m++) {
+            nameBasedFilters[m] = isCommandNameBased(memberArray[m].commandFilter);
+            for (int t = 0; t < memberArray[m].segmentCount; t++) {
+                entries.add(new long[]{hashFunction.applyAsLong(memberArray[m].name() + " #" + t), m});
+            }
+        }
+        // members are sorted by name, making the order of members with conflicting positions predictable
+        entries.sort((e1, e2) -> e1[0] != e2[0] ? Long.compare(e1[0], e2[0]) : Long.compare(e1[1], e2[1]));
+        this.positions = new long[entries.size()];
+        this.ringMembers = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            positions[i] = entries.get(i)[0];
+            ringMembers[i] = (int) entries.get(i)[1];
+        }
+    }
+
+    private static boolean isCommandNameBased(CommandMessageFilter filter) {
+        // subclasses may take more than the command name into account
+        Class<?> filterType = filter.getClass();
+        return filterType == CommandNameFilter.class
+                || filterType == DenyCommandNameFilter.class
+                || filterType == AcceptAll.class
+                || filterType == DenyAll.class;
     }
 
     /**
@@ -86,11 +187,11 @@ private ConsistentHash(Map<String, ConsistentHashMember> members,
      * @return A collection containing each of the nodes, in the order they would be considered
      */
     public Collection<ConsistentHashMember> getEligibleMembers(String routingKey) {
-        String hash = hash(routingKey);
-        Collection<ConsistentHashMember> tail = hashToMember.tailMap(hash).values();
-        Collection<ConsistentHashMember> head = hashToMember.headMap(hash).values();
-        LinkedHashSet<ConsistentHashMember> combined = new LinkedHashSet<>(tail);
-        combined.addAll(head);
+        int start = firstPositionAtOrAfter(hashFunction.applyAsLong(routingKey));
+        LinkedHashSet<ConsistentHashMember> combined = new LinkedHashSet<>();
+        for (int i = 0; i < positions.length && combined.size() < memberArray.length; i++) {
+            combined.add(memberArray[ringMembers[(start + i) % positions.length]]);
+        }
         return combined;
     }
 
@@ -103,27 +204,54 @@ public Collection<ConsistentHashMember> getEligibleMembers(String routingKey) {
      * @return the member that should handle the message or an empty Optional if no suitable member was found
      */
     public Optional<Member> getMember(String routingKey, CommandMessage<?> commandMessage) {
-        String hash = hash(routingKey);
-        SortedMap<String, ConsistentHashMember> tailMap = hashToMember.tailMap(hash);
-        Iterator<Map.Entry<String, ConsistentHashMember>> tailIterator = tailMap.entrySet().iterator();
-        Optional<Member> foundMember = findSuitableMember(commandMessage, tailIterator);
-        if (!foundMember.isPresent()) {
-            Iterator<Map.Entry<String, ConsistentHashMember>> headIterator =
-                    hashToMember.headMap(hash).entrySet().iterator();
-            foundMember = findSuitableMember(commandMessage, headIterator);
+        if (positions.length == 0) {
+            return Optional.empty();
+        }
+        byte[] eligibility = eligibility(commandMessage);
+        int start = firstPositionAtOrAfter(hashFunction.applyAsLong(routingKey));
+        for (int i = 0; i < positions.length; i++) {
+            int member = ringMembers[(start + i) % positions.length];
+            if (eligibility[member] == ELIGIBLE
+                    || (eligibility[member] == EVALUATE && memberArray[member].commandFilter.matches(commandMessage))) {
+                return Optional.of(memberArray[member]);
+            }
         }
-        return foundMember;
+        return Optional.empty();
     }
 
-    private Optional<Member> findSuitableMember(CommandMessage<?> commandMessage,
-                                                Iterator<Map.Entry<String, ConsistentHashMember>> iterator) {
-        while (iterator.hasNext()) {
-            Map.Entry<String, ConsistentHashMember> entry = iterator.next();
-            if (entry.getValue().commandFilter.matches(commandMessage)) {
-                return Optional.of(entry.getValue());
+    private byte[] eligibility(CommandMessage<?> commandMessage) {
+        String commandName = commandMessage.getCommandName();
+        byte[] cached = eligibilityCache.get(commandName);
+        if (cached != null) {
+            return cached;
+        }
+        // the outcome of name based filters is the same for every message with the same command name
+        byte[] eligibility = new byte[memberArray.length];
+        for (int m = 0; m < memberArray.length; m++) {
+            if (!nameBasedFilters[m]) {
+                eligibility[m] = EVALUATE;
+            } else {
+                eligibility[m] = memberArray[m].commandFilter.matches(commandMessage) ? ELIGIBLE : NOT_ELIGIBLE;
             }
         }
-        return Optional.empty();
+        if (eligibilityCache.size() < MAX_CACHED_COMMAND_NAMES) {
+            eligibilityCache.putIfAbsent(commandName, eligibility);
+        }
+        return eligibility;
+    }
+
+    private int firstPositionAtOrAfter(long position) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low == positions.length ? 0 : low;
     }
 
     /**
@@ -187,12 +315,12 @@ public boolean equals(Object o) {
             return false;
         }
         ConsistentHash that = (ConsistentHash) o;
-        return Objects.equals(hashToMember, that.hashToMember);
+        return Arrays.equals(positions, that.positions) && Objects.equals(members, that.members);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(hashToMember);
+        return Objects.hash(Arrays.hashCode(positions), members);
     }
 
     @Override
@@ -273,6 +401,9 @@ public CommandMessageFilter getCommandFilter() {
          * Returns the hashes covered by the member. If the hash of the routing key matches with one of the returned
          * hashes and the member is capable of handling the command then it will be selected as a target for the
          * command.
+         * <p>
+         * The hashes are returned as hex encoded MD5 hashes, as created by the default hash function. The positions of
+         * this member on the ring of a {@link ConsistentHash} using a custom hash function may differ.
          *
          * @return the hashes covered by this member
          */
@@ -21,6 +21,7 @@
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.MonitorAwareCallback;
 import org.axonframework.commandhandling.NoHandlerForCommandException;
+import org.axonframework.commandhandling.SimpleCommandBus;
 import org.axonframework.commandhandling.callbacks.LoggingCallback;
 import org.axonframework.commandhandling.distributed.commandfilter.CommandNameFilter;
 import org.axonframework.commandhandling.distributed.commandfilter.DenyAll;
@@ -48,6 +49,12 @@
  * <p/>
  * The DistributedCommandBus relies on a {@link CommandBusConnector} to dispatch commands and replies to different
  * segments of the CommandBus. Depending on the implementation used, each segment may run in a different JVM.
+ * <p/>
+ * When a local segment is configured, commands for which this node is the destination are dispatched on that segment
+ * directly, instead of being looped back through the connector. This avoids the serialization of such commands. The
+ * local segment must be the CommandBus the connector subscribes command handlers to. As the dispatch interceptors of
+ * the DistributedCommandBus have already been applied to such commands, those of a {@link SimpleCommandBus} local
+ * segment are not invoked for them.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -64,6 +71,7 @@ public class DistributedCommandBus implements CommandBus {
 
     private final CommandRouter commandRouter;
     private final CommandBusConnector connector;
+    private final CommandBus localSegment;
     private final MessageMonitor<? super CommandMessage<?>> messageMonitor;
 
     private final List<MessageDispatchInterceptor<? super CommandMessage<?>>> dispatchInterceptors = new CopyOnWriteArrayList<>();
@@ -83,6 +91,7 @@ protected DistributedCommandBus(Builder builder) {
         builder.validate();
         this.commandRouter = builder.commandRouter;
         this.connector = builder.connector;
+        this.localSegment = builder.localSegment;
         this.messageMonitor = builder.messageMonitor;
     }
 
@@ -107,6 +116,10 @@ public <C> void dispatch(CommandMessage<C> command) {
             Optional<Member> optionalDestination = commandRouter.findDestination(interceptedCommand);
             if (optionalDestination.isPresent()) {
                 Member destination = optionalDestination.get();
+                if (isLocalDispatch(destination)) {
+                    dispatchLocally(interceptedCommand, loggingCallback);
+                    return;
+                }
                 try {
                     connector.send(destination, interceptedCommand);
                 } catch (Exception e) {
@@ -137,6 +150,10 @@ public <C, R> void dispatch(CommandMessage<C> command, CommandCallback<? super C
         Optional<Member> optionalDestination = commandRouter.findDestination(interceptedCommand);
         if (optionalDestination.isPresent()) {
             Member destination = optionalDestination.get();
+            if (isLocalDispatch(destination)) {
+                dispatchLocally(interceptedCommand, new MonitorAwareCallback<>(callback, messageMonitorCallback));
+                return;
+            }
             try {
                 connector.send(destination,
                                interceptedCommand,
@@ -157,6 +174,19 @@ public <C, R> void dispatch(CommandMessage<C> command, CommandCallback<? super C
         }
     }
 
+    private boolean isLocalDispatch(Member destination) {
+        return localSegment != null && destination.local();
+    }
+
+    private <C, R> void dispatchLocally(CommandMessage<C> command, CommandCallback<? super C, ? super R> callback) {
+        // the dispatch interceptors of this bus have already been applied to the command
+        if (localSegment instanceof SimpleCommandBus) {
+            ((SimpleCommandBus) localSegment).dispatchIntercepted(command, callback);
+        } else {
+            localSegment.dispatch(command, callback);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <C> CommandMessage<? extends C> intercept(CommandMessage<C> command) {
         CommandMessage<? extends C> interceptedCommand = command;
@@ -237,6 +267,7 @@ public static class Builder {
 
         private CommandRouter commandRouter;
         private CommandBusConnector connector;
+        private CommandBus localSegment;
         private MessageMonitor<? super CommandMessage<?>> messageMonitor = NoOpMessageMonitor.INSTANCE;
 
         /**
@@ -265,6 +296,22 @@ public Builder connector(CommandBusConnector connector) {
             return this;
         }
 
+        /**
+         * Sets the {@link CommandBus} on which commands destined for this node are dispatched directly, bypassing the
+         * {@link CommandBusConnector}. This must be the same CommandBus the connector subscribes command handlers to.
+         * The dispatch interceptors of a {@link SimpleCommandBus} local segment are not invoked for these commands,
+         * as those of the DistributedCommandBus already have been. By default, all commands are sent through the
+         * connector.
+         *
+         * @param localSegment the {@link CommandBus} on which commands destined for this node are dispatched directly
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder localSegment(CommandBus localSegment) {
+            assertNonNull(localSegment, "Local segment may not be null");
+            this.localSegment = localSegment;
+            return this;
+        }
+
         /**
          * Sets the {@link MessageMonitor} for generic types implementing {@link CommandMessage}, which is used to
          * monitor incoming messages and their execution result.
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * Default implementation of the {@link ReactorCommandGateway}, which dispatches commands through a {@link
+ * CommandGateway}. The {@link CompletableFuture} returned by {@link CommandGateway#send(Object)} is adapted to a
+ * {@link Mono}, so that no thread is blocked while waiting for the result of a command. Any dispatch interceptors and
+ * retry logic of the CommandGateway apply to commands sent through this gateway too.
+ * <p>
+ * Commands are dispatched on the thread subscribing to the result. Configure a {@link Scheduler} through {@link
+ * Builder#dispatchScheduler(Scheduler)} to dispatch them on that Scheduler instead, which prevents a synchronous
+ * Command Bus from invoking command handlers on the subscribing thread.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class DefaultReactorCommandGateway implements ReactorCommandGateway {
+
+    private final CommandGateway commandGateway;
+    private final int defaultConcurrency;
+    private final Scheduler dispatchScheduler;
+
+    /**
+     * Instantiate a {@link DefaultReactorCommandGateway} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the {@link CommandGateway} is not {@code null}, and will throw an {@link
+     * AxonConfigurationException} if it is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link DefaultReactorCommandGateway} instance
+     */
+    protected DefaultReactorCommandGateway(Builder builder) {
+        builder.validate();
+        this.commandGateway = builder.commandGateway;
+        this.defaultConcurrency = builder.defaultConcurrency;
+        this.dispatchScheduler = builder.dispatchScheduler;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link DefaultReactorCommandGateway}.
+     * <p>
+     * The default concurrency of {@link #sendAll(Publisher)} defaults to {@code 16} and the dispatch {@link
+     * Scheduler} to {@link Schedulers#immediate()}, dispatching on the subscribing thread. The {@link CommandGateway}
+     * is a <b>hard requirement</b> and as such should be provided.
+     *
+     * @return a Builder to be able to create a {@link DefaultReactorCommandGateway}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public <R> Mono<R> send(Object command) {
+        return Mono.defer(() -> Mono.fromFuture(commandGateway.<R>send(command))).subscribeOn(dispatchScheduler);
+    }
+
+    @Override
+    public <R> Flux<R> sendAll(Publisher<?> commands) {
+        return sendAll(commands, defaultConcurrency);
+    }
+
+    @Override
+    public <R> Flux<R> sendAll(Publisher<?> commands, int maxConcurrency) {
+        return Flux.from(commands).flatMapSequential(this::<R>send, maxConcurrency);
+    }
+
+    /**
+     * Builder class to instantiate a {@link DefaultReactorCommandGateway}.
+     * <p>
+     * The default concurrency of {@link #sendAll(Publisher)} defaults to {@code 16} and the dispatch {@link
+     * Scheduler} to {@link Schedulers#immediate()}, dispatching on the subscribing thread. The {@link CommandGateway}
+     * is a <b>hard requirement</b> and as such should be provided.
+     */
+    public static class Builder {
+
+        private CommandGateway commandGateway;
+        private int defaultConcurrency = 16;
+        private Scheduler dispatchScheduler = Schedulers.immediate();
+
+        /**
+         * Sets the {@link CommandGateway} used to dispatch commands.
+         *
+         * @param commandGateway the {@link CommandGateway} used to dispatch commands
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder commandGateway(CommandGateway commandGateway) {
+            assertNonNull(commandGateway, "CommandGateway may not be null");
+            this.commandGateway = commandGateway;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of commands executed at the same time by {@link #sendAll(Publisher)}. Defaults to
+         * {@code 16}.
+         *
+         * @param defaultConcurrency the maximum number of commands executed at the same time by {@link
+         *                           #sendAll(Publisher)}
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder defaultConcurrency(int defaultConcurrency) {
+            assertThat(defaultConcurrency, c -> c > 0, "The default concurrency should be a positive number");
+            this.defaultConcurrency = defaultConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Scheduler} on which commands are dispatched. Defaults to {@link Schedulers#immediate()},
+         * which dispatches commands on the thread subscribing to the result.
+         *
+         * @param dispatchScheduler the {@link Scheduler} on which commands are dispatched
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder dispatchScheduler(Scheduler dispatchScheduler) {
+            assertNonNull(dispatchScheduler, "Scheduler may not be null");
+            this.dispatchScheduler = dispatchScheduler;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link DefaultReactorCommandGateway} as specified through this Builder.
+         *
+         * @return a {@link DefaultReactorCommandGateway} as specified through this Builder
+         */
+        public DefaultReactorCommandGateway build() {
+            return new DefaultReactorCommandGateway(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(commandGateway, "The CommandGateway is a hard requirement and should be provided");
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonNonTransientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * RetryScheduler implementation that retries commands with an exponentially increasing delay when they fail because
+ * of an exception that is not explicitly non-transient. The delay before the n-th retry is {@code initialBackOff *
+ * backOffFactor^(n-1)}, capped at {@code maxBackOff}. A random part of that delay, as defined by the {@code jitter},
+ * is subtracted from it, so that commands that failed at the same moment are not all retried at the same moment.
+ * <p>
+ * The maximum number of retries may be defined per type of exception. A policy registered for an exception applies
+ * when the last failure, or any of its causes, is an instance of that exception. Policies are evaluated in the order
+ * in which they are registered. When none applies, the default {@code maxRetryCount} is used.
+ * <p>
+ * Optionally, a {@link RetryBudget} may be configured, limiting the total number of retries scheduled over time. When
+ * the budget is exhausted, failures are reported to the original callback immediately. A single budget may be shared
+ * by several schedulers.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class ExponentialBackOffRetryScheduler implements RetryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExponentialBackOffRetryScheduler.class);
+
+    private final long initialBackOff;
+    private final long maxBackOff;
+    private final double backOffFactor;
+    private final double jitter;
+    private final int maxRetryCount;
+    private final Map<Class<? extends Throwable>, Integer> retryPolicies;
+    private final RetryBudget retryBudget;
+    private final ScheduledExecutorService retryExecutor;
+
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong abandonedCount = new AtomicLong();
+
+    /**
+     * Instantiate a {@link ExponentialBackOffRetryScheduler} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the {@link ScheduledExecutorService} is not {@code null}, and will throw an {@link
+     * AxonConfigurationException} if it is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link ExponentialBackOffRetryScheduler} instance
+     */
+    protected ExponentialBackOffRetryScheduler(Builder builder) {
+        builder.validate();
+        this.initialBackOff = builder.initialBackOff;
+        this.maxBackOff = Math.max(builder.maxBackOff, builder.initialBackOff);
+        this.backOffFactor = builder.backOffFactor;
+        this.jitter = builder.jitter;
+        this.maxRetryCount = builder.maxRetryCount;
+        this.retryPolicies = new LinkedHashMap<>(builder.retryPolicies);
+        this.retryBudget = builder.retryBudget;
+        this.retryExecutor = builder.retryExecutor;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link ExponentialBackOffRetryScheduler}.
+     * <p>
+     * The {@code initialBackOff} defaults to 100 milliseconds, the {@code maxBackOff} to 10 seconds, the {@code
+     * backOffFactor} to {@code 2}, the {@code jitter} to {@code 1} (full jitter) and the {@code maxRetryCount} to
+     * {@code 3}. No {@link RetryBudget} is used by default. The {@link ScheduledExecutorService} is a <b>hard
+     * requirement</b> and as such should be provided.
+     *
+     * @return a Builder to be able to create a {@link ExponentialBackOffRetryScheduler}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean scheduleRetry(CommandMessage commandMessage,
+                                 RuntimeException lastFailure,
+                                 List<Class<? extends Throwable>[]> failures,
+                                 Runnable dispatchTask) {
+        int failureCount = failures.size();
+        int allowedRetries = isExplicitlyNonTransient(lastFailure) ? 0 : maxRetryCountFor(lastFailure);
+        if (failureCount > allowedRetries) {
+            if (logger.isInfoEnabled()) {
+                logger.info("Processing of Command [{}] resulted in an exception {} time(s) and will not be retried.",
+                            commandMessage.getPayloadType().getSimpleName(), failureCount, lastFailure);
+            }
+            abandonedCount.incrementAndGet();
+            return false;
+        }
+        if (retryBudget != null && !retryBudget.tryAcquire()) {
+            if (logger.isInfoEnabled()) {
+                logger.info("Processing of Command [{}] resulted in an exception, but the retry budget is exhausted. "
+                                    + "Giving up.",
+                            commandMessage.getPayloadType().getSimpleName(), lastFailure);
+            }
+            abandonedCount.incrementAndGet();
+            return false;
+        }
+        long delay = backOffFor(failureCount);
+        if (logger.isInfoEnabled()) {
+            logger.info("Processing of Command [{}] resulted in an exception. Will retry in {}ms, {} more time(s) "
+                                + "at most... Exception was {}, {}",
+                        commandMessage.getPayloadType().getSimpleName(),
+                        delay,
+                        allowedRetries - failureCount,
+                        lastFailure.getClass().getName(),
+                        lastFailure.getMessage());
+        }
+        try {
+            retryExecutor.schedule(dispatchTask, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (retryBudget != null) {
+                // the retry won't happen, so it shouldn't count against the budget
+                retryBudget.release();
+            }
+            abandonedCount.incrementAndGet();
+            return false;
+        }
+        retryCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Indicates whether the given {@code failure} is clearly non-transient. That means, whether the {@code failure}
+     * explicitly states that a retry of the same Command would result in the same failure to occur again.
+     *
+     * @param failure The exception that occurred while processing a command
+     * @return {@code true} if the exception is clearly non-transient and the command should <em>not</em> be retried,
+     * or {@code false} when the command has a chance of succeeding if it retried.
+     */
+    protected boolean isExplicitlyNonTransient(Throwable failure) {
+        return failure instanceof AxonNonTransientException
+                || (failure.getCause() != null && isExplicitlyNonTransient(failure.getCause()));
+    }
+
+    /**
+     * Returns the delay in milliseconds before the retry following the given number of failures, including jitter.
+     *
+     * @param failureCount the number of times the command has failed so far
+     * @return the delay in milliseconds before the next retry
+     */
+    protected long backOffFor(int failureCount) {
+        double backOff = Math.min(maxBackOff, initialBackOff * Math.pow(backOffFactor, failureCount - 1));
+        double randomPart = backOff * jitter * ThreadLocalRandom.current().nextDouble();
+        return Math.round(backOff - randomPart);
+    }
+
+    private int maxRetryCountFor(Throwable failure) {
+        for (Map.Entry<Class<? extends Throwable>, Integer> policy : retryPolicies.entrySet()) {
+            Throwable current = failure;
+            while (current != null) {
+                if (policy.getKey().isInstance(current)) {
+                    return policy.getValue();
+                }
+                current = current.getCause() == current ? null : current.getCause();
+            }
+        }
+        return maxRetryCount;
+    }
+
+    /**
+     * Returns the number of retries scheduled by this scheduler.
+     *
+     * @return the number of retries scheduled
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Returns the number of failed commands this scheduler decided not to retry, either because the failure is
+     * non-transient, the maximum number of retries was reached or the {@link RetryBudget} was exhausted.
+     *
+     * @return the number of failed commands that were not retried
+     */
+    public long getAbandonedCount() {
+        return abandonedCount.get();
+    }
+
+    /**
+     * Builder class to instantiate a {@link ExponentialBackOffRetryScheduler}.
+     * <p>
+     * The {@code initialBackOff} defaults to 100 milliseconds, the {@code maxBackOff} to 10 seconds, the {@code
+     * backOffFactor} to {@code 2}, the {@code jitter} to {@code 1} (full jitter) and the {@code maxRetryCount} to
+     * {@code 3}. No {@link RetryBudget} is used by default. The {@link ScheduledExecutorService} is a <b>hard
+     * requirement</b> and as such should be provided.
+     */
+    public static class Builder {
+
+        private long initialBackOff = 100;
+        private long maxBackOff = 10_000;
+        private double backOffFactor = 2;
+        private double jitter = 1;
+        private int maxRetryCount = 3;
+        private final Map<Class<? extends Throwable>, Integer> retryPolicies = new LinkedHashMap<>();
+        private RetryBudget retryBudget;
+        private ScheduledExecutorService retryExecutor;
+
+        /**
+         * Sets the delay in milliseconds before the first retry. Defaults to {@code 100}.
+         *
+         * @param initialBackOff the delay in milliseconds before the first retry
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder initialBackOff(long initialBackOff) {
+            assertThat(initialBackOff, b -> b > 0, "The initialBackOff should be a positive number");
+            this.initialBackOff = initialBackOff;
+            return this;
+        }
+
+        /**
+         * Sets the maximum delay in milliseconds before a retry. Defaults to {@code 10000}.
+         *
+         * @param maxBackOff the maximum delay in milliseconds before a retry
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxBackOff(long maxBackOff) {
+            assertThat(maxBackOff, b -> b > 0, "The maxBackOff should be a positive number");
+            this.maxBackOff = maxBackOff;
+            return this;
+        }
+
+        /**
+         * Sets the factor by which the delay increases with each retry. Defaults to {@code 2}.
+         *
+         * @param backOffFactor the factor by which the delay increases with each retry
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder backOffFactor(double backOffFactor) {
+            assertThat(backOffFactor, f -> f >= 1, "The backOffFactor should be at least 1");
+            this.backOffFactor = backOffFactor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum fraction of the delay that is randomly subtracted from it, which should be a value between
+         * {@code 0} (no jitter) and {@code 1} (full jitter). Defaults to {@code 1}.
+         *
+         * @param jitter the maximum fraction of the delay that is randomly subtracted from it
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder jitter(double jitter) {
+            assertThat(jitter, j -> j >= 0 && j <= 1, "The jitter should be a value between 0 and 1");
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of retries for a single command, for failures that no retry policy has been
+         * registered for. Defaults to {@code 3}.
+         *
+         * @param maxRetryCount the maximum number of retries for a single command
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxRetryCount(int maxRetryCount) {
+            assertThat(maxRetryCount, c -> c >= 0, "The maxRetryCount should not be negative");
+            this.maxRetryCount = maxRetryCount;
+            return this;
+        }
+
+        /**
+         * Registers the maximum number of retries for commands that failed with given {@code exceptionType}, or with
+         * an exception caused by it. A {@code maxRetryCount} of {@code 0} prevents such commands from being retried.
+         *
+         * @param exceptionType the type of exception the policy applies to
+         * @param maxRetryCount the maximum number of retries for commands failing with given {@code exceptionType}
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder retryPolicy(Class<? extends Throwable> exceptionType, int maxRetryCount) {
+            assertNonNull(exceptionType, "The exceptionType may not be null");
+            assertThat(maxRetryCount, c -> c >= 0, "The maxRetryCount should not be negative");
+            this.retryPolicies.put(exceptionType, maxRetryCount);
+            return this;
+        }
+
+        /**
+         * Sets the {@link RetryBudget} limiting the number of retries scheduled over time. The same budget may be
+         * provided to several schedulers. By default, no budget is used.
+         *
+         * @param retryBudget the {@link RetryBudget} limiting the number of retries scheduled over time
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder retryBudget(RetryBudget retryBudget) {
+            assertNonNull(retryBudget, "RetryBudget may not be null");
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        /**
+         * Sets the {@link ScheduledExecutorService} used to schedule a command retry.
+         *
+         * @param retryExecutor a {@link ScheduledExecutorService} used to schedule a command retry
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder retryExecutor(ScheduledExecutorService retryExecutor) {
+            assertNonNull(retryExecutor, "ScheduledExecutorService may not be null");
+            this.retryExecutor = retryExecutor;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link ExponentialBackOffRetryScheduler} as specified through this Builder.
+         *
+         * @return a {@link ExponentialBackOffRetryScheduler} as specified through this Builder
+         */
+        public ExponentialBackOffRetryScheduler build() {
+            return new ExponentialBackOffRetryScheduler(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(retryExecutor, "The ScheduledExecutorService is a hard requirement and should be provided");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.messaging.Message;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variant of the {@link CommandGateway} that exposes the results of commands as Project Reactor types. Commands are
+ * dispatched when the returned {@link Mono} or {@link Flux} is subscribed to, and each subscription dispatches the
+ * command(s) again. Waiting for the result of a command doesn't block any thread. The dispatch itself happens on the
+ * subscribing thread, unless the implementation is configured otherwise. With a synchronous Command Bus, such as the
+ * {@link org.axonframework.commandhandling.SimpleCommandBus}, that means the command handler is invoked on the
+ * subscribing thread too.
+ * <p>
+ * Note that Project Reactor is an optional dependency, which must be on the classpath to use this gateway.
+ *
+ * @author agent
+ * @see DefaultReactorCommandGateway
+ * @since 4.1
+ */
+public interface ReactorCommandGateway {
+
+    /**
+     * Sends the given {@code command} once the returned {@link Mono} is subscribed to. The Mono completes with the
+     * result of the command handler, or completes empty if the handler doesn't return a result. If command execution
+     * resulted in an exception, the Mono completes with that exception.
+     * <p>
+     * The given {@code command} is wrapped as the payload of the CommandMessage that is eventually posted on the
+     * Command Bus, unless Command already implements {@link Message}. In that case, a CommandMessage is constructed
+     * from that message's payload and MetaData.
+     *
+     * @param command the command to dispatch
+     * @param <R>     the type of result expected from command execution
+     * @return a Mono that dispatches the command when subscribed to, and completes with the result of its execution
+     */
+    <R> Mono<R> send(Object command);
+
+    /**
+     * Sends each of the given {@code commands}, allowing a default number of commands to be executed concurrently.
+     * The results are emitted in the order in which the commands were provided. See {@link #sendAll(Publisher, int)}.
+     *
+     * @param commands the commands to dispatch
+     * @param <R>      the type of result expected from command execution
+     * @return a Flux emitting the results of the given commands, in the order of the commands
+     */
+    <R> Flux<R> sendAll(Publisher<?> commands);
+
+    /**
+     * Sends each of the given {@code commands}, with at most {@code maxConcurrency} commands being executed at the
+     * same time. New commands are requested from the given {@code commands} as the results of earlier commands are
+     * emitted, propagating backpressure to the publisher of the commands. The results are emitted in the order in
+     * which the commands were provided, regardless of the order in which they complete. Commands that don't return a
+     * result don't emit an element.
+     * <p>
+     * The returned Flux completes with an error as soon as one of the commands fails. Commands that are in flight at
+     * that moment are not cancelled.
+     *
+     * @param commands       the commands to dispatch
+     * @param maxConcurrency the maximum number of commands executed at the same time
+     * @param <R>            the type of result expected from command execution
+     * @return a Flux emitting the results of the given commands, in the order of the commands
+     */
+    <R> Flux<R> sendAll(Publisher<?> commands, int maxConcurrency);
+}
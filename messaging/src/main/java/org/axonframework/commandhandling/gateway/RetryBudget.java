@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.common.AxonConfigurationException;
+
+import java.time.Clock;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * Token bucket limiting the number of command retries that may be scheduled over time. Each retry takes a token from
+ * the bucket, which is refilled at a fixed rate up to its capacity. When no tokens are available, the retry is
+ * refused and the failure is reported to the original callback instead.
+ * <p>
+ * A single budget is meant to be shared by the {@link RetryScheduler RetrySchedulers} of all gateways in an
+ * application, so that an outage of a downstream system doesn't result in an ever growing number of retries that
+ * prolongs the outage.
+ *
+ * @author agent
+ * @see ExponentialBackOffRetryScheduler
+ * @since 4.1
+ */
+public class RetryBudget {
+
+    private final int capacity;
+    private final double tokensPerMilli;
+    private final Clock clock;
+
+    private double availableTokens;
+    private long lastRefill;
+    private long exhaustedCount;
+
+    /**
+     * Instantiate a {@link RetryBudget} based on the fields contained in the {@link Builder}. The budget starts with a
+     * full bucket.
+     * <p>
+     * Will assert that the {@code capacity} and {@code refillRate} are positive numbers and that the {@link Clock} is
+     * not {@code null}. If any of these does not hold, an {@link AxonConfigurationException} will be thrown.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link RetryBudget} instance
+     */
+    protected RetryBudget(Builder builder) {
+        builder.validate();
+        this.capacity = builder.capacity;
+        this.tokensPerMilli = builder.refillRate / 1000d;
+        this.clock = builder.clock;
+        this.availableTokens = capacity;
+        this.lastRefill = clock.millis();
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link RetryBudget}.
+     * <p>
+     * The {@code capacity} defaults to {@code 100} tokens, the {@code refillRate} to {@code 10} tokens per second and
+     * the {@link Clock} to the system UTC clock.
+     *
+     * @return a Builder to be able to create a {@link RetryBudget}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Attempts to take a single token from this budget. If no token is available, the exhausted count is
+     * incremented.
+     *
+     * @return {@code true} if a token was taken and a retry may be scheduled, otherwise {@code false}
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (availableTokens >= 1) {
+            availableTokens--;
+            return true;
+        }
+        exhaustedCount++;
+        return false;
+    }
+
+    /**
+     * Returns a token taken through {@link #tryAcquire()} to this budget, for a retry that could not be scheduled
+     * after all. The budget never holds more tokens than its capacity.
+     */
+    public synchronized void release() {
+        refill();
+        availableTokens = Math.min(capacity, availableTokens + 1);
+    }
+
+    /**
+     * Returns the number of whole tokens currently available in this budget.
+     *
+     * @return the number of whole tokens currently available
+     */
+    public synchronized int getAvailableTokens() {
+        refill();
+        return (int) availableTokens;
+    }
+
+    /**
+     * Returns the number of retries that were refused because this budget was exhausted.
+     *
+     * @return the number of retries refused by this budget
+     */
+    public synchronized long getExhaustedCount() {
+        return exhaustedCount;
+    }
+
+    private void refill() {
+        long now = clock.millis();
+        if (now > lastRefill) {
+            availableTokens = Math.min(capacity, availableTokens + (now - lastRefill) * tokensPerMilli);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link RetryBudget}.
+     * <p>
+     * The {@code capacity} defaults to {@code 100} tokens, the {@code refillRate} to {@code 10} tokens per second and
+     * the {@link Clock} to the system UTC clock.
+     */
+    public static class Builder {
+
+        private int capacity = 100;
+        private double refillRate = 10;
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * Sets the maximum number of tokens in the budget, which is the number of retries that may be scheduled in a
+         * burst. Defaults to {@code 100}.
+         *
+         * @param capacity the maximum number of tokens in the budget
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder capacity(int capacity) {
+            assertThat(capacity, c -> c > 0, "The capacity should be a positive number");
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets the number of tokens added to the budget per second, which is the sustained number of retries per
+         * second. Defaults to {@code 10}.
+         *
+         * @param refillRate the number of tokens added to the budget per second
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder refillRate(double refillRate) {
+            assertThat(refillRate, r -> r > 0, "The refillRate should be a positive number");
+            this.refillRate = refillRate;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Clock} used to determine how many tokens to add to the budget. Defaults to the system UTC
+         * clock.
+         *
+         * @param clock the {@link Clock} used to determine how many tokens to add to the budget
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder clock(Clock clock) {
+            assertNonNull(clock, "Clock may not be null");
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link RetryBudget} as specified through this Builder.
+         *
+         * @return a {@link RetryBudget} as specified through this Builder
+         */
+        public RetryBudget build() {
+            return new RetryBudget(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            // Kept to be overridden
+        }
+    }
+}
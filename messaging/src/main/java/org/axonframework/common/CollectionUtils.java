@@ -125,4 +125,23 @@ public static <T, C extends Collection<T>> C intersect(Collection<? extends T> c
         }
         return result;
     }
+
+    /**
+     * Splits the given {@code collection} into consecutive lists containing at most {@code maxSize} elements each,
+     * in the iteration order of the collection. An empty collection results in an empty list.
+     *
+     * @param collection The collection to split
+     * @param maxSize    The maximum number of elements in each of the resulting lists
+     * @param <T>        The type of element contained in the collection
+     * @return a list of lists that together contain all elements of the given collection
+     */
+    public static <T> List<List<T>> partition(Collection<? extends T> collection, int maxSize) {
+        Assert.isTrue(maxSize > 0, () -> "The maximum size of a partition must be positive");
+        List<T> elements = new ArrayList<>(collection);
+        List<List<T>> partitions = new ArrayList<>();
+        for (int start = 0; start < elements.size(); start += maxSize) {
+            partitions.add(elements.subList(start, Math.min(start + maxSize, elements.size())));
+        }
+        return partitions;
+    }
 }
@@ -32,6 +32,8 @@
  * To provide your own implementation, create a file called {@code org.axonframework.common.IdentifierFactory} in
  * the {@code META-INF/services} package. The file must contain the fully qualified class name of the
  * implementation to use. This implementation must have a public no-arg constructor and extend IdentifierFactory.
+ * The {@link TimeOrderedIdentifierFactory} is a built-in alternative that generates identifiers which sort by their
+ * creation time, and can be selected by providing its class name in that file.
  * <p/>
  * This class is thread safe to use.
  *
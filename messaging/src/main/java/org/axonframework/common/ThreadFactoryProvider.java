@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Provides the {@link ThreadFactory} used by a component to create its threads. Allows the type of threads used by
+ * components to be configured in a single place, for example to use virtual threads on JVMs that support them.
+ *
+ * @author agent
+ * @since 4.1
+ */
+@FunctionalInterface
+public interface ThreadFactoryProvider {
+
+    /**
+     * Returns a provider creating platform threads, using an {@link AxonThreadFactory}.
+     *
+     * @return a provider creating platform threads
+     */
+    static ThreadFactoryProvider platformThreads() {
+        return AxonThreadFactory::new;
+    }
+
+    /**
+     * Returns a provider creating virtual threads when the JVM supports them, using a {@link VirtualThreadFactory}.
+     * Platform threads are created on JVMs that don't support virtual threads.
+     *
+     * @return a provider creating virtual threads when the JVM supports them
+     */
+    static ThreadFactoryProvider virtualThreads() {
+        return VirtualThreadFactory::new;
+    }
+
+    /**
+     * Creates the {@link ThreadFactory} for the component with given {@code name}. The name is used to name the
+     * threads created by the returned factory.
+     *
+     * @param name the name of the component to create a ThreadFactory for
+     * @return the ThreadFactory for the component with given {@code name}
+     */
+    ThreadFactory createThreadFactory(String name);
+}
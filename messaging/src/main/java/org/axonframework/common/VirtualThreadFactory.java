@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * ThreadFactory implementation that creates virtual threads on JVMs that support them (Java 21 and up). On JVMs that
+ * don't support virtual threads, threads are created by an {@link AxonThreadFactory} instead.
+ * <p>
+ * Virtual threads are cheap to create and block, which removes the need to size thread pools for components that
+ * spend most of their time waiting, such as Tracking Event Processors with many segments. Components relying on
+ * thread confinement, such as the {@link org.axonframework.messaging.unitofwork.CurrentUnitOfWork} and the lock
+ * ownership of the {@link org.axonframework.common.lock.PessimisticLockFactory}, work the same way on virtual threads,
+ * as each virtual thread has its own thread locals and identity.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class VirtualThreadFactory implements ThreadFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadFactory.class);
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method NAME = findMethod(builderType(), "name", String.class, long.class);
+    private static final Method FACTORY = findMethod(builderType(), "factory");
+
+    private final ThreadFactory delegate;
+
+    /**
+     * Initializes a ThreadFactory that creates virtual threads with names starting with given {@code name}. When
+     * virtual threads are not supported, threads are created in a group with given {@code name}.
+     *
+     * @param name The name used as prefix for the names of the threads created by this factory
+     */
+    public VirtualThreadFactory(String name) {
+        ThreadFactory virtualThreadFactory = createVirtualThreadFactory(name);
+        if (virtualThreadFactory == null) {
+            logger.info("Virtual threads are not supported by this JVM. Using platform threads for [{}].", name);
+            this.delegate = new AxonThreadFactory(name);
+        } else {
+            this.delegate = virtualThreadFactory;
+        }
+    }
+
+    /**
+     * Indicates whether the JVM supports virtual threads.
+     *
+     * @return {@code true} if this JVM supports virtual threads, otherwise {@code false}
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null && NAME != null && FACTORY != null;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String name) {
+        if (!isSupported()) {
+            return null;
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (Exception e) {
+            logger.warn("Failed to create a virtual thread factory. Using platform threads instead.", e);
+            return null;
+        }
+    }
+
+    private static Class<?> builderType() {
+        try {
+            return Class.forName("java.lang.Thread$Builder");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        return delegate.newThread(r);
+    }
+}
@@ -0,0 +1,556 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.Registration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntBiFunction;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * Bounded, in-process {@link Cache} implementation using a segmented LRU eviction policy. Unlike the {@link
+ * WeakReferenceCache}, entries are only removed when the configured size or weight limit is exceeded, or when an entry
+ * has been idle for longer than the configured time-to-idle.
+ * <p>
+ * Each stripe of the cache is guarded by its own lock and keeps two LRU lists. New entries are placed in a
+ * <em>probationary</em> segment. An entry that is read while in the probationary segment is promoted to the
+ * <em>protected</em> segment. When the protected segment exceeds its share of the capacity, its least recently used
+ * entries are demoted back to the probationary segment. Eviction always takes the least recently used probationary
+ * entry first. This keeps frequently used entries (such as hot aggregates) in the cache, even when large numbers of
+ * entries are read only once.
+ * <p>
+ * Evicted and idle entries are reported to the registered {@link EntryListener}s through {@link
+ * EntryListener#onEntryExpired(Object)}. Hit, miss and eviction counts are kept by the cache and can be exposed
+ * through the metrics module.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class SegmentedLruCache implements Cache {
+
+    private static final int MINIMUM_WEIGHT_PER_STRIPE = 16;
+
+    private final Stripe[] stripes;
+    private final ToIntBiFunction<Object, Object> weigher;
+    private final long timeToIdleMillis;
+    private final Clock clock;
+    private final Set<EntryListener> listeners = new CopyOnWriteArraySet<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Instantiate a {@link SegmentedLruCache} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the maximum weight is strictly positive. If not, an {@link AxonConfigurationException} will be
+     * thrown.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link SegmentedLruCache} instance
+     */
+    protected SegmentedLruCache(Builder builder) {
+        builder.validate();
+        this.weigher = builder.weigher;
+        this.timeToIdleMillis = builder.timeToIdle == null ? 0 : builder.timeToIdle.toMillis();
+        this.clock = builder.clock;
+        int stripeCount = stripeCount(builder.concurrencyLevel, builder.maximumWeight);
+        this.stripes = new Stripe[stripeCount];
+        long weightPerStripe = builder.maximumWeight / stripeCount;
+        long remainder = builder.maximumWeight % stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(weightPerStripe + (i < remainder ? 1 : 0), builder.protectedRatio);
+        }
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link SegmentedLruCache}.
+     * <p>
+     * The maximum weight defaults to {@code 10000}, with every entry weighing {@code 1}. The concurrency level
+     * defaults to {@code 16}, the protected ratio to {@code 0.8} and the {@link Clock} to the system UTC clock. By
+     * default, entries do not expire when idle.
+     *
+     * @return a Builder to be able to create a {@link SegmentedLruCache}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static int stripeCount(int concurrencyLevel, long maximumWeight) {
+        long maxStripes = Math.max(1, maximumWeight / MINIMUM_WEIGHT_PER_STRIPE);
+        int count = 1;
+        while (count < concurrencyLevel && count * 2L <= maxStripes) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        Stripe stripe = stripeFor(key);
+        long now = clock.millis();
+        Node node;
+        boolean expired = false;
+        stripe.lock.lock();
+        try {
+            node = stripe.find(key);
+            if (node != null && isIdle(node, now)) {
+                stripe.removeNode(node);
+                expired = true;
+            } else if (node != null) {
+                node.lastAccess = now;
+                stripe.recordAccess(node);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (expired) {
+            evictionCount.increment();
+            missCount.increment();
+            listeners.forEach(l -> l.onEntryExpired(key));
+            return null;
+        }
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        Object value = node.value;
+        listeners.forEach(l -> l.onEntryRead(key, value));
+        return (V) value;
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values not supported");
+        }
+        doPut(key, value, false);
+    }
+
+    @Override
+    public <K, V> boolean putIfAbsent(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values not supported");
+        }
+        return doPut(key, value, true);
+    }
+
+    private boolean doPut(Object key, Object value, boolean onlyIfAbsent) {
+        Stripe stripe = stripeFor(key);
+        long now = clock.millis();
+        int weight = weigher.applyAsInt(key, value);
+        List<Object> expiredKeys = Collections.emptyList();
+        boolean updated;
+        stripe.lock.lock();
+        try {
+            Node existing = stripe.find(key);
+            if (existing != null && isIdle(existing, now)) {
+                stripe.removeNode(existing);
+                expiredKeys = new ArrayList<>();
+                expiredKeys.add(key);
+                existing = null;
+            }
+            if (existing != null && onlyIfAbsent) {
+                return false;
+            }
+            updated = existing != null;
+            if (updated) {
+                stripe.replaceValue(existing, value, weight);
+                existing.lastAccess = now;
+                stripe.recordAccess(existing);
+            } else {
+                stripe.addNode(new Node(key, value, weight, now));
+            }
+            List<Object> evicted = stripe.evictOverflow();
+            if (!evicted.isEmpty()) {
+                if (expiredKeys.isEmpty()) {
+                    expiredKeys = evicted;
+                } else {
+                    expiredKeys.addAll(evicted);
+                }
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        for (Object expiredKey : expiredKeys) {
+            evictionCount.increment();
+            listeners.forEach(l -> l.onEntryExpired(expiredKey));
+        }
+        if (updated) {
+            listeners.forEach(l -> l.onEntryUpdated(key, value));
+        } else {
+            listeners.forEach(l -> l.onEntryCreated(key, value));
+        }
+        return true;
+    }
+
+    @Override
+    public <K> boolean remove(K key) {
+        Stripe stripe = stripeFor(key);
+        boolean removed;
+        stripe.lock.lock();
+        try {
+            Node node = stripe.find(key);
+            removed = node != null;
+            if (removed) {
+                stripe.removeNode(node);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (removed) {
+            listeners.forEach(l -> l.onEntryRemoved(key));
+        }
+        return removed;
+    }
+
+    @Override
+    public <K> boolean containsKey(K key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Node node = stripe.find(key);
+            return node != null && !isIdle(node, clock.millis());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public Registration registerCacheEntryListener(EntryListener cacheEntryListener) {
+        listeners.add(cacheEntryListener);
+        return () -> listeners.remove(cacheEntryListener);
+    }
+
+    /**
+     * Returns the number of entries currently held in this cache. Entries that have been idle for longer than the
+     * time-to-idle, but have not been accessed since, are included in this number.
+     *
+     * @return the number of entries in this cache
+     */
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.probation.size() + stripe.protectedSegment.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the total weight of the entries currently held in this cache.
+     *
+     * @return the total weight of the entries in this cache
+     */
+    public long weight() {
+        long weight = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                weight += stripe.weight;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the number of times a lookup found a value in this cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of times a lookup did not find a (non-idle) value in this cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of entries removed from this cache because the capacity was exceeded or because they had
+     * been idle for too long. Explicit removals are not counted.
+     *
+     * @return the number of evicted entries
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private boolean isIdle(Node node, long now) {
+        return timeToIdleMillis > 0 && now - node.lastAccess > timeToIdleMillis;
+    }
+
+    private Stripe stripeFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    private static final class Node {
+
+        private final Object key;
+        private Object value;
+        private int weight;
+        private long lastAccess;
+        private boolean isProtected;
+
+        private Node(Object key, Object value, int weight, long lastAccess) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        // both maps are kept in insertion order, where re-inserting an entry moves it to the most recently used end
+        private final LinkedHashMap<Object, Node> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<Object, Node> protectedSegment = new LinkedHashMap<>();
+        private final long maximumWeight;
+        private final long maximumProtectedWeight;
+        private long weight;
+        private long protectedWeight;
+
+        private Stripe(long maximumWeight, double protectedRatio) {
+            this.maximumWeight = maximumWeight;
+            this.maximumProtectedWeight = (long) (maximumWeight * protectedRatio);
+        }
+
+        private Node find(Object key) {
+            Node node = protectedSegment.get(key);
+            return node != null ? node : probation.get(key);
+        }
+
+        private void addNode(Node node) {
+            probation.put(node.key, node);
+            weight += node.weight;
+        }
+
+        private void replaceValue(Node node, Object value, int newWeight) {
+            weight += newWeight - node.weight;
+            if (node.isProtected) {
+                protectedWeight += newWeight - node.weight;
+            }
+            node.value = value;
+            node.weight = newWeight;
+        }
+
+        private void removeNode(Node node) {
+            if (node.isProtected) {
+                protectedSegment.remove(node.key);
+                protectedWeight -= node.weight;
+            } else {
+                probation.remove(node.key);
+            }
+            weight -= node.weight;
+        }
+
+        private void recordAccess(Node node) {
+            if (node.isProtected) {
+                protectedSegment.remove(node.key);
+                protectedSegment.put(node.key, node);
+                return;
+            }
+            probation.remove(node.key);
+            node.isProtected = true;
+            protectedSegment.put(node.key, node);
+            protectedWeight += node.weight;
+            Iterator<Node> eldest = protectedSegment.values().iterator();
+            while (protectedWeight > maximumProtectedWeight && protectedSegment.size() > 1) {
+                Node demoted = eldest.next();
+                eldest.remove();
+                demoted.isProtected = false;
+                protectedWeight -= demoted.weight;
+                probation.put(demoted.key, demoted);
+            }
+        }
+
+        private List<Object> evictOverflow() {
+            List<Object> evicted = Collections.emptyList();
+            while (weight > maximumWeight) {
+                Map<Object, Node> segment = probation.isEmpty() ? protectedSegment : probation;
+                Iterator<Node> eldest = segment.values().iterator();
+                if (!eldest.hasNext()) {
+                    break;
+                }
+                Node victim = eldest.next();
+                removeNode(victim);
+                if (evicted.isEmpty()) {
+                    evicted = new ArrayList<>();
+                }
+                evicted.add(victim.key);
+            }
+            return evicted;
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link SegmentedLruCache}.
+     * <p>
+     * The maximum weight defaults to {@code 10000}, with every entry weighing {@code 1}. The concurrency level
+     * defaults to {@code 16}, the protected ratio to {@code 0.8} and the {@link Clock} to the system UTC clock. By
+     * default, entries do not expire when idle.
+     */
+    public static class Builder {
+
+        private long maximumWeight = 10000;
+        private ToIntBiFunction<Object, Object> weigher = (key, value) -> 1;
+        private Duration timeToIdle;
+        private int concurrencyLevel = 16;
+        private double protectedRatio = 0.8;
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * Sets the maximum number of entries the cache may hold. This is an alias for {@link #maximumWeight(long)},
+         * meant to be used with the default weigher, which gives every entry a weight of {@code 1}. Defaults to
+         * {@code 10000}.
+         *
+         * @param maximumSize the maximum number of entries in the cache
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maximumSize(long maximumSize) {
+            return maximumWeight(maximumSize);
+        }
+
+        /**
+         * Sets the maximum total weight of the entries in the cache, as calculated by the {@link
+         * #weigher(ToIntBiFunction)}. Defaults to {@code 10000}.
+         *
+         * @param maximumWeight the maximum total weight of the entries in the cache
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maximumWeight(long maximumWeight) {
+            assertThat(maximumWeight, w -> w > 0, "The maximum weight should be a positive number");
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /**
+         * Sets the function calculating the weight of an entry, given its key and value. The weight of an entry is
+         * calculated once, when it is stored. Defaults to a function that gives each entry a weight of {@code 1}.
+         *
+         * @param weigher the function calculating the weight of an entry
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder weigher(ToIntBiFunction<Object, Object> weigher) {
+            assertNonNull(weigher, "Weigher may not be null");
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Sets the duration after which an entry that has not been read or written is considered expired. Defaults
+         * to {@code null}, meaning entries never expire because of inactivity.
+         *
+         * @param timeToIdle the maximum duration an entry may remain unused in the cache
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder timeToIdle(Duration timeToIdle) {
+            assertThat(timeToIdle, t -> t == null || !t.isNegative(), "The time to idle may not be negative");
+            this.timeToIdle = timeToIdle;
+            return this;
+        }
+
+        /**
+         * Sets the expected number of threads concurrently accessing the cache. The cache is split into a number of
+         * independently locked stripes based on this value. Defaults to {@code 16}.
+         *
+         * @param concurrencyLevel the expected number of threads concurrently accessing the cache
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder concurrencyLevel(int concurrencyLevel) {
+            assertThat(concurrencyLevel, c -> c > 0, "The concurrency level should be a positive number");
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of the capacity reserved for entries that have been read at least once since being
+         * stored. Defaults to {@code 0.8}.
+         *
+         * @param protectedRatio the fraction of the capacity reserved for frequently used entries
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder protectedRatio(double protectedRatio) {
+            assertThat(protectedRatio, r -> r >= 0 && r < 1,
+                       "The protected ratio should be equal to or larger than 0 and smaller than 1");
+            this.protectedRatio = protectedRatio;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Clock} used to determine whether entries have been idle for too long. Defaults to {@link
+         * Clock#systemUTC()}.
+         *
+         * @param clock the {@link Clock} used to measure idle time
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder clock(Clock clock) {
+            assertNonNull(clock, "Clock may not be null");
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link SegmentedLruCache} as specified through this Builder.
+         *
+         * @return a {@link SegmentedLruCache} as specified through this Builder
+         */
+        public SegmentedLruCache build() {
+            return new SegmentedLruCache(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            // Kept to be overridden
+        }
+    }
+}
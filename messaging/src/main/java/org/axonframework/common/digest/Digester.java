@@ -97,6 +97,17 @@ public String digestHex() {
         return hex(messageDigest.digest());
     }
 
+    /**
+     * Returns the raw bytes of the digest of all data that has been provided so far.
+     *
+     * @return the digest of all data that has been provided so far
+     *
+     * @see #update(byte[])
+     */
+    public byte[] digest() {
+        return messageDigest.digest();
+    }
+
     private static String hex(byte[] hash) {
         return pad(new BigInteger(1, hash).toString(16));
     }
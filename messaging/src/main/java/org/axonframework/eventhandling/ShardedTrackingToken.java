@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import org.axonframework.common.Assert;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.BinaryOperator;
+
+/**
+ * Tracking token that combines the positions in a number of independent event streams, such as the shards of a
+ * sharded event storage. Each shard is represented by its own token, which is {@code null} if no events have been
+ * tracked in that shard yet.
+ * <p>
+ * Tokens can only be compared to tokens with the same number of shards.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class ShardedTrackingToken implements TrackingToken, Serializable {
+
+    private static final long serialVersionUID = 2981642475397614328L;
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "@class")
+    private final TrackingToken[] shardTokens;
+
+    /**
+     * Initializes a {@link ShardedTrackingToken} with given {@code shardTokens}, one for each shard. A {@code null}
+     * token represents the start of the stream of a shard.
+     *
+     * @param shardTokens the tokens representing the position in each of the shards
+     */
+    @JsonCreator
+    public ShardedTrackingToken(@JsonProperty("shardTokens") TrackingToken... shardTokens) {
+        Assert.isTrue(shardTokens.length > 0, () -> "A ShardedTrackingToken requires at least one shard");
+        this.shardTokens = shardTokens.clone();
+    }
+
+    /**
+     * Returns the number of shards represented by this token.
+     *
+     * @return the number of shards represented by this token
+     */
+    public int shardCount() {
+        return shardTokens.length;
+    }
+
+    /**
+     * Returns the token representing the position in the shard with given {@code shard} index.
+     *
+     * @param shard the index of the shard
+     * @return the token representing the position in the shard, or {@code null} if no events have been tracked in
+     * that shard
+     */
+    public TrackingToken shardToken(int shard) {
+        return shardTokens[shard];
+    }
+
+    /**
+     * Returns the tokens representing the position in each of the shards.
+     *
+     * @return the tokens representing the position in each of the shards
+     */
+    public TrackingToken[] getShardTokens() {
+        return shardTokens.clone();
+    }
+
+    /**
+     * Returns a new token in which the position of the shard with given {@code shard} index is replaced by given
+     * {@code shardToken}. The positions in the other shards are unchanged.
+     *
+     * @param shard      the index of the shard that has advanced
+     * @param shardToken the token representing the new position in that shard
+     * @return a token representing the new position
+     */
+    public ShardedTrackingToken advancedTo(int shard, TrackingToken shardToken) {
+        TrackingToken[] advanced = shardTokens.clone();
+        advanced[shard] = shardToken;
+        return new ShardedTrackingToken(advanced);
+    }
+
+    @Override
+    public TrackingToken lowerBound(TrackingToken other) {
+        return combine(other, (token, otherToken) -> token == null || otherToken == null
+                ? null : token.lowerBound(otherToken));
+    }
+
+    @Override
+    public TrackingToken upperBound(TrackingToken other) {
+        return combine(other, (token, otherToken) -> token == null ? otherToken
+                : otherToken == null ? token : token.upperBound(otherToken));
+    }
+
+    @Override
+    public boolean covers(TrackingToken other) {
+        ShardedTrackingToken otherToken = compatible(other);
+        for (int i = 0; i < shardTokens.length; i++) {
+            TrackingToken otherShardToken = otherToken.shardTokens[i];
+            if (otherShardToken != null && (shardTokens[i] == null || !shardTokens[i].covers(otherShardToken))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ShardedTrackingToken combine(TrackingToken other, BinaryOperator<TrackingToken> operator) {
+        ShardedTrackingToken otherToken = compatible(other);
+        TrackingToken[] combined = new TrackingToken[shardTokens.length];
+        for (int i = 0; i < shardTokens.length; i++) {
+            combined[i] = operator.apply(shardTokens[i], otherToken.shardTokens[i]);
+        }
+        return new ShardedTrackingToken(combined);
+    }
+
+    private ShardedTrackingToken compatible(TrackingToken other) {
+        Assert.isTrue(other instanceof ShardedTrackingToken
+                              && ((ShardedTrackingToken) other).shardTokens.length == shardTokens.length,
+                      () -> "Incompatible token type provided.");
+        return (ShardedTrackingToken) other;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ShardedTrackingToken that = (ShardedTrackingToken) o;
+        return Arrays.equals(shardTokens, that.shardTokens);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(shardTokens);
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedTrackingToken{" + "shardTokens=" + Arrays.toString(shardTokens) + '}';
+    }
+}
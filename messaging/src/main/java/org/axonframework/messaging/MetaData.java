@@ -16,18 +16,21 @@
 
 package org.axonframework.messaging;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.*;
-import java.util.function.BiConsumer;
-import java.util.function.BinaryOperator;
-import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collector;
-import java.util.stream.Stream;
 
 /**
  * Represents MetaData that is passed along with a payload in a Message. Typically, the MetaData contains information
  * about the message payload that isn't "domain-specific". Examples are originating IP-address or executing User ID.
+ * <p>
+ * MetaData is backed by a persistent map. Instances derived through {@link #and(String, Object)}, {@link
+ * #mergedWith(Map)}, {@link #withoutKeys(Set)} and {@link #subset(String...)} share the unchanged part of their
+ * entries with the instance they were derived from, rather than copying all of them.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -35,13 +38,21 @@
 public class MetaData implements Map<String, Object>, Serializable {
 
     private static final long serialVersionUID = -7892913866303912970L;
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("values", Map.class)
+    };
     private static final MetaData EMPTY_META_DATA = new MetaData();
     private static final String UNSUPPORTED_MUTATION_MSG = "Metadata is immutable.";
 
-    private final Map<String, Object> values;
+    private transient PersistentHashMap entries;
+    private transient List<Entry<String, Object>> orderedEntries;
 
     private MetaData() {
-        values = Collections.emptyMap();
+        this(PersistentHashMap.empty());
+    }
+
+    private MetaData(PersistentHashMap entries) {
+        this.entries = entries;
     }
 
     /**
@@ -52,7 +63,7 @@ private MetaData() {
      * @param items the items to populate the MetaData with
      */
     public MetaData(Map<String, ?> items) {
-        values = Collections.unmodifiableMap(new HashMap<>(items));
+        this(items instanceof MetaData ? ((MetaData) items).entries : PersistentHashMap.from(items));
     }
 
     /**
@@ -104,9 +115,8 @@ public static MetaData with(String key, Object value) {
      * @return a MetaData instance with an additional entry
      */
     public MetaData and(String key, Object value) {
-        HashMap<String, Object> newValues = new HashMap<>(values);
-        newValues.put(key, value);
-        return new MetaData(newValues);
+        PersistentHashMap newEntries = entries.with(key, value);
+        return newEntries == entries ? this : new MetaData(newEntries);
     }
 
     /**
@@ -125,7 +135,8 @@ public MetaData andIfNotPresent(String key, Supplier<Object> value) {
 
     @Override
     public Object get(Object key) {
-        return values.get(key);
+        PersistentHashMap.Entry entry = entries.entry(key);
+        return entry == null ? null : entry.getValue();
     }
 
     /**
@@ -170,37 +181,146 @@ public void clear() {
 
     @Override
     public boolean containsKey(Object key) {
-        return values.containsKey(key);
+        return entries.entry(key) != null;
     }
 
     @Override
     public boolean containsValue(Object value) {
-        return values.containsValue(value);
+        for (Entry<String, Object> entry : entries) {
+            if (Objects.equals(value, entry.getValue())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public Set<String> keySet() {
-        return values.keySet();
+        return Collections.unmodifiableSet(new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                Iterator<Entry<String, Object>> iterator = orderedIterator();
+                return new Iterator<String>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public String next() {
+                        return iterator.next().getKey();
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        });
     }
 
     @Override
     public Collection<Object> values() {
-        return values.values();
+        return Collections.unmodifiableCollection(new AbstractCollection<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                Iterator<Entry<String, Object>> iterator = orderedIterator();
+                return new Iterator<Object>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Object next() {
+                        return iterator.next().getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        });
     }
 
     @Override
     public Set<Entry<String, Object>> entrySet() {
-        return values.entrySet();
+        return Collections.unmodifiableSet(new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return orderedIterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Entry)) {
+                    return false;
+                }
+                PersistentHashMap.Entry entry = entries.entry(((Entry<?, ?>) o).getKey());
+                return entry != null && entry.equals(o);
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        });
+    }
+
+    /**
+     * Returns an iterator over the entries of this MetaData in the order in which a {@link HashMap} containing them
+     * would iterate them. MetaData used to be backed by such a map, so this keeps the order in which serializers
+     * writing MetaData as a {@link Map} output its entries. The order is computed once per instance, and safely
+     * published through the final array field of the list returned by {@link Arrays#asList(Object[])}.
+     *
+     * @return an iterator over the entries of this MetaData in {@link HashMap} iteration order
+     */
+    private Iterator<Entry<String, Object>> orderedIterator() {
+        List<Entry<String, Object>> ordered = orderedEntries;
+        if (ordered == null) {
+            ordered = Arrays.asList(hashMapOrder(entries));
+            orderedEntries = ordered;
+        }
+        return ordered.iterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Entry<String, Object>[] hashMapOrder(PersistentHashMap entries) {
+        Entry<String, Object>[] ordered = new Entry[entries.size()];
+        int i = 0;
+        for (Entry<String, Object> entry : entries) {
+            ordered[i++] = entry;
+        }
+        if (ordered.length > 1) {
+            // the capacity a HashMap copied from a map of this size gets
+            int capacity = Integer.highestOneBit((int) (ordered.length / 0.75f + 1.0f) - 1) << 1;
+            // a stable sort on bucket index, as HashMap iterates its buckets in order
+            Arrays.sort(ordered, Comparator.comparingInt(entry -> bucketIndex(entry.getKey(), capacity)));
+        }
+        return ordered;
+    }
+
+    private static int bucketIndex(String key, int capacity) {
+        int h = key == null ? 0 : key.hashCode();
+        return (h ^ (h >>> 16)) & (capacity - 1);
     }
 
     @Override
     public int size() {
-        return values.size();
+        return entries.size();
     }
 
     @Override
     public boolean isEmpty() {
-        return values.isEmpty();
+        return entries.size() == 0;
     }
 
     @Override
@@ -212,14 +332,37 @@ public boolean equals(Object o) {
             return false;
         }
 
-        Map that = (Map) o;
-
-        return values.equals(that);
+        Map<?, ?> that = (Map<?, ?>) o;
+        if (that.size() != size()) {
+            return false;
+        }
+        if (that instanceof MetaData && ((MetaData) that).entries == entries) {
+            return true;
+        }
+        try {
+            for (Entry<String, Object> entry : entries) {
+                Object value = entry.getValue();
+                if (value == null) {
+                    if (that.get(entry.getKey()) != null || !that.containsKey(entry.getKey())) {
+                        return false;
+                    }
+                } else if (!value.equals(that.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+        } catch (ClassCastException | NullPointerException e) {
+            return false;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return values.hashCode();
+        int hashCode = 0;
+        for (Entry<String, Object> entry : entries) {
+            hashCode += entry.hashCode();
+        }
+        return hashCode;
     }
 
     /**
@@ -238,9 +381,11 @@ public MetaData mergedWith(Map<String, ?> additionalEntries) {
         if (isEmpty()) {
             return MetaData.from(additionalEntries);
         }
-        Map<String, Object> merged = new HashMap<>(values);
-        merged.putAll(additionalEntries);
-        return new MetaData(merged);
+        PersistentHashMap merged = entries;
+        for (Entry<String, ?> entry : additionalEntries.entrySet()) {
+            merged = merged.with(entry.getKey(), entry.getValue());
+        }
+        return merged == entries ? this : new MetaData(merged);
     }
 
     /**
@@ -255,9 +400,14 @@ public MetaData withoutKeys(Set<String> keys) {
         if (keys.isEmpty()) {
             return this;
         }
-        Map<String, ?> modified = new HashMap<>(values);
-        keys.forEach(modified::remove);
-        return new MetaData(modified);
+        PersistentHashMap modified = entries;
+        for (String key : keys) {
+            modified = modified.without(key);
+        }
+        if (modified == entries) {
+            return this;
+        }
+        return modified.size() == 0 ? MetaData.emptyInstance() : new MetaData(modified);
     }
 
     /**
@@ -268,7 +418,41 @@ public MetaData withoutKeys(Set<String> keys) {
      * @return a MetaData instance containing the given {@code keys} if these were already present
      */
     public MetaData subset(String... keys) {
-        return MetaData.from(Stream.of(keys).filter(this::containsKey).collect(new MetaDataCollector(this::get)));
+        PersistentHashMap subset = PersistentHashMap.empty();
+        for (String key : keys) {
+            PersistentHashMap.Entry entry = entries.entry(key);
+            if (entry != null) {
+                subset = subset.with(key, entry.getValue());
+            }
+        }
+        return subset.size() == 0 ? MetaData.emptyInstance() : new MetaData(subset);
+    }
+
+    /**
+     * Java Serialization specification method that writes the entries of this MetaData as an unmodifiable
+     * {@link HashMap}, which is the serialized form of MetaData regardless of its in-memory representation.
+     *
+     * @param out the stream to write this MetaData to
+     * @throws IOException when writing to the stream fails
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("values", isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(this)));
+        out.writeFields();
+    }
+
+    /**
+     * Java Serialization specification method that restores the entries of this MetaData from the map written by
+     * {@link #writeObject(ObjectOutputStream)}.
+     *
+     * @param in the stream to read this MetaData from
+     * @throws IOException            when reading from the stream fails
+     * @throws ClassNotFoundException when the class of a serialized value cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        Map<String, ?> values = (Map<String, ?>) in.readFields().get("values", null);
+        entries = values == null ? PersistentHashMap.empty() : PersistentHashMap.from(values);
     }
 
     /**
@@ -287,55 +471,13 @@ protected Object readResolve() {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        values.forEach((k, v) -> sb.append(", '")
-                                   .append(k)
-                                   .append("'->'")
-                                   .append(v)
-                                   .append('\''));
+        orderedIterator().forEachRemaining(e -> sb.append(", '")
+                                                  .append(e.getKey())
+                                                  .append("'->'")
+                                                  .append(e.getValue())
+                                                  .append('\''));
         int skipInitialListingAppendString = 2;
         // Only skip if the StringBuilder actual has a field, as otherwise we'll receive an IndexOutOfBoundsException
-        return values.isEmpty() ? sb.toString() : sb.substring(skipInitialListingAppendString);
-    }
-
-    /**
-     * Collector implementation that, unlike {@link java.util.stream.Collectors#toMap(Function, Function)} allows
-     * {@code null} values.
-     */
-    private static class MetaDataCollector implements Collector<String, Map<String, Object>, MetaData> {
-
-        private final Function<String, Object> valueProvider;
-
-        private MetaDataCollector(Function<String, Object> valueProvider) {
-            this.valueProvider = valueProvider;
-        }
-
-        @Override
-        public Supplier<Map<String, Object>> supplier() {
-            return HashMap::new;
-        }
-
-        @Override
-        public BiConsumer<Map<String, Object>, String> accumulator() {
-            return (map, key) -> map.put(key, valueProvider.apply(key));
-        }
-
-        @Override
-        public BinaryOperator<Map<String, Object>> combiner() {
-            return (m1, m2) -> {
-                Map<String, Object> result = new HashMap<>(m1);
-                result.putAll(m2);
-                return result;
-            };
-        }
-
-        @Override
-        public Function<Map<String, Object>, MetaData> finisher() {
-            return MetaData::from;
-        }
-
-        @Override
-        public Set<Characteristics> characteristics() {
-            return Collections.emptySet();
-        }
+        return isEmpty() ? sb.toString() : sb.substring(skipInitialListingAppendString);
     }
 }
@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.messaging;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable map of String keys to (possibly {@code null}) values, backing the {@link MetaData} implementation.
+ * Operations that add or remove entries return a new instance, which shares most of its structure with the instance
+ * it was derived from.
+ * <p>
+ * Maps with up to {@value #ARRAY_MAP_THRESHOLD} entries store their entries in a single array, which is cheaper to copy
+ * than a trie of that size is to traverse. Larger maps store their entries in a hash array mapped trie, of which
+ * modifications only copy the nodes on the path from the root to the modified entry.
+ *
+ * @author agent
+ * @since 4.1
+ */
+abstract class PersistentHashMap implements Iterable<Map.Entry<String, Object>> {
+
+    /**
+     * The maximum number of entries of a map that stores its entries in a single array.
+     */
+    static final int ARRAY_MAP_THRESHOLD = 8;
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+    private static final int MAX_TRIE_DEPTH = 8;
+
+    /**
+     * Returns the empty map.
+     *
+     * @return the empty map
+     */
+    static PersistentHashMap empty() {
+        return ArrayMap.EMPTY;
+    }
+
+    /**
+     * Returns a map containing the entries of the given {@code items}.
+     *
+     * @param items the entries of the map to create
+     * @return a map containing the entries of the given {@code items}
+     */
+    static PersistentHashMap from(Map<String, ?> items) {
+        PersistentHashMap result = empty();
+        for (Map.Entry<String, ?> item : items.entrySet()) {
+            result = result.with(item.getKey(), item.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the entry with given {@code key}, or {@code null} if this map contains no such entry.
+     *
+     * @param key the key of the entry to return
+     * @return the entry with given {@code key}, or {@code null} if no such entry exists
+     */
+    abstract Entry entry(Object key);
+
+    /**
+     * Returns a map containing the entries of this map, with the value of the given {@code key} set to given
+     * {@code value}. Returns this instance if it already maps given {@code key} to the same value instance.
+     *
+     * @param key   the key of the entry to add or replace
+     * @param value the value of the entry to add or replace
+     * @return a map containing the entries of this map and the given entry
+     */
+    abstract PersistentHashMap with(String key, Object value);
+
+    /**
+     * Returns a map containing the entries of this map, except the entry with given {@code key}. Returns this instance
+     * if it contains no entry with given {@code key}.
+     *
+     * @param key the key of the entry to remove
+     * @return a map containing the entries of this map, except the entry with given {@code key}
+     */
+    abstract PersistentHashMap without(Object key);
+
+    /**
+     * Returns the number of entries in this map.
+     *
+     * @return the number of entries in this map
+     */
+    abstract int size();
+
+    private static int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static Object[] insert(Object[] array, int index, Object element) {
+        Object[] copy = new Object[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        copy[index] = element;
+        System.arraycopy(array, index, copy, index + 1, array.length - index);
+        return copy;
+    }
+
+    private static Object[] replace(Object[] array, int index, Object element) {
+        Object[] copy = array.clone();
+        copy[index] = element;
+        return copy;
+    }
+
+    private static Object[] delete(Object[] array, int index) {
+        Object[] copy = new Object[array.length - 1];
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+        return copy;
+    }
+
+    /**
+     * Immutable entry of a {@link PersistentHashMap}, which is shared by all maps containing it.
+     */
+    static final class Entry implements Map.Entry<String, Object> {
+
+        private final int hash;
+        private final String key;
+        private final Object value;
+
+        private Entry(int hash, String key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        private boolean hasKey(int hash, Object key) {
+            return this.hash == hash && Objects.equals(this.key, key);
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException("Metadata is immutable.");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> that = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, that.getKey()) && Objects.equals(value, that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private static final class ArrayMap extends PersistentHashMap {
+
+        private static final ArrayMap EMPTY = new ArrayMap(new Object[0]);
+
+        private final Object[] entries;
+
+        private ArrayMap(Object[] entries) {
+            this.entries = entries;
+        }
+
+        private int indexOf(int hash, Object key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (((Entry) entries[i]).hasKey(hash, key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Entry entry(Object key) {
+            int index = indexOf(hash(key), key);
+            return index < 0 ? null : (Entry) entries[index];
+        }
+
+        @Override
+        PersistentHashMap with(String key, Object value) {
+            int hash = hash(key);
+            int index = indexOf(hash, key);
+            if (index >= 0) {
+                if (((Entry) entries[index]).value == value) {
+                    return this;
+                }
+                return new ArrayMap(replace(entries, index, new Entry(hash, key, value)));
+            }
+            if (entries.length < ARRAY_MAP_THRESHOLD) {
+                return new ArrayMap(insert(entries, entries.length, new Entry(hash, key, value)));
+            }
+            return TrieMap.of(entries).with(key, value);
+        }
+
+        @Override
+        PersistentHashMap without(Object key) {
+            int index = indexOf(hash(key), key);
+            if (index < 0) {
+                return this;
+            }
+            return entries.length == 1 ? EMPTY : new ArrayMap(delete(entries, index));
+        }
+
+        @Override
+        int size() {
+            return entries.length;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator(entries);
+        }
+    }
+
+    private static final class TrieMap extends PersistentHashMap {
+
+        private final BitmapNode root;
+        private final int size;
+
+        private TrieMap(BitmapNode root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        private static TrieMap of(Object[] entries) {
+            BitmapNode root = BitmapNode.EMPTY;
+            boolean[] added = new boolean[1];
+            for (Object entry : entries) {
+                root = (BitmapNode) root.put((Entry) entry, 0, added);
+            }
+            return new TrieMap(root, entries.length);
+        }
+
+        @Override
+        Entry entry(Object key) {
+            return root.find(hash(key), 0, key);
+        }
+
+        @Override
+        PersistentHashMap with(String key, Object value) {
+            boolean[] added = new boolean[1];
+            Node newRoot = root.put(new Entry(hash(key), key, value), 0, added);
+            if (newRoot == root) {
+                return this;
+            }
+            return new TrieMap((BitmapNode) newRoot, added[0] ? size + 1 : size);
+        }
+
+        @Override
+        PersistentHashMap without(Object key) {
+            Node newRoot = root.remove(hash(key), 0, key);
+            if (newRoot == root) {
+                return this;
+            }
+            int newSize = size - 1;
+            if (newSize <= ARRAY_MAP_THRESHOLD / 2) {
+                Object[] entries = new Object[newSize];
+                int i = 0;
+                for (Map.Entry<String, Object> entry : new TrieIterable(newRoot)) {
+                    entries[i++] = entry;
+                }
+                return newSize == 0 ? ArrayMap.EMPTY : new ArrayMap(entries);
+            }
+            return new TrieMap((BitmapNode) newRoot, newSize);
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new TrieIterator(root);
+        }
+    }
+
+    private abstract static class Node {
+
+        abstract Entry find(int hash, int shift, Object key);
+
+        abstract Node put(Entry entry, int shift, boolean[] added);
+
+        abstract Node remove(int hash, int shift, Object key);
+
+        abstract Object[] children();
+    }
+
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] children;
+
+        private BitmapNode(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private static Node merge(Entry first, Entry second, int shift) {
+            if (first.hash == second.hash) {
+                return new CollisionNode(first.hash, new Object[]{first, second});
+            }
+            boolean[] added = new boolean[1];
+            return EMPTY.put(first, shift, added).put(second, shift, added);
+        }
+
+        @Override
+        Entry find(int hash, int shift, Object key) {
+            int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object child = children[Integer.bitCount(bitmap & (bit - 1))];
+            if (child instanceof Entry) {
+                return ((Entry) child).hasKey(hash, key) ? (Entry) child : null;
+            }
+            return ((Node) child).find(hash, shift + BITS_PER_LEVEL, key);
+        }
+
+        @Override
+        Node put(Entry entry, int shift, boolean[] added) {
+            int bit = 1 << ((entry.hash >>> shift) & LEVEL_MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, insert(children, index, entry));
+            }
+            Object child = children[index];
+            if (child instanceof Entry) {
+                Entry existing = (Entry) child;
+                if (existing.hasKey(entry.hash, entry.key)) {
+                    return existing.value == entry.value
+                            ? this
+                            : new BitmapNode(bitmap, replace(children, index, entry));
+                }
+                added[0] = true;
+                return new BitmapNode(bitmap, replace(children, index,
+                                                      merge(existing, entry, shift + BITS_PER_LEVEL)));
+            }
+            Node newChild = ((Node) child).put(entry, shift + BITS_PER_LEVEL, added);
+            return newChild == child ? this : new BitmapNode(bitmap, replace(children, index, newChild));
+        }
+
+        @Override
+        Node remove(int hash, int shift, Object key) {
+            int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object child = children[index];
+            if (child instanceof Entry) {
+                if (!((Entry) child).hasKey(hash, key)) {
+                    return this;
+                }
+                return bitmap == bit ? null : new BitmapNode(bitmap ^ bit, delete(children, index));
+            }
+            Node newChild = ((Node) child).remove(hash, shift + BITS_PER_LEVEL, key);
+            if (newChild == child) {
+                return this;
+            } else if (newChild == null) {
+                return bitmap == bit ? null : new BitmapNode(bitmap ^ bit, delete(children, index));
+            }
+            return new BitmapNode(bitmap, replace(children, index, newChild));
+        }
+
+        @Override
+        Object[] children() {
+            return children;
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+        private final Object[] entries;
+
+        private CollisionNode(int hash, Object[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (((Entry) entries[i]).hasKey(hash, key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Entry find(int hash, int shift, Object key) {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            return index < 0 ? null : (Entry) entries[index];
+        }
+
+        @Override
+        Node put(Entry entry, int shift, boolean[] added) {
+            if (entry.hash != hash) {
+                int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+                return new BitmapNode(bit, new Object[]{this}).put(entry, shift, added);
+            }
+            int index = indexOf(entry.key);
+            if (index >= 0) {
+                return ((Entry) entries[index]).value == entry.value
+                        ? this
+                        : new CollisionNode(hash, replace(entries, index, entry));
+            }
+            added[0] = true;
+            return new CollisionNode(hash, insert(entries, entries.length, entry));
+        }
+
+        @Override
+        Node remove(int hash, int shift, Object key) {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            return entries.length == 1 ? null : new CollisionNode(hash, delete(entries, index));
+        }
+
+        @Override
+        Object[] children() {
+            return entries;
+        }
+    }
+
+    private static final class TrieIterable implements Iterable<Map.Entry<String, Object>> {
+
+        private final Node root;
+
+        private TrieIterable(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new TrieIterator(root);
+        }
+    }
+
+    private static final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private final Object[] entries;
+        private int index;
+
+        private EntryIterator(Object[] entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < entries.length;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (Entry) entries[index++];
+        }
+    }
+
+    private static final class TrieIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private final Object[][] arrays = new Object[MAX_TRIE_DEPTH][];
+        private final int[] indices = new int[MAX_TRIE_DEPTH];
+        private int depth;
+        private Entry next;
+
+        private TrieIterator(Node root) {
+            arrays[0] = root.children();
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] children = arrays[depth];
+                if (indices[depth] < children.length) {
+                    Object child = children[indices[depth]++];
+                    if (child instanceof Entry) {
+                        next = (Entry) child;
+                        return;
+                    }
+                    depth++;
+                    arrays[depth] = ((Node) child).children();
+                    indices[depth] = 0;
+                } else {
+                    depth--;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry result = next;
+            advance();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.queryhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.Registration;
+import org.axonframework.common.caching.Cache;
+import org.axonframework.messaging.GenericMessage;
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.axonframework.messaging.MessageHandler;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.messaging.responsetypes.AbstractResponseType;
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+
+/**
+ * Decorator of a {@link QueryBus} that caches the successful responses of point-to-point queries in a {@link Cache}.
+ * Responses are cached per combination of query name, query payload, response type and meta data, meaning the payload
+ * of cached queries should properly implement {@code equals} and {@code hashCode}. The meta data taken into account
+ * can be limited to a subset of keys through the {@link Builder}. Scatter-gather and subscription queries are passed
+ * to the delegate as is.
+ * <p>
+ * Dispatch interceptors registered with this bus are invoked before the cache is consulted, so the cache key reflects
+ * the intercepted query. Handler interceptors are registered with the delegate.
+ * <p>
+ * A cached response is evicted as soon as an update is emitted for its query through the {@link QueryUpdateEmitter}
+ * returned by {@link #queryUpdateEmitter()}, using the same filters as are used to emit updates to subscription
+ * queries. Each filter is tested against a {@link SubscriptionQueryMessage} carrying the payload, name, response type
+ * and meta data of the cached query. The returned emitter decorates the emitter provided to the {@link Builder}, which
+ * should be the emitter used by the delegate, and passes all calls on to it. The returned emitter should therefore
+ * replace that emitter wherever the application emits updates, as updates emitted directly through the decorated
+ * emitter do not evict cached responses. The Configurer's {@code configureQueryCache} method takes care of this. When
+ * an update is emitted within a {@link UnitOfWork}, the matching responses are evicted after it is committed, in line
+ * with the delivery of the update itself.
+ * <p>
+ * Note that a cached response is returned as is, including the meta data of the response to the query that caused it
+ * to be cached. Queries with a custom {@link ResponseType} implementation are never cached.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class CachingQueryBus implements QueryBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingQueryBus.class);
+
+    private final QueryBus delegate;
+    private final Cache cache;
+    private final String[] metaDataKeys;
+    private final QueryUpdateEmitter updateEmitter;
+    private final ConcurrentMap<QueryCacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final List<MessageDispatchInterceptor<? super QueryMessage<?, ?>>> dispatchInterceptors =
+            new CopyOnWriteArrayList<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    /**
+     * Instantiate a {@link CachingQueryBus} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the delegate {@link QueryBus}, {@link QueryUpdateEmitter} and {@link Cache} are not {@code
+     * null}, and will throw an {@link AxonConfigurationException} if any of them is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link CachingQueryBus} instance
+     */
+    protected CachingQueryBus(Builder builder) {
+        builder.validate();
+        this.delegate = builder.delegate;
+        this.cache = builder.cache;
+        this.metaDataKeys = builder.metaDataKeys;
+        this.updateEmitter = new InvalidatingQueryUpdateEmitter(builder.queryUpdateEmitter);
+        this.cache.registerCacheEntryListener(new Cache.EntryListenerAdapter() {
+            @Override
+            public void onEntryExpired(Object key) {
+                discard(key);
+            }
+
+            @Override
+            public void onEntryRemoved(Object key) {
+                discard(key);
+            }
+        });
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link CachingQueryBus}.
+     * <p>
+     * The cache key includes all meta data of a query by default. The delegate {@link QueryBus}, the {@link
+     * QueryUpdateEmitter} and the {@link Cache} are <b>hard requirements</b> and as such should be provided.
+     *
+     * @return a Builder to be able to create a {@link CachingQueryBus}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public <R> Registration subscribe(String queryName,
+                                      Type responseType,
+                                      MessageHandler<? super QueryMessage<?, R>> handler) {
+        return delegate.subscribe(queryName, responseType, handler);
+    }
+
+    @Override
+    public <Q, R> CompletableFuture<QueryResponseMessage<R>> query(QueryMessage<Q, R> query) {
+        QueryMessage<Q, R> interceptedQuery = intercept(query);
+        if (!(interceptedQuery.getResponseType() instanceof AbstractResponseType)) {
+            return delegate.query(interceptedQuery);
+        }
+        QueryCacheKey key = new QueryCacheKey(interceptedQuery, cacheKeyMetaData(interceptedQuery));
+        QueryResponseMessage<R> cachedResponse = cache.get(key);
+        if (cachedResponse != null) {
+            hitCount.increment();
+            return CompletableFuture.completedFuture(cachedResponse);
+        }
+        missCount.increment();
+
+        CacheEntry entry = new CacheEntry(key, interceptedQuery);
+        CacheEntry previous = entries.put(key, entry);
+        if (previous != null) {
+            previous.cancel();
+        }
+        return delegate.query(interceptedQuery).whenComplete((response, exception) -> {
+            if (exception == null && !response.isExceptional() && entry.isValid()) {
+                cache.put(key, response);
+                if (!entry.isValid()) {
+                    // invalidated while storing the response
+                    cache.remove(key);
+                }
+            } else {
+                entries.remove(key, entry);
+                entry.cancel();
+            }
+        });
+    }
+
+    @Override
+    public <Q, R> Stream<QueryResponseMessage<R>> scatterGather(QueryMessage<Q, R> query, long timeout, TimeUnit unit) {
+        return delegate.scatterGather(intercept(query), timeout, unit);
+    }
+
+    @Override
+    public <Q, I, U> SubscriptionQueryResult<QueryResponseMessage<I>, SubscriptionQueryUpdateMessage<U>> subscriptionQuery(
+            SubscriptionQueryMessage<Q, I, U> query,
+            SubscriptionQueryBackpressure backpressure,
+            int updateBufferSize) {
+        return delegate.subscriptionQuery(intercept(query), backpressure, updateBufferSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned emitter evicts the cached responses of the queries matching the filters of emitted updates and
+     * completions, and passes all calls on to the emitter provided to the {@link Builder}. Updates for cached queries
+     * should be emitted through this emitter.
+     */
+    @Override
+    public QueryUpdateEmitter queryUpdateEmitter() {
+        return updateEmitter;
+    }
+
+    @Override
+    public Registration registerHandlerInterceptor(MessageHandlerInterceptor<? super QueryMessage<?, ?>> interceptor) {
+        return delegate.registerHandlerInterceptor(interceptor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The interceptor is invoked by this bus before the cache is consulted, instead of being registered with the
+     * delegate.
+     */
+    @Override
+    public Registration registerDispatchInterceptor(
+            MessageDispatchInterceptor<? super QueryMessage<?, ?>> interceptor) {
+        dispatchInterceptors.add(interceptor);
+        return () -> dispatchInterceptors.remove(interceptor);
+    }
+
+    /**
+     * Returns the number of queries answered from the cache.
+     *
+     * @return the number of queries answered from the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of cacheable queries that were not answered from the cache and were passed to the delegate.
+     *
+     * @return the number of cacheable queries passed to the delegate
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of cached, or about to be cached, responses that were evicted because an update was emitted
+     * for their query.
+     *
+     * @return the number of responses evicted because of emitted updates
+     */
+    public long getInvalidationCount() {
+        return invalidationCount.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Q, R, T extends QueryMessage<Q, R>> T intercept(T query) {
+        T intercepted = query;
+        for (MessageDispatchInterceptor<? super QueryMessage<?, ?>> interceptor : dispatchInterceptors) {
+            intercepted = (T) interceptor.handle(intercepted);
+        }
+        return intercepted;
+    }
+
+    private MetaData cacheKeyMetaData(QueryMessage<?, ?> query) {
+        return metaDataKeys == null ? query.getMetaData() : query.getMetaData().subset(metaDataKeys);
+    }
+
+    private void discard(Object key) {
+        if (key instanceof QueryCacheKey) {
+            CacheEntry entry = entries.remove(key);
+            if (entry != null) {
+                entry.cancel();
+            }
+        }
+    }
+
+    private void invalidateMatching(Predicate<? super SubscriptionQueryMessage<?, ?, ?>> filter) {
+        entries.values().forEach(entry -> {
+            if (entry.matches(filter)) {
+                entry.invalidate();
+            }
+        });
+    }
+
+    private void invalidateMatchingAfterCommitOrNow(Predicate<? super SubscriptionQueryMessage<?, ?, ?>> filter) {
+        if (CurrentUnitOfWork.isStarted() && UnitOfWork.Phase.STARTED.equals(CurrentUnitOfWork.get().phase())) {
+            CurrentUnitOfWork.get().afterCommit(uow -> invalidateMatching(filter));
+        } else {
+            invalidateMatching(filter);
+        }
+    }
+
+    private static class QueryCacheKey {
+
+        private final String queryName;
+        private final Object payload;
+        private final Class<?> responseTypeClass;
+        private final Class<?> expectedResponseType;
+        private final MetaData metaData;
+
+        private QueryCacheKey(QueryMessage<?, ?> query, MetaData metaData) {
+            this.queryName = query.getQueryName();
+            this.payload = query.getPayload();
+            this.responseTypeClass = query.getResponseType().getClass();
+            this.expectedResponseType = query.getResponseType().getExpectedResponseType();
+            this.metaData = metaData;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            QueryCacheKey that = (QueryCacheKey) o;
+            return Objects.equals(queryName, that.queryName)
+                    && Objects.equals(payload, that.payload)
+                    && Objects.equals(responseTypeClass, that.responseTypeClass)
+                    && Objects.equals(expectedResponseType, that.expectedResponseType)
+                    && Objects.equals(metaData, that.metaData);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(queryName, payload, responseTypeClass, expectedResponseType, metaData);
+        }
+    }
+
+    private class CacheEntry {
+
+        private final QueryCacheKey key;
+        private final SubscriptionQueryMessage<?, ?, ?> invalidationQuery;
+        private volatile boolean valid = true;
+
+        private <Q, R> CacheEntry(QueryCacheKey key, QueryMessage<Q, R> query) {
+            this.key = key;
+            this.invalidationQuery = new GenericSubscriptionQueryMessage<>(
+                    new GenericMessage<>(query.getPayloadType(), query.getPayload(), query.getMetaData()),
+                    query.getQueryName(), query.getResponseType(), query.getResponseType()
+            );
+        }
+
+        private boolean isValid() {
+            return valid;
+        }
+
+        private boolean matches(Predicate<? super SubscriptionQueryMessage<?, ?, ?>> filter) {
+            try {
+                return filter.test(invalidationQuery);
+            } catch (RuntimeException e) {
+                logger.debug("Filter of an emitted update failed on cached query [{}]. Evicting its response.",
+                             invalidationQuery.getQueryName(), e);
+                return true;
+            }
+        }
+
+        private void invalidate() {
+            if (!valid) {
+                return;
+            }
+            valid = false;
+            if (entries.remove(key, this)) {
+                invalidationCount.increment();
+                cache.remove(key);
+            }
+        }
+
+        private void cancel() {
+            valid = false;
+        }
+    }
+
+    /**
+     * {@link QueryUpdateEmitter} evicting the cached responses of queries matching the filters of the updates and
+     * completions emitted through it, before passing them on to the decorated emitter.
+     */
+    private class InvalidatingQueryUpdateEmitter implements QueryUpdateEmitter {
+
+        private final QueryUpdateEmitter delegateEmitter;
+
+        private InvalidatingQueryUpdateEmitter(QueryUpdateEmitter delegateEmitter) {
+            this.delegateEmitter = delegateEmitter;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <U> void emit(Predicate<SubscriptionQueryMessage<?, ?, U>> filter,
+                             SubscriptionQueryUpdateMessage<U> update) {
+            invalidateMatchingAfterCommitOrNow(m -> filter.test((SubscriptionQueryMessage<?, ?, U>) m));
+            delegateEmitter.emit(filter, update);
+        }
+
+        @Override
+        public void complete(Predicate<SubscriptionQueryMessage<?, ?, ?>> filter) {
+            invalidateMatchingAfterCommitOrNow(filter);
+            delegateEmitter.complete(filter);
+        }
+
+        @Override
+        public void completeExceptionally(Predicate<SubscriptionQueryMessage<?, ?, ?>> filter, Throwable cause) {
+            invalidateMatchingAfterCommitOrNow(filter);
+            delegateEmitter.completeExceptionally(filter, cause);
+        }
+
+        @Override
+        public boolean queryUpdateHandlerRegistered(SubscriptionQueryMessage<?, ?, ?> query) {
+            return delegateEmitter.queryUpdateHandlerRegistered(query);
+        }
+
+        @Override
+        public <U> UpdateHandlerRegistration<U> registerUpdateHandler(SubscriptionQueryMessage<?, ?, ?> query,
+                                                                      SubscriptionQueryBackpressure backpressure,
+                                                                      int updateBufferSize) {
+            return delegateEmitter.registerUpdateHandler(query, backpressure, updateBufferSize);
+        }
+
+        @Override
+        public Registration registerDispatchInterceptor(
+                MessageDispatchInterceptor<? super SubscriptionQueryUpdateMessage<?>> interceptor) {
+            return delegateEmitter.registerDispatchInterceptor(interceptor);
+        }
+    }
+
+    /**
+     * Builder class to instantiate a {@link CachingQueryBus}.
+     * <p>
+     * The delegate {@link QueryBus}, the {@link QueryUpdateEmitter} and the {@link Cache} are <b>hard
+     * requirements</b> and as such should be provided.
+     */
+    public static class Builder {
+
+        private QueryBus delegate;
+        private QueryUpdateEmitter queryUpdateEmitter;
+        private Cache cache;
+        private String[] metaDataKeys;
+
+        /**
+         * Sets the {@link QueryBus} to which queries are passed when their response is not cached.
+         *
+         * @param delegate the {@link QueryBus} to which queries are passed when their response is not cached
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder delegate(QueryBus delegate) {
+            assertNonNull(delegate, "Delegate QueryBus may not be null");
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Sets the {@link QueryUpdateEmitter} through which the application emits updates, which should be the emitter
+         * used by the delegate {@link QueryBus}. The emitter returned by {@link CachingQueryBus#queryUpdateEmitter()}
+         * decorates this emitter, and should replace it wherever the application emits updates.
+         *
+         * @param queryUpdateEmitter the {@link QueryUpdateEmitter} decorated to evict cached responses
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder queryUpdateEmitter(QueryUpdateEmitter queryUpdateEmitter) {
+            assertNonNull(queryUpdateEmitter, "QueryUpdateEmitter may not be null");
+            this.queryUpdateEmitter = queryUpdateEmitter;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Cache} in which the responses to queries are stored.
+         *
+         * @param cache the {@link Cache} in which the responses to queries are stored
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder cache(Cache cache) {
+            assertNonNull(cache, "Cache may not be null");
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * Limits the {@link MetaData} of a query that is part of its cache key to the entries with the given {@code
+         * metaDataKeys}. Queries differing only in other meta data share their cached response. By default, all
+         * meta data of a query is part of its cache key, which prevents caching of queries carrying meta data unique
+         * to each dispatch, such as correlation data.
+         *
+         * @param metaDataKeys the keys of the {@link MetaData} entries that are part of the cache key of a query
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder metaDataKeys(String... metaDataKeys) {
+            assertNonNull(metaDataKeys, "MetaData keys may not be null");
+            this.metaDataKeys = metaDataKeys.clone();
+            return this;
+        }
+
+        /**
+         * Initializes a {@link CachingQueryBus} as specified through this Builder.
+         *
+         * @return a {@link CachingQueryBus} as specified through this Builder
+         */
+        public CachingQueryBus build() {
+            return new CachingQueryBus(this);
+        }
+
+        /**
+         * Validate whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(delegate, "The delegate QueryBus is a hard requirement and should be provided");
+            assertNonNull(queryUpdateEmitter,
+                          "The QueryUpdateEmitter is a hard requirement and should be provided");
+            assertNonNull(cache, "The Cache is a hard requirement and should be provided");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.queryhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+
+/**
+ * Default implementation of the {@link ReactorQueryGateway}, which dispatches queries through a {@link QueryGateway}.
+ * The {@link java.util.concurrent.CompletableFuture CompletableFutures} and {@link java.util.stream.Stream Streams}
+ * returned by the QueryGateway are adapted to a {@link Mono} and {@link Flux} respectively, so that no thread is
+ * blocked while waiting for query results. Any dispatch interceptors of the QueryGateway apply to queries sent
+ * through this gateway too.
+ * <p>
+ * Queries are dispatched on the thread subscribing to the result. Configure a {@link Scheduler} through {@link
+ * Builder#dispatchScheduler(Scheduler)} to dispatch them on that Scheduler instead, which prevents a synchronous Query
+ * Bus from invoking query handlers on the subscribing thread.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class DefaultReactorQueryGateway implements ReactorQueryGateway {
+
+    private final QueryGateway queryGateway;
+    private final Scheduler dispatchScheduler;
+
+    /**
+     * Instantiate a {@link DefaultReactorQueryGateway} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the {@link QueryGateway} is not {@code null}, and will throw an {@link
+     * AxonConfigurationException} if it is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link DefaultReactorQueryGateway} instance
+     */
+    protected DefaultReactorQueryGateway(Builder builder) {
+        builder.validate();
+        this.queryGateway = builder.queryGateway;
+        this.dispatchScheduler = builder.dispatchScheduler;
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link DefaultReactorQueryGateway}.
+     * <p>
+     * The dispatch {@link Scheduler} defaults to {@link Schedulers#immediate()}, dispatching on the subscribing thread.
+     * The {@link QueryGateway} is a <b>hard requirement</b> and as such should be provided.
+     *
+     * @return a Builder to be able to create a {@link DefaultReactorQueryGateway}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public <R, Q> Mono<R> query(String queryName, Q query, ResponseType<R> responseType) {
+        return Mono.defer(() -> Mono.fromFuture(queryGateway.query(queryName, query, responseType)))
+                   .subscribeOn(dispatchScheduler);
+    }
+
+    @Override
+    public <R, Q> Flux<R> queryMany(String queryName, Q query, Class<R> elementType) {
+        return query(queryName, query, ResponseTypes.multipleInstancesOf(elementType))
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    @Override
+    public <R, Q> Flux<R> scatterGather(String queryName, Q query, ResponseType<R> responseType, long timeout,
+                                        TimeUnit timeUnit) {
+        return Flux.defer(() -> Flux.fromStream(
+                queryGateway.scatterGather(queryName, query, responseType, timeout, timeUnit)
+        )).subscribeOn(dispatchScheduler);
+    }
+
+    /**
+     * Builder class to instantiate a {@link DefaultReactorQueryGateway}.
+     * <p>
+     * The dispatch {@link Scheduler} defaults to {@link Schedulers#immediate()}, dispatching on the subscribing thread.
+     * The {@link QueryGateway} is a <b>hard requirement</b> and as such should be provided.
+     */
+    public static class Builder {
+
+        private QueryGateway queryGateway;
+        private Scheduler dispatchScheduler = Schedulers.immediate();
+
+        /**
+         * Sets the {@link QueryGateway} used to dispatch queries.
+         *
+         * @param queryGateway the {@link QueryGateway} used to dispatch queries
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder queryGateway(QueryGateway queryGateway) {
+            assertNonNull(queryGateway, "QueryGateway may not be null");
+            this.queryGateway = queryGateway;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Scheduler} on which queries are dispatched. Defaults to {@link Schedulers#immediate()}, which
+         * dispatches queries on the thread subscribing to the result.
+         *
+         * @param dispatchScheduler the {@link Scheduler} on which queries are dispatched
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder dispatchScheduler(Scheduler dispatchScheduler) {
+            assertNonNull(dispatchScheduler, "Scheduler may not be null");
+            this.dispatchScheduler = dispatchScheduler;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link DefaultReactorQueryGateway} as specified through this Builder.
+         *
+         * @return a {@link DefaultReactorQueryGateway} as specified through this Builder
+         */
+        public DefaultReactorQueryGateway build() {
+            return new DefaultReactorQueryGateway(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(queryGateway, "The QueryGateway is a hard requirement and should be provided");
+        }
+    }
+}
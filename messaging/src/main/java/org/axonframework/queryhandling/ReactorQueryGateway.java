@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.queryhandling;
+
+import org.axonframework.messaging.responsetypes.ResponseType;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Variant of the {@link QueryGateway} that exposes the results of queries as Project Reactor types. Queries are
+ * dispatched when the returned {@link Mono} or {@link Flux} is subscribed to, and each subscription dispatches the
+ * query again. Waiting for the result of a query doesn't block any thread. The dispatch itself happens on the
+ * subscribing thread, unless the implementation is configured otherwise. With a synchronous Query Bus, such as the
+ * {@link SimpleQueryBus}, that means the query handlers are invoked on the subscribing thread too.
+ * <p>
+ * Note that Project Reactor is an optional dependency, which must be on the classpath to use this gateway.
+ *
+ * @author agent
+ * @see DefaultReactorQueryGateway
+ * @since 4.1
+ */
+public interface ReactorQueryGateway {
+
+    /**
+     * Sends given {@code query} over the {@link QueryBus}, expecting a response with the given {@code responseType}
+     * from a single source. The query name will be derived from the provided {@code query}.
+     *
+     * @param query        The {@code query} to be sent
+     * @param responseType A {@link java.lang.Class} describing the desired response type
+     * @param <R>          The response class contained in the given {@code responseType}
+     * @param <Q>          The query class
+     * @return A {@link Mono} dispatching the query when subscribed to, completing with the query result
+     */
+    default <R, Q> Mono<R> query(Q query, Class<R> responseType) {
+        return query(query.getClass().getName(), query, ResponseTypes.instanceOf(responseType));
+    }
+
+    /**
+     * Sends given {@code query} over the {@link QueryBus}, expecting a response in the form of {@code responseType}
+     * from a single source.
+     *
+     * @param queryName    A {@link java.lang.String} describing the query to be executed
+     * @param query        The {@code query} to be sent
+     * @param responseType The {@link ResponseType} used for this query
+     * @param <R>          The response class contained in the given {@code responseType}
+     * @param <Q>          The query class
+     * @return A {@link Mono} dispatching the query when subscribed to, completing with the query result
+     */
+    <R, Q> Mono<R> query(String queryName, Q query, ResponseType<R> responseType);
+
+    /**
+     * Sends given {@code query} over the {@link QueryBus}, expecting a list of {@code elementType} instances from a
+     * single source. The query name will be derived from the provided {@code query}. See {@link #queryMany(String,
+     * Object, Class)}.
+     *
+     * @param query       The {@code query} to be sent
+     * @param elementType A {@link java.lang.Class} describing the type of the elements in the result
+     * @param <R>         The type of the elements in the result
+     * @param <Q>         The query class
+     * @return A {@link Flux} dispatching the query when subscribed to, emitting the elements of the query result
+     */
+    default <R, Q> Flux<R> queryMany(Q query, Class<R> elementType) {
+        return queryMany(query.getClass().getName(), query, elementType);
+    }
+
+    /**
+     * Sends given {@code query} over the {@link QueryBus}, expecting a list of {@code elementType} instances from a
+     * single source. The elements of the result are emitted individually, as they are requested by the subscriber.
+     *
+     * @param queryName   A {@link java.lang.String} describing the query to be executed
+     * @param query       The {@code query} to be sent
+     * @param elementType A {@link java.lang.Class} describing the type of the elements in the result
+     * @param <R>         The type of the elements in the result
+     * @param <Q>         The query class
+     * @return A {@link Flux} dispatching the query when subscribed to, emitting the elements of the query result
+     */
+    <R, Q> Flux<R> queryMany(String queryName, Q query, Class<R> elementType);
+
+    /**
+     * Sends given {@code query} over the {@link QueryBus}, expecting a response in the form of {@code responseType}
+     * from several sources. The query name will be derived from the provided {@code query}. See {@link
+     * #scatterGather(String, Object, ResponseType, long, TimeUnit)}.
+     *
+     * @param query        The {@code query} to be sent
+     * @param responseType The {@link ResponseType} used for this query
+     * @param timeout      A timeout of {@code long} for the query
+     * @param timeUnit     The selected {@link java.util.concurrent.TimeUnit} for the given {@code timeout}
+     * @param <R>          The response class contained in the given {@code responseType}
+     * @param <Q>          The query class
+     * @return A {@link Flux} dispatching the query when subscribed to, emitting the result of each source
+     */
+    default <R, Q> Flux<R> scatterGather(Q query, ResponseType<R> responseType, long timeout, TimeUnit timeUnit) {
+        return scatterGather(query.getClass().getName(), query, responseType, timeout, timeUnit);
+    }
+
+    /**
+     * Sends given {@code query} over the {@link QueryBus}, expecting a response in the form of {@code responseType}
+     * from several sources. Results are pulled from the underlying stream as they are requested by the subscriber, so
+     * that a QueryBus producing results lazily doesn't invoke handlers far ahead of demand. The Flux completes when a
+     * {@code timeout} occurs or when all results are received.
+     *
+     * @param queryName    A {@link java.lang.String} describing the query to be executed
+     * @param query        The {@code query} to be sent
+     * @param responseType The {@link ResponseType} used for this query
+     * @param timeout      A timeout of {@code long} for the query
+     * @param timeUnit     The selected {@link java.util.concurrent.TimeUnit} for the given {@code timeout}
+     * @param <R>          The response class contained in the given {@code responseType}
+     * @param <Q>          The query class
+     * @return A {@link Flux} dispatching the query when subscribed to, emitting the result of each source
+     */
+    <R, Q> Flux<R> scatterGather(String queryName, Q query, ResponseType<R> responseType, long timeout,
+                                 TimeUnit timeUnit);
+}
@@ -25,6 +25,7 @@
 import org.axonframework.messaging.MessageHandlerInterceptor;
 import org.axonframework.messaging.ResultMessage;
 import org.axonframework.messaging.interceptors.TransactionManagingInterceptor;
+import org.axonframework.messaging.responsetypes.AbstractResponseType;
 import org.axonframework.messaging.responsetypes.ResponseType;
 import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
@@ -34,22 +35,34 @@
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.lang.String.format;
 import static org.axonframework.common.BuilderUtils.assertNonNull;
@@ -61,6 +74,15 @@
  * <p>
  * In case multiple handlers are registered for the same query and response type, the {@link #query(QueryMessage)}
  * method will invoke one of these handlers. Which one is unspecified.
+ * <p>
+ * The handlers matching a query name and one of the framework's {@link ResponseType} implementations are resolved once
+ * and cached until a handler is subscribed or unsubscribed.
+ * <p>
+ * By default, the handlers of a {@link #scatterGather(QueryMessage, long, TimeUnit) scatter-gather} query are invoked
+ * one after another on the thread consuming the resulting stream. When a {@link Builder#scatterGatherExecutor(Executor)
+ * scatter-gather Executor} is configured, all handlers are invoked in parallel on that Executor instead and the
+ * responses are streamed in the order in which they complete. Handlers that have not responded when the timeout of the
+ * query expires are cancelled.
  *
  * @author Marc Gathier
  * @author Allard Buijze
@@ -79,6 +101,10 @@ public class SimpleQueryBus implements QueryBus {
     private final List<MessageDispatchInterceptor<? super QueryMessage<?, ?>>> dispatchInterceptors = new CopyOnWriteArrayList<>();
 
     private final QueryUpdateEmitter queryUpdateEmitter;
+    private final Executor scatterGatherExecutor;
+
+    private final ConcurrentMap<ResolvedHandlersKey, ResolvedHandlers> resolvedHandlers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriptionsVersion = new AtomicLong();
 
     /**
      * Instantiate a {@link SimpleQueryBus} based on the fields contained in the {@link Builder}.
@@ -93,6 +119,7 @@ protected SimpleQueryBus(Builder builder) {
             registerHandlerInterceptor(new TransactionManagingInterceptor<>(builder.transactionManager));
         }
         this.queryUpdateEmitter = builder.queryUpdateEmitter;
+        this.scatterGatherExecutor = builder.scatterGatherExecutor;
     }
 
     /**
@@ -100,7 +127,8 @@ protected SimpleQueryBus(Builder builder) {
      * <p>
      * The {@link MessageMonitor} is defaulted to {@link NoOpMessageMonitor}, {@link TransactionManager} to {@link
      * NoTransactionManager}, {@link QueryInvocationErrorHandler} to {@link LoggingQueryInvocationErrorHandler}, and
-     * {@link QueryUpdateEmitter} to {@link SimpleQueryUpdateEmitter}.
+     * {@link QueryUpdateEmitter} to {@link SimpleQueryUpdateEmitter}. No scatter-gather {@link Executor} is configured by
+     * default, causing the handlers of a scatter-gather query to be invoked sequentially.
      *
      * @return a Builder to be able to create a {@link SimpleQueryBus}
      */
@@ -116,6 +144,7 @@ public <R> Registration subscribe(String queryName,
                 subscriptions.computeIfAbsent(queryName, k -> new CopyOnWriteArrayList<>());
         QuerySubscription<R> querySubscription = new QuerySubscription<>(responseType, handler);
         handlers.addIfAbsent(querySubscription);
+        invalidateResolvedHandlers();
 
         return () -> unsubscribe(queryName, querySubscription);
     }
@@ -129,9 +158,15 @@ private boolean unsubscribe(String queryName,
             }
             return handlers;
         });
+        invalidateResolvedHandlers();
         return true;
     }
 
+    private void invalidateResolvedHandlers() {
+        subscriptionsVersion.incrementAndGet();
+        resolvedHandlers.clear();
+    }
+
     @Override
     public <Q, R> CompletableFuture<QueryResponseMessage<R>> query(QueryMessage<Q, R> query) {
         MessageMonitor.MonitorCallback monitorCallback = messageMonitor.onMessageIngested(query);
@@ -191,6 +226,9 @@ public <Q, R> Stream<QueryResponseMessage<R>> scatterGather(QueryMessage<Q, R> q
         }
 
         long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        if (scatterGatherExecutor != null) {
+            return parallelScatterGather(interceptedQuery, handlers, deadline, monitorCallback);
+        }
         return handlers.stream()
                        .map(handler -> {
                            long leftTimeout = getRemainingOfDeadline(deadline);
@@ -214,6 +252,85 @@ public <Q, R> Stream<QueryResponseMessage<R>> scatterGather(QueryMessage<Q, R> q
                        }).filter(Objects::nonNull);
     }
 
+    private <Q, R> Stream<QueryResponseMessage<R>> parallelScatterGather(
+            QueryMessage<Q, R> query,
+            List<MessageHandler<? super QueryMessage<?, ?>>> handlers,
+            long deadline,
+            MessageMonitor.MonitorCallback monitorCallback) {
+        BlockingQueue<Optional<QueryResponseMessage<R>>> completedResponses = new LinkedBlockingQueue<>();
+        List<CompletableFuture<QueryResponseMessage<R>>> responses = new ArrayList<>(handlers.size());
+        List<FutureTask<Void>> invocations = new ArrayList<>(handlers.size());
+        for (MessageHandler<? super QueryMessage<?, ?>> handler : handlers) {
+            CompletableFuture<QueryResponseMessage<R>> response = new CompletableFuture<>();
+            response.whenComplete((responseMessage, exception) -> {
+                if (exception == null) {
+                    monitorCallback.reportSuccess();
+                } else {
+                    monitorCallback.reportFailure(exception);
+                    errorHandler.onError(exception, query, handler);
+                }
+                completedResponses.add(Optional.ofNullable(responseMessage));
+            });
+            FutureTask<Void> invocation = new FutureTask<>(() -> {
+                ResultMessage<CompletableFuture<QueryResponseMessage<R>>> resultMessage =
+                        interceptAndInvoke(DefaultUnitOfWork.startAndGet(query), handler);
+                if (resultMessage.isExceptional()) {
+                    response.completeExceptionally(resultMessage.exceptionResult());
+                } else {
+                    resultMessage.getPayload().whenComplete((responseMessage, exception) -> {
+                        if (exception == null) {
+                            response.complete(responseMessage);
+                        } else {
+                            response.completeExceptionally(exception);
+                        }
+                    });
+                }
+            }, null);
+            responses.add(response);
+            invocations.add(invocation);
+            scatterGatherExecutor.execute(invocation);
+        }
+        Runnable cancelPendingInvocations = () -> {
+            for (int i = 0; i < responses.size(); i++) {
+                if (responses.get(i).completeExceptionally(new TimeoutException(
+                        format("Handler did not respond to [%s] within the timeout", query.getQueryName())))) {
+                    invocations.get(i).cancel(true);
+                }
+            }
+        };
+        Spliterator<QueryResponseMessage<R>> completionOrder =
+                new Spliterators.AbstractSpliterator<QueryResponseMessage<R>>(handlers.size(),
+                                                                              Spliterator.NONNULL) {
+                    private int remaining = handlers.size();
+
+                    @Override
+                    public boolean tryAdvance(Consumer<? super QueryResponseMessage<R>> action) {
+                        while (remaining > 0) {
+                            Optional<QueryResponseMessage<R>> next;
+                            try {
+                                next = completedResponses.poll(getRemainingOfDeadline(deadline),
+                                                               TimeUnit.MILLISECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                next = null;
+                            }
+                            if (next == null) {
+                                remaining = 0;
+                                cancelPendingInvocations.run();
+                                return false;
+                            }
+                            remaining--;
+                            if (next.isPresent()) {
+                                action.accept(next.get());
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+                };
+        return StreamSupport.stream(completionOrder, false).onClose(cancelPendingInvocations);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <Q, I, U> SubscriptionQueryResult<QueryResponseMessage<I>, SubscriptionQueryUpdateMessage<U>> subscriptionQuery(
@@ -334,16 +451,79 @@ public Registration registerDispatchInterceptor(
         return () -> dispatchInterceptors.remove(interceptor);
     }
 
-    @SuppressWarnings("unchecked") // Suppresses 'queryHandler' cast to `MessageHandler<? super QueryMessage<?, ?>>`
     private <Q, R> List<MessageHandler<? super QueryMessage<?, ?>>> getHandlersForMessage(
             QueryMessage<Q, R> queryMessage) {
         ResponseType<R> responseType = queryMessage.getResponseType();
-        return subscriptions.computeIfAbsent(queryMessage.getQueryName(), k -> new CopyOnWriteArrayList<>())
-                            .stream()
-                            .filter(querySubscription -> responseType.matches(querySubscription.getResponseType()))
-                            .map((Function<QuerySubscription, MessageHandler>) QuerySubscription::getQueryHandler)
-                            .map(queryHandler -> (MessageHandler<? super QueryMessage<?, ?>>) queryHandler)
-                            .collect(Collectors.toList());
+        if (!(responseType instanceof AbstractResponseType)) {
+            // the outcome of matching may depend on state of custom response types, so they are never cached
+            return resolveHandlers(queryMessage.getQueryName(), responseType);
+        }
+        ResolvedHandlersKey key = new ResolvedHandlersKey(queryMessage.getQueryName(), responseType);
+        long version = subscriptionsVersion.get();
+        ResolvedHandlers cached = resolvedHandlers.get(key);
+        if (cached != null && cached.version == version) {
+            return cached.handlers;
+        }
+        List<MessageHandler<? super QueryMessage<?, ?>>> handlers =
+                resolveHandlers(queryMessage.getQueryName(), responseType);
+        resolvedHandlers.put(key, new ResolvedHandlers(version, handlers));
+        return handlers;
+    }
+
+    @SuppressWarnings("unchecked") // Suppresses 'queryHandler' cast to `MessageHandler<? super QueryMessage<?, ?>>`
+    private <R> List<MessageHandler<? super QueryMessage<?, ?>>> resolveHandlers(String queryName,
+                                                                                 ResponseType<R> responseType) {
+        return Collections.unmodifiableList(
+                subscriptions.getOrDefault(queryName, new CopyOnWriteArrayList<>())
+                             .stream()
+                             .filter(querySubscription -> responseType.matches(querySubscription.getResponseType()))
+                             .map((Function<QuerySubscription, MessageHandler>) QuerySubscription::getQueryHandler)
+                             .map(queryHandler -> (MessageHandler<? super QueryMessage<?, ?>>) queryHandler)
+                             .collect(Collectors.toList())
+        );
+    }
+
+    private static class ResolvedHandlersKey {
+
+        private final String queryName;
+        private final Class<?> responseTypeClass;
+        private final Class<?> expectedResponseType;
+
+        private ResolvedHandlersKey(String queryName, ResponseType<?> responseType) {
+            this.queryName = queryName;
+            this.responseTypeClass = responseType.getClass();
+            this.expectedResponseType = responseType.getExpectedResponseType();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ResolvedHandlersKey that = (ResolvedHandlersKey) o;
+            return Objects.equals(queryName, that.queryName)
+                    && Objects.equals(responseTypeClass, that.responseTypeClass)
+                    && Objects.equals(expectedResponseType, that.expectedResponseType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(queryName, responseTypeClass, expectedResponseType);
+        }
+    }
+
+    private static class ResolvedHandlers {
+
+        private final long version;
+        private final List<MessageHandler<? super QueryMessage<?, ?>>> handlers;
+
+        private ResolvedHandlers(long version, List<MessageHandler<? super QueryMessage<?, ?>>> handlers) {
+            this.version = version;
+            this.handlers = handlers;
+        }
     }
 
     /**
@@ -351,7 +531,8 @@ public Registration registerDispatchInterceptor(
      * <p>
      * The {@link MessageMonitor} is defaulted to {@link NoOpMessageMonitor}, {@link TransactionManager} to {@link
      * NoTransactionManager}, {@link QueryInvocationErrorHandler} to {@link LoggingQueryInvocationErrorHandler}, and
-     * {@link QueryUpdateEmitter} to {@link SimpleQueryUpdateEmitter}.
+     * {@link QueryUpdateEmitter} to {@link SimpleQueryUpdateEmitter}. No scatter-gather {@link Executor} is configured by
+     * default, causing the handlers of a scatter-gather query to be invoked sequentially.
      */
     public static class Builder {
 
@@ -361,6 +542,7 @@ public static class Builder {
                                                                                              .logger(logger)
                                                                                              .build();
         private QueryUpdateEmitter queryUpdateEmitter = SimpleQueryUpdateEmitter.builder().build();
+        private Executor scatterGatherExecutor;
 
         /**
          * Sets the {@link MessageMonitor} used to monitor query messages. Defaults to a {@link NoOpMessageMonitor}.
@@ -415,6 +597,22 @@ public Builder queryUpdateEmitter(QueryUpdateEmitter queryUpdateEmitter) {
             return this;
         }
 
+        /**
+         * Sets the {@link Executor} used to invoke the handlers of a scatter-gather query in parallel. The responses of
+         * the handlers are streamed in the order in which they complete, until all handlers have responded or the
+         * timeout of the query expires. When no Executor is set, the handlers are invoked one after another on the
+         * thread consuming the stream of responses.
+         *
+         * @param scatterGatherExecutor the {@link Executor} used to invoke the handlers of a scatter-gather query in
+         *                              parallel
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder scatterGatherExecutor(Executor scatterGatherExecutor) {
+            assertNonNull(scatterGatherExecutor, "Scatter-gather Executor may not be null");
+            this.scatterGatherExecutor = scatterGatherExecutor;
+            return this;
+        }
+
         /**
          * Initializes a {@link SimpleQueryBus} as specified through this Builder.
          *
@@ -49,7 +49,7 @@ public abstract class AbstractXStreamSerializer implements Serializer {
 
     private final XStream xStream;
     private final Charset charset;
-    private final RevisionResolver revisionResolver;
+    private final TypeResolutionCache typeResolutionCache;
     private final Converter converter;
 
     /**
@@ -62,7 +62,7 @@ protected AbstractXStreamSerializer(Builder builder) {
         this.charset = builder.charset;
         this.xStream = builder.xStream;
         this.converter = builder.converter;
-        this.revisionResolver = builder.revisionResolver;
+        this.typeResolutionCache = new TypeResolutionCache(builder.revisionResolver);
 
         if (converter instanceof ChainingConverter) {
             registerConverters((ChainingConverter) converter);
@@ -135,7 +135,7 @@ protected <S, T> T convert(S source, Class<S> sourceType, Class<T> targetType) {
     }
 
     private String revisionOf(Class<?> type) {
-        return revisionResolver.revisionOf(type);
+        return typeResolutionCache.revisionOf(type);
     }
 
     @SuppressWarnings("unchecked")
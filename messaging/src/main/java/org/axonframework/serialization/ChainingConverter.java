@@ -20,7 +20,11 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -30,6 +34,9 @@
  * This implementation will also autodetect ContentTypeConverter implementations by scanning
  * {@code /META-INF/services/org.axonframework.serialization.ContentTypeConverter} files on the classpath. These
  * files must contain the fully qualified class names of the implementations to use.
+ * <p/>
+ * The converter (or chain of converters) used for each combination of source and target type is resolved once and
+ * cached. The cache is cleared whenever a converter is registered.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -38,6 +45,7 @@ public class ChainingConverter implements Converter {
 
     private static final Logger logger = LoggerFactory.getLogger(ChainingConverter.class);
     private final List<ContentTypeConverter<?, ?>> converters = new CopyOnWriteArrayList<>();
+    private volatile ConcurrentMap<ConversionKey, Optional<ContentTypeConverter>> routes = new ConcurrentHashMap<>();
 
     /**
      * Initialize a new ChainingConverter with the context ClassLoader for this thread. Will autodetect all converters
@@ -70,15 +78,7 @@ public ChainingConverter(ClassLoader classLoader) {
 
     @Override
     public boolean canConvert(Class<?> sourceType, Class<?> targetType) {
-        if (sourceType.equals(targetType)) {
-            return true;
-        }
-        for (ContentTypeConverter converter : converters) {
-            if (canConvert(converter, sourceType, targetType)) {
-                return true;
-            }
-        }
-        return ChainedConverter.canConvert(sourceType, targetType, converters);
+        return sourceType.equals(targetType) || route(sourceType, targetType).isPresent();
     }
 
     @Override
@@ -87,14 +87,38 @@ public <T> T convert(Object original, Class<?> sourceType, Class<T> targetType)
         if (sourceType.equals(targetType)) {
             return (T) original;
         }
+        Optional<ContentTypeConverter> route = route(sourceType, targetType);
+        if (!route.isPresent()) {
+            // throws an exception describing the missing conversion
+            ChainedConverter.calculateChain(sourceType, targetType, converters);
+        }
+        return (T) route.get().convert(original);
+    }
+
+    private Optional<ContentTypeConverter> route(Class<?> sourceType, Class<?> targetType) {
+        ConcurrentMap<ConversionKey, Optional<ContentTypeConverter>> currentRoutes = routes;
+        ConversionKey key = new ConversionKey(sourceType, targetType);
+        Optional<ContentTypeConverter> route = currentRoutes.get(key);
+        if (route == null) {
+            route = resolveRoute(sourceType, targetType);
+            Optional<ContentTypeConverter> existing = currentRoutes.putIfAbsent(key, route);
+            if (existing != null) {
+                route = existing;
+            }
+        }
+        return route;
+    }
+
+    private Optional<ContentTypeConverter> resolveRoute(Class<?> sourceType, Class<?> targetType) {
         for (ContentTypeConverter converter : converters) {
             if (canConvert(converter, sourceType, targetType)) {
-                return (T) converter.convert(original);
+                return Optional.of(converter);
             }
         }
-        ChainedConverter converter = ChainedConverter.calculateChain(sourceType, targetType, converters);
-        converters.add(0, converter);
-        return (T) converter.convert(original);
+        if (ChainedConverter.canConvert(sourceType, targetType, converters)) {
+            return Optional.of(ChainedConverter.calculateChain(sourceType, targetType, converters));
+        }
+        return Optional.empty();
     }
 
     private <S, T> boolean canConvert(ContentTypeConverter<?, ?> converter, Class<S> sourceContentType,
@@ -127,6 +151,7 @@ private <S, T> boolean canConvert(ContentTypeConverter<?, ?> converter, Class<S>
      */
     public void registerConverter(ContentTypeConverter converter) {
         converters.add(0, converter);
+        routes = new ConcurrentHashMap<>();
     }
 
     /**
@@ -169,4 +194,32 @@ public void registerConverter(Class<? extends ContentTypeConverter> converterTyp
     public void setAdditionalConverters(List<ContentTypeConverter> additionalConverters) {
         additionalConverters.forEach(this::registerConverter);
     }
+
+    private static final class ConversionKey {
+
+        private final Class<?> sourceType;
+        private final Class<?> targetType;
+
+        private ConversionKey(Class<?> sourceType, Class<?> targetType) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ConversionKey that = (ConversionKey) o;
+            return sourceType == that.sourceType && targetType == that.targetType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceType, targetType);
+        }
+    }
 }
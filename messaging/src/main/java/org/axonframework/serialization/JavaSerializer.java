@@ -43,7 +43,7 @@
 @Deprecated
 public class JavaSerializer implements Serializer {
 
-    private final RevisionResolver revisionResolver;
+    private final TypeResolutionCache typeResolutionCache;
 
     private final Converter converter = new ChainingConverter();
 
@@ -54,7 +54,7 @@ public class JavaSerializer implements Serializer {
      */
     protected JavaSerializer(Builder builder) {
         builder.validate();
-        this.revisionResolver = builder.revisionResolver;
+        this.typeResolutionCache = new TypeResolutionCache(builder.revisionResolver);
     }
 
     /**
@@ -129,6 +129,10 @@ public Class classForType(SerializedType type) {
         if (SerializedType.emptyType().equals(type)) {
             return Void.class;
         }
+        return typeResolutionCache.classForType(type, this::loadClass);
+    }
+
+    private Class<?> loadClass(SerializedType type) {
         try {
             return Class.forName(type.getName());
         } catch (ClassNotFoundException e) {
@@ -147,7 +151,7 @@ public Converter getConverter() {
     }
 
     private String revisionOf(Class<?> type) {
-        return revisionResolver.revisionOf(type);
+        return typeResolutionCache.revisionOf(type);
     }
 
     /**
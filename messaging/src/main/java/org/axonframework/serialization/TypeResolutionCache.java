@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization;
+
+import org.axonframework.common.Assert;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache of the results of resolving classes from {@link SerializedType SerializedTypes} and revisions from classes,
+ * for use by {@link Serializer} implementations. Loading classes and resolving revisions is done for every message
+ * that is (de)serialized and typically involves class loader locks and annotation lookups, while its result for a
+ * given type never changes during the lifetime of a Serializer.
+ * <p>
+ * Types that could not be resolved to a class are cached as {@link UnknownSerializedType} for a limited time only, so
+ * they are resolved again once their class has become available to the Serializer. Use {@link
+ * #invalidateUnknownTypes()} to resolve these types again right away, or {@link #clear()} to resolve all types again.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class TypeResolutionCache {
+
+    /**
+     * The time in milliseconds a type that could not be resolved to a class is cached by default.
+     */
+    public static final long DEFAULT_UNKNOWN_TYPE_TIME_TO_LIVE = 10_000L;
+
+    private final RevisionResolver revisionResolver;
+    private final long unknownTypeTimeToLiveNanos;
+    private final ConcurrentMap<SerializedType, Class<?>> classes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SerializedType, Long> unknownTypeExpiries = new ConcurrentHashMap<>();
+    private volatile ClassValue<Optional<String>> revisions;
+
+    /**
+     * Initialize a TypeResolutionCache that caches the revisions provided by given {@code revisionResolver}. Types
+     * that could not be resolved to a class are cached for {@link #DEFAULT_UNKNOWN_TYPE_TIME_TO_LIVE} milliseconds.
+     *
+     * @param revisionResolver the {@link RevisionResolver} resolving the revisions to cache
+     */
+    public TypeResolutionCache(RevisionResolver revisionResolver) {
+        this(revisionResolver, DEFAULT_UNKNOWN_TYPE_TIME_TO_LIVE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Initialize a TypeResolutionCache that caches the revisions provided by given {@code revisionResolver}, caching
+     * types that could not be resolved to a class for the given {@code unknownTypeTimeToLive}. A time to live of zero
+     * disables caching of these types.
+     *
+     * @param revisionResolver      the {@link RevisionResolver} resolving the revisions to cache
+     * @param unknownTypeTimeToLive the time a type that could not be resolved to a class is cached
+     * @param timeUnit              the unit of the given {@code unknownTypeTimeToLive}
+     */
+    public TypeResolutionCache(RevisionResolver revisionResolver, long unknownTypeTimeToLive, TimeUnit timeUnit) {
+        Assert.isTrue(unknownTypeTimeToLive >= 0, () -> "The unknownTypeTimeToLive may not be negative");
+        this.revisionResolver = revisionResolver;
+        this.unknownTypeTimeToLiveNanos = timeUnit.toNanos(unknownTypeTimeToLive);
+        this.revisions = createRevisionCache();
+    }
+
+    /**
+     * Returns the class for given {@code type}, resolving it with given {@code classResolver} if it hasn't been
+     * resolved before. The {@code classResolver} should return {@link UnknownSerializedType UnknownSerializedType.class}
+     * for types that cannot be resolved, which is cached until its time to live has passed.
+     *
+     * @param type          the serialized type to return the class for
+     * @param classResolver the function resolving the class for a type that has not been resolved before
+     * @return the class for the given {@code type}
+     */
+    public Class<?> classForType(SerializedType type, Function<SerializedType, Class<?>> classResolver) {
+        SerializedType key = type.getClass() == SimpleSerializedType.class
+                ? type
+                : new SimpleSerializedType(type.getName(), type.getRevision());
+        Class<?> result = classes.get(key);
+        if (result != null) {
+            return result;
+        }
+        Long expiry = unknownTypeExpiries.get(key);
+        if (expiry != null && expiry - System.nanoTime() > 0) {
+            return UnknownSerializedType.class;
+        }
+        result = classes.computeIfAbsent(key, k -> {
+            Class<?> resolved = classResolver.apply(type);
+            return UnknownSerializedType.class.equals(resolved) ? null : resolved;
+        });
+        if (result != null) {
+            unknownTypeExpiries.remove(key);
+            return result;
+        }
+        if (unknownTypeTimeToLiveNanos > 0) {
+            unknownTypeExpiries.put(key, System.nanoTime() + unknownTypeTimeToLiveNanos);
+        }
+        return UnknownSerializedType.class;
+    }
+
+    /**
+     * Removes all types that could not be resolved to a class from this cache, so they are resolved again the next
+     * time they are requested. Use this when classes have been made available to the Serializer, for example after
+     * loading an additional module.
+     */
+    public void invalidateUnknownTypes() {
+        unknownTypeExpiries.clear();
+    }
+
+    /**
+     * Returns the revision of given {@code type}, as provided by the {@link RevisionResolver} of this cache the first
+     * time the revision of that type was requested.
+     *
+     * @param type the class to return the revision of
+     * @return the revision of given {@code type}, or {@code null} if it has no revision
+     */
+    public String revisionOf(Class<?> type) {
+        return revisions.get(type).orElse(null);
+    }
+
+    /**
+     * Removes all resolved classes and revisions from this cache.
+     */
+    public void clear() {
+        classes.clear();
+        unknownTypeExpiries.clear();
+        revisions = createRevisionCache();
+    }
+
+    private ClassValue<Optional<String>> createRevisionCache() {
+        return new ClassValue<Optional<String>>() {
+            @Override
+            protected Optional<String> computeValue(Class<?> type) {
+                return Optional.ofNullable(revisionResolver.revisionOf(type));
+            }
+        };
+    }
+}
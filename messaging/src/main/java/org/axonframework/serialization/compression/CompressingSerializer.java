@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization.compression;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.serialization.Converter;
+import org.axonframework.serialization.SerializationException;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SerializedType;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+
+import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * Decorator of a {@link Serializer} that compresses the data serialized by the delegate using a {@link Compressor}.
+ * Used as the event or snapshot serializer of an event storage engine, it reduces the size of the stored payloads and
+ * meta data, and thereby the amount of data read during replays.
+ * <p>
+ * Data is only compressed when serialized to a {@code byte[]}, as other representations (such as a String) cannot
+ * carry binary data. Data smaller than the compression threshold, or which does not become smaller by compressing
+ * it, is stored uncompressed. Compressed data is prefixed with a header which identifies it as compressed data and
+ * contains the {@link Compressor#formatIdentifier() format identifier} of the Compressor. Data without this header,
+ * such as data stored before compression was enabled, is passed to the delegate as is.
+ * <p>
+ * The {@link Converter} of this Serializer decompresses data before converting it using the Converter of the
+ * delegate, which allows upcasters to read compressed data.
+ * <p>
+ * Data that decompresses to more than the configured maximum decompressed size is rejected with a {@link
+ * SerializationException}, so corrupt or malicious data cannot exhaust the memory of the reader.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class CompressingSerializer implements Serializer {
+
+    private static final byte[] MAGIC = {0, 'A', 'X', 'C'};
+    private static final int HEADER_LENGTH = MAGIC.length + 1;
+
+    private final Serializer delegate;
+    private final Compressor compressor;
+    private final int compressionThreshold;
+    private final int maxDecompressedSize;
+    private final Converter converter;
+
+    /**
+     * Instantiate a {@link CompressingSerializer} based on the fields contained in the {@link Builder}.
+     * <p>
+     * Will assert that the delegate {@link Serializer} and the {@link Compressor} are not {@code null}, and will throw
+     * an {@link AxonConfigurationException} if either of them is {@code null}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link CompressingSerializer} instance
+     */
+    protected CompressingSerializer(Builder builder) {
+        builder.validate();
+        this.delegate = builder.delegate;
+        this.compressor = builder.compressor;
+        this.compressionThreshold = builder.compressionThreshold;
+        this.maxDecompressedSize = builder.maxDecompressedSize;
+        this.converter = new DecompressingConverter(delegate.getConverter(), this::decompressIfCompressed);
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link CompressingSerializer}.
+     * <p>
+     * The {@link Compressor} defaults to a {@link DeflateCompressor} without dictionary, the compression threshold to
+     * 256 bytes and the maximum decompressed size to 64 MiB. The delegate {@link Serializer} is a <b>hard
+     * requirement</b> and as such should be provided.
+     *
+     * @return a Builder to be able to create a {@link CompressingSerializer}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> SerializedObject<T> serialize(Object object, Class<T> expectedRepresentation) {
+        if (!byte[].class.equals(expectedRepresentation)) {
+            return delegate.serialize(object, expectedRepresentation);
+        }
+        SerializedObject<byte[]> serialized = delegate.serialize(object, byte[].class);
+        byte[] data = serialized.getData();
+        if (data.length < compressionThreshold) {
+            return (SerializedObject<T>) serialized;
+        }
+        byte[] compressed = compressor.compress(data);
+        if (compressed.length + HEADER_LENGTH >= data.length) {
+            return (SerializedObject<T>) serialized;
+        }
+        byte[] result = new byte[compressed.length + HEADER_LENGTH];
+        System.arraycopy(MAGIC, 0, result, 0, MAGIC.length);
+        result[MAGIC.length] = compressor.formatIdentifier();
+        System.arraycopy(compressed, 0, result, HEADER_LENGTH, compressed.length);
+        return new SimpleSerializedObject<>((T) result, expectedRepresentation, serialized.getType());
+    }
+
+    @Override
+    public <T> boolean canSerializeTo(Class<T> expectedRepresentation) {
+        return delegate.canSerializeTo(expectedRepresentation);
+    }
+
+    @Override
+    public <S, T> T deserialize(SerializedObject<S> serializedObject) {
+        if (byte[].class.equals(serializedObject.getContentType())) {
+            byte[] data = (byte[]) serializedObject.getData();
+            byte[] decompressed = decompressIfCompressed(data);
+            if (decompressed != data) {
+                return delegate.deserialize(new SimpleSerializedObject<>(decompressed, byte[].class,
+                                                                         serializedObject.getType()));
+            }
+        }
+        return delegate.deserialize(serializedObject);
+    }
+
+    @Override
+    public Class classForType(SerializedType type) {
+        return delegate.classForType(type);
+    }
+
+    @Override
+    public SerializedType typeForClass(Class type) {
+        return delegate.typeForClass(type);
+    }
+
+    @Override
+    public Converter getConverter() {
+        return converter;
+    }
+
+    private byte[] decompressIfCompressed(byte[] data) {
+        if (!isCompressed(data)) {
+            return data;
+        }
+        if (data[MAGIC.length] != compressor.formatIdentifier()) {
+            throw new SerializationException(String.format(
+                    "Cannot decompress data compressed in format [%s] using a Compressor for format [%s]",
+                    (char) data[MAGIC.length], (char) compressor.formatIdentifier()
+            ));
+        }
+        return compressor.decompress(data, HEADER_LENGTH, data.length - HEADER_LENGTH, maxDecompressedSize);
+    }
+
+    private static boolean isCompressed(byte[] data) {
+        if (data.length < HEADER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builder class to instantiate a {@link CompressingSerializer}.
+     * <p>
+     * The {@link Compressor} defaults to a {@link DeflateCompressor} without dictionary, the compression threshold to
+     * 256 bytes and the maximum decompressed size to 64 MiB. The delegate {@link Serializer} is a <b>hard
+     * requirement</b> and as such should be provided.
+     */
+    public static class Builder {
+
+        private Serializer delegate;
+        private Compressor compressor = DeflateCompressor.builder().build();
+        private int compressionThreshold = 256;
+        private int maxDecompressedSize = 64 * 1024 * 1024;
+
+        /**
+         * Sets the {@link Serializer} which serializes and deserializes the uncompressed data.
+         *
+         * @param delegate the {@link Serializer} which serializes and deserializes the uncompressed data
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder delegate(Serializer delegate) {
+            assertNonNull(delegate, "Delegate Serializer may not be null");
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Compressor} used to compress and decompress data. Defaults to a {@link DeflateCompressor}
+         * without dictionary.
+         *
+         * @param compressor the {@link Compressor} used to compress and decompress data
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder compressor(Compressor compressor) {
+            assertNonNull(compressor, "Compressor may not be null");
+            this.compressor = compressor;
+            return this;
+        }
+
+        /**
+         * Sets the minimum size in bytes of serialized data for it to be compressed. Smaller data is stored
+         * uncompressed, as the compression ratio of small data is typically low. Defaults to 256 bytes.
+         *
+         * @param compressionThreshold the minimum size in bytes of serialized data for it to be compressed
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder compressionThreshold(int compressionThreshold) {
+            assertThat(compressionThreshold, threshold -> threshold >= 0,
+                       "The compression threshold may not be negative");
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size in bytes compressed data may decompress to. Data exceeding it is rejected with a
+         * {@link SerializationException}. Defaults to 64 MiB.
+         *
+         * @param maxDecompressedSize the maximum size in bytes compressed data may decompress to
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder maxDecompressedSize(int maxDecompressedSize) {
+            assertThat(maxDecompressedSize, size -> size > 0, "The maximum decompressed size should be positive");
+            this.maxDecompressedSize = maxDecompressedSize;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link CompressingSerializer} as specified through this Builder.
+         *
+         * @return a {@link CompressingSerializer} as specified through this Builder
+         */
+        public CompressingSerializer build() {
+            return new CompressingSerializer(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            assertNonNull(delegate, "The delegate Serializer is a hard requirement and should be provided");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization.compression;
+
+import org.axonframework.serialization.SerializationException;
+
+/**
+ * Compression algorithm used by the {@link CompressingSerializer} to compress serialized data.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public interface Compressor {
+
+    /**
+     * Returns the identifier of the format of the data produced by this Compressor. The identifier is stored in the
+     * header of compressed data, to verify that data is decompressed with the algorithm it was compressed with.
+     *
+     * @return the identifier of the format of the data produced by this Compressor
+     */
+    byte formatIdentifier();
+
+    /**
+     * Compresses the given {@code data}.
+     *
+     * @param data the data to compress
+     * @return the compressed data
+     */
+    byte[] compress(byte[] data);
+
+    /**
+     * Decompresses {@code length} bytes of the given {@code data}, starting at the given {@code offset}.
+     *
+     * @param data   the array containing the data to decompress
+     * @param offset the index of the first byte to decompress
+     * @param length the number of bytes to decompress
+     * @return the decompressed data
+     * @throws org.axonframework.serialization.SerializationException when the data cannot be decompressed
+     */
+    byte[] decompress(byte[] data, int offset, int length);
+
+    /**
+     * Decompresses {@code length} bytes of the given {@code data}, starting at the given {@code offset}, refusing to
+     * produce more than {@code maxDecompressedSize} bytes. This protects the reader against data that decompresses to
+     * an excessive size.
+     * <p>
+     * The default implementation verifies the size after decompressing all data. Implementations should override it
+     * to stop decompressing as soon as the limit is exceeded.
+     *
+     * @param data                the array containing the data to decompress
+     * @param offset              the index of the first byte to decompress
+     * @param length              the number of bytes to decompress
+     * @param maxDecompressedSize the maximum number of bytes the data may decompress to
+     * @return the decompressed data
+     * @throws org.axonframework.serialization.SerializationException when the data cannot be decompressed, or
+     *                                                                decompresses to more than {@code
+     *                                                                maxDecompressedSize} bytes
+     */
+    default byte[] decompress(byte[] data, int offset, int length, int maxDecompressedSize) {
+        byte[] decompressed = decompress(data, offset, length);
+        if (decompressed.length > maxDecompressedSize) {
+            throw new SerializationException(String.format(
+                    "Cannot decompress data, as it exceeds the maximum decompressed size of %d bytes",
+                    maxDecompressedSize
+            ));
+        }
+        return decompressed;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization.compression;
+
+import org.axonframework.serialization.Converter;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SimpleSerializedObject;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Decorator of a {@link Converter} that decompresses data written by a {@link CompressingSerializer} before passing it
+ * to the delegate Converter. A ContentTypeConverter cannot be used for this purpose, as compressed and uncompressed
+ * data are both represented as a {@code byte[]}.
+ *
+ * @author agent
+ * @since 4.1
+ */
+class DecompressingConverter implements Converter {
+
+    private final Converter delegate;
+    private final UnaryOperator<byte[]> decompressor;
+
+    /**
+     * Initializes a DecompressingConverter which uses given {@code decompressor} to decompress byte arrays before
+     * converting them using given {@code delegate}. The {@code decompressor} should return uncompressed data as is.
+     *
+     * @param delegate     the Converter converting the decompressed data
+     * @param decompressor the function decompressing compressed byte arrays
+     */
+    DecompressingConverter(Converter delegate, UnaryOperator<byte[]> decompressor) {
+        this.delegate = delegate;
+        this.decompressor = decompressor;
+    }
+
+    @Override
+    public boolean canConvert(Class<?> sourceType, Class<?> targetType) {
+        return delegate.canConvert(sourceType, targetType);
+    }
+
+    @Override
+    public <T> T convert(Object original, Class<?> sourceType, Class<T> targetType) {
+        if (original instanceof byte[]) {
+            return delegate.convert(decompressor.apply((byte[]) original), sourceType, targetType);
+        }
+        return delegate.convert(original, sourceType, targetType);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> SerializedObject<T> convert(SerializedObject<?> original, Class<T> targetType) {
+        if (byte[].class.equals(original.getContentType())) {
+            byte[] data = (byte[]) original.getData();
+            byte[] decompressed = decompressor.apply(data);
+            if (decompressed != data) {
+                return delegate.convert(new SimpleSerializedObject<>(decompressed, byte[].class, original.getType()),
+                                        targetType);
+            }
+        }
+        return delegate.convert(original, targetType);
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization.compression;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.serialization.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static org.axonframework.common.BuilderUtils.assertThat;
+
+/**
+ * {@link Compressor} implementation using the DEFLATE algorithm in the zlib format, as provided by {@link Deflater} and
+ * {@link Inflater}.
+ * <p>
+ * A preset dictionary may be configured to improve the compression ratio of small payloads. The dictionary should
+ * contain byte sequences that are common in the serialized data, such as class names and property names. The zlib
+ * format records the checksum of the dictionary used to compress data, and data compressed with a dictionary can only
+ * be decompressed with that same dictionary.
+ * <p>
+ * A Deflater or Inflater is created for each call and ended before it returns, releasing its native resources
+ * immediately rather than leaving them to be released when it is garbage collected.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class DeflateCompressor implements Compressor {
+
+    private static final byte FORMAT_IDENTIFIER = 'D';
+    private static final int BUFFER_SIZE = 4096;
+    private static final int MAX_INITIAL_OUTPUT_SIZE = 1024 * 1024;
+
+    private final int compressionLevel;
+    private final byte[] dictionary;
+    private final int dictionaryChecksum;
+
+    /**
+     * Instantiate a {@link DeflateCompressor} based on the fields contained in the {@link Builder}.
+     *
+     * @param builder the {@link Builder} used to instantiate a {@link DeflateCompressor} instance
+     */
+    protected DeflateCompressor(Builder builder) {
+        builder.validate();
+        this.compressionLevel = builder.compressionLevel;
+        this.dictionary = builder.dictionary;
+        this.dictionaryChecksum = checksumOf(dictionary);
+    }
+
+    /**
+     * Instantiate a Builder to be able to create a {@link DeflateCompressor}.
+     * <p>
+     * The compression level defaults to {@link Deflater#DEFAULT_COMPRESSION} and no dictionary is used by default.
+     *
+     * @return a Builder to be able to create a {@link DeflateCompressor}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static int checksumOf(byte[] dictionary) {
+        if (dictionary == null) {
+            return 0;
+        }
+        Adler32 checksum = new Adler32();
+        checksum.update(dictionary);
+        return (int) checksum.getValue();
+    }
+
+    @Override
+    public byte formatIdentifier() {
+        return FORMAT_IDENTIFIER;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(compressionLevel);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(data.length, BUFFER_SIZE));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length) {
+        return decompress(data, offset, length, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int maxDecompressedSize) {
+        Inflater inflater = new Inflater();
+        inflater.setInput(data, offset, length);
+        // the output grows as needed, so the expected size only needs to be a reasonable estimate
+        long expectedSize = Math.min((long) length * 4, Math.min(maxDecompressedSize, MAX_INITIAL_OUTPUT_SIZE));
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) expectedSize);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (dictionary == null || inflater.getAdler() != dictionaryChecksum) {
+                            throw new SerializationException(
+                                    "Cannot decompress data that was compressed using a different dictionary");
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput()) {
+                        throw new SerializationException("Cannot decompress data, as it has been truncated");
+                    }
+                }
+                if ((long) out.size() + inflated > maxDecompressedSize) {
+                    throw new SerializationException(String.format(
+                            "Cannot decompress data, as it exceeds the maximum decompressed size of %d bytes",
+                            maxDecompressedSize
+                    ));
+                }
+                out.write(buffer, 0, inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new SerializationException("Cannot decompress data, as it is corrupted", e);
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Builder class to instantiate a {@link DeflateCompressor}.
+     * <p>
+     * The compression level defaults to {@link Deflater#DEFAULT_COMPRESSION} and no dictionary is used by default.
+     */
+    public static class Builder {
+
+        private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+        private byte[] dictionary;
+
+        /**
+         * Sets the compression level, ranging from {@link Deflater#BEST_SPEED} ({@code 1}) to {@link
+         * Deflater#BEST_COMPRESSION} ({@code 9}), or {@link Deflater#DEFAULT_COMPRESSION} ({@code -1}). Defaults to
+         * {@link Deflater#DEFAULT_COMPRESSION}.
+         *
+         * @param compressionLevel the compression level
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder compressionLevel(int compressionLevel) {
+            assertThat(compressionLevel,
+                       level -> level == Deflater.DEFAULT_COMPRESSION
+                               || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION),
+                       "The compression level should be -1 or a number between 0 and 9");
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+
+        /**
+         * Sets the preset dictionary used to compress and decompress data. Data compressed with a dictionary can only
+         * be decompressed using the same dictionary. Defaults to no dictionary.
+         *
+         * @param dictionary the preset dictionary used to compress and decompress data
+         * @return the current Builder instance, for fluent interfacing
+         */
+        public Builder dictionary(byte[] dictionary) {
+            assertThat(dictionary, d -> d == null || d.length > 0, "The dictionary may not be empty");
+            this.dictionary = dictionary == null ? null : dictionary.clone();
+            return this;
+        }
+
+        /**
+         * Initializes a {@link DeflateCompressor} as specified through this Builder.
+         *
+         * @return a {@link DeflateCompressor} as specified through this Builder
+         */
+        public DeflateCompressor build() {
+            return new DeflateCompressor(this);
+        }
+
+        /**
+         * Validates whether the fields contained in this Builder are set accordingly.
+         *
+         * @throws AxonConfigurationException if one field is asserted to be incorrect according to the Builder's
+         *                                    specifications
+         */
+        protected void validate() throws AxonConfigurationException {
+            // Kept to be overridden
+        }
+    }
+}
@@ -17,11 +17,15 @@
 package org.axonframework.serialization.json;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.common.ObjectUtils;
@@ -29,6 +33,8 @@
 import org.axonframework.serialization.*;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.axonframework.common.BuilderUtils.assertNonNull;
 
@@ -36,6 +42,9 @@
  * Serializer implementation that uses Jackson to serialize objects into a JSON format. Although the Jackson serializer
  * requires classes to be compatible with this specific serializer, it providers much more compact serialization, while
  * still being human readable.
+ * <p>
+ * Resolved classes, revisions and the ObjectReaders and ObjectWriter obtained from the ObjectMapper are cached. Cached
+ * readers and writers are discarded when the configuration of the ObjectMapper changes.
  *
  * @author Allard Buijze
  * @since 2.2
@@ -46,6 +55,9 @@ public class JacksonSerializer implements Serializer {
     private final Converter converter;
     private final ObjectMapper objectMapper;
     private final ClassLoader classLoader;
+    private final TypeResolutionCache typeResolutionCache;
+    private volatile ReaderCache readerCache;
+    private volatile WriterCache writerCache;
 
     /**
      * Instantiate a {@link JacksonSerializer} based on the fields contained in the {@link Builder}.
@@ -63,6 +75,7 @@ protected JacksonSerializer(Builder builder) {
         this.converter = builder.converter;
         this.objectMapper = builder.objectMapper;
         this.classLoader = builder.classLoader;
+        this.typeResolutionCache = new TypeResolutionCache(revisionResolver);
 
         this.objectMapper.registerModule(
                 new SimpleModule("Axon-Jackson Module").addDeserializer(MetaData.class, new MetaDataDeserializer())
@@ -132,22 +145,36 @@ public final ObjectMapper getObjectMapper() {
     /**
      * Provides the ObjectWriter, with which objects are serialized to JSON form. This method may be overridden to
      * change the configuration of the writer to use.
+     * <p>
+     * By default, the writer is created once for every configuration of the ObjectMapper.
      *
      * @return The writer to serialize objects with
      */
     protected ObjectWriter getWriter() {
-        return objectMapper.writer();
+        WriterCache cache = writerCache;
+        if (cache == null || !cache.matches(objectMapper)) {
+            cache = new WriterCache(objectMapper);
+            writerCache = cache;
+        }
+        return cache.writer;
     }
 
     /**
      * Provides the ObjectReader, with which objects are read from the JSON form. This method may be overridden to
      * change the configuration of the reader to use.
+     * <p>
+     * By default, the reader for each type is created once for every configuration of the ObjectMapper.
      *
      * @param type The type of object to create a reader for
      * @return The writer to serialize objects with
      */
     protected ObjectReader getReader(Class<?> type) {
-        return objectMapper.readerFor(type);
+        ReaderCache cache = readerCache;
+        if (cache == null || !cache.matches(objectMapper)) {
+            cache = new ReaderCache(objectMapper);
+            readerCache = cache;
+        }
+        return cache.readerFor(type);
     }
 
     @Override
@@ -182,6 +209,10 @@ public Class classForType(SerializedType type) {
         if (SimpleSerializedType.emptyType().equals(type)) {
             return Void.class;
         }
+        return typeResolutionCache.classForType(type, this::loadClass);
+    }
+
+    private Class<?> loadClass(SerializedType type) {
         try {
             return classLoader.loadClass(resolveClassName(type));
         } catch (ClassNotFoundException e) {
@@ -205,7 +236,7 @@ public SerializedType typeForClass(Class type) {
         if (type == null || Void.TYPE.equals(type) || Void.class.equals(type)) {
             return SimpleSerializedType.emptyType();
         }
-        return new SimpleSerializedType(type.getName(), revisionResolver.revisionOf(type));
+        return new SimpleSerializedType(type.getName(), typeResolutionCache.revisionOf(type));
     }
 
     @Override
@@ -314,4 +345,49 @@ protected void validate() throws AxonConfigurationException {
             // Kept to be overridden
         }
     }
+
+    private static class ReaderCache {
+
+        private final ObjectMapper objectMapper;
+        private final DeserializationConfig config;
+        private final DeserializationContext context;
+        private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+        private ReaderCache(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            this.config = objectMapper.getDeserializationConfig();
+            this.context = objectMapper.getDeserializationContext();
+        }
+
+        private boolean matches(ObjectMapper objectMapper) {
+            return config == objectMapper.getDeserializationConfig()
+                    && context == objectMapper.getDeserializationContext();
+        }
+
+        private ObjectReader readerFor(Class<?> type) {
+            ObjectReader reader = readers.get(type);
+            if (reader == null) {
+                reader = readers.computeIfAbsent(type, objectMapper::readerFor);
+            }
+            return reader;
+        }
+    }
+
+    private static class WriterCache {
+
+        private final SerializationConfig config;
+        private final SerializerFactory serializerFactory;
+        private final ObjectWriter writer;
+
+        private WriterCache(ObjectMapper objectMapper) {
+            this.config = objectMapper.getSerializationConfig();
+            this.serializerFactory = objectMapper.getSerializerFactory();
+            this.writer = objectMapper.writer();
+        }
+
+        private boolean matches(ObjectMapper objectMapper) {
+            return config == objectMapper.getSerializationConfig()
+                    && serializerFactory == objectMapper.getSerializerFactory();
+        }
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling;
+
+import org.axonframework.commandhandling.callbacks.FutureCallback;
+import org.axonframework.commandhandling.distributed.CommandDispatchException;
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class AggregateAffinityCommandBusTest {
+
+    private AggregateAffinityCommandBus testSubject;
+
+    @Before
+    public void setUp() {
+        testSubject = AggregateAffinityCommandBus.builder()
+                                                 .workerCount(4)
+                                                 .routingStrategy(command -> {
+                                                     if ("unroutable".equals(command.getPayload())) {
+                                                         throw new CommandDispatchException("No routing key");
+                                                     }
+                                                     return command.getPayload().toString();
+                                                 })
+                                                 .build();
+    }
+
+    @After
+    public void tearDown() {
+        testSubject.shutdown();
+    }
+
+    @Test
+    public void testCommandsWithSameRoutingKeyAreHandledByTheSameThreadInOrder() throws Exception {
+        List<String> handlingThreads = new CopyOnWriteArrayList<>();
+        testSubject.subscribe(String.class.getName(), command -> {
+            handlingThreads.add(Thread.currentThread().getName());
+            return command.getPayload();
+        });
+
+        FutureCallback<Object, Object> lastCallback = null;
+        for (int i = 0; i < 10; i++) {
+            lastCallback = new FutureCallback<>();
+            testSubject.dispatch(asCommandMessage("aggregate1"), lastCallback);
+        }
+
+        assertEquals("aggregate1", lastCallback.getResult(5, TimeUnit.SECONDS).getPayload());
+        assertEquals(10, handlingThreads.size());
+        assertEquals(1, handlingThreads.stream().distinct().count());
+        assertNotEquals(Thread.currentThread().getName(), handlingThreads.get(0));
+    }
+
+    @Test
+    public void testNestedCommandForSameWorkerIsHandledOnDispatchingThread() {
+        testSubject.subscribe(String.class.getName(), command -> Thread.currentThread().getName());
+        testSubject.subscribe(Integer.class.getName(), command -> {
+            FutureCallback<Object, Object> nestedCallback = new FutureCallback<>();
+            testSubject.dispatch(asCommandMessage(command.getPayload().toString()), nestedCallback);
+            return Thread.currentThread().getName() + "/" + nestedCallback.getResult(1, TimeUnit.SECONDS).getPayload();
+        });
+
+        FutureCallback<Object, Object> callback = new FutureCallback<>();
+        testSubject.dispatch(asCommandMessage(1), callback);
+
+        String[] threads = callback.getResult(5, TimeUnit.SECONDS).getPayload().toString().split("/");
+        assertEquals(threads[0], threads[1]);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFailureToResolveRoutingKeyIsReportedToCallback() {
+        testSubject.subscribe(String.class.getName(), command -> command.getPayload());
+
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+        CommandMessage<Object> command = asCommandMessage("unroutable");
+        testSubject.dispatch(command, callback);
+
+        ArgumentCaptor<CommandResultMessage> resultCaptor = ArgumentCaptor.forClass(CommandResultMessage.class);
+        verify(callback).onResult(eq(command), resultCaptor.capture());
+        assertTrue(resultCaptor.getValue().isExceptional());
+        assertEquals(CommandDispatchException.class, resultCaptor.getValue().exceptionResult().getClass());
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithNonPositiveWorkerCountThrowsAxonConfigurationException() {
+        AggregateAffinityCommandBus.builder().workerCount(0);
+    }
+}
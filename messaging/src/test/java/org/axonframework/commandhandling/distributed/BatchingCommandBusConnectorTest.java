@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.distributed;
+
+import org.axonframework.commandhandling.CommandCallback;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.CommandResultMessage;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.Registration;
+import org.axonframework.messaging.MessageHandler;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+public class BatchingCommandBusConnectorTest {
+
+    private CommandBusConnector delegate;
+    private Member destination;
+    private BatchingCommandBusConnector testSubject;
+
+    @Before
+    public void setUp() {
+        delegate = mock(CommandBusConnector.class);
+        when(delegate.supportsBatching()).thenReturn(true);
+        destination = mock(Member.class);
+        when(destination.name()).thenReturn("member1");
+        testSubject = BatchingCommandBusConnector.builder()
+                                                 .delegate(delegate)
+                                                 .maxBatchSize(3)
+                                                 .batchWindow(1, TimeUnit.HOURS)
+                                                 .build();
+    }
+
+    @After
+    public void tearDown() {
+        testSubject.shutDown();
+    }
+
+    @Test
+    public void testCommandsToSameDestinationAreSentAsSingleBatchWhenBatchIsFull() throws Exception {
+        CommandMessage<Object> first = asCommandMessage("first");
+        testSubject.send(destination, first, mock(CommandCallback.class));
+        testSubject.send(destination, asCommandMessage("second"), mock(CommandCallback.class));
+        verify(delegate, never()).sendBatch(any(), anyList());
+
+        testSubject.send(destination, asCommandMessage("third"), mock(CommandCallback.class));
+
+        ArgumentCaptor<List> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(delegate, timeout(5000)).sendBatch(eq(destination), batchCaptor.capture());
+        assertEquals(3, batchCaptor.getValue().size());
+        assertSame(first, ((CommandCallbackWrapper) batchCaptor.getValue().get(0)).getMessage());
+    }
+
+    @Test
+    public void testPendingBatchIsSentWhenWindowPasses() throws Exception {
+        testSubject.shutDown();
+        testSubject = BatchingCommandBusConnector.builder()
+                                                 .delegate(delegate)
+                                                 .batchWindow(10, TimeUnit.MILLISECONDS)
+                                                 .build();
+
+        testSubject.send(destination, asCommandMessage("command"), mock(CommandCallback.class));
+
+        verify(delegate, timeout(5000)).sendBatch(eq(destination), argThat(batch -> batch.size() == 1));
+    }
+
+    @Test
+    public void testFailureToSendBatchIsReportedToEachCallback() throws Exception {
+        doThrow(new IllegalStateException("Connection lost")).when(delegate).sendBatch(any(), anyList());
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        for (int i = 0; i < 3; i++) {
+            testSubject.send(destination, asCommandMessage("command" + i), callback);
+        }
+
+        ArgumentCaptor<CommandResultMessage> resultCaptor = ArgumentCaptor.forClass(CommandResultMessage.class);
+        verify(callback, timeout(5000).times(3)).onResult(any(), resultCaptor.capture());
+        resultCaptor.getAllValues().forEach(result -> {
+            assertTrue(result.isExceptional());
+            assertEquals(CommandDispatchException.class, result.exceptionResult().getClass());
+        });
+        verify(destination).suspect();
+    }
+
+    @Test
+    public void testCommandsReachDelegateInOrderTheyWereSent() throws Exception {
+        OrderRecordingConnector recordingDelegate = new OrderRecordingConnector();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+        testSubject.shutDown();
+        testSubject = BatchingCommandBusConnector.builder()
+                                                 .delegate(recordingDelegate)
+                                                 .maxBatchSize(2)
+                                                 .batchWindow(0, TimeUnit.MILLISECONDS)
+                                                 .scheduler(scheduler)
+                                                 .build();
+        List<CommandMessage<?>> commands = new ArrayList<>();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                CommandMessage<Object> command = asCommandMessage("command" + i);
+                commands.add(command);
+                testSubject.send(destination, command, mock(CommandCallback.class));
+            }
+            testSubject.shutDown();
+        } finally {
+            scheduler.shutdown();
+            assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(commands, recordingDelegate.sentCommands);
+    }
+
+    @Test
+    public void testCommandsAreSentDirectlyWhenDelegateDoesNotSupportBatches() throws Exception {
+        NonBatchingConnector nonBatchingDelegate = new NonBatchingConnector();
+        testSubject.shutDown();
+        testSubject = BatchingCommandBusConnector.builder()
+                                                 .delegate(nonBatchingDelegate)
+                                                 .batchWindow(1, TimeUnit.HOURS)
+                                                 .build();
+        CommandMessage<Object> command = asCommandMessage("command");
+
+        testSubject.send(destination, command, mock(CommandCallback.class));
+
+        assertEquals(singletonList(command), nonBatchingDelegate.sentCommands);
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutDelegateThrowsAxonConfigurationException() {
+        BatchingCommandBusConnector.builder().build();
+    }
+
+    private static class OrderRecordingConnector extends NonBatchingConnector {
+
+        @Override
+        public void sendBatch(Member destination, List<CommandCallbackWrapper<Member, ?, ?>> batch) {
+            batch.forEach(entry -> sentCommands.add(entry.getMessage()));
+        }
+
+        @Override
+        public boolean supportsBatching() {
+            return true;
+        }
+    }
+
+    private static class NonBatchingConnector implements CommandBusConnector {
+
+        protected final List<CommandMessage<?>> sentCommands = new CopyOnWriteArrayList<>();
+
+        @Override
+        public <C> void send(Member destination, CommandMessage<? extends C> command) {
+            sentCommands.add(command);
+        }
+
+        @Override
+        public <C, R> void send(Member destination, CommandMessage<C> command,
+                                CommandCallback<? super C, R> callback) {
+            sentCommands.add(command);
+        }
+
+        @Override
+        public Registration subscribe(String commandName, MessageHandler<? super CommandMessage<?>> handler) {
+            return () -> true;
+        }
+
+        @Override
+        public Registration registerHandlerInterceptor(
+                MessageHandlerInterceptor<? super CommandMessage<?>> handlerInterceptor) {
+            return () -> true;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.axonframework.commandhandling.distributed;
 
+import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.GenericCommandMessage;
 import org.axonframework.commandhandling.distributed.commandfilter.AcceptAll;
 import org.axonframework.commandhandling.distributed.commandfilter.CommandNameFilter;
@@ -25,6 +26,7 @@
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
@@ -104,4 +106,101 @@ public void testConflictingHashesDoNotImpactMembership() {
         assertEquals(member1.name(), consistentHash.getMembers().iterator().next().name());
         assertEquals(consistentHash.getMembers(), consistentHashModified.getMembers());
     }
+
+    @Test
+    public void testDefaultPositionsFollowHexEncodedMd5Ordering() {
+        ConsistentHash hexBased = new ConsistentHash(ConsistentHash::hash)
+                .with(member1, 2, new CommandNameFilter("name1"))
+                .with(member2, 2, new CommandNameFilter("name1"));
+        ConsistentHash defaultHash = testSubject.without(testSubject.getEligibleMembers("someOtherKey")
+                                                                    .stream()
+                                                                    .filter(m -> m.name().equals("member3"))
+                                                                    .findFirst()
+                                                                    .orElseThrow(IllegalStateException::new));
+
+        assertEquals(defaultHash, hexBased);
+        assertTrue(ConsistentHash.md5Hash("276db5f9") < ConsistentHash.md5Hash("routingKey"));
+        assertEquals(Long.compare(ConsistentHash.md5Hash("a"), ConsistentHash.md5Hash("b")),
+                     Integer.signum(ConsistentHash.hash("a").compareTo(ConsistentHash.hash("b"))));
+    }
+
+    @Test
+    public void testCustomHashFunctionIsUsedForMembersAndRoutingKeys() {
+        ConsistentHash fastHash = ConsistentHash.usingHashFunction(ConsistentHash::fastHash)
+                                                .with(member1, 10, AcceptAll.INSTANCE)
+                                                .with(member2, 10, AcceptAll.INSTANCE);
+        ConsistentHash reversed = ConsistentHash.usingHashFunction(k -> k.startsWith("member1") ? 1 : 2)
+                                                .with(member1, 1, AcceptAll.INSTANCE)
+                                                .with(member2, 1, AcceptAll.INSTANCE);
+        GenericCommandMessage<String> command = new GenericCommandMessage<>(new GenericMessage<>("test"), "name1");
+
+        assertEquals(fastHash.getMember("routingKey", command), fastHash.getMember("routingKey", command));
+        assertEquals(2, fastHash.getEligibleMembers("routingKey").size());
+        assertEquals("member2", reversed.getMember("key", command).map(Member::name).orElse(null));
+        assertEquals(asList("member2", "member1"),
+                     reversed.getEligibleMembers("key").stream()
+                             .map(ConsistentHash.ConsistentHashMember::name)
+                             .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testFilterEligibilityIsCachedPerCommandNameOnlyForNameBasedFilters() {
+        AtomicInteger customFilterInvocations = new AtomicInteger();
+        CommandMessageFilter payloadFilter = m -> {
+            customFilterInvocations.incrementAndGet();
+            return "accept".equals(m.getPayload());
+        };
+        ConsistentHash hash = ConsistentHash.usingHashFunction(k -> k.startsWith("member1") ? 1 : 2)
+                                            .with(member1, 1, payloadFilter)
+                                            .with(member2, 1, new CommandNameFilter("name1"));
+
+        Optional<Member> first = hash.getMember("member1-key", command("accept", "name1"));
+        Optional<Member> second = hash.getMember("member1-key", command("reject", "name1"));
+        Optional<Member> third = hash.getMember("member1-key", command("reject", "name2"));
+
+        assertEquals("member1", first.map(Member::name).orElse(null));
+        assertEquals("member2", second.map(Member::name).orElse(null));
+        assertFalse(third.isPresent());
+        assertEquals(3, customFilterInvocations.get());
+    }
+
+    @Test
+    public void testHashFunctionPassedToConstructorDoesNotChangeRouting() {
+        ConsistentHash defaultHash = new ConsistentHash().with(member1, 10, AcceptAll.INSTANCE)
+                                                         .with(member2, 10, AcceptAll.INSTANCE);
+        ConsistentHash customHash = new ConsistentHash(s -> "fixed").with(member1, 10, AcceptAll.INSTANCE)
+                                                                    .with(member2, 10, AcceptAll.INSTANCE);
+        GenericCommandMessage<String> command = command("test", "name1");
+
+        assertEquals(defaultHash, customHash);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(defaultHash.getMember("key" + i, command), customHash.getMember("key" + i, command));
+        }
+    }
+
+    @Test
+    public void testSubclassedCommandNameFilterIsEvaluatedForEachMessage() {
+        CommandNameFilter payloadAwareFilter = new CommandNameFilter("name1") {
+            @Override
+            public boolean matches(CommandMessage<?> commandMessage) {
+                return super.matches(commandMessage) && "accept".equals(commandMessage.getPayload());
+            }
+        };
+        ConsistentHash hash = ConsistentHash.usingHashFunction(k -> k.startsWith("member1") ? 1 : 2)
+                                            .with(member1, 1, payloadAwareFilter);
+
+        assertTrue(hash.getMember("member1-key", command("accept", "name1")).isPresent());
+        assertFalse(hash.getMember("member1-key", command("reject", "name1")).isPresent());
+    }
+
+    @Test
+    public void testFastHashSpreadsSimilarKeys() {
+        assertNotEquals(ConsistentHash.fastHash("member1 #0"), ConsistentHash.fastHash("member1 #1"));
+        assertNotEquals(ConsistentHash.fastHash("a"), ConsistentHash.fastHash("b"));
+        assertEquals(ConsistentHash.fastHash("routingKey"), ConsistentHash.fastHash("routingKey"));
+    }
+
+    private static GenericCommandMessage<String> command(String payload, String commandName) {
+        return new GenericCommandMessage<>(new GenericMessage<>(payload), commandName);
+    }
 }
@@ -16,12 +16,14 @@
 
 package org.axonframework.commandhandling.distributed;
 
+import org.axonframework.commandhandling.CommandBus;
 import org.axonframework.commandhandling.CommandCallback;
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.CommandResultMessage;
 import org.axonframework.commandhandling.GenericCommandMessage;
 import org.axonframework.commandhandling.GenericCommandResultMessage;
 import org.axonframework.commandhandling.NoHandlerForCommandException;
+import org.axonframework.commandhandling.SimpleCommandBus;
 import org.axonframework.common.Registration;
 import org.axonframework.messaging.MessageHandler;
 import org.axonframework.messaging.MessageHandlerInterceptor;
@@ -33,6 +35,7 @@
 
 import java.util.Optional;
 
+import static java.util.Collections.singletonMap;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 import static org.axonframework.commandhandling.GenericCommandResultMessage.asCommandResultMessage;
@@ -184,6 +187,67 @@ public void testDispatchFailingCommandWithCallbackAndMessageMonitor() throws Exc
         assertEquals(Exception.class, commandResultMessageCaptor.getValue().exceptionResult().getClass());
     }
 
+    @Test
+    public void testDispatchToLocalMemberBypassesConnectorWhenLocalSegmentIsConfigured() throws Exception {
+        CommandBus localSegment = mock(CommandBus.class);
+        testSubject = DistributedCommandBus.builder()
+                                           .commandRouter(mockCommandRouter)
+                                           .connector(mockConnector)
+                                           .localSegment(localSegment)
+                                           .messageMonitor(mockMessageMonitor)
+                                           .build();
+        when(mockMember.local()).thenReturn(true);
+        CommandMessage<Object> testCommandMessage = GenericCommandMessage.asCommandMessage("test");
+
+        testSubject.dispatch(testCommandMessage, mock(CommandCallback.class));
+
+        verify(localSegment).dispatch(eq(testCommandMessage), any(CommandCallback.class));
+        verify(mockConnector, never()).send(any(), any(), any());
+    }
+
+    @Test
+    public void testDispatchToLocalMemberSkipsDispatchInterceptorsOfLocalSegment() {
+        SimpleCommandBus localSegment = SimpleCommandBus.builder().build();
+        localSegment.subscribe(String.class.getName(), command -> command.getMetaData().get("interceptedBy"));
+        localSegment.registerDispatchInterceptor(
+                messages -> (index, command) -> command.andMetaData(singletonMap("interceptedBy", "localSegment"))
+        );
+        testSubject = DistributedCommandBus.builder()
+                                           .commandRouter(mockCommandRouter)
+                                           .connector(mockConnector)
+                                           .localSegment(localSegment)
+                                           .build();
+        testSubject.registerDispatchInterceptor(
+                messages -> (index, command) -> command.andMetaData(singletonMap("interceptedBy", "distributed"))
+        );
+        when(mockMember.local()).thenReturn(true);
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        testSubject.dispatch(GenericCommandMessage.asCommandMessage("test"), callback);
+
+        ArgumentCaptor<CommandResultMessage> resultCaptor = ArgumentCaptor.forClass(CommandResultMessage.class);
+        verify(callback).onResult(any(), resultCaptor.capture());
+        assertEquals("distributed", resultCaptor.getValue().getPayload());
+    }
+
+    @Test
+    public void testDispatchToRemoteMemberUsesConnectorWhenLocalSegmentIsConfigured() throws Exception {
+        CommandBus localSegment = mock(CommandBus.class);
+        testSubject = DistributedCommandBus.builder()
+                                           .commandRouter(mockCommandRouter)
+                                           .connector(mockConnector)
+                                           .localSegment(localSegment)
+                                           .messageMonitor(mockMessageMonitor)
+                                           .build();
+        when(mockMember.local()).thenReturn(false);
+        CommandMessage<Object> testCommandMessage = GenericCommandMessage.asCommandMessage("test");
+
+        testSubject.dispatch(testCommandMessage, mock(CommandCallback.class));
+
+        verify(mockConnector).send(eq(mockMember), eq(testCommandMessage), any(CommandCallback.class));
+        verifyZeroInteractions(localSegment);
+    }
+
     private static class StubCommandBusConnector implements CommandBusConnector {
 
         @Override
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class DefaultReactorCommandGatewayTest {
+
+    private CommandGateway commandGateway;
+    private Map<Object, CompletableFuture<Object>> results;
+    private AtomicInteger maxInFlight;
+    private DefaultReactorCommandGateway testSubject;
+
+    @Before
+    public void setUp() {
+        commandGateway = mock(CommandGateway.class);
+        results = new HashMap<>();
+        maxInFlight = new AtomicInteger();
+        when(commandGateway.send(any())).thenAnswer(invocation -> {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            results.put(invocation.getArgument(0), result);
+            int inFlight = (int) results.values().stream().filter(r -> !r.isDone()).count();
+            maxInFlight.accumulateAndGet(inFlight, Math::max);
+            return result;
+        });
+        testSubject = DefaultReactorCommandGateway.builder().commandGateway(commandGateway).build();
+    }
+
+    @Test
+    public void testSendDispatchesCommandOnSubscription() {
+        testSubject.send("command");
+        verify(commandGateway, never()).send(any());
+
+        StepVerifier.create(testSubject.send("command"))
+                    .then(() -> results.get("command").complete("result"))
+                    .expectNext("result")
+                    .verifyComplete();
+    }
+
+    @Test
+    public void testSendReportsExceptionalResult() {
+        StepVerifier.create(testSubject.send("command"))
+                    .then(() -> results.get("command").completeExceptionally(new IllegalStateException("Mock")))
+                    .verifyError(IllegalStateException.class);
+    }
+
+    @Test
+    public void testSendAllLimitsConcurrencyAndPreservesOrder() {
+        StepVerifier.create(testSubject.sendAll(Flux.just("c1", "c2", "c3"), 2))
+                    .then(() -> {
+                        assertEquals(2, results.size());
+                        results.get("c1").complete("r1");
+                    })
+                    .expectNext("r1")
+                    .then(() -> assertEquals(3, results.size()))
+                    .then(() -> results.get("c3").complete("r3"))
+                    .then(() -> results.get("c2").complete("r2"))
+                    .expectNext("r2", "r3")
+                    .verifyComplete();
+
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutCommandGatewayThrowsAxonConfigurationException() {
+        DefaultReactorCommandGateway.builder().build();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.AxonNonTransientException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ExponentialBackOffRetrySchedulerTest {
+
+    private static final Runnable NO_OP = () -> {
+    };
+
+    private ScheduledExecutorService retryExecutor;
+    private CommandMessage<?> command;
+
+    @Before
+    public void setUp() {
+        retryExecutor = mock(ScheduledExecutorService.class);
+        command = asCommandMessage("command");
+    }
+
+    @Test
+    public void testBackOffIncreasesExponentiallyUpToMaximum() {
+        ExponentialBackOffRetryScheduler testSubject = schedulerBuilder()
+                .initialBackOff(100)
+                .maxBackOff(300)
+                .jitter(0)
+                .maxRetryCount(5)
+                .build();
+
+        for (int failureCount = 1; failureCount <= 3; failureCount++) {
+            assertTrue(testSubject.scheduleRetry(command, new RuntimeException(), failures(failureCount), NO_OP));
+        }
+
+        ArgumentCaptor<Long> delays = ArgumentCaptor.forClass(Long.class);
+        verify(retryExecutor, times(3)).schedule(eq(NO_OP), delays.capture(), eq(TimeUnit.MILLISECONDS));
+        assertEquals(100L, (long) delays.getAllValues().get(0));
+        assertEquals(200L, (long) delays.getAllValues().get(1));
+        assertEquals(300L, (long) delays.getAllValues().get(2));
+        assertEquals(3, testSubject.getRetryCount());
+    }
+
+    @Test
+    public void testJitterReducesBackOff() {
+        ExponentialBackOffRetryScheduler testSubject = schedulerBuilder()
+                .initialBackOff(1000)
+                .jitter(0.5)
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            long backOff = testSubject.backOffFor(1);
+            assertTrue(backOff >= 500 && backOff <= 1000);
+        }
+    }
+
+    @Test
+    public void testRetryPolicyOverridesDefaultMaxRetryCount() {
+        ExponentialBackOffRetryScheduler testSubject = schedulerBuilder()
+                .maxRetryCount(3)
+                .retryPolicy(IllegalStateException.class, 0)
+                .build();
+
+        assertFalse(testSubject.scheduleRetry(command, new RuntimeException(new IllegalStateException()),
+                                              failures(1), NO_OP));
+        assertTrue(testSubject.scheduleRetry(command, new RuntimeException(), failures(1), NO_OP));
+        assertEquals(1, testSubject.getAbandonedCount());
+    }
+
+    @Test
+    public void testNonTransientFailuresAreNotRetried() {
+        ExponentialBackOffRetryScheduler testSubject = schedulerBuilder().build();
+
+        assertFalse(testSubject.scheduleRetry(command, new AxonNonTransientException("Mock") {
+        }, failures(1), NO_OP));
+        verifyZeroInteractions(retryExecutor);
+    }
+
+    @Test
+    public void testSharedRetryBudgetLimitsRetries() {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        RetryBudget retryBudget = RetryBudget.builder().capacity(2).refillRate(1).clock(clock).build();
+        ExponentialBackOffRetryScheduler first = schedulerBuilder().retryBudget(retryBudget).build();
+        ExponentialBackOffRetryScheduler second = schedulerBuilder().retryBudget(retryBudget).build();
+
+        assertTrue(first.scheduleRetry(command, new RuntimeException(), failures(1), NO_OP));
+        assertTrue(second.scheduleRetry(command, new RuntimeException(), failures(1), NO_OP));
+        assertFalse(first.scheduleRetry(command, new RuntimeException(), failures(1), NO_OP));
+        assertEquals(1, retryBudget.getExhaustedCount());
+
+        when(clock.millis()).thenReturn(1000L);
+        assertEquals(1, retryBudget.getAvailableTokens());
+        assertTrue(second.scheduleRetry(command, new RuntimeException(), failures(1), NO_OP));
+    }
+
+    @Test
+    public void testRetryRejectedByExecutorDoesNotConsumeRetryBudget() {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        RetryBudget retryBudget = RetryBudget.builder().capacity(1).refillRate(1).clock(clock).build();
+        ExponentialBackOffRetryScheduler testSubject = schedulerBuilder().retryBudget(retryBudget).build();
+        when(retryExecutor.schedule(any(Runnable.class), anyLong(), any()))
+                .thenThrow(new RejectedExecutionException("Mock"))
+                .thenReturn(null);
+
+        assertFalse(testSubject.scheduleRetry(command, new RuntimeException(), failures(1), NO_OP));
+        assertEquals(1, retryBudget.getAvailableTokens());
+        assertEquals(1, testSubject.getAbandonedCount());
+
+        assertTrue(testSubject.scheduleRetry(command, new RuntimeException(), failures(1), NO_OP));
+        assertEquals(0, retryBudget.getAvailableTokens());
+        assertEquals(0, retryBudget.getExhaustedCount());
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutRetryExecutorThrowsAxonConfigurationException() {
+        ExponentialBackOffRetryScheduler.builder().build();
+    }
+
+    private ExponentialBackOffRetryScheduler.Builder schedulerBuilder() {
+        return ExponentialBackOffRetryScheduler.builder().retryExecutor(retryExecutor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Class<? extends Throwable>[]> failures(int count) {
+        List<Class<? extends Throwable>[]> failures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            failures.add(new Class[]{RuntimeException.class});
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TimeOrderedIdentifierFactoryTest {
+
+    private final TimeOrderedIdentifierFactory testSubject = new TimeOrderedIdentifierFactory();
+
+    @Test
+    public void testIdentifiersAreVersion7Uuids() {
+        String identifier = testSubject.generateIdentifier();
+        UUID uuid = UUID.fromString(identifier);
+
+        assertEquals(identifier, uuid.toString());
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    public void testIdentifiersStartWithCreationTime() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UUID.fromString(testSubject.generateIdentifier());
+        long after = System.currentTimeMillis();
+
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before);
+        assertTrue(timestamp <= after);
+    }
+
+    @Test
+    public void testIdentifiersGeneratedLaterSortAfterEarlierIdentifiers() throws InterruptedException {
+        String first = testSubject.generateIdentifier();
+        Thread.sleep(2);
+        String second = testSubject.generateIdentifier();
+
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    @Test
+    public void testIdentifiersAreUnique() {
+        Set<String> identifiers = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(identifiers.add(testSubject.generateIdentifier()));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class VirtualThreadFactoryTest {
+
+    @Test
+    public void testSupportDependsOnAvailabilityOfVirtualThreadBuilder() {
+        boolean ofVirtualAvailable;
+        try {
+            Thread.class.getMethod("ofVirtual");
+            ofVirtualAvailable = true;
+        } catch (NoSuchMethodException e) {
+            ofVirtualAvailable = false;
+        }
+
+        assertEquals(ofVirtualAvailable, VirtualThreadFactory.isSupported());
+    }
+
+    @Test
+    public void testCreatedThreadsAreNamedAfterFactoryAndExecuteTask() throws InterruptedException {
+        VirtualThreadFactory testSubject = new VirtualThreadFactory("test");
+        CountDownLatch executed = new CountDownLatch(1);
+
+        Thread thread = testSubject.newThread(executed::countDown);
+        thread.start();
+
+        assertTrue(thread.getName().startsWith("test-"));
+        assertTrue(executed.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPlatformThreadsProviderCreatesAxonThreadFactory() {
+        assertTrue(ThreadFactoryProvider.platformThreads().createThreadFactory("test") instanceof AxonThreadFactory);
+        assertTrue(ThreadFactoryProvider.virtualThreads().createThreadFactory("test") instanceof VirtualThreadFactory);
+    }
+}
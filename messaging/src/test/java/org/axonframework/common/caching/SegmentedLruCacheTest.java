@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SegmentedLruCacheTest {
+
+    private SegmentedLruCache testSubject;
+    private Cache.EntryListener mockListener;
+
+    @Before
+    public void setUp() {
+        mockListener = mock(Cache.EntryListener.class);
+        testSubject = SegmentedLruCache.builder().maximumSize(4).concurrencyLevel(1).build();
+        testSubject.registerCacheEntryListener(mockListener);
+    }
+
+    @Test
+    public void testEntryListenerNotifiedOfCreationUpdateAndDeletion() {
+        Object value = new Object();
+        Object value2 = new Object();
+        testSubject.put("test1", value);
+        verify(mockListener).onEntryCreated("test1", value);
+
+        testSubject.put("test1", value2);
+        verify(mockListener).onEntryUpdated("test1", value2);
+
+        testSubject.get("test1");
+        verify(mockListener).onEntryRead("test1", value2);
+
+        testSubject.remove("test1");
+        verify(mockListener).onEntryRemoved("test1");
+
+        assertNull(testSubject.get("test1"));
+        verifyNoMoreInteractions(mockListener);
+    }
+
+    @Test
+    public void testPutIfAbsentDoesNotOverwriteExistingEntry() {
+        assertTrue(testSubject.putIfAbsent("test1", "value1"));
+        assertFalse(testSubject.putIfAbsent("test1", "value2"));
+        assertEquals("value1", testSubject.get("test1"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryEvictedWhenSizeExceeded() {
+        testSubject.put("a", "a");
+        testSubject.put("b", "b");
+        testSubject.put("c", "c");
+        testSubject.put("d", "d");
+        testSubject.put("e", "e");
+
+        assertFalse(testSubject.containsKey("a"));
+        assertTrue(testSubject.containsKey("e"));
+        assertEquals(4, testSubject.size());
+        assertEquals(1, testSubject.getEvictionCount());
+        verify(mockListener).onEntryExpired("a");
+    }
+
+    @Test
+    public void testFrequentlyReadEntrySurvivesScanOfNewEntries() {
+        testSubject.put("hot", "hot");
+        testSubject.get("hot");
+
+        for (int i = 0; i < 10; i++) {
+            testSubject.put("cold" + i, i);
+        }
+
+        assertTrue(testSubject.containsKey("hot"));
+        assertEquals(4, testSubject.size());
+    }
+
+    @Test
+    public void testEntriesEvictedBasedOnWeight() {
+        testSubject = SegmentedLruCache.builder()
+                                       .maximumWeight(10)
+                                       .weigher((k, v) -> ((String) v).length())
+                                       .concurrencyLevel(1)
+                                       .build();
+
+        testSubject.put("a", "12345");
+        testSubject.put("b", "1234");
+        assertEquals(9, testSubject.weight());
+
+        testSubject.put("c", "123");
+
+        assertFalse(testSubject.containsKey("a"));
+        assertTrue(testSubject.containsKey("b"));
+        assertTrue(testSubject.containsKey("c"));
+        assertEquals(7, testSubject.weight());
+    }
+
+    @Test
+    public void testIdleEntriesExpire() {
+        MutableClock clock = new MutableClock();
+        testSubject = SegmentedLruCache.builder().timeToIdle(Duration.ofSeconds(10)).clock(clock).build();
+        testSubject.registerCacheEntryListener(mockListener);
+
+        testSubject.put("test1", "value1");
+        clock.instant = clock.instant.plusSeconds(8);
+        assertEquals("value1", testSubject.get("test1"));
+        clock.instant = clock.instant.plusSeconds(8);
+        assertTrue(testSubject.containsKey("test1"));
+        clock.instant = clock.instant.plusSeconds(11);
+
+        assertFalse(testSubject.containsKey("test1"));
+        assertNull(testSubject.get("test1"));
+        verify(mockListener).onEntryExpired("test1");
+        assertEquals(1, testSubject.getEvictionCount());
+    }
+
+    @Test
+    public void testHitAndMissCountsAreRecorded() {
+        testSubject.put("test1", "value1");
+
+        testSubject.get("test1");
+        testSubject.get("test1");
+        testSubject.get("test2");
+
+        assertEquals(2, testSubject.getHitCount());
+        assertEquals(1, testSubject.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullValuesAreRejected() {
+        testSubject.put("test1", null);
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithNonPositiveMaximumSizeThrowsAxonConfigurationException() {
+        SegmentedLruCache.builder().maximumSize(0);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.now();
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
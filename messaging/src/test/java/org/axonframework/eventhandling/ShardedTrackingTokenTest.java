@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ShardedTrackingTokenTest {
+
+    private static final GlobalSequenceTrackingToken TOKEN_1 = new GlobalSequenceTrackingToken(1L);
+    private static final GlobalSequenceTrackingToken TOKEN_2 = new GlobalSequenceTrackingToken(2L);
+
+    @Test
+    public void testAdvancedToOnlyReplacesGivenShard() {
+        ShardedTrackingToken token = new ShardedTrackingToken(TOKEN_1, null);
+
+        ShardedTrackingToken advanced = token.advancedTo(1, TOKEN_2);
+
+        assertEquals(new ShardedTrackingToken(TOKEN_1, TOKEN_2), advanced);
+        assertNull(token.shardToken(1));
+    }
+
+    @Test
+    public void testUpperBound() {
+        ShardedTrackingToken token1 = new ShardedTrackingToken(TOKEN_1, TOKEN_2, null);
+        ShardedTrackingToken token2 = new ShardedTrackingToken(TOKEN_2, TOKEN_1, null);
+
+        assertEquals(new ShardedTrackingToken(TOKEN_2, TOKEN_2, null), token1.upperBound(token2));
+        assertEquals(new ShardedTrackingToken(TOKEN_1, TOKEN_2, TOKEN_1),
+                     token1.upperBound(new ShardedTrackingToken(null, null, TOKEN_1)));
+    }
+
+    @Test
+    public void testLowerBound() {
+        ShardedTrackingToken token1 = new ShardedTrackingToken(TOKEN_1, TOKEN_2, TOKEN_1);
+        ShardedTrackingToken token2 = new ShardedTrackingToken(TOKEN_2, TOKEN_1, null);
+
+        assertEquals(new ShardedTrackingToken(TOKEN_1, TOKEN_1, null), token1.lowerBound(token2));
+    }
+
+    @Test
+    public void testCovers() {
+        ShardedTrackingToken token1 = new ShardedTrackingToken(TOKEN_1, TOKEN_2);
+        ShardedTrackingToken token2 = new ShardedTrackingToken(TOKEN_2, TOKEN_2);
+
+        assertTrue(token2.covers(token1));
+        assertFalse(token1.covers(token2));
+        assertTrue(token1.covers(new ShardedTrackingToken(null, TOKEN_1)));
+        assertFalse(new ShardedTrackingToken(null, TOKEN_2).covers(token1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTokensWithDifferentShardCountsAreIncompatible() {
+        new ShardedTrackingToken(TOKEN_1).covers(new ShardedTrackingToken(TOKEN_1, TOKEN_2));
+    }
+}
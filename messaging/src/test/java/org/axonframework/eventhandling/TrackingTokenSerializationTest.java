@@ -71,6 +71,19 @@ public void testSerializeGlobalSequenceTrackingToken() {
         }
     }
 
+    @Test
+    public void testSerializeShardedTrackingToken() {
+        ShardedTrackingToken token = new ShardedTrackingToken(
+                GapAwareTrackingToken.newInstance(10, Collections.singleton(7L)), null, new GlobalSequenceTrackingToken(3)
+        );
+        ShardedTrackingToken[] results = serializeToken(token);
+        for (int i = 0; i < results.length; i++) {
+            assertNotNull("Serializer " + serializers[i].getClass().getName() + " produced null result", results[i]);
+            assertEquals("Serializer " + serializers[i].getClass().getName() + " produced unequal result",
+                         token, results[i]);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T extends TrackingToken> T[] serializeToken(T token) {
         T[] results = (T[]) Array.newInstance(token.getClass(), serializers.length);
@@ -18,7 +18,18 @@
 
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
 
 public class MetaDataTest {
 
@@ -31,4 +42,126 @@ public void testAddNullValueToMetaData() {
         assertEquals(null, metaData.get("nullkey"));
         assertEquals("value", metaData.get("otherkey"));
     }
+
+    @Test
+    public void testDerivedMetaDataDoesNotAffectOriginal() {
+        MetaData original = MetaData.with("key1", "value1").and("key2", "value2");
+
+        MetaData derived = original.and("key1", "changed").mergedWith(Collections.singletonMap("key3", "value3"))
+                                   .withoutKeys(Collections.singleton("key2"));
+
+        assertEquals(2, original.size());
+        assertEquals("value1", original.get("key1"));
+        assertEquals("value2", original.get("key2"));
+        assertEquals(2, derived.size());
+        assertEquals("changed", derived.get("key1"));
+        assertEquals("value3", derived.get("key3"));
+        assertFalse(derived.containsKey("key2"));
+    }
+
+    @Test
+    public void testUnchangedMetaDataIsReturnedAsIs() {
+        String value = "value";
+        MetaData metaData = MetaData.with("key", value);
+
+        assertSame(metaData, metaData.and("key", value));
+        assertSame(metaData, metaData.withoutKeys(Collections.singleton("unknown")));
+        assertSame(metaData, metaData.mergedWith(Collections.singletonMap("key", value)));
+    }
+
+    @Test
+    public void testMetaDataBehavesLikeHashMapForRandomModifications() {
+        Random random = new Random(42);
+        Map<String, Object> expected = new HashMap<>();
+        MetaData metaData = MetaData.emptyInstance();
+        for (int i = 0; i < 5000; i++) {
+            // "Aa" and "BB" share a hash code, causing keys with colliding hashes
+            String key = (random.nextBoolean() ? "Aa" : "BB") + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                metaData = metaData.withoutKeys(Collections.singleton(key));
+            } else {
+                Object value = random.nextInt(10) == 0 ? null : i;
+                expected.put(key, value);
+                metaData = metaData.and(key, value);
+            }
+            assertEquals(expected.size(), metaData.size());
+            assertEquals(expected.get(key), metaData.get(key));
+            assertEquals(expected.containsKey(key), metaData.containsKey(key));
+        }
+
+        assertEquals(expected, metaData);
+        assertEquals(metaData, expected);
+        assertEquals(expected.hashCode(), metaData.hashCode());
+        assertEquals(expected.keySet(), metaData.keySet());
+        assertEquals(expected.entrySet(), metaData.entrySet());
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(metaData.values()));
+        assertEquals(expected, MetaData.from(expected));
+        assertEquals(MetaData.emptyInstance(), metaData.withoutKeys(expected.keySet()));
+    }
+
+    @Test
+    public void testSubsetOfLargeMetaData() {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            values.put("key" + i, i);
+        }
+        MetaData metaData = MetaData.from(values);
+
+        MetaData subset = metaData.subset("key1", "key50", "unknown");
+
+        assertEquals(2, subset.size());
+        assertEquals(1, subset.get("key1"));
+        assertEquals(50, subset.get("key50"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEntrySetIsUnmodifiable() {
+        MetaData.with("key", "value").entrySet().clear();
+    }
+
+    @Test
+    public void testIterationOrderMatchesHashMap() {
+        Map<String, Object> values = new HashMap<>();
+        MetaData metaData = MetaData.emptyInstance();
+        for (int i = 0; i < 40; i++) {
+            values.put("key" + i, i);
+            metaData = metaData.and("key" + i, i);
+            assertEquals(new ArrayList<>(new HashMap<>(values).keySet()), new ArrayList<>(metaData.keySet()));
+        }
+        assertEquals(new ArrayList<>(new HashMap<>(values).values()), new ArrayList<>(metaData.values()));
+    }
+
+    @Test
+    public void testJavaSerializationWritesEntriesAsHashMap() throws Exception {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            values.put("key" + i, i);
+        }
+        values.put("nullKey", null);
+        MetaData metaData = MetaData.from(values);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(metaData);
+        }
+        MetaData result;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            result = (MetaData) in.readObject();
+        }
+
+        assertEquals(metaData, result);
+        assertTrue(new String(bytes.toByteArray(), "ISO-8859-1").contains("java.util.HashMap"));
+    }
+
+    @Test
+    public void testEmptyMetaDataIsSingletonAfterJavaSerialization() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(MetaData.emptyInstance());
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame(MetaData.emptyInstance(), in.readObject());
+        }
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.queryhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.caching.SegmentedLruCache;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.utils.MockException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CachingQueryBusTest {
+
+    private static final String QUERY_NAME = "greeting";
+
+    private SimpleQueryBus delegate;
+    private SegmentedLruCache cache;
+    private CachingQueryBus testSubject;
+    private AtomicInteger invocationCount;
+
+    @Before
+    public void setUp() {
+        delegate = SimpleQueryBus.builder().build();
+        cache = SegmentedLruCache.builder().build();
+        testSubject = CachingQueryBus.builder()
+                                     .delegate(delegate)
+                                     .queryUpdateEmitter(delegate.queryUpdateEmitter())
+                                     .cache(cache)
+                                     .build();
+        invocationCount = new AtomicInteger();
+        testSubject.subscribe(QUERY_NAME, String.class, query -> {
+            invocationCount.incrementAndGet();
+            if ("fail".equals(query.getPayload())) {
+                throw new MockException();
+            }
+            return "Hello, " + query.getPayload();
+        });
+    }
+
+    @Test
+    public void testRepeatedQueryIsAnsweredFromCache() throws Exception {
+        assertEquals("Hello, World", query("World"));
+        assertEquals("Hello, World", query("World"));
+
+        assertEquals(1, invocationCount.get());
+        assertEquals(1, testSubject.getHitCount());
+        assertEquals(1, testSubject.getMissCount());
+    }
+
+    @Test
+    public void testQueriesWithDifferentPayloadAreCachedSeparately() throws Exception {
+        assertEquals("Hello, World", query("World"));
+        assertEquals("Hello, Axon", query("Axon"));
+
+        assertEquals(2, invocationCount.get());
+        assertEquals(0, testSubject.getHitCount());
+    }
+
+    @Test
+    public void testEmittedUpdateInvalidatesCachedResponse() throws Exception {
+        query("World");
+        query("Axon");
+
+        testSubject.queryUpdateEmitter().emit(String.class, "World"::equals, "update");
+
+        query("World");
+        query("Axon");
+        assertEquals(3, invocationCount.get());
+        assertEquals(1, testSubject.getHitCount());
+        assertEquals(1, testSubject.getInvalidationCount());
+    }
+
+    @Test
+    public void testUpdateEmittedWhileHandlingQueryPreventsCachingOfResponse() throws Exception {
+        testSubject.subscribe("emitting", String.class, query -> {
+            invocationCount.incrementAndGet();
+            testSubject.queryUpdateEmitter().emit(String.class, "World"::equals, "update");
+            return "emitted";
+        });
+        QueryMessage<String, String> query =
+                new GenericQueryMessage<>("World", "emitting", ResponseTypes.instanceOf(String.class));
+
+        testSubject.query(query).get();
+        testSubject.query(query).get();
+
+        assertEquals(2, invocationCount.get());
+        assertEquals(0, testSubject.getHitCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExceptionalResponsesAreNotCached() throws Exception {
+        QueryMessage<String, String> query =
+                new GenericQueryMessage<>("fail", QUERY_NAME, ResponseTypes.instanceOf(String.class));
+
+        assertTrue(testSubject.query(query).get().isExceptional());
+        assertTrue(testSubject.query(query).get().isExceptional());
+
+        assertEquals(2, invocationCount.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testUpdatesNoLongerInvalidateResponsesEvictedByTheCache() throws Exception {
+        testSubject = CachingQueryBus.builder()
+                                     .delegate(delegate)
+                                     .queryUpdateEmitter(delegate.queryUpdateEmitter())
+                                     .cache(SegmentedLruCache.builder().maximumSize(1).concurrencyLevel(1).build())
+                                     .build();
+        query("World");
+        query("Axon");
+
+        testSubject.queryUpdateEmitter().emit(String.class, "World"::equals, "update");
+
+        assertEquals(0, testSubject.getInvalidationCount());
+    }
+
+    @Test
+    public void testNoUpdateHandlerIsRegisteredForCachedQueries() throws Exception {
+        query("World");
+        query("Axon");
+
+        assertTrue(((SimpleQueryUpdateEmitter) delegate.queryUpdateEmitter()).activeSubscriptions().isEmpty());
+    }
+
+    @Test
+    public void testDispatchInterceptorsAreInvokedBeforeCacheLookup() throws Exception {
+        AtomicInteger interceptionCount = new AtomicInteger();
+        testSubject.registerDispatchInterceptor(messages -> (i, query) -> {
+            interceptionCount.incrementAndGet();
+            return query.andMetaData(MetaData.with("tenant", "axon"));
+        });
+        testSubject.subscribe("tenant", String.class, query -> query.getMetaData().get("tenant"));
+        QueryMessage<String, String> query =
+                new GenericQueryMessage<>("World", "tenant", ResponseTypes.instanceOf(String.class));
+
+        assertEquals("axon", testSubject.query(query).get().getPayload());
+        assertEquals("axon", testSubject.query(query).get().getPayload());
+
+        assertEquals(2, interceptionCount.get());
+        assertEquals(1, testSubject.getHitCount());
+    }
+
+    @Test
+    public void testQueriesWithDifferentMetaDataAreCachedSeparately() throws Exception {
+        assertEquals("Hello, World", query("World", MetaData.with("tenant", "axon")));
+        assertEquals("Hello, World", query("World", MetaData.with("tenant", "other")));
+        assertEquals("Hello, World", query("World", MetaData.with("tenant", "axon")));
+
+        assertEquals(2, invocationCount.get());
+        assertEquals(1, testSubject.getHitCount());
+    }
+
+    @Test
+    public void testOnlyConfiguredMetaDataKeysArePartOfCacheKey() throws Exception {
+        testSubject = CachingQueryBus.builder()
+                                     .delegate(delegate)
+                                     .queryUpdateEmitter(delegate.queryUpdateEmitter())
+                                     .cache(cache)
+                                     .metaDataKeys("tenant")
+                                     .build();
+
+        query("World", MetaData.with("tenant", "axon").and("traceId", "1"));
+        query("World", MetaData.with("tenant", "axon").and("traceId", "2"));
+        query("World", MetaData.with("tenant", "other").and("traceId", "3"));
+
+        assertEquals(2, invocationCount.get());
+        assertEquals(1, testSubject.getHitCount());
+    }
+
+    @Test
+    public void testUpdateEmittedWithinUnitOfWorkInvalidatesCachedResponseAfterCommit() throws Exception {
+        query("World");
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        testSubject.queryUpdateEmitter().emit(String.class, "World"::equals, "update");
+
+        assertEquals(0, testSubject.getInvalidationCount());
+
+        unitOfWork.commit();
+        assertEquals(1, testSubject.getInvalidationCount());
+        query("World");
+        assertEquals(2, invocationCount.get());
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutCacheThrowsAxonConfigurationException() {
+        CachingQueryBus.builder().delegate(delegate).queryUpdateEmitter(delegate.queryUpdateEmitter()).build();
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutQueryUpdateEmitterThrowsAxonConfigurationException() {
+        CachingQueryBus.builder().delegate(delegate).cache(cache).build();
+    }
+
+    private String query(String payload) throws Exception {
+        return query(payload, MetaData.emptyInstance());
+    }
+
+    private String query(String payload, MetaData metaData) throws Exception {
+        return testSubject.query(new GenericQueryMessage<>(payload, QUERY_NAME, ResponseTypes.instanceOf(String.class))
+                                         .withMetaData(metaData))
+                          .get()
+                          .getPayload();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.queryhandling;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.messaging.responsetypes.ResponseTypes;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DefaultReactorQueryGatewayTest {
+
+    private SimpleQueryBus queryBus;
+    private DefaultReactorQueryGateway testSubject;
+
+    @Before
+    public void setUp() {
+        queryBus = SimpleQueryBus.builder().build();
+        testSubject = DefaultReactorQueryGateway.builder()
+                                                .queryGateway(DefaultQueryGateway.builder().queryBus(queryBus).build())
+                                                .build();
+    }
+
+    @Test
+    public void testQueryCompletesWithResult() {
+        queryBus.subscribe(String.class.getName(), String.class, query -> query.getPayload() + "-result");
+
+        StepVerifier.create(testSubject.query("query", String.class))
+                    .expectNext("query-result")
+                    .verifyComplete();
+    }
+
+    @Test
+    public void testQueryIsDispatchedOnConfiguredScheduler() {
+        queryBus.subscribe(String.class.getName(), String.class, query -> Thread.currentThread().getName());
+        Scheduler scheduler = Schedulers.newSingle("dispatcher");
+        testSubject = DefaultReactorQueryGateway.builder()
+                                                .queryGateway(DefaultQueryGateway.builder().queryBus(queryBus).build())
+                                                .dispatchScheduler(scheduler)
+                                                .build();
+        try {
+            StepVerifier.create(testSubject.query("query", String.class))
+                        .assertNext(threadName -> assertTrue(threadName.startsWith("dispatcher")))
+                        .verifyComplete();
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    public void testQueryManyEmitsElementsOnDemand() {
+        queryBus.subscribe(String.class.getName(), String[].class, query -> new String[]{"a", "b", "c"});
+
+        StepVerifier.create(testSubject.queryMany("query", String.class), 1)
+                    .expectNext("a")
+                    .thenRequest(2)
+                    .expectNext("b", "c")
+                    .verifyComplete();
+    }
+
+    @Test
+    public void testScatterGatherOnlyInvokesHandlersOnDemand() {
+        AtomicInteger invocations = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            queryBus.subscribe(String.class.getName(), String.class, query -> "r" + invocations.incrementAndGet());
+        }
+
+        StepVerifier.create(testSubject.scatterGather("query", ResponseTypes.instanceOf(String.class),
+                                                      1, TimeUnit.SECONDS), 1)
+                    .expectNext("r1")
+                    .then(() -> assertTrue(invocations.get() < 3))
+                    .thenRequest(2)
+                    .expectNext("r2", "r3")
+                    .verifyComplete();
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutQueryGatewayThrowsAxonConfigurationException() {
+        DefaultReactorQueryGateway.builder().build();
+    }
+}
@@ -33,8 +33,13 @@
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -551,6 +556,85 @@ public void testScatterGatherReportsExceptionsWithErrorHandler() {
         verify(monitorCallback, times(1)).reportFailure(isA(MockException.class));
     }
 
+    @Test
+    public void testQueryIsRoutedToHandlersSubscribedAfterResolvingHandlers() throws Exception {
+        QueryMessage<String, String> testQueryMessage = new GenericQueryMessage<>("hello", singleStringResponse);
+        assertTrue(testSubject.query(testQueryMessage).isCompletedExceptionally());
+
+        Registration registration =
+                testSubject.subscribe(String.class.getName(), String.class, (q) -> q.getPayload() + "1234");
+        assertEquals("hello1234", testSubject.query(testQueryMessage).get().getPayload());
+
+        registration.cancel();
+        assertTrue(testSubject.query(testQueryMessage).isCompletedExceptionally());
+    }
+
+    @Test
+    public void testParallelScatterGatherInvokesHandlersConcurrently() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            testSubject = SimpleQueryBus.builder()
+                                        .messageMonitor(messageMonitor)
+                                        .errorHandler(errorHandler)
+                                        .scatterGatherExecutor(executor)
+                                        .build();
+            CyclicBarrier barrier = new CyclicBarrier(3);
+            for (int i = 0; i < 3; i++) {
+                String reply = "reply" + i;
+                testSubject.subscribe(String.class.getName(), String.class, (q) -> {
+                    barrier.await(5, TimeUnit.SECONDS);
+                    return reply;
+                });
+            }
+
+            QueryMessage<String, String> testQueryMessage = new GenericQueryMessage<>("hello", singleStringResponse);
+            Set<String> results = testSubject.scatterGather(testQueryMessage, 5, TimeUnit.SECONDS)
+                                             .map(Message::getPayload)
+                                             .collect(toSet());
+
+            assertEquals(new HashSet<>(asList("reply0", "reply1", "reply2")), results);
+            verify(monitorCallback, times(3)).reportSuccess();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelScatterGatherStreamsResponsesAsTheyCompleteUntilDeadline() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            testSubject = SimpleQueryBus.builder()
+                                        .messageMonitor(messageMonitor)
+                                        .errorHandler(errorHandler)
+                                        .scatterGatherExecutor(executor)
+                                        .build();
+            CountDownLatch neverReleased = new CountDownLatch(1);
+            CountDownLatch slowHandlerInterrupted = new CountDownLatch(1);
+            testSubject.subscribe(String.class.getName(), String.class, (q) -> {
+                try {
+                    neverReleased.await();
+                } catch (InterruptedException e) {
+                    slowHandlerInterrupted.countDown();
+                }
+                return "slow";
+            });
+            testSubject.subscribe(String.class.getName(), String.class, (q) -> "fast");
+
+            QueryMessage<String, String> testQueryMessage = new GenericQueryMessage<>("hello", singleStringResponse);
+            List<String> results = testSubject.scatterGather(testQueryMessage, 200, TimeUnit.MILLISECONDS)
+                                              .map(Message::getPayload)
+                                              .collect(Collectors.toList());
+
+            assertEquals(Collections.singletonList("fast"), results);
+            assertTrue(slowHandlerInterrupted.await(5, TimeUnit.SECONDS));
+            verify(monitorCallback).reportSuccess();
+            verify(monitorCallback).reportFailure(isA(TimeoutException.class));
+            verify(errorHandler).onError(isA(TimeoutException.class), eq(testQueryMessage), isA(MessageHandler.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testQueryResponseMessageCorrelationData() throws ExecutionException, InterruptedException {
         testSubject.subscribe(String.class.getName(), String.class, (q) -> q.getPayload() + "1234");
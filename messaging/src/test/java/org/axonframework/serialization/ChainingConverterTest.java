@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ */
+public class ChainingConverterTest {
+
+    private ChainingConverter testSubject;
+    private ContentTypeConverter<First, Second> firstToSecond;
+    private ContentTypeConverter<Second, Third> secondToThird;
+
+    @Before
+    public void setUp() {
+        testSubject = new ChainingConverter();
+        firstToSecond = spy(new TestConverter<>(First.class, Second.class, first -> new Second()));
+        secondToThird = spy(new TestConverter<>(Second.class, Third.class, second -> new Third()));
+        testSubject.registerConverter(firstToSecond);
+        testSubject.registerConverter(secondToThird);
+    }
+
+    @Test
+    public void testChainedConversionRouteIsResolvedOnlyOnce() {
+        assertTrue(testSubject.convert(new First(), First.class, Third.class) instanceof Third);
+        clearInvocations(firstToSecond, secondToThird);
+
+        assertTrue(testSubject.canConvert(First.class, Third.class));
+        assertTrue(testSubject.convert(new First(), First.class, Third.class) instanceof Third);
+
+        verify(firstToSecond, never()).expectedSourceType();
+        verify(secondToThird, never()).expectedSourceType();
+        verify(firstToSecond).convert(any());
+        verify(secondToThird).convert(any());
+    }
+
+    @Test
+    public void testUnsupportedConversionIsCached() {
+        assertFalse(testSubject.canConvert(Third.class, First.class));
+        clearInvocations(firstToSecond, secondToThird);
+
+        assertFalse(testSubject.canConvert(Third.class, First.class));
+
+        verify(firstToSecond, never()).expectedSourceType();
+        verify(secondToThird, never()).expectedSourceType();
+    }
+
+    @Test(expected = CannotConvertBetweenTypesException.class)
+    public void testConvertingUnsupportedTypesThrowsException() {
+        testSubject.convert(new Third(), Third.class, First.class);
+    }
+
+    @Test
+    public void testRegisteringConverterInvalidatesResolvedRoutes() {
+        assertFalse(testSubject.canConvert(Third.class, First.class));
+        testSubject.convert(new First(), First.class, Third.class);
+        Third directlyConverted = new Third();
+
+        testSubject.registerConverter(new TestConverter<>(Third.class, First.class, third -> new First()));
+        testSubject.registerConverter(new TestConverter<>(First.class, Third.class, first -> directlyConverted));
+
+        assertTrue(testSubject.canConvert(Third.class, First.class));
+        assertSame(directlyConverted, testSubject.convert(new First(), First.class, Third.class));
+    }
+
+    private static class First {
+
+    }
+
+    private static class Second {
+
+    }
+
+    private static class Third {
+
+    }
+
+    private static class TestConverter<S, T> implements ContentTypeConverter<S, T> {
+
+        private final Class<S> sourceType;
+        private final Class<T> targetType;
+        private final Function<S, T> conversion;
+
+        private TestConverter(Class<S> sourceType, Class<T> targetType, Function<S, T> conversion) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            this.conversion = conversion;
+        }
+
+        @Override
+        public Class<S> expectedSourceType() {
+            return sourceType;
+        }
+
+        @Override
+        public Class<T> targetType() {
+            return targetType;
+        }
+
+        @Override
+        public T convert(S original) {
+            return conversion.apply(original);
+        }
+    }
+}
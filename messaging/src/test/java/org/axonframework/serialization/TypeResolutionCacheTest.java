@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ */
+public class TypeResolutionCacheTest {
+
+    private RevisionResolver revisionResolver;
+    private TypeResolutionCache testSubject;
+
+    @Before
+    public void setUp() {
+        revisionResolver = mock(RevisionResolver.class);
+        when(revisionResolver.revisionOf(String.class)).thenReturn("1");
+        testSubject = new TypeResolutionCache(revisionResolver);
+    }
+
+    @Test
+    public void testClassIsResolvedOnlyOnce() {
+        AtomicInteger resolveCount = new AtomicInteger();
+        Function<SerializedType, Class<?>> classResolver = type -> {
+            resolveCount.incrementAndGet();
+            return String.class;
+        };
+
+        assertEquals(String.class, testSubject.classForType(new SimpleSerializedType("string", "1"), classResolver));
+        assertEquals(String.class, testSubject.classForType(new SimpleSerializedType("string", "1"), classResolver));
+        assertEquals(1, resolveCount.get());
+
+        testSubject.classForType(new SimpleSerializedType("string", "2"), classResolver);
+        assertEquals(2, resolveCount.get());
+    }
+
+    @Test
+    public void testUnknownTypeIsCachedUntilInvalidated() {
+        AtomicInteger resolveCount = new AtomicInteger();
+        Function<SerializedType, Class<?>> classResolver = type -> {
+            resolveCount.incrementAndGet();
+            return UnknownSerializedType.class;
+        };
+
+        testSubject.classForType(new SimpleSerializedType("unknown", null), classResolver);
+        assertEquals(UnknownSerializedType.class,
+                     testSubject.classForType(new SimpleSerializedType("unknown", null), classResolver));
+        assertEquals(1, resolveCount.get());
+
+        testSubject.invalidateUnknownTypes();
+
+        testSubject.classForType(new SimpleSerializedType("unknown", null), classResolver);
+        assertEquals(2, resolveCount.get());
+    }
+
+    @Test
+    public void testUnknownTypeIsResolvedAgainWhenTimeToLiveHasPassed() throws Exception {
+        testSubject = new TypeResolutionCache(revisionResolver, 10, TimeUnit.MILLISECONDS);
+        AtomicReference<Class<?>> resolvedClass = new AtomicReference<>(UnknownSerializedType.class);
+        Function<SerializedType, Class<?>> classResolver = type -> resolvedClass.get();
+
+        testSubject.classForType(new SimpleSerializedType("string", null), classResolver);
+        resolvedClass.set(String.class);
+        assertEquals(UnknownSerializedType.class,
+                     testSubject.classForType(new SimpleSerializedType("string", null), classResolver));
+
+        Thread.sleep(20);
+
+        assertEquals(String.class, testSubject.classForType(new SimpleSerializedType("string", null), classResolver));
+    }
+
+    @Test
+    public void testUnknownTypeIsNotCachedWithoutTimeToLive() {
+        testSubject = new TypeResolutionCache(revisionResolver, 0, TimeUnit.MILLISECONDS);
+        AtomicInteger resolveCount = new AtomicInteger();
+        Function<SerializedType, Class<?>> classResolver = type -> {
+            resolveCount.incrementAndGet();
+            return UnknownSerializedType.class;
+        };
+
+        testSubject.classForType(new SimpleSerializedType("unknown", null), classResolver);
+        testSubject.classForType(new SimpleSerializedType("unknown", null), classResolver);
+        assertEquals(2, resolveCount.get());
+    }
+
+    @Test
+    public void testRevisionIsResolvedOnlyOnce() {
+        assertEquals("1", testSubject.revisionOf(String.class));
+        assertEquals("1", testSubject.revisionOf(String.class));
+        assertNull(testSubject.revisionOf(Integer.class));
+        assertNull(testSubject.revisionOf(Integer.class));
+
+        verify(revisionResolver).revisionOf(String.class);
+        verify(revisionResolver).revisionOf(Integer.class);
+    }
+
+    @Test
+    public void testClearResolvesTypesAgain() {
+        AtomicInteger resolveCount = new AtomicInteger();
+        Function<SerializedType, Class<?>> classResolver = type -> {
+            resolveCount.incrementAndGet();
+            return String.class;
+        };
+        testSubject.classForType(new SimpleSerializedType("string", null), classResolver);
+        testSubject.revisionOf(String.class);
+
+        testSubject.clear();
+
+        testSubject.classForType(new SimpleSerializedType("string", null), classResolver);
+        testSubject.revisionOf(String.class);
+        assertEquals(2, resolveCount.get());
+        verify(revisionResolver, times(2)).revisionOf(String.class);
+    }
+}
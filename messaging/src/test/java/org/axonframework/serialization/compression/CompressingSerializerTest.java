@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization.compression;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.serialization.SerializationException;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class CompressingSerializerTest {
+
+    private XStreamSerializer delegate;
+    private CompressingSerializer testSubject;
+    private String largePayload;
+
+    @Before
+    public void setUp() {
+        delegate = XStreamSerializer.builder().build();
+        testSubject = CompressingSerializer.builder().delegate(delegate).build();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("compressible payload ").append(i % 10);
+        }
+        largePayload = sb.toString();
+    }
+
+    @Test
+    public void testLargeDataIsCompressed() {
+        SerializedObject<byte[]> uncompressed = delegate.serialize(largePayload, byte[].class);
+
+        SerializedObject<byte[]> serialized = testSubject.serialize(largePayload, byte[].class);
+
+        assertTrue(serialized.getData().length < uncompressed.getData().length / 5);
+        assertEquals(uncompressed.getType(), serialized.getType());
+        assertEquals(largePayload, testSubject.deserialize(serialized));
+    }
+
+    @Test
+    public void testSmallDataIsNotCompressed() {
+        SerializedObject<byte[]> serialized = testSubject.serialize("small", byte[].class);
+
+        assertArrayEquals(delegate.serialize("small", byte[].class).getData(), serialized.getData());
+        assertEquals("small", testSubject.deserialize(serialized));
+    }
+
+    @Test
+    public void testUncompressedDataIsDeserialized() {
+        SerializedObject<byte[]> uncompressed = delegate.serialize(largePayload, byte[].class);
+
+        assertEquals(largePayload, testSubject.deserialize(uncompressed));
+    }
+
+    @Test
+    public void testDataIsNotCompressedToNonBinaryRepresentation() {
+        SerializedObject<String> serialized = testSubject.serialize(largePayload, String.class);
+
+        assertEquals(delegate.serialize(largePayload, String.class).getData(), serialized.getData());
+    }
+
+    @Test
+    public void testConverterDecompressesData() {
+        SerializedObject<byte[]> serialized = testSubject.serialize(largePayload, byte[].class);
+        String expected = delegate.serialize(largePayload, String.class).getData();
+
+        assertEquals(expected, testSubject.getConverter().convert(serialized, String.class).getData());
+        assertEquals(expected, new String(testSubject.getConverter().convert(serialized.getData(), byte[].class)));
+        assertArrayEquals(delegate.serialize(largePayload, byte[].class).getData(),
+                          testSubject.getConverter().convert(serialized, byte[].class).getData());
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testDataCompressedInOtherFormatIsRejected() {
+        SerializedObject<byte[]> serialized = testSubject.serialize(largePayload, byte[].class);
+        serialized.getData()[4] = 'X';
+
+        testSubject.deserialize(new SimpleSerializedObject<>(serialized.getData(), byte[].class,
+                                                             serialized.getType()));
+    }
+
+    @Test
+    public void testDataExceedingMaximumDecompressedSizeIsRejected() {
+        SerializedObject<byte[]> serialized = testSubject.serialize(largePayload, byte[].class);
+        testSubject = CompressingSerializer.builder().delegate(delegate).maxDecompressedSize(100).build();
+
+        try {
+            testSubject.deserialize(serialized);
+            fail("Expected data exceeding the maximum decompressed size to be rejected");
+        } catch (SerializationException e) {
+            // expected
+        }
+        try {
+            testSubject.getConverter().convert(serialized, String.class);
+            fail("Expected data exceeding the maximum decompressed size to be rejected");
+        } catch (SerializationException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithNonPositiveMaxDecompressedSizeThrowsAxonConfigurationException() {
+        CompressingSerializer.builder().maxDecompressedSize(0);
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithoutDelegateThrowsAxonConfigurationException() {
+        CompressingSerializer.builder().build();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.serialization.compression;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.serialization.SerializationException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ */
+public class DeflateCompressorTest {
+
+    private static final byte[] DATA =
+            "<org.axonframework.test.SomeEvent><identifier>1234</identifier></org.axonframework.test.SomeEvent>"
+                    .getBytes(StandardCharsets.UTF_8);
+    private static final int BUFFER_SIZE_MULTIPLE = 3 * 4096;
+    private static final byte[] DICTIONARY =
+            "<org.axonframework.test.SomeEvent><identifier></identifier></org.axonframework.test.SomeEvent>"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testCompressedDataIsDecompressed() {
+        DeflateCompressor testSubject = DeflateCompressor.builder().build();
+
+        byte[] compressed = testSubject.compress(DATA);
+        byte[] padded = new byte[compressed.length + 3];
+        System.arraycopy(compressed, 0, padded, 2, compressed.length);
+
+        assertArrayEquals(DATA, testSubject.decompress(padded, 2, compressed.length));
+    }
+
+    @Test
+    public void testDictionaryImprovesCompressionOfSmallData() {
+        DeflateCompressor withoutDictionary = DeflateCompressor.builder().build();
+        DeflateCompressor withDictionary = DeflateCompressor.builder().dictionary(DICTIONARY).build();
+
+        byte[] compressed = withDictionary.compress(DATA);
+
+        assertTrue(compressed.length < withoutDictionary.compress(DATA).length / 2);
+        assertArrayEquals(DATA, withDictionary.decompress(compressed, 0, compressed.length));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testDecompressingWithoutDictionaryIsRejected() {
+        byte[] compressed = DeflateCompressor.builder().dictionary(DICTIONARY).build().compress(DATA);
+
+        DeflateCompressor.builder().build().decompress(compressed, 0, compressed.length);
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testDecompressingTruncatedDataIsRejected() {
+        DeflateCompressor testSubject = DeflateCompressor.builder().build();
+        byte[] compressed = testSubject.compress(DATA);
+
+        testSubject.decompress(compressed, 0, compressed.length / 2);
+    }
+
+    @Test
+    public void testDecompressingDataExceedingMaximumSizeIsRejected() {
+        DeflateCompressor testSubject = DeflateCompressor.builder().build();
+        byte[] compressed = testSubject.compress(new byte[BUFFER_SIZE_MULTIPLE]);
+
+        assertEquals(BUFFER_SIZE_MULTIPLE,
+                     testSubject.decompress(compressed, 0, compressed.length, BUFFER_SIZE_MULTIPLE).length);
+        try {
+            testSubject.decompress(compressed, 0, compressed.length, BUFFER_SIZE_MULTIPLE - 1);
+            fail("Expected data exceeding the maximum decompressed size to be rejected");
+        } catch (SerializationException e) {
+            assertTrue(e.getMessage().contains("maximum decompressed size"));
+        }
+    }
+
+    @Test(expected = AxonConfigurationException.class)
+    public void testBuildWithInvalidCompressionLevelThrowsAxonConfigurationException() {
+        DeflateCompressor.builder().compressionLevel(10);
+    }
+}
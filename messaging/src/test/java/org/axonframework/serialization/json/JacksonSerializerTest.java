@@ -18,6 +18,7 @@
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.axonframework.messaging.MetaData;
@@ -27,7 +28,10 @@
 
 import java.io.InputStream;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.*;
@@ -176,6 +180,45 @@ public void testCustomObjectMapper() {
         verify(objectMapper).writer();
     }
 
+    @Test
+    public void testClassesAreLoadedOnlyOnce() {
+        List<String> loadedClasses = new CopyOnWriteArrayList<>();
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Class<?> loadClass(String name) throws ClassNotFoundException {
+                loadedClasses.add(name);
+                return super.loadClass(name);
+            }
+        };
+        testSubject = JacksonSerializer.builder().classLoader(classLoader).build();
+        SerializedObject<String> serialized = testSubject.serialize(new SimpleSerializableType("first"), String.class);
+
+        testSubject.deserialize(serialized);
+        testSubject.deserialize(serialized);
+        testSubject.classForType(new SimpleSerializedType("unknown", null));
+        testSubject.classForType(new SimpleSerializedType("unknown", null));
+
+        assertEquals(Arrays.asList(SimpleSerializableType.class.getName(), "unknown"), loadedClasses);
+    }
+
+    @Test
+    public void testObjectMapperConfigurationChangesAfterUseAreApplied() {
+        SerializedObject<String> serialized =
+                new SimpleSerializedObject<>("{\"value\":\"first\",\"unknown\":true}", String.class,
+                                             testSubject.typeForClass(SimpleSerializableType.class));
+        try {
+            testSubject.deserialize(serialized);
+            fail("Expected unknown property to be rejected");
+        } catch (SerializationException e) {
+            // expected
+        }
+
+        testSubject.getObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        SimpleSerializableType actual = testSubject.deserialize(serialized);
+        assertEquals("first", actual.getValue());
+    }
+
     @Test
     public void testSerializeMetaData() {
         testSubject = JacksonSerializer.builder().build();
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.RatioGauge;
+import org.axonframework.common.caching.SegmentedLruCache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exposes the hit, miss and eviction counts, as well as the size and weight, of a {@link SegmentedLruCache}.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class CacheMetrics implements MetricSet {
+
+    private final SegmentedLruCache cache;
+
+    /**
+     * Initializes the metrics for the given {@code cache}.
+     *
+     * @param cache the cache to expose the statistics for
+     */
+    public CacheMetrics(SegmentedLruCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metricSet = new HashMap<>();
+        metricSet.put("hitCount", (Gauge<Long>) cache::getHitCount);
+        metricSet.put("missCount", (Gauge<Long>) cache::getMissCount);
+        metricSet.put("evictionCount", (Gauge<Long>) cache::getEvictionCount);
+        metricSet.put("size", (Gauge<Long>) cache::size);
+        metricSet.put("weight", (Gauge<Long>) cache::weight);
+        metricSet.put("hitRatio", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                long hits = cache.getHitCount();
+                return Ratio.of(hits, hits + cache.getMissCount());
+            }
+        });
+        return metricSet;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.RatioGauge;
+import org.axonframework.queryhandling.CachingQueryBus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exposes the hit, miss and invalidation counts of the query result cache of a {@link CachingQueryBus}.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class CachingQueryBusMetrics implements MetricSet {
+
+    private final CachingQueryBus queryBus;
+
+    /**
+     * Initializes the metrics for the given {@code queryBus}.
+     *
+     * @param queryBus the query bus to expose the cache statistics for
+     */
+    public CachingQueryBusMetrics(CachingQueryBus queryBus) {
+        this.queryBus = queryBus;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metricSet = new HashMap<>();
+        metricSet.put("hitCount", (Gauge<Long>) queryBus::getHitCount);
+        metricSet.put("missCount", (Gauge<Long>) queryBus::getMissCount);
+        metricSet.put("invalidationCount", (Gauge<Long>) queryBus::getInvalidationCount);
+        metricSet.put("hitRatio", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                long hits = queryBus.getHitCount();
+                return Ratio.of(hits, hits + queryBus.getMissCount());
+            }
+        });
+        return metricSet;
+    }
+}
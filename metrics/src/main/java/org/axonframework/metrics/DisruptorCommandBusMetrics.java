@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.axonframework.disruptor.commandhandling.DisruptorCommandBus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exposes the number of active invokers of a {@link DisruptorCommandBus}, as well as the queue depth, first level
+ * cache hits and misses and the number of assigned aggregate segments of each of its invokers.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class DisruptorCommandBusMetrics implements MetricSet {
+
+    private final DisruptorCommandBus commandBus;
+
+    /**
+     * Initializes the metrics for the given {@code commandBus}.
+     *
+     * @param commandBus the command bus to expose the invoker statistics for
+     */
+    public DisruptorCommandBusMetrics(DisruptorCommandBus commandBus) {
+        this.commandBus = commandBus;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metricSet = new HashMap<>();
+        metricSet.put("activeInvokers", (Gauge<Integer>) commandBus::getActiveInvokerCount);
+        for (int i = 0; i < commandBus.getInvokerCount(); i++) {
+            int invoker = i;
+            String prefix = "invoker" + invoker + ".";
+            metricSet.put(prefix + "queueDepth", (Gauge<Long>) () -> commandBus.getInvokerQueueDepth(invoker));
+            metricSet.put(prefix + "cacheHitCount", (Gauge<Long>) () -> commandBus.getInvokerCacheHitCount(invoker));
+            metricSet.put(prefix + "cacheMissCount",
+                          (Gauge<Long>) () -> commandBus.getInvokerCacheMissCount(invoker));
+            metricSet.put(prefix + "segmentCount",
+                          (Gauge<Integer>) () -> commandBus.getInvokerSegmentCount(invoker));
+        }
+        return metricSet;
+    }
+}
@@ -18,14 +18,20 @@
 import com.codahale.metrics.MetricRegistry;
 import org.axonframework.commandhandling.CommandBus;
 import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.gateway.ExponentialBackOffRetryScheduler;
+import org.axonframework.commandhandling.gateway.RetryBudget;
+import org.axonframework.common.caching.SegmentedLruCache;
 import org.axonframework.config.Configurer;
+import org.axonframework.disruptor.commandhandling.DisruptorCommandBus;
 import org.axonframework.eventhandling.EventBus;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.eventsourcing.AbstractSnapshotter;
 import org.axonframework.messaging.Message;
 import org.axonframework.monitoring.MessageMonitor;
 import org.axonframework.monitoring.MultiMessageMonitor;
 import org.axonframework.monitoring.NoOpMessageMonitor;
+import org.axonframework.queryhandling.CachingQueryBus;
 import org.axonframework.queryhandling.QueryBus;
 import org.axonframework.queryhandling.QueryMessage;
 import org.slf4j.Logger;
@@ -178,6 +184,86 @@ public MessageMonitor<? super CommandMessage<?>> registerCommandBus(String name)
         return registerDefaultHandlerMessageMonitor(name);
     }
 
+    /**
+     * Registers the statistics of the given {@code cache} with the registry under the given {@code name}.
+     *
+     * @param name  the name under which the cache should be registered to the registry
+     * @param cache the cache to expose the hit, miss and eviction statistics of
+     * @return the {@link CacheMetrics} registered with the registry
+     */
+    public CacheMetrics registerCache(String name, SegmentedLruCache cache) {
+        CacheMetrics cacheMetrics = new CacheMetrics(cache);
+        registry.register(name, cacheMetrics);
+        return cacheMetrics;
+    }
+
+    /**
+     * Registers the query result cache statistics of the given {@code queryBus} with the registry under the given
+     * {@code name}.
+     *
+     * @param name     the name under which the query bus should be registered to the registry
+     * @param queryBus the query bus to expose the cache hit, miss and invalidation statistics of
+     * @return the {@link CachingQueryBusMetrics} registered with the registry
+     */
+    public CachingQueryBusMetrics registerCachingQueryBus(String name, CachingQueryBus queryBus) {
+        CachingQueryBusMetrics cachingQueryBusMetrics = new CachingQueryBusMetrics(queryBus);
+        registry.register(name, cachingQueryBusMetrics);
+        return cachingQueryBusMetrics;
+    }
+
+    /**
+     * Registers the statistics of the given {@code snapshotter} with the registry under the given {@code name}.
+     *
+     * @param name        the name under which the snapshotter should be registered to the registry
+     * @param snapshotter the snapshotter to expose the queue depth and snapshot duration statistics of
+     * @return the {@link SnapshotterMetrics} registered with the registry
+     */
+    public SnapshotterMetrics registerSnapshotter(String name, AbstractSnapshotter snapshotter) {
+        SnapshotterMetrics snapshotterMetrics = new SnapshotterMetrics(snapshotter);
+        registry.register(name, snapshotterMetrics);
+        return snapshotterMetrics;
+    }
+
+    /**
+     * Registers the statistics of the given {@code retryScheduler} with the registry under the given {@code name}.
+     *
+     * @param name           the name under which the retry scheduler should be registered to the registry
+     * @param retryScheduler the retry scheduler to expose the retry statistics of
+     * @return the {@link RetrySchedulerMetrics} registered with the registry
+     */
+    public RetrySchedulerMetrics registerRetryScheduler(String name, ExponentialBackOffRetryScheduler retryScheduler) {
+        RetrySchedulerMetrics retrySchedulerMetrics = new RetrySchedulerMetrics(retryScheduler);
+        registry.register(name, retrySchedulerMetrics);
+        return retrySchedulerMetrics;
+    }
+
+    /**
+     * Registers the statistics of the given {@code retryBudget} with the registry under the given {@code name}.
+     *
+     * @param name        the name under which the retry budget should be registered to the registry
+     * @param retryBudget the retry budget to expose the available tokens and exhaustion statistics of
+     * @return the {@link RetryBudgetMetrics} registered with the registry
+     */
+    public RetryBudgetMetrics registerRetryBudget(String name, RetryBudget retryBudget) {
+        RetryBudgetMetrics retryBudgetMetrics = new RetryBudgetMetrics(retryBudget);
+        registry.register(name, retryBudgetMetrics);
+        return retryBudgetMetrics;
+    }
+
+    /**
+     * Registers the invoker statistics of the given {@code commandBus} with the registry under the given {@code
+     * name}.
+     *
+     * @param name       the name under which the command bus should be registered to the registry
+     * @param commandBus the command bus to expose the invoker queue depth, cache and segment statistics of
+     * @return the {@link DisruptorCommandBusMetrics} registered with the registry
+     */
+    public DisruptorCommandBusMetrics registerDisruptorCommandBus(String name, DisruptorCommandBus commandBus) {
+        DisruptorCommandBusMetrics disruptorCommandBusMetrics = new DisruptorCommandBusMetrics(commandBus);
+        registry.register(name, disruptorCommandBusMetrics);
+        return disruptorCommandBusMetrics;
+    }
+
     private MessageMonitor<Message<?>> registerDefaultHandlerMessageMonitor(String name) {
         MessageTimerMonitor messageTimerMonitor = new MessageTimerMonitor();
         CapacityMonitor capacityMonitor = new CapacityMonitor(1, TimeUnit.MINUTES);
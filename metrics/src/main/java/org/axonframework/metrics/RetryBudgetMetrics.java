@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.axonframework.commandhandling.gateway.RetryBudget;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exposes the number of available tokens and the number of retries refused because of exhaustion of a {@link
+ * RetryBudget}.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class RetryBudgetMetrics implements MetricSet {
+
+    private final RetryBudget retryBudget;
+
+    /**
+     * Initializes the metrics for the given {@code retryBudget}.
+     *
+     * @param retryBudget the retry budget to expose the statistics for
+     */
+    public RetryBudgetMetrics(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metricSet = new HashMap<>();
+        metricSet.put("availableTokens", (Gauge<Integer>) retryBudget::getAvailableTokens);
+        metricSet.put("exhaustedCount", (Gauge<Long>) retryBudget::getExhaustedCount);
+        return metricSet;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.axonframework.commandhandling.gateway.ExponentialBackOffRetryScheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exposes the number of retries scheduled and the number of failed commands not retried by an {@link
+ * ExponentialBackOffRetryScheduler}.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class RetrySchedulerMetrics implements MetricSet {
+
+    private final ExponentialBackOffRetryScheduler retryScheduler;
+
+    /**
+     * Initializes the metrics for the given {@code retryScheduler}.
+     *
+     * @param retryScheduler the retry scheduler to expose the statistics for
+     */
+    public RetrySchedulerMetrics(ExponentialBackOffRetryScheduler retryScheduler) {
+        this.retryScheduler = retryScheduler;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metricSet = new HashMap<>();
+        metricSet.put("retryCount", (Gauge<Long>) retryScheduler::getRetryCount);
+        metricSet.put("abandonedCount", (Gauge<Long>) retryScheduler::getAbandonedCount);
+        return metricSet;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.RatioGauge;
+import org.axonframework.eventsourcing.AbstractSnapshotter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the queue depth, the number of active tasks, the number of snapshots created and the average time taken to
+ * create a snapshot of an {@link AbstractSnapshotter}.
+ *
+ * @author agent
+ * @since 4.1
+ */
+public class SnapshotterMetrics implements MetricSet {
+
+    private final AbstractSnapshotter snapshotter;
+
+    /**
+     * Initializes the metrics for the given {@code snapshotter}.
+     *
+     * @param snapshotter the snapshotter to expose the statistics for
+     */
+    public SnapshotterMetrics(AbstractSnapshotter snapshotter) {
+        this.snapshotter = snapshotter;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metricSet = new HashMap<>();
+        metricSet.put("queueDepth", (Gauge<Integer>) snapshotter::getQueueDepth);
+        metricSet.put("activeTasks", (Gauge<Integer>) snapshotter::getActiveTaskCount);
+        metricSet.put("snapshotCount", (Gauge<Long>) snapshotter::getSnapshotCount);
+        metricSet.put("averageSnapshotTimeMillis", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(snapshotter.getTotalSnapshotTime(TimeUnit.MICROSECONDS) / 1000d,
+                                snapshotter.getSnapshotCount());
+            }
+        });
+        return metricSet;
+    }
+}
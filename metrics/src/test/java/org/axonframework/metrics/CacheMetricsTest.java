@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import org.axonframework.common.caching.SegmentedLruCache;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CacheMetricsTest {
+
+    @Test
+    public void testCacheStatisticsExposed() {
+        SegmentedLruCache cache = SegmentedLruCache.builder().maximumSize(1).build();
+        CacheMetrics testSubject = new CacheMetrics(cache);
+
+        cache.put("a", "a");
+        cache.get("a");
+        cache.get("b");
+        cache.put("b", "b");
+
+        Map<String, Metric> metricSet = testSubject.getMetrics();
+
+        assertEquals(1L, ((Gauge) metricSet.get("hitCount")).getValue());
+        assertEquals(1L, ((Gauge) metricSet.get("missCount")).getValue());
+        assertEquals(1L, ((Gauge) metricSet.get("evictionCount")).getValue());
+        assertEquals(1L, ((Gauge) metricSet.get("size")).getValue());
+        assertEquals(0.5, (Double) ((Gauge) metricSet.get("hitRatio")).getValue(), 0.001);
+    }
+}
@@ -3,19 +3,29 @@
 import com.codahale.metrics.ConsoleReporter;
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.commandhandling.gateway.ExponentialBackOffRetryScheduler;
+import org.axonframework.commandhandling.gateway.RetryBudget;
+import org.axonframework.common.caching.SegmentedLruCache;
+import org.axonframework.disruptor.commandhandling.DisruptorCommandBus;
 import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.AggregateSnapshotter;
+import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.messaging.Message;
 import org.axonframework.monitoring.MessageMonitor;
 import org.axonframework.monitoring.NoOpMessageMonitor;
+import org.axonframework.queryhandling.CachingQueryBus;
+import org.axonframework.queryhandling.SimpleQueryBus;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
 
 public class GlobalMetricRegistryTest {
 
@@ -68,6 +78,93 @@ public void createCommandBusMonitor() {
         assertTrue(output.contains("commandBus"));
     }
 
+    @Test
+    public void createCacheMetrics() {
+        SegmentedLruCache cache = SegmentedLruCache.builder().build();
+        subject.registerCache("aggregateCache", cache);
+
+        cache.get("test");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConsoleReporter.forRegistry(subject.getRegistry()).outputTo(new PrintStream(out)).build().report();
+        String output = new String(out.toByteArray());
+
+        assertTrue(output.contains("aggregateCache.missCount"));
+    }
+
+    @Test
+    public void createCachingQueryBusMetrics() {
+        SimpleQueryBus delegate = SimpleQueryBus.builder().build();
+        CachingQueryBus queryBus = CachingQueryBus.builder()
+                                                  .delegate(delegate)
+                                                  .queryUpdateEmitter(delegate.queryUpdateEmitter())
+                                                  .cache(SegmentedLruCache.builder().build())
+                                                  .build();
+        subject.registerCachingQueryBus("queryCache", queryBus);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConsoleReporter.forRegistry(subject.getRegistry()).outputTo(new PrintStream(out)).build().report();
+        String output = new String(out.toByteArray());
+
+        assertTrue(output.contains("queryCache.hitCount"));
+        assertTrue(output.contains("queryCache.invalidationCount"));
+    }
+
+    @Test
+    public void createSnapshotterMetrics() {
+        AggregateSnapshotter snapshotter = AggregateSnapshotter.builder()
+                                                               .eventStore(mock(EventStore.class))
+                                                               .build();
+        subject.registerSnapshotter("snapshotter", snapshotter);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConsoleReporter.forRegistry(subject.getRegistry()).outputTo(new PrintStream(out)).build().report();
+        String output = new String(out.toByteArray());
+
+        assertTrue(output.contains("snapshotter.queueDepth"));
+        assertTrue(output.contains("snapshotter.averageSnapshotTimeMillis"));
+    }
+
+    @Test
+    public void createRetryMetrics() {
+        RetryBudget retryBudget = RetryBudget.builder().build();
+        subject.registerRetryBudget("retryBudget", retryBudget);
+        ExponentialBackOffRetryScheduler retryScheduler =
+                ExponentialBackOffRetryScheduler.builder()
+                                                .retryBudget(retryBudget)
+                                                .retryExecutor(mock(ScheduledExecutorService.class))
+                                                .build();
+        subject.registerRetryScheduler("retryScheduler", retryScheduler);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConsoleReporter.forRegistry(subject.getRegistry()).outputTo(new PrintStream(out)).build().report();
+        String output = new String(out.toByteArray());
+
+        assertTrue(output.contains("retryBudget.exhaustedCount"));
+        assertTrue(output.contains("retryScheduler.retryCount"));
+    }
+
+    @Test
+    public void createDisruptorCommandBusMetrics() {
+        DisruptorCommandBus commandBus = DisruptorCommandBus.builder()
+                                                            .invokerThreadCount(1)
+                                                            .maxInvokerThreadCount(2)
+                                                            .build();
+        try {
+            subject.registerDisruptorCommandBus("commandBus", commandBus);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ConsoleReporter.forRegistry(subject.getRegistry()).outputTo(new PrintStream(out)).build().report();
+            String output = new String(out.toByteArray());
+
+            assertTrue(output.contains("commandBus.activeInvokers"));
+            assertTrue(output.contains("commandBus.invoker1.queueDepth"));
+            assertTrue(output.contains("commandBus.invoker1.cacheHitCount"));
+        } finally {
+            commandBus.stop();
+        }
+    }
+
     @Test
     public void createMonitorForUnknownComponent() {
         MessageMonitor<? extends Message<?>> actual = subject.registerComponent(String.class, "test");
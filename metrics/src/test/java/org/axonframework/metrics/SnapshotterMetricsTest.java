@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2010-2018. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import org.axonframework.eventsourcing.AbstractSnapshotter;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SnapshotterMetricsTest {
+
+    @Test
+    public void testSnapshotterStatisticsExposed() {
+        AbstractSnapshotter snapshotter = mock(AbstractSnapshotter.class);
+        when(snapshotter.getQueueDepth()).thenReturn(5);
+        when(snapshotter.getActiveTaskCount()).thenReturn(2);
+        when(snapshotter.getSnapshotCount()).thenReturn(4L);
+        when(snapshotter.getTotalSnapshotTime(TimeUnit.MICROSECONDS)).thenReturn(10000L);
+        SnapshotterMetrics testSubject = new SnapshotterMetrics(snapshotter);
+
+        Map<String, Metric> metricSet = testSubject.getMetrics();
+
+        assertEquals(5, ((Gauge) metricSet.get("queueDepth")).getValue());
+        assertEquals(2, ((Gauge) metricSet.get("activeTasks")).getValue());
+        assertEquals(4L, ((Gauge) metricSet.get("snapshotCount")).getValue());
+        assertEquals(2.5, (Double) ((Gauge) metricSet.get("averageSnapshotTimeMillis")).getValue(), 0.001);
+    }
+}
@@ -27,6 +27,9 @@
 import org.axonframework.messaging.Message;
 import org.axonframework.messaging.ScopeAware;
 import org.axonframework.messaging.ScopeDescriptor;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,6 +55,7 @@
     private final SagaRepository<T> sagaRepository;
     private final Class<T> sagaType;
     private final Supplier<T> sagaFactory;
+    private final String prefetchResourceKey;
     private volatile ListenerInvocationErrorHandler listenerInvocationErrorHandler;
 
     /**
@@ -69,10 +73,12 @@ protected AbstractSagaManager(Builder<T> builder) {
         this.sagaType = builder.sagaType;
         this.sagaFactory = builder.sagaFactory;
         this.listenerInvocationErrorHandler = builder.listenerInvocationErrorHandler;
+        this.prefetchResourceKey = "SagaManager[" + sagaType.getSimpleName() + "]/Prefetched";
     }
 
     @Override
     public void handle(EventMessage<?> event, Segment segment) throws Exception {
+        prefetchSagas(segment);
         Set<AssociationValue> associationValues = extractAssociationValues(event);
         Set<Saga<T>> sagas =
                 associationValues.stream()
@@ -94,6 +100,29 @@ public void handle(EventMessage<?> event, Segment segment) throws Exception {
         }
     }
 
+    /**
+     * When events are handled in a batch, the associations and sagas for all events in the batch are prefetched by
+     * the repository once, instead of being looked up separately for each event.
+     */
+    private void prefetchSagas(Segment segment) {
+        CurrentUnitOfWork.ifStarted(unitOfWork -> {
+            UnitOfWork<?> root = unitOfWork.root();
+            if (!(root instanceof BatchingUnitOfWork)
+                    || ((BatchingUnitOfWork<?>) root).getMessages().size() <= 1
+                    || root.resources().putIfAbsent(prefetchResourceKey, Boolean.TRUE) != null) {
+                return;
+            }
+            Set<AssociationValue> associationValues =
+                    ((BatchingUnitOfWork<?>) root).getMessages().stream()
+                                                  .filter(EventMessage.class::isInstance)
+                                                  .flatMap(m -> extractAssociationValues((EventMessage<?>) m).stream())
+                                                  .collect(Collectors.toSet());
+            if (!associationValues.isEmpty()) {
+                sagaRepository.prefetch(associationValues, sagaId -> matchesSegment(segment, sagaId));
+            }
+        });
+    }
+
     private boolean shouldCreateSaga(Segment segment, boolean sagaInvoked,
                                      SagaInitializationPolicy initializationPolicy) {
         return ((initializationPolicy.getCreationPolicy() == SagaCreationPolicy.ALWAYS
@@ -17,6 +17,7 @@
 package org.axonframework.modelling.saga;
 
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -61,4 +62,18 @@
      */
     Saga<T> createInstance(String sagaIdentifier, Supplier<T> factoryMethod);
 
+    /**
+     * Prepares the repository to find and load the sagas associated with any of the given {@code associationValues}
+     * in the current Unit of Work. Implementations may use this to retrieve the associations and sagas in bulk, rather
+     * than with separate calls to the underlying storage for each {@link #find(AssociationValue)} and {@link
+     * #load(String)} invocation. Only sagas of which the identifier matches the given {@code sagaIdentifierFilter}
+     * need to be prepared.
+     * <p>
+     * By default, this method does nothing.
+     *
+     * @param associationValues    The values for which the associated sagas are about to be found and loaded
+     * @param sagaIdentifierFilter Predicate matching the identifiers of the sagas that are about to be loaded
+     */
+    default void prefetch(Set<AssociationValue> associationValues, Predicate<String> sagaIdentifierFilter) {
+    }
 }
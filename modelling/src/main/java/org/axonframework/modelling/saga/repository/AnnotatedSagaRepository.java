@@ -32,11 +32,13 @@
 import org.axonframework.messaging.unitofwork.UnitOfWork;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -62,6 +64,8 @@
 
     private final Map<String, AnnotatedSaga<T>> managedSagas;
     private final String unsavedSagasResourceKey;
+    private final String prefetchedAssociationsResourceKey;
+    private final String prefetchedSagasResourceKey;
 
     /**
      * Instantiate a {@link AnnotatedSagaRepository} based on the fields contained in the {@link Builder}.
@@ -82,6 +86,9 @@ protected AnnotatedSagaRepository(Builder<T> builder) {
         this.resourceInjector = builder.resourceInjector;
         this.managedSagas = new ConcurrentHashMap<>();
         this.unsavedSagasResourceKey = "Repository[" + sagaType.getSimpleName() + "]/UnsavedSagas";
+        this.prefetchedAssociationsResourceKey =
+                "Repository[" + sagaType.getSimpleName() + "]/PrefetchedAssociations";
+        this.prefetchedSagasResourceKey = "Repository[" + sagaType.getSimpleName() + "]/PrefetchedSagas";
     }
 
     /**
@@ -182,10 +189,43 @@ public Set<String> find(AssociationValue associationValue) {
         sagasFound.addAll(managedSagas.values().stream()
                                       .filter(saga -> saga.getAssociationValues().contains(associationValue))
                                       .map(Saga::getSagaIdentifier).collect(Collectors.toList()));
-        sagasFound.addAll(sagaStore.findSagas(sagaType, associationValue));
+        Map<AssociationValue, Set<String>> prefetched = prefetchedResource(prefetchedAssociationsResourceKey);
+        Set<String> associatedSagas = prefetched == null ? null : prefetched.get(associationValue);
+        sagasFound.addAll(associatedSagas != null
+                                  ? associatedSagas
+                                  : sagaStore.findSagas(sagaType, associationValue));
         return sagasFound;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation resolves the associations of all given {@code associationValues} with a single call to
+     * {@link SagaStore#findAssociatedSagas(Class, Set)}, and loads the matching sagas that are not already managed by
+     * this repository with a single call to {@link SagaStore#loadSagas(Class, Set)}. The results are kept in the root
+     * of the current Unit of Work, and are used by {@link #find(AssociationValue)} and {@link #load(String)} until the
+     * Unit of Work is cleaned up.
+     */
+    @Override
+    public void prefetch(Set<AssociationValue> associationValues, Predicate<String> sagaIdentifierFilter) {
+        UnitOfWork<?> processRoot = CurrentUnitOfWork.get().root();
+        Map<AssociationValue, Set<String>> associations = sagaStore.findAssociatedSagas(sagaType, associationValues);
+        Set<String> sagaIdentifiers = associations.values().stream()
+                                                  .flatMap(Set::stream)
+                                                  .filter(sagaIdentifierFilter)
+                                                  .filter(sagaIdentifier -> !managedSagas.containsKey(sagaIdentifier))
+                                                  .collect(Collectors.toSet());
+        Map<String, SagaStore.Entry<T>> sagas = sagaIdentifiers.isEmpty()
+                ? new HashMap<>()
+                : new HashMap<>(sagaStore.loadSagas(sagaType, sagaIdentifiers));
+        processRoot.resources().put(prefetchedAssociationsResourceKey, associations);
+        processRoot.resources().put(prefetchedSagasResourceKey, sagas);
+    }
+
+    private <R> R prefetchedResource(String resourceKey) {
+        return CurrentUnitOfWork.isStarted() ? CurrentUnitOfWork.get().root().getResource(resourceKey) : null;
+    }
+
     /**
      * Remove the given saga as well as all known association values pointing to it from the repository. If no such
      * saga exists, nothing happens.
@@ -219,14 +259,19 @@ protected void storeSaga(AnnotatedSaga<T> saga) {
 
     /**
      * Loads the saga with given {@code sagaIdentifier} from the underlying saga store and returns it as a {@link
-     * AnnotatedSaga}. Resources of the saga will be injected using the {@link ResourceInjector} configured with the
-     * repository.
+     * AnnotatedSaga}. If the saga has been prefetched in the current Unit of Work (see {@link #prefetch(Set,
+     * Predicate)}), the prefetched entry is used instead. Resources of the saga will be injected using the {@link
+     * ResourceInjector} configured with the repository.
      *
      * @param sagaIdentifier the identifier of the saga to load
      * @return AnnotatedSaga instance with the loaded saga
      */
     protected AnnotatedSaga<T> doLoadSaga(String sagaIdentifier) {
-        SagaStore.Entry<T> entry = sagaStore.loadSaga(sagaType, sagaIdentifier);
+        Map<String, SagaStore.Entry<T>> prefetched = prefetchedResource(prefetchedSagasResourceKey);
+        SagaStore.Entry<T> entry = prefetched == null ? null : prefetched.remove(sagaIdentifier);
+        if (entry == null) {
+            entry = sagaStore.loadSaga(sagaType, sagaIdentifier);
+        }
         if (entry != null) {
             T saga = entry.saga();
             resourceInjector.injectResources(saga);
@@ -23,7 +23,9 @@
 import org.axonframework.modelling.saga.SagaRepository;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static org.axonframework.common.BuilderUtils.assertNonNull;
@@ -99,6 +101,49 @@ public <S extends T> Entry<S> loadSaga(Class<S> sagaType, String sagaIdentifier)
         return saga;
     }
 
+    @Override
+    public Map<AssociationValue, Set<String>> findAssociatedSagas(Class<? extends T> sagaType,
+                                                                  Set<AssociationValue> associationValues) {
+        Map<AssociationValue, Set<String>> result = new HashMap<>();
+        Set<AssociationValue> uncached = new HashSet<>();
+        for (AssociationValue associationValue : associationValues) {
+            Set<String> associations = associationsCache.get(cacheKey(associationValue, sagaType));
+            if (associations == null) {
+                uncached.add(associationValue);
+            } else {
+                result.put(associationValue, new HashSet<>(associations));
+            }
+        }
+        if (!uncached.isEmpty()) {
+            delegate.findAssociatedSagas(sagaType, uncached).forEach((associationValue, associations) -> {
+                associationsCache.put(cacheKey(associationValue, sagaType), associations);
+                result.put(associationValue, new HashSet<>(associations));
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public <S extends T> Map<String, Entry<S>> loadSagas(Class<S> sagaType, Set<String> sagaIdentifiers) {
+        Map<String, Entry<S>> result = new HashMap<>();
+        Set<String> uncached = new HashSet<>();
+        for (String sagaIdentifier : sagaIdentifiers) {
+            Entry<S> saga = sagaCache.get(sagaIdentifier);
+            if (saga == null) {
+                uncached.add(sagaIdentifier);
+            } else {
+                result.put(sagaIdentifier, saga);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            delegate.loadSagas(sagaType, uncached).forEach((sagaIdentifier, saga) -> {
+                sagaCache.put(sagaIdentifier, new CacheEntry<T>(saga));
+                result.put(sagaIdentifier, saga);
+            });
+        }
+        return result;
+    }
+
     @Override
     public void insertSaga(Class<? extends T> sagaType, String sagaIdentifier, T saga,
                            Set<AssociationValue> associationValues) {
@@ -19,6 +19,8 @@
 import org.axonframework.modelling.saga.AssociationValue;
 import org.axonframework.modelling.saga.AssociationValues;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -52,6 +54,48 @@
      */
     <S extends T> Entry<S> loadSaga(Class<S> sagaType, String sagaIdentifier);
 
+    /**
+     * Returns the identifiers of saga instances of the given {@code sagaType} associated with each of the given
+     * {@code associationValues}. The returned map contains an entry for each of the given association values, which
+     * holds an empty set if no sagas are associated with that value.
+     * <p>
+     * Implementations are encouraged to resolve all association values with a single query. By default, this method
+     * invokes {@link #findSagas(Class, AssociationValue)} for each of the association values.
+     *
+     * @param sagaType          The type of the returned sagas
+     * @param associationValues The values to find the associated sagas for
+     * @return a map containing the identifiers of the associated sagas per association value
+     */
+    default Map<AssociationValue, Set<String>> findAssociatedSagas(Class<? extends T> sagaType,
+                                                                   Set<AssociationValue> associationValues) {
+        Map<AssociationValue, Set<String>> result = new HashMap<>();
+        associationValues.forEach(associationValue -> result.put(associationValue,
+                                                                 findSagas(sagaType, associationValue)));
+        return result;
+    }
+
+    /**
+     * Loads the saga {@link Entry} instances with given {@code sagaType} and {@code sagaIdentifiers}. Sagas that
+     * do not exist (anymore) are absent from the returned map.
+     * <p>
+     * Implementations are encouraged to load all sagas with a single query. By default, this method invokes {@link
+     * #loadSaga(Class, String)} for each of the identifiers.
+     *
+     * @param sagaType        The type of the returned saga entries
+     * @param sagaIdentifiers The unique identifiers of the returned saga entries
+     * @return a map containing the saga entries that exist, by saga identifier
+     */
+    default <S extends T> Map<String, Entry<S>> loadSagas(Class<S> sagaType, Set<String> sagaIdentifiers) {
+        Map<String, Entry<S>> result = new HashMap<>();
+        for (String sagaIdentifier : sagaIdentifiers) {
+            Entry<S> entry = loadSaga(sagaType, sagaIdentifier);
+            if (entry != null) {
+                result.put(sagaIdentifier, entry);
+            }
+        }
+        return result;
+    }
+
     /**
      * Deletes a Saga with given {@code sagaType} and {@code sagaIdentifier} and all its associations. For convenience
      * all known association values are passed along as well, which has the  advantage that the saga store is not
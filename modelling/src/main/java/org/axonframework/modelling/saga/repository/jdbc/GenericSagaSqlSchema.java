@@ -23,6 +23,8 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -64,6 +66,28 @@ public PreparedStatement sql_loadSaga(Connection connection, String sagaId) thro
         return preparedStatement;
     }
 
+    /**
+     * Creates a PreparedStatement that loads the Sagas with given {@code sagaIds}. The result set contains the same
+     * columns as the one created by {@link #sql_loadSaga(Connection, String)}, followed by the identifier of the
+     * Saga as an additional column.
+     *
+     * @param connection The connection to create the PreparedStatement for
+     * @param sagaIds    The identifiers of the Sagas to load
+     * @return a statement, that creates a result set to be processed by {@link #readSerializedSaga(java.sql.ResultSet)},
+     * with the saga identifier as additional last column, when executed
+     * @throws SQLException when an error occurs creating the PreparedStatement
+     */
+    public PreparedStatement sql_loadSagas(Connection connection, Collection<String> sagaIds) throws SQLException {
+        final String sql = "SELECT serializedSaga, sagaType, revision, sagaId FROM " + sagaSchema.sagaEntryTable()
+                + " WHERE sagaId IN (" + parameterList(sagaIds.size()) + ")";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        int index = 1;
+        for (String sagaId : sagaIds) {
+            preparedStatement.setString(index++, sagaId);
+        }
+        return preparedStatement;
+    }
+
     @Override
     public PreparedStatement sql_removeAssocValue(Connection connection, String key, String value, String sagaType,
             String sagaIdentifier) throws SQLException {
@@ -106,6 +130,34 @@ public PreparedStatement sql_findAssocSagaIdentifiers(Connection connection, Str
         return preparedStatement;
     }
 
+    /**
+     * Creates a PreparedStatement that finds identifiers of Sagas of given {@code sagaType} associated with the
+     * given association {@code key} and any of the given {@code values}.
+     *
+     * @param connection The connection to create the PreparedStatement for
+     * @param key        The key of the associations
+     * @param values     The values of the associations
+     * @param sagaType   The type of saga to find associations for
+     * @return a PreparedStatement that creates a ResultSet containing association values and saga identifiers when
+     * executed
+     * @throws SQLException when an error occurs creating the PreparedStatement
+     */
+    public PreparedStatement sql_findAssocSagaIdentifiers(Connection connection, String key, Collection<String> values,
+                                                          String sagaType) throws SQLException {
+        final String sql = "SELECT associationValue, sagaId FROM " + sagaSchema.associationValueEntryTable()
+                + " WHERE associationKey = ?"
+                + " AND sagaType = ?"
+                + " AND associationValue IN (" + parameterList(values.size()) + ")";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, key);
+        preparedStatement.setString(2, sagaType);
+        int index = 3;
+        for (String value : values) {
+            preparedStatement.setString(index++, value);
+        }
+        return preparedStatement;
+    }
+
     @Override
     public PreparedStatement sql_findAssociations(Connection connection, String sagaIdentifier, String sagaType) throws SQLException {
         final String sql = "SELECT associationKey, associationValue FROM " + sagaSchema.associationValueEntryTable()
@@ -117,6 +169,32 @@ public PreparedStatement sql_findAssociations(Connection connection, String saga
         return preparedStatement;
     }
 
+    /**
+     * Creates a PreparedStatement that finds the associations of the Sagas of given {@code sagaType} and given {@code
+     * sagaIdentifiers}.
+     *
+     * @param connection      The connection to create the PreparedStatement for
+     * @param sagaIdentifiers The identifiers of the Sagas
+     * @param sagaType        The type of saga to find associations for
+     * @return a PreparedStatement that creates a ResultSet containing association keys, their values and the
+     * identifier of the associated saga
+     * @throws SQLException when an error occurs while creating the PreparedStatement
+     */
+    public PreparedStatement sql_findAssociations(Connection connection, Collection<String> sagaIdentifiers,
+                                                  String sagaType) throws SQLException {
+        final String sql = "SELECT associationKey, associationValue, sagaId FROM "
+                + sagaSchema.associationValueEntryTable()
+                + " WHERE sagaType = ?"
+                + " AND sagaId IN (" + parameterList(sagaIdentifiers.size()) + ")";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, sagaType);
+        int index = 2;
+        for (String sagaIdentifier : sagaIdentifiers) {
+            preparedStatement.setString(index++, sagaIdentifier);
+        }
+        return preparedStatement;
+    }
+
     @Override
     public String readToken(ResultSet resultSet) {
         // tokens not supported by this implementation
@@ -205,6 +283,10 @@ public SerializedObject<byte[]> readSerializedSaga(ResultSet resultSet) throws S
                                             resultSet.getString(3));
     }
 
+    private static String parameterList(int size) {
+        return String.join(",", Collections.nCopies(size, "?"));
+    }
+
     /**
      * Returns the {@link SagaSchema} used to configure this sql saga schema.
      *
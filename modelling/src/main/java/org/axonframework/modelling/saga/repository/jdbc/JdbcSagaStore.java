@@ -37,10 +37,16 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.CollectionUtils.partition;
 import static org.axonframework.common.jdbc.JdbcUtils.closeQuietly;
 
 
@@ -54,6 +60,8 @@
 public class JdbcSagaStore implements SagaStore<Object> {
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcSagaStore.class);
+    // keeps IN clauses within the limits of databases like Oracle
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
 
     private final ConnectionProvider connectionProvider;
     private final SagaSqlSchema sqlSchema;
@@ -146,6 +154,110 @@ public Set<String> findSagas(Class<?> sagaType, AssociationValue associationValu
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Association values are resolved in bulk when the {@link SagaSqlSchema} is a {@link GenericSagaSqlSchema}. Other
+     * schemas resolve each association value individually.
+     */
+    @Override
+    public Map<AssociationValue, Set<String>> findAssociatedSagas(Class<?> sagaType,
+                                                                  Set<AssociationValue> associationValues) {
+        if (!(sqlSchema instanceof GenericSagaSqlSchema)) {
+            return SagaStore.super.findAssociatedSagas(sagaType, associationValues);
+        }
+        GenericSagaSqlSchema batchSchema = (GenericSagaSqlSchema) sqlSchema;
+        Map<AssociationValue, Set<String>> result = new HashMap<>();
+        associationValues.forEach(associationValue -> result.put(associationValue, new TreeSet<>()));
+        Map<String, List<String>> valuesByKey =
+                associationValues.stream()
+                                 .collect(Collectors.groupingBy(AssociationValue::getKey,
+                                                                Collectors.mapping(AssociationValue::getValue,
+                                                                                   Collectors.toList())));
+        String sagaTypeName = sagaTypeName(sagaType);
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            for (Map.Entry<String, List<String>> entry : valuesByKey.entrySet()) {
+                for (List<String> values : partition(entry.getValue(), MAX_IN_CLAUSE_SIZE)) {
+                    PreparedStatement statement = null;
+                    ResultSet resultSet = null;
+                    try {
+                        statement = batchSchema.sql_findAssocSagaIdentifiers(conn, entry.getKey(), values,
+                                                                             sagaTypeName);
+                        resultSet = statement.executeQuery();
+                        while (resultSet.next()) {
+                            result.get(new AssociationValue(entry.getKey(), resultSet.getString(1)))
+                                  .add(resultSet.getString(2));
+                        }
+                    } finally {
+                        closeQuietly(statement);
+                        closeQuietly(resultSet);
+                    }
+                }
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new SagaStorageException("Exception while reading saga associations", e);
+        } finally {
+            closeQuietly(conn);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sagas are loaded in bulk when the {@link SagaSqlSchema} is a {@link GenericSagaSqlSchema}. Other schemas load
+     * each saga individually.
+     */
+    @Override
+    public <S> Map<String, Entry<S>> loadSagas(Class<S> sagaType, Set<String> sagaIdentifiers) {
+        if (!(sqlSchema instanceof GenericSagaSqlSchema)) {
+            return SagaStore.super.loadSagas(sagaType, sagaIdentifiers);
+        }
+        GenericSagaSqlSchema batchSchema = (GenericSagaSqlSchema) sqlSchema;
+        Map<String, Entry<S>> result = new HashMap<>();
+        String sagaTypeName = sagaTypeName(sagaType);
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            for (List<String> identifiers : partition(sagaIdentifiers, MAX_IN_CLAUSE_SIZE)) {
+                Map<String, S> sagas = new HashMap<>();
+                PreparedStatement statement = null;
+                ResultSet resultSet = null;
+                try {
+                    statement = batchSchema.sql_loadSagas(conn, identifiers);
+                    resultSet = statement.executeQuery();
+                    while (resultSet.next()) {
+                        SerializedObject<?> serializedSaga = sqlSchema.readSerializedSaga(resultSet);
+                        if (serializedSaga != null) {
+                            sagas.put(resultSet.getString(4), serializer.deserialize(serializedSaga));
+                        }
+                    }
+                } finally {
+                    closeQuietly(statement);
+                    closeQuietly(resultSet);
+                }
+                if (!sagas.isEmpty()) {
+                    Map<String, Set<AssociationValue>> associations =
+                            loadAssociations(batchSchema, conn, sagaTypeName, sagas.keySet());
+                    sagas.forEach((sagaIdentifier, saga) -> result.put(
+                            sagaIdentifier,
+                            new EntryImpl<>(associations.getOrDefault(sagaIdentifier, new HashSet<>()), saga)
+                    ));
+                }
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Loaded {} sagas of type [{}]", result.size(), sagaTypeName);
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new SagaStorageException("Exception while loading Sagas", e);
+        } finally {
+            closeQuietly(conn);
+        }
+    }
+
     @Override
     public void deleteSaga(Class<?> sagaType, String sagaIdentifier, Set<AssociationValue> associationValues) {
         PreparedStatement statement1 = null;
@@ -266,6 +378,27 @@ private Set<AssociationValue> loadAssociations(final Connection conn, final Stri
     }
 
 
+    private Map<String, Set<AssociationValue>> loadAssociations(GenericSagaSqlSchema batchSchema, Connection conn,
+                                                                String sagaTypeName, Set<String> sagaIdentifiers)
+            throws SQLException {
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = batchSchema.sql_findAssociations(conn, sagaIdentifiers, sagaTypeName);
+            resultSet = statement.executeQuery();
+            Map<String, Set<AssociationValue>> associations = new HashMap<>();
+            while (resultSet.next()) {
+                associations.computeIfAbsent(resultSet.getString(3), id -> new HashSet<>())
+                            .add(new AssociationValue(resultSet.getString(1), resultSet.getString(2)));
+            }
+            return associations;
+        } finally {
+            closeQuietly(statement);
+            closeQuietly(resultSet);
+        }
+    }
+
+
     private String sagaTypeName(Class<?> sagaType) {
         return serializer.typeForClass(sagaType).getName();
     }
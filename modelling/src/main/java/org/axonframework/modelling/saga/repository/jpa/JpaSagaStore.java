@@ -20,6 +20,7 @@
 import org.axonframework.common.jpa.EntityManagerProvider;
 import org.axonframework.modelling.saga.AssociationValue;
 import org.axonframework.modelling.saga.AssociationValues;
+import org.axonframework.modelling.saga.SagaStorageException;
 import org.axonframework.modelling.saga.repository.SagaStore;
 import org.axonframework.serialization.Serializer;
 import org.axonframework.serialization.SimpleSerializedObject;
@@ -27,9 +28,12 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Constructor;
 import java.nio.charset.Charset;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
@@ -38,6 +42,7 @@
 import javax.persistence.EntityNotFoundException;
 
 import static org.axonframework.common.BuilderUtils.assertNonNull;
+import static org.axonframework.common.CollectionUtils.partition;
 
 /**
  * JPA implementation of the {@link SagaStore}. It uses an {@link javax.persistence.EntityManager} to persist the actual
@@ -62,6 +67,10 @@ public class JpaSagaStore implements SagaStore<Object> {
                     "WHERE se.sagaId = :sagaId";
 
 
+    private final String LOAD_SAGAS_QUERY =
+            "SELECT se.sagaId, se.serializedSaga, se.sagaType, se.revision FROM " + sagaEntryEntityName() + " se " +
+                    "WHERE se.sagaId IN :sagaIds";
+
     private final String DELETE_SAGA_QUERY = "DELETE FROM " + sagaEntryEntityName() + " se WHERE se.sagaId = :id";
 
     private final String UPDATE_SAGA_QUERY =
@@ -81,6 +90,17 @@ public class JpaSagaStore implements SagaStore<Object> {
     private static final String FIND_ASSOCIATIONS_QUERY =
             "SELECT ae FROM AssociationValueEntry ae WHERE ae.sagaType = :sagaType AND ae.sagaId = :sagaId";
 
+    private static final String FIND_ASSOCIATION_IDS_IN_QUERY =
+            "SELECT ae.associationValue, ae.sagaId FROM AssociationValueEntry ae " +
+                    "WHERE ae.associationKey = :associationKey AND ae.sagaType = :sagaType " +
+                    "AND ae.associationValue IN :associationValues";
+
+    private static final String FIND_ASSOCIATIONS_IN_QUERY =
+            "SELECT ae FROM AssociationValueEntry ae WHERE ae.sagaType = :sagaType AND ae.sagaId IN :sagaIds";
+
+    // keeps IN clauses within the limits of databases like Oracle
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
     private static final String DELETE_ASSOCIATIONS_QUERY =
             "DELETE FROM AssociationValueEntry ae WHERE ae.sagaId = :sagaId";
 
@@ -166,6 +186,68 @@ public <S> Entry<S> loadSaga(Class<S> sagaType, String sagaIdentifier) {
         return new EntryImpl<>(associationValues, loadedSaga);
     }
 
+    @Override
+    public <S> Map<String, Entry<S>> loadSagas(Class<S> sagaType, Set<String> sagaIdentifiers) {
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        Map<String, Entry<S>> result = new HashMap<>();
+        for (List<String> identifiers : partition(sagaIdentifiers, MAX_IN_CLAUSE_SIZE)) {
+            List<Object[]> rows = entityManager.createQuery(LOAD_SAGAS_QUERY, Object[].class)
+                                               .setParameter("sagaIds", identifiers)
+                                               .getResultList();
+            if (rows.isEmpty()) {
+                continue;
+            }
+            Map<String, Set<AssociationValue>> associations = loadAssociationValues(
+                    entityManager, sagaType, rows.stream().map(row -> (String) row[0]).collect(Collectors.toList())
+            );
+            for (Object[] row : rows) {
+                String sagaIdentifier = (String) row[0];
+                S loadedSaga = serializer.deserialize(serializedSaga(row[1], (String) row[2], (String) row[3]));
+                result.put(sagaIdentifier, new EntryImpl<>(
+                        associations.getOrDefault(sagaIdentifier, new HashSet<>()), loadedSaga
+                ));
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Loaded {} sagas of type [{}]", result.size(), getSagaTypeName(sagaType));
+        }
+        return result;
+    }
+
+
+    /**
+     * Creates an instance of the {@link #serializedObjectType()} for the given saga columns, using its (data, type,
+     * revision) constructor just like the constructor expression of the query loading a single saga.
+     */
+    private SimpleSerializedObject<?> serializedSaga(Object data, String type, String revision) {
+        for (Constructor<?> constructor : serializedObjectType().getConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            if (parameterTypes.length == 3 && parameterTypes[0].isInstance(data)
+                    && parameterTypes[1] == String.class && parameterTypes[2] == String.class) {
+                try {
+                    return (SimpleSerializedObject<?>) constructor.newInstance(data, type, revision);
+                } catch (ReflectiveOperationException e) {
+                    throw new SagaStorageException("Could not create the serialized form of a saga", e);
+                }
+            }
+        }
+        throw new SagaStorageException(String.format(
+                "The serialized object type [%s] doesn't declare a (data, type, revision) constructor accepting [%s]",
+                serializedObjectType().getName(), data.getClass().getName()));
+    }
+
+    private Map<String, Set<AssociationValue>> loadAssociationValues(EntityManager entityManager, Class<?> sagaType,
+                                                                     List<String> sagaIdentifiers) {
+        return entityManager.createQuery(FIND_ASSOCIATIONS_IN_QUERY, AssociationValueEntry.class)
+                            .setParameter("sagaType", getSagaTypeName(sagaType))
+                            .setParameter("sagaIds", sagaIdentifiers)
+                            .getResultList()
+                            .stream()
+                            .collect(Collectors.groupingBy(AssociationValueEntry::getSagaIdentifier,
+                                                           Collectors.mapping(AssociationValueEntry::getAssociationValue,
+                                                                              Collectors.toCollection(HashSet::new))));
+    }
+
     /**
      * Loads the {@link AssociationValue association values} of the saga with given {@code sagaIdentifier} and {@code
      * sagaType}.
@@ -236,6 +318,30 @@ public Set<String> findSagas(Class<?> sagaType, AssociationValue associationValu
         return new TreeSet<>(entries);
     }
 
+    @Override
+    public Map<AssociationValue, Set<String>> findAssociatedSagas(Class<?> sagaType,
+                                                                  Set<AssociationValue> associationValues) {
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        Map<AssociationValue, Set<String>> result = new HashMap<>();
+        associationValues.forEach(associationValue -> result.put(associationValue, new TreeSet<>()));
+        Map<String, List<String>> valuesByKey =
+                associationValues.stream()
+                                 .collect(Collectors.groupingBy(AssociationValue::getKey,
+                                                                Collectors.mapping(AssociationValue::getValue,
+                                                                                   Collectors.toList())));
+        valuesByKey.forEach((key, values) -> partition(values, MAX_IN_CLAUSE_SIZE).forEach(
+                partition -> entityManager.createQuery(FIND_ASSOCIATION_IDS_IN_QUERY, Object[].class)
+                                          .setParameter("associationKey", key)
+                                          .setParameter("sagaType", getSagaTypeName(sagaType))
+                                          .setParameter("associationValues", partition)
+                                          .getResultList()
+                                          .forEach(row -> result.get(new AssociationValue(key, (String) row[0]))
+                                                                .add((String) row[1]))
+        ));
+        return result;
+    }
+
+
     @Override
     public void deleteSaga(Class<?> sagaType, String sagaIdentifier, Set<AssociationValue> associationValues) {
         EntityManager entityManager = entityManagerProvider.getEntityManager();
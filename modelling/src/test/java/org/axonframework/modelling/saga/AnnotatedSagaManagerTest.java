@@ -21,6 +21,7 @@
 import org.axonframework.eventhandling.Segment;
 import org.axonframework.messaging.ResultMessage;
 import org.axonframework.messaging.annotation.MetaDataValue;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
 import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.modelling.saga.repository.AnnotatedSagaRepository;
 import org.axonframework.modelling.saga.repository.SagaStore;
@@ -28,7 +29,9 @@
 import org.axonframework.modelling.utils.StubDomainEvent;
 import org.junit.*;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -51,7 +54,7 @@ public class AnnotatedSagaManagerTest {
 
     @Before
     public void setUp() {
-        sagaStore = new InMemorySagaStore();
+        sagaStore = spy(new InMemorySagaStore());
         sagaRepository = spy(
                 AnnotatedSagaRepository.<MyTestSaga>builder()
                         .sagaType(MyTestSaga.class)
@@ -163,6 +166,35 @@ public void testLifeCycle_IgnoredEventDoesNotCreateInstance() throws Exception {
         assertEquals(0, repositoryContents("12").size());
     }
 
+    @Test
+    public void testSagasArePrefetchedOnceForBatchOfEvents() throws Exception {
+        handle(new GenericEventMessage<>(new StartingEvent("12")));
+        handle(new GenericEventMessage<>(new StartingEvent("23")));
+        reset(sagaStore);
+
+        BatchingUnitOfWork<EventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(Arrays.asList(
+                new GenericEventMessage<>(new MiddleEvent("12")),
+                new GenericEventMessage<>(new MiddleEvent("23")),
+                new GenericEventMessage<>(new MiddleEvent("12"))
+        ));
+        ResultMessage<?> resultMessage = unitOfWork.executeWithResult(() -> {
+            manager.handle(unitOfWork.getMessage(), Segment.ROOT_SEGMENT);
+            return null;
+        });
+        assertFalse(resultMessage.isExceptional());
+
+        HashSet<AssociationValue> expectedAssociations = new HashSet<>(Arrays.asList(
+                new AssociationValue("myIdentifier", "12"), new AssociationValue("myIdentifier", "23")
+        ));
+        verify(sagaRepository).prefetch(eq(expectedAssociations), any());
+        verify(sagaStore).findAssociatedSagas(MyTestSaga.class, expectedAssociations);
+        verify(sagaStore).loadSagas(eq(MyTestSaga.class), any());
+        // the default bulk implementation of the in-memory store finds each association value once
+        verify(sagaStore, times(2)).findSagas(any(), any());
+        assertEquals(3, repositoryContents("12").iterator().next().getCapturedEvents().size());
+        assertEquals(2, repositoryContents("23").iterator().next().getCapturedEvents().size());
+    }
+
     private void handle(EventMessage<?> event) throws Exception {
         ResultMessage<?> resultMessage = DefaultUnitOfWork.startAndGet(event).executeWithResult(() -> {
             manager.handle(event, Segment.ROOT_SEGMENT);
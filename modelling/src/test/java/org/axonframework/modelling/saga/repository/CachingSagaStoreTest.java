@@ -24,7 +24,10 @@
 import org.junit.*;
 import org.mockito.*;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static java.util.Collections.singleton;
@@ -94,6 +97,29 @@ public void testAssociationsAddedToCacheOnLoad() {
                                       Collections.singleton("id"));
     }
 
+    @Test
+    public void testOnlyUncachedEntriesDelegatedOnBulkFindAndLoad() {
+        AssociationValue cachedValue = new AssociationValue("key", "cached");
+        AssociationValue uncachedValue = new AssociationValue("key", "uncached");
+        testSubject.insertSaga(StubSaga.class, "id1", new StubSaga(), singleton(cachedValue));
+        testSubject.insertSaga(StubSaga.class, "id2", new StubSaga(), singleton(uncachedValue));
+        testSubject.findSagas(StubSaga.class, cachedValue);
+        sagaCache.remove("id2");
+        reset(mockSagaStore);
+
+        Map<AssociationValue, Set<String>> associations = testSubject.findAssociatedSagas(
+                StubSaga.class, new HashSet<>(Arrays.asList(cachedValue, uncachedValue))
+        );
+        assertEquals(singleton("id1"), associations.get(cachedValue));
+        assertEquals(singleton("id2"), associations.get(uncachedValue));
+        verify(mockSagaStore).findAssociatedSagas(StubSaga.class, singleton(uncachedValue));
+
+        Map<String, SagaStore.Entry<StubSaga>> sagas =
+                testSubject.loadSagas(StubSaga.class, new HashSet<>(Arrays.asList("id1", "id2")));
+        assertEquals(2, sagas.size());
+        verify(mockSagaStore).loadSagas(StubSaga.class, singleton("id2"));
+    }
+
     @Test
     public void testSagaAddedToCacheOnLoad() {
         StubSaga saga = new StubSaga();
@@ -26,10 +26,15 @@
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
+import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static org.junit.Assert.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
 import static org.mockito.Mockito.*;
 
 /**
@@ -97,4 +102,45 @@ public void testLoadSagaByAssociationValue() {
         Set<String> actual = testSubject.findSagas(StubSaga.class, new AssociationValue("key", "value"));
         assertEquals(singleton("123"), actual);
     }
+
+    @Test
+    public void testFindAssociatedSagasAndLoadSagasInBulk() throws SQLException {
+        AssociationValue value1 = new AssociationValue("key", "value1");
+        AssociationValue value2 = new AssociationValue("key", "value2");
+        AssociationValue unknown = new AssociationValue("other", "value1");
+        testSubject.insertSaga(StubSaga.class, "123", new StubSaga(), singleton(value1));
+        testSubject.insertSaga(StubSaga.class, "456", new StubSaga(), new HashSet<>(Arrays.asList(value1, value2)));
+        reset(dataSource);
+
+        Map<AssociationValue, Set<String>> associations = testSubject.findAssociatedSagas(
+                StubSaga.class, new HashSet<>(Arrays.asList(value1, value2, unknown))
+        );
+        assertEquals(new HashSet<>(Arrays.asList("123", "456")), associations.get(value1));
+        assertEquals(singleton("456"), associations.get(value2));
+        assertEquals(emptySet(), associations.get(unknown));
+
+        Map<String, SagaStore.Entry<StubSaga>> sagas =
+                testSubject.loadSagas(StubSaga.class, new HashSet<>(Arrays.asList("123", "456", "789")));
+        assertEquals(2, sagas.size());
+        assertNotNull(sagas.get("123").saga());
+        assertEquals(singleton(value1), sagas.get("123").associationValues());
+        assertEquals(new HashSet<>(Arrays.asList(value1, value2)), sagas.get("456").associationValues());
+
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    public void testFindAssociatedSagasAndLoadSagasWithCustomSchemaFallsBackToSingleStatements() {
+        SagaSqlSchema customSchema = mock(SagaSqlSchema.class, delegatesTo(new HsqlSagaSqlSchema()));
+        JdbcSagaStore customStore = JdbcSagaStore.builder().dataSource(dataSource).sqlSchema(customSchema).build();
+        AssociationValue value = new AssociationValue("key", "value");
+        customStore.insertSaga(StubSaga.class, "123", new StubSaga(), singleton(value));
+
+        assertEquals(singleton("123"),
+                     customStore.findAssociatedSagas(StubSaga.class, singleton(value)).get(value));
+        Map<String, SagaStore.Entry<StubSaga>> sagas =
+                customStore.loadSagas(StubSaga.class, new HashSet<>(Arrays.asList("123", "456")));
+        assertEquals(singleton("123"), sagas.keySet());
+        assertEquals(singleton(value), sagas.get("123").associationValues());
+    }
 }
@@ -25,6 +25,7 @@
 import org.axonframework.modelling.saga.AssociationValue;
 import org.axonframework.modelling.saga.Saga;
 import org.axonframework.modelling.saga.repository.AnnotatedSagaRepository;
+import org.axonframework.modelling.saga.repository.SagaStore;
 import org.axonframework.modelling.saga.repository.StubSaga;
 import org.axonframework.serialization.Serializer;
 import org.axonframework.serialization.SimpleSerializedObject;
@@ -41,10 +42,14 @@
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import static java.util.Collections.singleton;
 import static org.junit.Assert.*;
 
 /**
@@ -57,6 +62,7 @@
 public class JpaSagaStoreTest {
 
     private AnnotatedSagaRepository<StubSaga> repository;
+    private JpaSagaStore sagaStore;
 
     @Autowired
     private PlatformTransactionManager txManager;
@@ -67,7 +73,7 @@ public class JpaSagaStoreTest {
 
     @Before
     public void setUp() {
-        JpaSagaStore sagaStore = JpaSagaStore.builder()
+        sagaStore = JpaSagaStore.builder()
                                              .entityManagerProvider(new SimpleEntityManagerProvider(entityManager))
                                              .build();
         repository = AnnotatedSagaRepository.<StubSaga>builder().sagaType(StubSaga.class).sagaStore(sagaStore).build();
@@ -238,6 +244,7 @@ protected Class<? extends SimpleSerializedObject<?>> serializedObjectType() {
         assertFalse(entityManager.createQuery("SELECT e FROM CustomSagaEntry e").getResultList().isEmpty());
 
         entityManager.clear();
+        assertNotNull(sagaStore.loadSagas(StubSaga.class, singleton(identifier)).get(identifier).saga());
 
         startUnitOfWork();
         unitOfWork.execute(() -> {
@@ -246,4 +253,27 @@ protected Class<? extends SimpleSerializedObject<?>> serializedObjectType() {
             assertNotNull(entityManager.find(CustomSagaEntry.class, identifier));
         });
     }
+
+    @DirtiesContext
+    @Test
+    public void testFindAssociatedSagasAndLoadSagasInBulk() {
+        AssociationValue value1 = new AssociationValue("key", "value1");
+        AssociationValue value2 = new AssociationValue("key", "value2");
+        sagaStore.insertSaga(StubSaga.class, "123", new StubSaga(), singleton(value1));
+        sagaStore.insertSaga(StubSaga.class, "456", new StubSaga(), new HashSet<>(Arrays.asList(value1, value2)));
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<AssociationValue, Set<String>> associations =
+                sagaStore.findAssociatedSagas(StubSaga.class, new HashSet<>(Arrays.asList(value1, value2)));
+        assertEquals(new HashSet<>(Arrays.asList("123", "456")), associations.get(value1));
+        assertEquals(singleton("456"), associations.get(value2));
+
+        Map<String, SagaStore.Entry<StubSaga>> sagas =
+                sagaStore.loadSagas(StubSaga.class, new HashSet<>(Arrays.asList("123", "456", "789")));
+        assertEquals(2, sagas.size());
+        assertNotNull(sagas.get("123").saga());
+        assertEquals(singleton(value1), sagas.get("123").associationValues());
+        assertEquals(new HashSet<>(Arrays.asList(value1, value2)), sagas.get("456").associationValues());
+    }
 }
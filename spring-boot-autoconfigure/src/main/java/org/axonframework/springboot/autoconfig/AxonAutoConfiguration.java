@@ -42,6 +42,7 @@
 import org.axonframework.commandhandling.distributed.DistributedCommandBus;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.axonframework.commandhandling.gateway.DefaultCommandGateway;
+import org.axonframework.common.ThreadFactoryProvider;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.config.Configuration;
 import org.axonframework.config.EventProcessingConfigurer;
@@ -81,6 +82,7 @@
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -185,6 +187,13 @@ private Serializer buildSerializer(RevisionResolver revisionResolver,
         }
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(value = "axon.virtual-threads.enabled", havingValue = "true")
+    public ThreadFactoryProvider threadFactoryProvider() {
+        return ThreadFactoryProvider.virtualThreads();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public CorrelationDataProvider messageOriginProvider() {
@@ -238,7 +247,11 @@ public void configureEventHandling(EventProcessingConfigurer eventProcessingConf
                         .andBatchSize(v.getBatchSize())
                         .andInitialSegmentsCount(v.getInitialSegmentCount());
                 Function<Configuration, StreamableMessageSource<TrackedEventMessage<?>>> messageSource = resolveMessageSource(applicationContext, v);
-                eventProcessingConfigurer.registerTrackingEventProcessor(k, messageSource, c -> config);
+                eventProcessingConfigurer.registerTrackingEventProcessor(k, messageSource, c -> config.andThreadFactory(
+                        processorName -> c.getComponent(ThreadFactoryProvider.class,
+                                                        ThreadFactoryProvider::platformThreads)
+                                          .createThreadFactory("EventProcessor[" + processorName + "]")
+                ));
             } else {
                 if (v.getSource() == null) {
                     eventProcessingConfigurer.registerSubscribingEventProcessor(k);
@@ -21,6 +21,7 @@
 import org.axonframework.modelling.command.GenericJpaRepository;
 import org.axonframework.modelling.command.Repository;
 import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.common.ThreadFactoryProvider;
 import org.axonframework.common.annotation.AnnotationUtils;
 import org.axonframework.common.jpa.EntityManagerProvider;
 import org.axonframework.common.lock.LockFactory;
@@ -185,6 +186,8 @@ public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, B
 
         findComponent(DeadlineManager.class).ifPresent(deadlineManager -> configurer
                 .registerComponent(DeadlineManager.class, c -> getBean(deadlineManager, c)));
+        findComponent(ThreadFactoryProvider.class).ifPresent(threadFactoryProvider -> configurer
+                .configureThreadFactoryProvider(c -> getBean(threadFactoryProvider, c)));
 
         EventProcessingModule eventProcessingModule = new EventProcessingModule();
         Optional<String> eventProcessingConfigurerOptional = findComponent(EventProcessingConfigurer.class);